@@ -0,0 +1,48 @@
+package finite_groupings;
+
+import finite_groupings.domain.Universe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building cells, either from a set of values (which interns a universe for them)
+ * or from a universe that is already shared.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellConstructionBenchmark {
+
+	@Param({"9", "16", "64"})
+	int size;
+
+	private Universe<Integer> universe;
+	private Set<Integer> values;
+
+	@Setup
+	public void setUp() {
+		universe = Instances.universe(size);
+		values = Set.copyOf(universe.getValues());
+	}
+
+	@Benchmark
+	public Cell<Integer> fromSet() {
+		return new Instances.PlainCell<>(Universe.of(values), values);
+	}
+
+	@Benchmark
+	public Cell<Integer> fromUniverse() {
+		return new Instances.PlainCell<>(universe, universe.getValues());
+	}
+
+	@Benchmark
+	public Cell<Integer> fromUniverseSubset() {
+		return new Instances.PlainCell<>(universe, List.of(0, size / 2, size - 1));
+	}
+}
@@ -0,0 +1,73 @@
+package finite_groupings;
+
+import finite_groupings.domain.Universe;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nonnull;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures draining a {@link CellUpdater}: cells are repeatedly taken from the queue and updated
+ * until every cell has found its value and left the queue.
+ * Each cell rules out one possibility per update, and nudges the priority of a seeded random neighbour,
+ * so the queue is reordered throughout the drain.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellUpdaterBenchmark {
+
+	private static final int VALUES = 9;
+
+	@Param({"100", "1000", "10000"})
+	int cellCount;
+
+	private CellUpdater<Integer> updater;
+
+	/**
+	 * Draining empties the updater, so every invocation needs a fresh one.
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() {
+		final Random random = new Random(cellCount);
+		final Universe<Integer> universe = Instances.universe(VALUES);
+		final NarrowingCell[] cells = new NarrowingCell[cellCount];
+		updater = new CellUpdater<>();
+		for (int i = 0; i < cellCount; i++) {
+			cells[i] = new NarrowingCell(universe);
+			updater.add(cells[i]);
+			updater.getQueue().getPriority(cells[i]).setCount(random.nextInt(VALUES));
+		}
+		for (final NarrowingCell cell : cells) {
+			cell.neighbour = cells[random.nextInt(cellCount)];
+		}
+	}
+
+	@Benchmark
+	public CellUpdater<Integer> drain() {
+		while (!updater.getQueue().isEmpty()) {
+			updater.update();
+		}
+		return updater;
+	}
+
+	private final class NarrowingCell extends AbstractCell<Integer> {
+
+		private NarrowingCell neighbour;
+
+		private NarrowingCell(final @Nonnull Universe<Integer> universe) {
+			super(universe);
+		}
+
+		@Override
+		public void updatePossibilities() {
+			removePossibility(getPossibilities().iterator().next());
+			if (updater.getQueue().contains(neighbour))
+				updater.getQueue().getPriority(neighbour).incrementCount();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reports how many possibilities each group strategy rules out a millisecond, on groups with a
+ * {@link Instances#plantedHiddenSubset planted hidden subset} of two or three values.
+ * The sub group search can only find such a subset as the naked subset of every other cell, deep in its search,
+ * whereas the {@link HiddenSubsetFilter} finds it directly from the value side, so the filter's search steps
+ * are also reported, per group reduced. Each group is reduced once, from a cell outside of its subset.
+ * <p>
+ * Arguments, all optional: {@code groups rounds}. Defaults to 1000 groups of each size, at the best of 5 rounds.
+ */
+public final class HiddenSubsetThroughput {
+
+	private static final int[] SIZES = {9, 16, 25};
+	private static final int[] SUBSET_SIZES = {2, 3};
+
+	private HiddenSubsetThroughput() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	public static void main(final String[] args) {
+		final int groups = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		System.out.printf("%-5s %-7s %-20s %12s %14s %12s%n",
+				"size", "subset", "strategy", "deductions", "per ms", "steps/group");
+		for (final int size : SIZES) {
+			for (final int subsetSize : SUBSET_SIZES) {
+				run(size, subsetSize, groups, rounds, "sub group search", GroupStrategy::subGroupSearch, null);
+				run(size, subsetSize, groups, rounds, "all different", GroupStrategy::allDifferent, null);
+				final HiddenSubsetFilter<Integer> filter = new HiddenSubsetFilter<>(3);
+				run(size, subsetSize, groups, rounds, "hidden subsets (3)", () -> filter, filter);
+			}
+		}
+	}
+
+	/**
+	 * Reduces fresh groups with the strategy, and prints the possibilities ruled out by the best round.
+	 * @param filter The filter behind the strategy, whose search steps are printed, if it is one.
+	 */
+	private static void run(final int size, final int subsetSize, final int groups, final int rounds,
+							final @Nonnull String name, final @Nonnull Supplier<GroupStrategy<Integer>> strategies,
+							final @Nullable HiddenSubsetFilter<Integer> filter) {
+		long deductions = 0;
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < rounds; round++) {
+			final List<List<Instances.PlainCell<Integer>>> instances = new ArrayList<>(groups);
+			final List<GroupImpl<Integer>> built = new ArrayList<>(groups);
+			long before = 0;
+			for (int i = 0; i < groups; i++) {
+				final List<Instances.PlainCell<Integer>> cells = Instances.plantedHiddenSubset(size, subsetSize, i);
+				instances.add(cells);
+				built.add(Instances.group(cells, size, strategies.get()));
+				before += possibilityCount(cells);
+			}
+			final long start = System.nanoTime();
+			for (int i = 0; i < groups; i++) {
+				final List<Instances.PlainCell<Integer>> cells = instances.get(i);
+				built.get(i).updateCellGroupings(cells.get(size - 1));
+			}
+			best = Math.min(best, System.nanoTime() - start);
+			long after = 0;
+			for (final List<Instances.PlainCell<Integer>> cells : instances) {
+				after += possibilityCount(cells);
+			}
+			deductions = before - after;
+		}
+		System.out.printf("%-5d %-7d %-20s %12d %14.1f %12s%n", size, subsetSize, name, deductions,
+				deductions / (best / 1e6),
+				filter == null ? "-" : String.format("%.1f", filter.getSearchSteps() / (double) groups / rounds));
+	}
+
+	private static long possibilityCount(final @Nonnull List<Instances.PlainCell<Integer>> cells) {
+		long count = 0;
+		for (final Instances.PlainCell<Integer> cell : cells) {
+			count += cell.getPossibilityCount();
+		}
+		return count;
+	}
+}
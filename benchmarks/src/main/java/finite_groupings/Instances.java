@@ -0,0 +1,238 @@
+package finite_groupings;
+
+import com.google.common.collect.Sets;
+import finite_groupings.domain.Universe;
+import finite_groupings.search.Solver;
+import finite_groupings.search.ValueOrdering;
+import finite_groupings.search.VariableOrdering;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded problem instances for the propagation benchmarks.
+ * The same size and seed always produce the same network, so results are comparable between runs.
+ */
+public final class Instances {
+
+	private Instances() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	/**
+	 * A cell that does no reasoning of its own, leaving all of the work to its groups.
+	 */
+	public static class PlainCell<E> extends AbstractCell<E> {
+
+		public PlainCell(final @Nonnull Universe<E> universe, final @Nonnull Collection<E> possibilities) {
+			super(universe, possibilities);
+		}
+
+		@Override
+		public void updatePossibilities() {
+			informPossibilityListeners();
+		}
+	}
+
+	/**
+	 * A square network of cells, with a group for every row and every column.
+	 */
+	public static final class Grid {
+		public final PlainCell<Integer>[][] cells;
+		public final List<GroupImpl<Integer>> groups;
+
+		private Grid(final PlainCell<Integer>[][] cells, final List<GroupImpl<Integer>> groups) {
+			this.cells = cells;
+			this.groups = groups;
+		}
+
+		/**
+		 * @return Every cell of the grid, row by row.
+		 */
+		@Nonnull
+		public List<PlainCell<Integer>> allCells() {
+			return Arrays.stream(cells).flatMap(Arrays::stream).collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * @return The universe of the integers {@code [0, size)}.
+	 */
+	@Nonnull
+	public static Universe<Integer> universe(final int size) {
+		return Universe.of(IntStream.range(0, size).boxed().collect(Collectors.toList()));
+	}
+
+	/**
+	 * A latin square in which every cell can only be one of two values: its own value in the cyclic square
+	 * {@code (row + col) % size}, or its right-hand neighbour's. Every row and column is then a single cycle of pairs,
+	 * so assigning any one cell forces every other cell in turn through {@link GroupImpl#onCellValueSet}.
+	 */
+	@Nonnull
+	public static Grid pairedLatinSquare(final int size) {
+		return pairedLatinSquare(size, GroupStrategy::subGroupSearch);
+	}
+
+	/**
+	 * @param strategies Supplies the strategy of each row and column group.
+	 */
+	@Nonnull
+	public static Grid pairedLatinSquare(final int size, final @Nonnull Supplier<GroupStrategy<Integer>> strategies) {
+		final Universe<Integer> universe = universe(size);
+		@SuppressWarnings("unchecked")
+		final PlainCell<Integer>[][] cells = (PlainCell<Integer>[][]) new PlainCell<?>[size][size];
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				cells[row][col] = new PlainCell<>(universe, Set.of((row + col) % size, (row + col + 1) % size));
+			}
+		}
+		return new Grid(cells, rowsAndColumns(cells, universe, strategies));
+	}
+
+	/**
+	 * An empty latin square, in which every cell could be any value.
+	 * Too open for the recursive sub group search, so it should be used with the
+	 * {@link GroupStrategy#allDifferent() all different filter}.
+	 * @param strategies Supplies the strategy of each row and column group.
+	 */
+	@Nonnull
+	public static Grid latinSquare(final int size, final @Nonnull Supplier<GroupStrategy<Integer>> strategies) {
+		final Universe<Integer> universe = universe(size);
+		@SuppressWarnings("unchecked")
+		final PlainCell<Integer>[][] cells = (PlainCell<Integer>[][]) new PlainCell<?>[size][size];
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				cells[row][col] = new PlainCell<>(universe, universe.getValues());
+			}
+		}
+		return new Grid(cells, rowsAndColumns(cells, universe, strategies));
+	}
+
+	/**
+	 * A group whose first {@code subGroupSize} cells can only take the first {@code subGroupSize} values,
+	 * forming a hidden sub group, while every other cell has its own value plus up to two random extras
+	 * from outside of the sub group.
+	 */
+	@Nonnull
+	public static List<PlainCell<Integer>> plantedSubGroup(final int size, final int subGroupSize, final long seed) {
+		final Random random = new Random(seed);
+		final Universe<Integer> universe = universe(size);
+		final Set<Integer> subGroupValues = IntStream.range(0, subGroupSize).boxed().collect(Collectors.toSet());
+		final List<PlainCell<Integer>> cells = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			final Set<Integer> possibilities = new HashSet<>();
+			if (i < subGroupSize) {
+				possibilities.addAll(subGroupValues);
+			} else {
+				possibilities.add(i);
+				for (int extra = 0; extra < 2; extra++) {
+					possibilities.add(subGroupSize + random.nextInt(size - subGroupSize));
+				}
+			}
+			cells.add(new PlainCell<>(universe, possibilities));
+		}
+		return cells;
+	}
+
+	/**
+	 * A group whose first {@code subsetSize} values can only be taken by its first {@code subsetSize} cells,
+	 * forming a hidden subset, as those cells can also take two random values from outside of it.
+	 * Every other cell has its own value plus up to two random extras from outside of the subset.
+	 */
+	@Nonnull
+	public static List<PlainCell<Integer>> plantedHiddenSubset(final int size, final int subsetSize, final long seed) {
+		final Random random = new Random(seed);
+		final Universe<Integer> universe = universe(size);
+		final List<PlainCell<Integer>> cells = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			final Set<Integer> possibilities = new HashSet<>();
+			if (i < subsetSize)
+				possibilities.addAll(IntStream.range(0, subsetSize).boxed().collect(Collectors.toSet()));
+			else
+				possibilities.add(i);
+			for (int extra = 0; extra < 2; extra++) {
+				possibilities.add(subsetSize + random.nextInt(size - subsetSize));
+			}
+			cells.add(new PlainCell<>(universe, possibilities));
+		}
+		return cells;
+	}
+
+	/**
+	 * A group's worth of cells forming a single cycle of pairs: cell i can only be i or i + 1, wrapping around.
+	 * Every cell and value is in some perfect matching, and no proper subset of cells shares as few values as it has cells,
+	 * so neither group strategy can reduce the cells, and a reduction can be repeated without changing them.
+	 */
+	@Nonnull
+	public static List<PlainCell<Integer>> pairedCycle(final int size) {
+		final Universe<Integer> universe = universe(size);
+		final List<PlainCell<Integer>> cells = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			cells.add(new PlainCell<>(universe, Set.of(i, (i + 1) % size)));
+		}
+		return cells;
+	}
+
+	/**
+	 * An empty latin square, as a network with its cells listed row by row,
+	 * so that every network built by this method takes and restores the same snapshots.
+	 */
+	@Nonnull
+	public static Network<Integer> latinSquareNetwork(final int size) {
+		final Grid grid = latinSquare(size, GroupStrategy::allDifferent);
+		return new Network<>(grid.allCells(), grid.groups);
+	}
+
+	/**
+	 * A quasigroup with holes: a random latin square with a fraction of its cells erased.
+	 * The square is found by searching an empty square with a seeded random value ordering,
+	 * so every instance is solvable. Instances with around 42% of cells given are typically the hardest.
+	 * @return The given value of each cell, row by row, or -1 for a hole.
+	 */
+	@Nonnull
+	public static int[] quasigroupWithHoles(final int size, final double givenFraction, final long seed) {
+		final Random random = new Random(seed);
+		final Network<Integer> network = latinSquareNetwork(size);
+		final Map<Cell<Integer>, Integer> square = new Solver<>(network,
+				VariableOrdering.smallestDomain(),
+				ValueOrdering.shuffled(random)).solve().orElseThrow();
+		final int[] givens = new int[size * size];
+		for (int i = 0; i < givens.length; i++) {
+			givens[i] = random.nextDouble() < givenFraction ? square.get(network.getCells().get(i)) : -1;
+		}
+		return givens;
+	}
+
+	@Nonnull
+	public static GroupImpl<Integer> group(final @Nonnull List<? extends Cell<Integer>> cells, final int size) {
+		return group(cells, size, GroupStrategy.subGroupSearch());
+	}
+
+	@Nonnull
+	public static GroupImpl<Integer> group(final @Nonnull List<? extends Cell<Integer>> cells, final int size,
+										   final @Nonnull GroupStrategy<Integer> strategy) {
+		return new GroupImpl<>(Sets.newHashSet(cells), Set.copyOf(universe(size).getValues()), strategy);
+	}
+
+	private static List<GroupImpl<Integer>> rowsAndColumns(final @Nonnull PlainCell<Integer>[][] cells,
+														   final @Nonnull Universe<Integer> universe,
+														   final @Nonnull Supplier<GroupStrategy<Integer>> strategies) {
+		final Set<Integer> values = Set.copyOf(universe.getValues());
+		final List<GroupImpl<Integer>> groups = new ArrayList<>();
+		for (int i = 0; i < cells.length; i++) {
+			final Set<Cell<Integer>> row = new HashSet<>();
+			final Set<Cell<Integer>> col = new HashSet<>();
+			for (int j = 0; j < cells.length; j++) {
+				row.add(cells[i][j]);
+				col.add(cells[j][i]);
+			}
+			groups.add(new GroupImpl<>(row, values, strategies.get()));
+			groups.add(new GroupImpl<>(col, values, strategies.get()));
+		}
+		return groups;
+	}
+}
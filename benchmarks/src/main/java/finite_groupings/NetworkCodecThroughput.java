@@ -0,0 +1,77 @@
+package finite_groupings;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports how fast a partly propagated latin square is written and read back by a {@link NetworkCodec},
+ * in megabytes a second. Alongside are restoring just the cells' state into an existing network,
+ * building the empty network in code, and building it then propagating its givens from scratch.
+ * <p>
+ * Arguments, all optional: {@code size givenFraction runs}.
+ * Defaults to a 100 by 100 square with 40% of its cyclic square's values given, at the best of 200 runs.
+ */
+public final class NetworkCodecThroughput {
+
+	private NetworkCodecThroughput() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	private interface Run {
+		void run() throws IOException;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final int size = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		final double givenFraction = args.length > 1 ? Double.parseDouble(args[1]) : 0.4;
+		final int runs = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+		final NetworkCodec<Integer> codec = new NetworkCodec<>(NetworkCodec.integers(),
+				u -> new Instances.PlainCell<>(u, u.getValues()), GroupStrategy.allDifferent());
+
+		final Network<Integer> network = propagated(size, givenFraction);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(network, out);
+		final byte[] bytes = out.toByteArray();
+		System.out.printf("%dx%d square, %d cells, %d groups, %d bytes (%d of them the snapshot)%n", size, size,
+				network.getCells().size(), network.getGroups().size(), bytes.length,
+				network.snapshot().length * Long.BYTES);
+
+		time("write", bytes.length, runs, () -> codec.write(network, new ByteArrayOutputStream(bytes.length)));
+		time("read", bytes.length, runs, () -> codec.read(new ByteArrayInputStream(bytes)));
+		final long[] snapshot = network.snapshot();
+		time("restore", snapshot.length * Long.BYTES, runs, () -> network.restore(snapshot));
+		time("build", bytes.length, runs, () -> Instances.latinSquareNetwork(size));
+		// Propagating from scratch is far slower, so it's only run once.
+		time("propagate", bytes.length, 1, () -> propagated(size, givenFraction));
+	}
+
+	/**
+	 * @return A latin square with a seeded fraction of the cyclic square's values set.
+	 */
+	private static Network<Integer> propagated(final int size, final double givenFraction) {
+		final Network<Integer> network = Instances.latinSquareNetwork(size);
+		final Random random = new Random(0);
+		for (int i = 0; i < size * size; i++) {
+			final AbstractCell<Integer> cell = network.getCells().get(i);
+			final int value = (i / size + i % size) % size;
+			if (random.nextDouble() < givenFraction && !cell.hasValue())
+				cell.setValue(value);
+		}
+		return network;
+	}
+
+	private static void time(final String name, final int bytes, final int runs, final Run run) throws IOException {
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < runs; i++) {
+			final long start = System.nanoTime();
+			run.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		System.out.printf("%-10s best %8d us, %8.1f MB/s%n", name, TimeUnit.NANOSECONDS.toMicros(best),
+				bytes / (best / (double) TimeUnit.SECONDS.toNanos(1)) / (1 << 20));
+	}
+}
@@ -0,0 +1,128 @@
+package finite_groupings;
+
+import com.google.common.collect.Sets;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Counts the notifications that cells send while a network propagates, with listeners informed synchronously
+ * and with them deferred through a {@link Propagator}.
+ * Each scenario is run on a fresh network in both modes; the counts are deterministic, so a single run is enough.
+ * Also reports the deepest stack seen by a listener, as a measure of how far the cascade recursed.
+ */
+public final class NotificationCounts {
+
+	private NotificationCounts() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	/**
+	 * A network to propagate, and the changes that set it off.
+	 */
+	private static final class Scenario {
+		private final String name;
+		private final Supplier<List<Instances.PlainCell<Integer>>> network;
+		private final Consumer<List<Instances.PlainCell<Integer>>> changes;
+
+		private Scenario(final String name,
+						 final Supplier<List<Instances.PlainCell<Integer>>> network,
+						 final Consumer<List<Instances.PlainCell<Integer>>> changes) {
+			this.name = name;
+			this.network = network;
+			this.changes = changes;
+		}
+	}
+
+	private static final class Counter {
+		private final int baseDepth = Thread.currentThread().getStackTrace().length;
+		private long possibilityUpdates;
+		private long valueUpdates;
+		private int maxDepth;
+
+		private void record(final boolean value) {
+			if (value)
+				valueUpdates++;
+			else
+				possibilityUpdates++;
+			maxDepth = Math.max(maxDepth, Thread.currentThread().getStackTrace().length - baseDepth);
+		}
+	}
+
+	public static void main(final String[] args) {
+		final List<Scenario> scenarios = List.of(
+				new Scenario("smaller subset (GroupImplTest)", NotificationCounts::smallerSubset,
+						cells -> cells.get(0).removePossibility(3)),
+				new Scenario("paired latin square 9", () -> Instances.pairedLatinSquare(9).allCells(),
+						cells -> cells.get(0).setValue(0)),
+				new Scenario("paired latin square 25", () -> Instances.pairedLatinSquare(25).allCells(),
+						cells -> cells.get(0).setValue(0)),
+				new Scenario("paired latin square 25, all different",
+						() -> Instances.pairedLatinSquare(25, GroupStrategy::allDifferent).allCells(),
+						cells -> cells.get(0).setValue(0)),
+				new Scenario("latin square 25, all different, 2/3 given",
+						() -> Instances.latinSquare(25, GroupStrategy::allDifferent).allCells(),
+						cells -> cyclicGivens(cells, 2)),
+				new Scenario("latin square 9, sub groups, 1/3 given",
+						() -> Instances.latinSquare(9, GroupStrategy::subGroupSearch).allCells(),
+						cells -> cyclicGivens(cells, 1)),
+				new Scenario("latin square 9, + hidden singles, 1/3 given",
+						() -> Instances.latinSquare(9,
+								() -> GroupStrategy.<Integer>subGroupSearch().andThen(GroupStrategy.hiddenSingles()))
+								.allCells(),
+						cells -> cyclicGivens(cells, 1))
+		);
+		System.out.printf("%-45s %-9s %12s %12s %10s%n", "scenario", "mode", "possibility", "value", "max depth");
+		for (final Scenario scenario : scenarios) {
+			run(scenario, false);
+			run(scenario, true);
+		}
+	}
+
+	private static void run(final Scenario scenario, final boolean deferred) {
+		final List<Instances.PlainCell<Integer>> cells = scenario.network.get();
+		final Counter counter = new Counter();
+		for (final Instances.PlainCell<Integer> cell : cells) {
+			cell.addCellListener((c, v) -> counter.record(true), (c, p) -> counter.record(false));
+		}
+		if (deferred) {
+			final Propagator propagator = new Propagator();
+			propagator.attach(cells);
+			propagator.batch(() -> scenario.changes.accept(cells));
+		} else {
+			scenario.changes.accept(cells);
+		}
+		System.out.printf("%-45s %-9s %12d %12d %10d%n", scenario.name, deferred ? "deferred" : "immediate",
+				counter.possibilityUpdates, counter.valueUpdates, counter.maxDepth);
+	}
+
+	private static List<Instances.PlainCell<Integer>> smallerSubset() {
+		final Set<Integer> values = Set.of(1, 2, 3, 4);
+		final List<Instances.PlainCell<Integer>> cells = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			cells.add(new Instances.PlainCell<>(Instances.universe(5), Set.of(1, 2, 3)));
+		}
+		cells.add(new Instances.PlainCell<>(Instances.universe(5), values));
+		new GroupImpl<>(Sets.newHashSet(cells), values);
+		return cells;
+	}
+
+	/**
+	 * Gives the given number of thirds of the cells their value in the cyclic latin square {@code (row + col) % size}.
+	 */
+	private static void cyclicGivens(final @Nonnull List<Instances.PlainCell<Integer>> cells, final int thirds) {
+		final int size = (int) Math.sqrt(cells.size());
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				final Instances.PlainCell<Integer> cell = cells.get(row * size + col);
+				if ((row * 7 + col * 11) % 3 < thirds && !cell.hasValue())
+					cell.setValue((row + col) % size);
+			}
+		}
+	}
+}
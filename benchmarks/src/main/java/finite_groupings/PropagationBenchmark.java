@@ -0,0 +1,44 @@
+package finite_groupings;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full cascade of {@link Cell#removePossibility} calls through {@link GroupImpl#onCellValueSet}.
+ * Assigning one cell of a {@link Instances#pairedLatinSquare paired latin square} forces every other cell,
+ * so each invocation propagates across all {@code size * size} cells and {@code 2 * size} groups.
+ * With {@code deferred} set, the cascade runs through a {@link Propagator} instead of nested listener calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropagationBenchmark {
+
+	@Param({"9", "16", "25"})
+	int size;
+
+	@Param({"false", "true"})
+	boolean deferred;
+
+	private Instances.Grid grid;
+
+	/**
+	 * Assignment consumes the network, so every invocation needs a fresh one.
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() {
+		grid = Instances.pairedLatinSquare(size);
+		if (deferred)
+			new Propagator().attach(grid.allCells());
+	}
+
+	@Benchmark
+	public Instances.Grid assignmentCascade() {
+		grid.cells[0][0].setValue(0);
+		return grid;
+	}
+}
@@ -0,0 +1,37 @@
+package finite_groupings;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every propagation engine suite with the GC profiler attached,
+ * so each result records allocation rates ({@code gc.alloc.rate.norm}) alongside throughput.
+ * Any standard JMH command line options are passed through, e.g. {@code -f 3} or {@code -p size=9}.
+ * Results are written to {@code propagation-benchmarks.json}.
+ */
+public final class PropagationBenchmarks {
+
+	private PropagationBenchmarks() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.include(CellConstructionBenchmark.class.getSimpleName())
+				.include(PropagationBenchmark.class.getSimpleName())
+				.include(SubGroupSearchBenchmark.class.getSimpleName())
+				.include(CellUpdaterBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("propagation-benchmarks.json")
+				.build()
+		).run();
+	}
+}
@@ -0,0 +1,50 @@
+package finite_groupings;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single sub group search on groups of 4 to 64 cells,
+ * each with a {@link Instances#plantedSubGroup planted sub group} covering a quarter of the group.
+ * The search starts from a cell inside the sub group, finds it, and prunes its values from every other cell.
+ * Compares the recursive {@link GroupStrategy#subGroupSearch() sub group search}
+ * against the matching based {@link GroupStrategy#allDifferent() all different filter}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubGroupSearchBenchmark {
+
+	private static final long SEED = 42;
+
+	@Param({"4", "8", "16", "32", "64"})
+	int size;
+
+	@Param({"subGroupSearch", "allDifferent"})
+	String strategy;
+
+	private List<Instances.PlainCell<Integer>> cells;
+	private GroupImpl<Integer> group;
+
+	/**
+	 * A successful search prunes the group's cells, so every invocation needs a fresh group.
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() {
+		cells = Instances.plantedSubGroup(size, Math.max(2, size / 4), SEED);
+		group = Instances.group(cells, size, "allDifferent".equals(strategy)
+				? GroupStrategy.allDifferent()
+				: GroupStrategy.subGroupSearch());
+	}
+
+	@Benchmark
+	public GroupImpl<Integer> findSubGroups() {
+		group.updateCellGroupings(cells.get(0));
+		return group;
+	}
+}
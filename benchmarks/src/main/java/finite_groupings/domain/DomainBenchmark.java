@@ -0,0 +1,116 @@
+package finite_groupings.domain;
+
+import com.google.common.collect.Sets;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Compares bitset domains against the concurrent hash sets that cells used to hold their possibilities in.
+ * Each pair of benchmarks performs the same sequence of operations that a cell performs during propagation:
+ * removing values one at a time with a single-value check after each,
+ * and repeatedly intersecting with another set of possibilities before reading the size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainBenchmark {
+
+	@Param({"9", "16", "64"})
+	int size;
+
+	private List<Integer> values;
+	private Domain<Integer> fullDomain;
+	private int[] removalOrder;
+	private List<Set<Integer>> hashSetReducers;
+	private List<Domain<Integer>> domainReducers;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(size);
+		values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+		final Universe<Integer> universe = Universe.of(values);
+		fullDomain = Domain.full(universe);
+
+		final List<Integer> shuffled = new ArrayList<>(values);
+		Collections.shuffle(shuffled, random);
+		removalOrder = shuffled.stream().mapToInt(Integer::intValue).toArray();
+
+		// Each reducer rules out a single value, so the chain narrows the set down one value at a time.
+		hashSetReducers = new ArrayList<>();
+		domainReducers = new ArrayList<>();
+		for (int i = 0; i < size / 2; i++) {
+			final Set<Integer> reducer = Sets.newConcurrentHashSet(values);
+			reducer.remove(removalOrder[i]);
+			hashSetReducers.add(reducer);
+			domainReducers.add(Domain.of(universe, reducer));
+		}
+	}
+
+	@Benchmark
+	public void hashSetRemoveCascade(final Blackhole blackhole) {
+		final Set<Integer> possibilities = Sets.newConcurrentHashSet(values);
+		for (int i = 0; i < size - 1; i++) {
+			possibilities.remove(removalOrder[i]);
+			blackhole.consume(possibilities.size() == 1);
+		}
+	}
+
+	@Benchmark
+	public void domainRemoveCascade(final Blackhole blackhole) {
+		final Domain<Integer> possibilities = fullDomain.copy();
+		for (int i = 0; i < size - 1; i++) {
+			possibilities.removeIndex(removalOrder[i]);
+			blackhole.consume(possibilities.size() == 1);
+		}
+	}
+
+	/**
+	 * Mirrors the old {@code reducePossibilities}, which replaced the cell's set with a lazy intersection view,
+	 * so every later size check walks all of the nested views.
+	 */
+	@Benchmark
+	public void hashSetIntersectChain(final Blackhole blackhole) {
+		Set<Integer> possibilities = Sets.newConcurrentHashSet(values);
+		for (final Set<Integer> reducer : hashSetReducers) {
+			possibilities = Sets.intersection(possibilities, reducer);
+			blackhole.consume(possibilities.size() == 1);
+		}
+	}
+
+	@Benchmark
+	public void domainIntersectChain(final Blackhole blackhole) {
+		final Domain<Integer> possibilities = fullDomain.copy();
+		for (final Domain<Integer> reducer : domainReducers) {
+			possibilities.retainAll(reducer);
+			blackhole.consume(possibilities.size() == 1);
+		}
+	}
+
+	@Benchmark
+	public void hashSetContains(final Blackhole blackhole) {
+		final Set<Integer> possibilities = hashSetReducers.get(0);
+		for (final Integer value : values) {
+			blackhole.consume(possibilities.contains(value));
+		}
+	}
+
+	@Benchmark
+	public void domainContains(final Blackhole blackhole) {
+		final Domain<Integer> possibilities = domainReducers.get(0);
+		for (int i = 0; i < size; i++) {
+			blackhole.consume(possibilities.containsIndex(i));
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package finite_groupings.search;
+
+import finite_groupings.AbstractCell;
+import finite_groupings.ContradictionException;
+import finite_groupings.Instances;
+import finite_groupings.Network;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the speedup of the {@link ParallelSolver} from 1 to N worker threads,
+ * on a fixed corpus of seeded quasigroup with holes instances, each solved to its first solution.
+ * <p>
+ * Arguments, all optional: {@code size instances givenFraction maxThreads}.
+ * Defaults to 30 instances of order 20 with 42% of cells given, on up to the number of available processors.
+ */
+public final class ParallelSpeedup {
+
+	private static final int ROUNDS = 3;
+
+	private ParallelSpeedup() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	public static void main(final String[] args) {
+		final int size = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		final int count = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		final double givenFraction = args.length > 2 ? Double.parseDouble(args[2]) : 0.42;
+		final int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		final List<int[]> corpus = new ArrayList<>();
+		for (int seed = 0; seed < count; seed++) {
+			corpus.add(Instances.quasigroupWithHoles(size, givenFraction, seed));
+		}
+		System.out.printf("%d instances of order %d, %.0f%% given, %d available processors%n",
+				count, size, givenFraction * 100, Runtime.getRuntime().availableProcessors());
+		System.out.printf("%8s %12s %10s %12s %10s%n", "threads", "best ms", "speedup", "choices", "splits");
+
+		double baseline = 0;
+		for (final int threads : threadCounts(maxThreads)) {
+			try (final ParallelSolver<Integer> solver = new ParallelSolver<>(() -> Instances.latinSquareNetwork(size), threads)) {
+				// Every round counts towards the totals, but only the fastest is timed, to discount warm up.
+				long best = Long.MAX_VALUE;
+				for (int round = 0; round < ROUNDS; round++) {
+					final long start = System.nanoTime();
+					for (final int[] givens : corpus) {
+						solve(solver, givens);
+					}
+					best = Math.min(best, System.nanoTime() - start);
+				}
+				final double millis = best / (double) TimeUnit.MILLISECONDS.toNanos(1);
+				if (threads == 1)
+					baseline = millis;
+				System.out.printf("%8d %12.1f %10.2f %12d %10d%n", threads, millis, baseline / millis,
+						solver.getChoiceCount() / ROUNDS, solver.getSplitCount() / ROUNDS);
+			}
+		}
+	}
+
+	/**
+	 * @return 1, then powers of 2 up to, and always including, the maximum.
+	 */
+	private static List<Integer> threadCounts(final int maxThreads) {
+		final List<Integer> counts = new ArrayList<>();
+		for (int threads = 1; threads < maxThreads; threads *= 2) {
+			counts.add(threads);
+		}
+		counts.add(Math.max(1, maxThreads));
+		return counts;
+	}
+
+	private static void solve(final @Nonnull ParallelSolver<Integer> solver, final @Nonnull int[] givens) {
+		final Network<Integer> network = solver.getNetwork();
+		network.getTrail().push();
+		try {
+			for (int i = 0; i < givens.length; i++) {
+				final AbstractCell<Integer> cell = network.getCells().get(i);
+				if (givens[i] >= 0 && !cell.hasValue())
+					cell.setValue(givens[i]);
+			}
+			if (solver.solve().isEmpty())
+				throw new IllegalStateException("Instance has no solution.");
+		} catch (final ContradictionException e) {
+			throw new IllegalStateException("Instance contradicts itself.", e);
+		} finally {
+			network.getTrail().pop();
+		}
+	}
+}
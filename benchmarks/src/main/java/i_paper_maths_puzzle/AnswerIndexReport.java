@@ -0,0 +1,93 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reports how long an {@link AnswerIndex} takes to build and how big its file is,
+ * then the average time of a lookup from 1 to N threads reading the index at once,
+ * next to the {@link MathsPuzzleSolver} solving the same puzzles.
+ * <p>
+ * Arguments, all optional: {@code layouts lookups maxThreads}.
+ * Defaults to the layouts of 16 generated puzzles, 200000 lookups, on up to the number of available processors.
+ */
+public final class AnswerIndexReport {
+
+	private AnswerIndexReport() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	private interface Lookup {
+		void run(MathsPuzzle puzzle);
+	}
+
+	public static void main(final String[] args) throws IOException, InterruptedException, ExecutionException {
+		final int layouts = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		final int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+		final int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		final List<MathsPuzzle> puzzles = new MathsPuzzleGenerator().generate(0, layouts).collect(Collectors.toList());
+		final Path file = Files.createTempFile("answers", ".idx");
+		try {
+			final long start = System.nanoTime();
+			AnswerIndex.build(puzzles.stream().map(AnswerIndex::layoutOf).collect(Collectors.toList()), file);
+			final long nanos = System.nanoTime() - start;
+			System.out.printf("%d layouts: built in %d ms, %d bytes (%d bytes a layout)%n", layouts,
+					TimeUnit.NANOSECONDS.toMillis(nanos), Files.size(file), Files.size(file) / layouts);
+
+			final MathsPuzzleSolver solver = new MathsPuzzleSolver();
+			try (final AnswerIndex index = AnswerIndex.open(file)) {
+				System.out.printf("%8s %14s %14s%n", "threads", "index ns/op", "solver ns/op");
+				for (int threads = 1; threads <= maxThreads;
+					 threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+					System.out.printf("%8d %14.0f %14.0f%n", threads,
+							time(threads, lookups, puzzles, index::lookup),
+							time(threads, lookups, puzzles, p -> solver.solveAll(p, 2)));
+				}
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	/**
+	 * @return The average wall clock time of each thread's lookups, in nanoseconds.
+	 */
+	private static double time(final int threads, final int lookups, final List<MathsPuzzle> puzzles,
+							   final Lookup lookup) throws InterruptedException, ExecutionException {
+		final ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			// Warms up the JIT.
+			run(pool, threads, lookups / 10, puzzles, lookup);
+			final long start = System.nanoTime();
+			run(pool, threads, lookups, puzzles, lookup);
+			return (System.nanoTime() - start) / (double) lookups;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void run(final ExecutorService pool, final int threads, final int lookups,
+							final List<MathsPuzzle> puzzles, final Lookup lookup)
+			throws InterruptedException, ExecutionException {
+		final List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			final int offset = t;
+			futures.add(pool.submit(() -> {
+				for (int i = 0; i < lookups; i++) {
+					lookup.run(puzzles.get((i + offset) % puzzles.size()));
+				}
+			}));
+		}
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reports how fast a corpus of puzzles parses with {@link MathsPuzzleCorpus}, next to reading it line by line
+ * into {@link MathsPuzzle#MathsPuzzle(String[])}, in puzzles and megabytes a second.
+ * <p>
+ * Arguments, all optional: {@code puzzles runs}.
+ * Defaults to 1000000 puzzles, written as copies of 1000 generated ones, parsed 5 times each way.
+ */
+public final class CorpusParsing {
+
+	private static final int DISTINCT = 1000;
+
+	private CorpusParsing() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	private interface Parser {
+		long parse(Path file) throws IOException;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+		final StringWriter distinct = new StringWriter();
+		new MathsPuzzleGenerator().write(0, DISTINCT, distinct);
+		final Path file = Files.createTempFile("corpus", ".txt");
+		try {
+			try (final Writer out = Files.newBufferedWriter(file)) {
+				for (int i = 0; i < count; i += DISTINCT) {
+					out.write(distinct.toString());
+				}
+			}
+			System.out.printf("%d bytes, %d available processors%n", Files.size(file),
+					Runtime.getRuntime().availableProcessors());
+			time("lines", file, runs, CorpusParsing::parseLines);
+			time("mapped", file, runs, f -> {
+				try (final Stream<MathsPuzzle> puzzles = MathsPuzzleCorpus.read(f)) {
+					return puzzles.count();
+				}
+			});
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private static long parseLines(final Path file) throws IOException {
+		long count = 0;
+		try (final BufferedReader in = Files.newBufferedReader(file)) {
+			final String[] lines = new String[7];
+			int line = 0;
+			for (String next = in.readLine(); next != null; next = in.readLine()) {
+				if (next.isEmpty())
+					continue;
+				lines[line++] = next;
+				if (line == lines.length) {
+					new MathsPuzzle(lines);
+					count++;
+					line = 0;
+				}
+			}
+		}
+		return count;
+	}
+
+	private static void time(final String name, final Path file, final int runs, final Parser parser)
+			throws IOException {
+		long best = Long.MAX_VALUE;
+		long count = 0;
+		for (int run = 0; run < runs; run++) {
+			final long start = System.nanoTime();
+			count = parser.parse(file);
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		final double seconds = best / (double) TimeUnit.SECONDS.toNanos(1);
+		System.out.printf("%-7s %10d puzzles, best %6d ms, %12.0f puzzles/s, %8.1f MB/s%n", name, count,
+				TimeUnit.NANOSECONDS.toMillis(best), count / seconds, Files.size(file) / seconds / (1 << 20));
+	}
+}
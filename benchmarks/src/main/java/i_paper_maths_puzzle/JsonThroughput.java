@@ -0,0 +1,80 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static i_paper_maths_puzzle.pojos.Line.CELL_COUNT;
+
+/**
+ * Reports records a second through the {@link JsonBatchSolver}, from 1 to N threads,
+ * along with the heap in use afterwards, to show it doesn't grow with the file.
+ * <p>
+ * Arguments, all optional: {@code records maxThreads}.
+ * Defaults to 500000 records, written as copies of 1000 generated puzzles,
+ * on up to the number of available processors.
+ */
+public final class JsonThroughput {
+
+	private static final int DISTINCT = 1000;
+
+	private JsonThroughput() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+		final int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		final List<MathsPuzzle> puzzles = new MathsPuzzleGenerator().generate(0, DISTINCT).collect(Collectors.toList());
+		final Path input = Files.createTempFile("puzzles", ".ndjson");
+		final Path output = Files.createTempFile("solutions", ".ndjson");
+		try {
+			try (final Writer out = Files.newBufferedWriter(input)) {
+				for (int i = 0; i < count; i++) {
+					out.write(json(i, puzzles.get(i % DISTINCT)));
+					out.write('\n');
+				}
+			}
+			System.out.printf("%d records, %d bytes, %d available processors%n", count, Files.size(input),
+					Runtime.getRuntime().availableProcessors());
+			System.out.printf("%8s %10s %14s %10s%n", "threads", "ms", "records/s", "heap MB");
+			for (int threads = 1; threads <= maxThreads;
+				 threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+				try (final JsonBatchSolver solver = new JsonBatchSolver(threads)) {
+					// Warms up the JIT.
+					solver.solve(input, output);
+					final long start = System.nanoTime();
+					solver.solve(input, output);
+					final long nanos = System.nanoTime() - start;
+					final Runtime runtime = Runtime.getRuntime();
+					System.out.printf("%8d %10d %14.0f %10d%n", threads, TimeUnit.NANOSECONDS.toMillis(nanos),
+							count / (nanos / (double) TimeUnit.SECONDS.toNanos(1)),
+							(runtime.totalMemory() - runtime.freeMemory()) >> 20);
+				}
+			}
+		} finally {
+			Files.delete(input);
+			Files.delete(output);
+		}
+	}
+
+	private static String json(final long id, final MathsPuzzle puzzle) {
+		final String[] lines = puzzle.toLines();
+		final StringBuilder json = new StringBuilder("{\"id\":").append(id).append(",\"grid\":[");
+		for (int y = 0; y < 5; y++) {
+			json.append(y > 0 ? "," : "").append('"').append(lines[y], 0, 5).append('"');
+		}
+		json.append("],\"rows\":[");
+		for (int k = 0; k < CELL_COUNT; k++) {
+			json.append(k > 0 ? "," : "").append(puzzle.getRowAnswer(k));
+		}
+		return json.append("],\"cols\":[").append(lines[6]).append("]}").toString();
+	}
+}
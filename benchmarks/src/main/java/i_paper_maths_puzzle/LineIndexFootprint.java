@@ -0,0 +1,49 @@
+package i_paper_maths_puzzle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the {@link LineIndex}'s memory footprint, the size of its written form,
+ * and how long it takes to build from scratch compared to reading it back in.
+ * The first run of each is reported separately, as that's what startup pays.
+ */
+public final class LineIndexFootprint {
+
+	private static final int RUNS = 50;
+
+	private LineIndexFootprint() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	private interface Loader {
+		LineIndex load() throws IOException;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		LineIndex.build().write(out);
+		final byte[] written = out.toByteArray();
+		System.out.printf("footprint: %d bytes, written: %d bytes%n", LineIndex.build().getFootprint(), written.length);
+		time("build", LineIndex::build);
+		time("read", () -> LineIndex.read(new ByteArrayInputStream(written)));
+	}
+
+	private static void time(final String name, final Loader loader) throws IOException {
+		long first = 0;
+		long best = Long.MAX_VALUE;
+		for (int run = 0; run < RUNS; run++) {
+			final long start = System.nanoTime();
+			loader.load();
+			final long nanos = System.nanoTime() - start;
+			if (run == 0)
+				first = nanos;
+			best = Math.min(best, nanos);
+		}
+		System.out.printf("%-6s first: %8d us, best: %8d us%n", name,
+				TimeUnit.NANOSECONDS.toMicros(first), TimeUnit.NANOSECONDS.toMicros(best));
+	}
+}
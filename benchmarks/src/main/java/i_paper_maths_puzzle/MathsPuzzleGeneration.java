@@ -0,0 +1,60 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.Cell;
+import i_paper_maths_puzzle.pojos.Line;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports unique puzzles generated per minute by the {@link MathsPuzzleGenerator}, from 1 to N threads,
+ * along with the average number of numbers each puzzle gives away.
+ * <p>
+ * Arguments, all optional: {@code puzzles maxThreads}.
+ * Defaults to 20000 puzzles, on up to the number of available processors.
+ */
+public final class MathsPuzzleGeneration {
+
+	private MathsPuzzleGeneration() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	public static void main(final String[] args) throws ExecutionException, InterruptedException {
+		final int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		final int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		final MathsPuzzleGenerator generator = new MathsPuzzleGenerator();
+
+		System.out.printf("%d puzzles, %d available processors%n", count, Runtime.getRuntime().availableProcessors());
+		System.out.printf("%8s %10s %14s %8s%n", "threads", "ms", "puzzles/min", "givens");
+		for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+			final ForkJoinPool pool = new ForkJoinPool(threads);
+			try {
+				// Warms up the JIT.
+				pool.submit(() -> generator.generate(0, count / 10).count()).get();
+				final long start = System.nanoTime();
+				final long givens = pool.submit(() -> generator.generate(1, count)
+						.mapToLong(MathsPuzzleGeneration::givens)
+						.sum()).get();
+				final long nanos = System.nanoTime() - start;
+				System.out.printf("%8d %10d %14.0f %8.2f%n", threads, TimeUnit.NANOSECONDS.toMillis(nanos),
+						count / (nanos / (double) TimeUnit.MINUTES.toNanos(1)), givens / (double) count);
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	private static long givens(final MathsPuzzle puzzle) {
+		long givens = 0;
+		for (int y = 0; y < Line.LINE_LENGTH; y += 2) {
+			for (int x = 0; x < Line.LINE_LENGTH; x += 2) {
+				if (puzzle.getCell(x, y).getType() == Cell.CellType.NUMBER)
+					givens++;
+			}
+		}
+		return givens;
+	}
+}
@@ -0,0 +1,59 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures solving a maths puzzle with a couple of numbers given, and with none given,
+ * which is the worst case as every cell starts with every digit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathsPuzzleSolverBenchmark {
+
+	private static final String[] PARTLY_GIVEN = new String[] {
+			" - +5=0",
+			"* * *",
+			"7-3*4=16",
+			"* - *",
+			"8+9-2=15",
+			"= = =",
+			"56,9,40"
+	};
+
+	private static final String[] NONE_GIVEN = new String[] {
+			" - + =0",
+			"* * *",
+			" - * =16",
+			"* - *",
+			" + - =15",
+			"= = =",
+			"56,9,40"
+	};
+
+	private final MathsPuzzleSolver solver = new MathsPuzzleSolver();
+	private MathsPuzzle partlyGiven;
+	private MathsPuzzle noneGiven;
+
+	@Setup
+	public void setUp() {
+		partlyGiven = new MathsPuzzle(PARTLY_GIVEN);
+		noneGiven = new MathsPuzzle(NONE_GIVEN);
+	}
+
+	@Benchmark
+	public int partlyGiven() {
+		return solver.countSolutions(partlyGiven, 2);
+	}
+
+	@Benchmark
+	public int noneGiven() {
+		return solver.countSolutions(noneGiven, 2);
+	}
+}
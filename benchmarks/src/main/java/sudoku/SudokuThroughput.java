@@ -0,0 +1,116 @@
+package sudoku;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports puzzles solved per second by the {@link BatchSolver}, from 1 to N threads.
+ * <p>
+ * The puzzles are drawn from a corpus file, one per line, and multiplied into a larger batch
+ * by seeded symmetries that keep each puzzle's difficulty: relabelling the digits, transposing,
+ * and shuffling the bands, the stacks, and the rows and columns within them.
+ * <p>
+ * Arguments, all optional: {@code corpus puzzles maxThreads}.
+ * Defaults to 20000 puzzles from {@code src/test/resources/sudoku/hard.txt},
+ * on up to the number of available processors.
+ */
+public final class SudokuThroughput {
+
+	private static final long SEED = 42;
+
+	private SudokuThroughput() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final Path corpus = Path.of(args.length > 0 ? args[0] : "src/test/resources/sudoku/hard.txt");
+		final int count = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		final int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		final List<String> seeds = Files.readAllLines(corpus, StandardCharsets.US_ASCII);
+		final Random random = new Random(SEED);
+		final Path puzzles = Files.createTempFile("sudoku", ".txt");
+		final Path solutions = Files.createTempFile("sudoku", ".solved");
+		try {
+			try (final Writer writer = Files.newBufferedWriter(puzzles, StandardCharsets.US_ASCII)) {
+				for (int i = 0; i < count; i++) {
+					writer.write(transform(seeds.get(i % seeds.size()).strip(), random));
+					writer.write('\n');
+				}
+			}
+			System.out.printf("%d puzzles from %s, %d available processors%n",
+					count, corpus, Runtime.getRuntime().availableProcessors());
+			System.out.printf("%8s %12s %14s%n", "threads", "ms", "puzzles/s");
+			for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+				try (final BatchSolver solver = new BatchSolver(threads)) {
+					// Warms up the JIT and every worker's grid.
+					solver.solve(puzzles, solutions);
+					final long start = System.nanoTime();
+					solver.solve(puzzles, solutions);
+					final long nanos = System.nanoTime() - start;
+					System.out.printf("%8d %12d %14.0f%n", threads, TimeUnit.NANOSECONDS.toMillis(nanos),
+							count / (nanos / (double) TimeUnit.SECONDS.toNanos(1)));
+				}
+			}
+		} finally {
+			Files.deleteIfExists(puzzles);
+			Files.deleteIfExists(solutions);
+		}
+	}
+
+	/**
+	 * @return An equivalent puzzle, with the same number of solutions as the original.
+	 */
+	@Nonnull
+	private static String transform(final @Nonnull String puzzle, final @Nonnull Random random) {
+		final List<Integer> digits = shuffled(Sudoku.SIZE, random);
+		final int[] rows = lineOrder(random);
+		final int[] cols = lineOrder(random);
+		final boolean transpose = random.nextBoolean();
+		final StringBuilder builder = new StringBuilder(Sudoku.CELL_COUNT);
+		for (int row = 0; row < Sudoku.SIZE; row++) {
+			for (int col = 0; col < Sudoku.SIZE; col++) {
+				final int from = transpose ? cols[col] * Sudoku.SIZE + rows[row] : rows[row] * Sudoku.SIZE + cols[col];
+				final char c = puzzle.charAt(from);
+				builder.append(c >= '1' && c <= '9' ? (char) ('1' + digits.get(c - '1')) : '.');
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * @return A random order of the rows, or columns, that keeps each band, or stack, together.
+	 */
+	@Nonnull
+	private static int[] lineOrder(final @Nonnull Random random) {
+		final List<Integer> bands = shuffled(Sudoku.BOX_SIZE, random);
+		final int[] order = new int[Sudoku.SIZE];
+		for (int band = 0; band < Sudoku.BOX_SIZE; band++) {
+			final List<Integer> lines = shuffled(Sudoku.BOX_SIZE, random);
+			for (int line = 0; line < Sudoku.BOX_SIZE; line++) {
+				order[band * Sudoku.BOX_SIZE + line] = bands.get(band) * Sudoku.BOX_SIZE + lines.get(line);
+			}
+		}
+		return order;
+	}
+
+	@Nonnull
+	private static List<Integer> shuffled(final int size, final @Nonnull Random random) {
+		final List<Integer> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(i);
+		}
+		Collections.shuffle(values, random);
+		return values;
+	}
+}
@@ -0,0 +1,79 @@
+package utils.updatablepriorityqueue;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a queue backed by a {@link BucketQueue} against one backed by an {@link IndexedHeap},
+ * on the operations a cell updater makes: nudging counts up and down by one,
+ * polling the head and adding it back with a reset count, and removing and adding values.
+ * Counts start spread over 0 to 31, as a cell's possibility counts would be.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BucketQueueBenchmark {
+
+	/**
+	 * The number of pre-generated operations, cycled through by each benchmark.
+	 */
+	private static final int OPERATIONS = 1 << 16;
+
+	@Param({"100", "10000", "1000000"})
+	int size;
+
+	@Param({"heap", "bucket"})
+	String backend;
+
+	private UpdatablePriorityQueue<Integer> queue;
+	private int[] targets;
+	private boolean[] increments;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(size);
+		queue = new UpdatablePriorityQueue<>("bucket".equals(backend) ? new BucketQueue<>() : new IndexedHeap<>());
+		for (int i = 0; i < size; i++) {
+			queue.add(i);
+			queue.getPriority(i).setCount(random.nextInt(32));
+		}
+		targets = new int[OPERATIONS];
+		increments = new boolean[OPERATIONS];
+		for (int i = 0; i < OPERATIONS; i++) {
+			targets[i] = random.nextInt(size);
+			increments[i] = random.nextBoolean();
+		}
+	}
+
+	@Benchmark
+	public int incrementOrDecrement() {
+		final int i = next++ & (OPERATIONS - 1);
+		final Priority<Integer> priority = queue.getPriority(targets[i]);
+		if (increments[i])
+			priority.incrementCount();
+		else
+			priority.decrementCount();
+		return priority.getCount();
+	}
+
+	@Benchmark
+	public int pollAndAdd() {
+		final Priority<Integer> priority = queue.poll();
+		priority.resetCount();
+		queue.add(priority.getValue());
+		return priority.getCount();
+	}
+
+	@Benchmark
+	public boolean removeAndAdd() {
+		final int i = next++ & (OPERATIONS - 1);
+		queue.remove(targets[i]);
+		return queue.add(targets[i]);
+	}
+}
@@ -0,0 +1,106 @@
+package utils.updatablepriorityqueue;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares an {@link IntUpdatablePriorityQueue} against an {@link UpdatablePriorityQueue} of boxed ids,
+ * on the same operations as {@link BucketQueueBenchmark}.
+ * The object queue finds each id's priority through its map, as a {@link finite_groupings.CellUpdater} does for cells.
+ * See {@link QueueFootprint} for the memory each takes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntQueueBenchmark {
+
+	/**
+	 * The number of pre-generated operations, cycled through by each benchmark.
+	 */
+	private static final int OPERATIONS = 1 << 16;
+
+	@Param({"100", "10000", "1000000"})
+	int size;
+
+	@Param({"object", "int"})
+	String backend;
+
+	private UpdatablePriorityQueue<Integer> objectQueue;
+	private IntUpdatablePriorityQueue intQueue;
+	private Integer[] ids;
+	private int[] targets;
+	private boolean[] increments;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(size);
+		ids = new Integer[size];
+		objectQueue = new UpdatablePriorityQueue<>();
+		intQueue = new IntUpdatablePriorityQueue(size);
+		for (int i = 0; i < size; i++) {
+			ids[i] = i;
+			final int count = random.nextInt(32);
+			if ("int".equals(backend)) {
+				intQueue.add(i);
+				intQueue.setCount(i, count);
+			} else {
+				objectQueue.add(ids[i]);
+				objectQueue.getPriority(ids[i]).setCount(count);
+			}
+		}
+		targets = new int[OPERATIONS];
+		increments = new boolean[OPERATIONS];
+		for (int i = 0; i < OPERATIONS; i++) {
+			targets[i] = random.nextInt(size);
+			increments[i] = random.nextBoolean();
+		}
+	}
+
+	@Benchmark
+	public int incrementOrDecrement() {
+		final int i = next++ & (OPERATIONS - 1);
+		final int id = targets[i];
+		if ("int".equals(backend)) {
+			if (increments[i])
+				intQueue.incrementCount(id);
+			else
+				intQueue.decrementCount(id);
+			return intQueue.getCount(id);
+		}
+		final Priority<Integer> priority = objectQueue.getPriority(ids[id]);
+		if (increments[i])
+			priority.incrementCount();
+		else
+			priority.decrementCount();
+		return priority.getCount();
+	}
+
+	@Benchmark
+	public int pollAndAdd() {
+		if ("int".equals(backend)) {
+			final int id = intQueue.poll();
+			intQueue.add(id);
+			return id;
+		}
+		final Priority<Integer> priority = objectQueue.poll();
+		objectQueue.add(priority.getValue());
+		return priority.getCount();
+	}
+
+	@Benchmark
+	public boolean removeAndAdd() {
+		final int id = targets[next++ & (OPERATIONS - 1)];
+		if ("int".equals(backend)) {
+			intQueue.remove(id);
+			return intQueue.add(id);
+		}
+		objectQueue.remove(ids[id]);
+		return objectQueue.add(ids[id]);
+	}
+}
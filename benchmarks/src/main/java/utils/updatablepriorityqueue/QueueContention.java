@@ -0,0 +1,142 @@
+package utils.updatablepriorityqueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports operations a second on a queue shared by 1 to 32 threads, each of which mostly updates random priorities,
+ * as a cell's listeners would, and sometimes polls a value and adds it back, as a cell updater would.
+ * Compares the {@link ConcurrentUpdatablePriorityQueue} against an {@link UpdatablePriorityQueue}
+ * with every operation made under one lock, which is what sharing the unsynchronized queue safely would take.
+ * <p>
+ * Arguments, all optional: {@code values maxThreads millis}.
+ * Defaults to 100000 values, up to 32 threads, and 1000 milliseconds per measurement.
+ */
+public final class QueueContention {
+
+	/**
+	 * One in this many operations is a poll and add, the rest are updates.
+	 */
+	private static final int POLL_EVERY = 8;
+
+	private QueueContention() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	/**
+	 * The operations each thread makes.
+	 */
+	private interface Operations {
+		void update(int value, int count);
+
+		void pollAndAdd();
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final int values = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		final int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+		final long millis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+		System.out.printf("%d values, %d available processors%n", values, Runtime.getRuntime().availableProcessors());
+		System.out.printf("%8s %16s %16s%n", "threads", "locked ops/s", "multi ops/s");
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			final double locked = measure(locked(values), values, threads, millis);
+			final double multi = measure(multi(values, threads), values, threads, millis);
+			System.out.printf("%8d %16.0f %16.0f%n", threads, locked, multi);
+		}
+	}
+
+	private static Operations locked(final int values) {
+		final UpdatablePriorityQueue<Integer> queue = new UpdatablePriorityQueue<>();
+		for (int i = 0; i < values; i++) {
+			queue.add(i);
+		}
+		return new Operations() {
+			@Override
+			public void update(final int value, final int count) {
+				synchronized (queue) {
+					final Priority<Integer> priority = queue.getPriority(value);
+					if (priority != null)
+						priority.setCount(count);
+				}
+			}
+
+			@Override
+			public void pollAndAdd() {
+				synchronized (queue) {
+					final Priority<Integer> priority = queue.poll();
+					if (priority != null)
+						queue.add(priority.getValue());
+				}
+			}
+		};
+	}
+
+	private static Operations multi(final int values, final int threads) {
+		final ConcurrentUpdatablePriorityQueue<Integer> queue = new ConcurrentUpdatablePriorityQueue<>(2 * threads);
+		for (int i = 0; i < values; i++) {
+			queue.add(i);
+		}
+		return new Operations() {
+			@Override
+			public void update(final int value, final int count) {
+				final Priority<Integer> priority = queue.getPriority(value);
+				if (priority != null)
+					priority.setCount(count);
+			}
+
+			@Override
+			public void pollAndAdd() {
+				final Priority<Integer> priority = queue.poll();
+				if (priority != null)
+					queue.add(priority.getValue());
+			}
+		};
+	}
+
+	/**
+	 * @return Operations a second, after a warm up of a third of the time.
+	 */
+	private static double measure(final Operations operations, final int values, final int threads, final long millis)
+			throws Exception {
+		final AtomicBoolean measuring = new AtomicBoolean();
+		final AtomicBoolean stop = new AtomicBoolean();
+		final LongAdder total = new LongAdder();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					final ThreadLocalRandom random = ThreadLocalRandom.current();
+					long count = 0;
+					while (!stop.get()) {
+						for (int i = 0; i < 64; i++) {
+							if (random.nextInt(POLL_EVERY) == 0)
+								operations.pollAndAdd();
+							else
+								operations.update(random.nextInt(values), random.nextInt(64));
+						}
+						if (measuring.get())
+							count += 64;
+					}
+					total.add(count);
+				}));
+			}
+			Thread.sleep(millis / 3);
+			measuring.set(true);
+			final long start = System.nanoTime();
+			Thread.sleep(millis);
+			stop.set(true);
+			final long nanos = System.nanoTime() - start;
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+			return total.sum() / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
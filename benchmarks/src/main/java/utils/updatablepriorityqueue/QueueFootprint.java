@@ -0,0 +1,68 @@
+package utils.updatablepriorityqueue;
+
+import java.lang.ref.Reference;
+import java.util.function.IntFunction;
+
+/**
+ * Reports the heap used per queued element by an {@link UpdatablePriorityQueue}, backed by an {@link IndexedHeap}
+ * or a {@link BucketQueue}, and by an {@link IntUpdatablePriorityQueue}.
+ * The ids are boxed before the heap is first measured, as the values a queue holds (such as cells) exist anyway,
+ * so only the queue's own structures are counted.
+ * The element count can be given as the first argument.
+ */
+public final class QueueFootprint {
+
+	private static final int DEFAULT_SIZE = 1_000_000;
+
+	private QueueFootprint() {
+		// Util class.
+		throw utils.ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	public static void main(final String[] args) {
+		final int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+		final Integer[] ids = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = i;
+		}
+		measure("heap", size, n -> {
+			final UpdatablePriorityQueue<Integer> queue = new UpdatablePriorityQueue<>();
+			for (int i = 0; i < n; i++) {
+				queue.add(ids[i]);
+			}
+			return queue;
+		});
+		measure("bucket", size, n -> {
+			final UpdatablePriorityQueue<Integer> queue = new UpdatablePriorityQueue<>(new BucketQueue<>());
+			for (int i = 0; i < n; i++) {
+				queue.add(ids[i]);
+			}
+			return queue;
+		});
+		measure("int", size, n -> {
+			final IntUpdatablePriorityQueue queue = new IntUpdatablePriorityQueue(n);
+			for (int i = 0; i < n; i++) {
+				queue.add(i);
+			}
+			return queue;
+		});
+	}
+
+	private static void measure(final String name, final int size, final IntFunction<Object> builder) {
+		final long before = usedHeap();
+		final Object queue = builder.apply(size);
+		final long after = usedHeap();
+		System.out.printf("%-6s %10d elements: %12d bytes, %6.1f bytes/element%n", name, size, after - before,
+				(after - before) / (double) size);
+		// Keeps the queue from being collected before it's been measured.
+		Reference.reachabilityFence(queue);
+	}
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,99 @@
+package utils.updatablepriorityqueue;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single priority update as the queue grows.
+ * The indexed heap sifts the priority in place, while the linear queue reproduces the old
+ * remove-then-add on a {@link PriorityQueue}, whose remove scans the whole queue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdatablePriorityQueueBenchmark {
+
+	/**
+	 * The number of pre-generated updates, cycled through by each benchmark.
+	 */
+	private static final int UPDATES = 1 << 16;
+
+	@Param({"100", "1000", "10000", "100000", "1000000"})
+	int size;
+
+	private List<Priority<Integer>> indexedPriorities;
+	private List<Priority<Integer>> linearPriorities;
+	private int[] targets;
+	private int[] counts;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(size);
+		final UpdatablePriorityQueue<Integer> indexed = new UpdatablePriorityQueue<>();
+		final LinearUpdatablePriorityQueue<Integer> linear = new LinearUpdatablePriorityQueue<>();
+		for (int i = 0; i < size; i++) {
+			indexed.add(i);
+			linear.add(i);
+		}
+		indexedPriorities = indexed.getPriorities().values().stream().toList();
+		linearPriorities = linear.getPriorities().values().stream().toList();
+
+		targets = new int[UPDATES];
+		counts = new int[UPDATES];
+		for (int i = 0; i < UPDATES; i++) {
+			targets[i] = random.nextInt(size);
+			counts[i] = random.nextInt(32) - 16;
+		}
+		for (int i = 0; i < size; i++) {
+			final int count = random.nextInt(32) - 16;
+			indexedPriorities.get(i).setCount(count);
+			linearPriorities.get(i).setCount(count);
+		}
+	}
+
+	@Benchmark
+	public int indexedUpdate() {
+		final int i = next++ & (UPDATES - 1);
+		final Priority<Integer> priority = indexedPriorities.get(targets[i]);
+		priority.setCount(counts[i]);
+		return priority.getCount();
+	}
+
+	@Benchmark
+	public int linearUpdate() {
+		final int i = next++ & (UPDATES - 1);
+		final Priority<Integer> priority = linearPriorities.get(targets[i]);
+		priority.setCount(counts[i]);
+		return priority.getCount();
+	}
+
+	/**
+	 * Keeps its priorities in a {@link PriorityQueue} and updates them the way the queue used to.
+	 */
+	private static final class LinearUpdatablePriorityQueue<E> extends UpdatablePriorityQueue<E> {
+
+		private final PriorityQueue<Priority<E>> linearQueue = new PriorityQueue<>();
+
+		@Override
+		public boolean add(final @Nonnull E e) {
+			final boolean added = super.add(e);
+			linearQueue.add(getPriority(e));
+			return added;
+		}
+
+		@Override
+		protected void updatePriority(final @Nonnull Priority<E> priority) {
+			linearQueue.remove(priority);
+			linearQueue.add(priority);
+		}
+	}
+}
@@ -1,26 +1,92 @@
 package finite_groupings;
 
 import com.google.common.collect.*;
+import finite_groupings.domain.Domain;
+import finite_groupings.domain.Universe;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 
 /**
  * {@inheritDoc}
  */
 public abstract class AbstractCell<E> implements Cell<E> {
 
+	protected static final String UNKNOWN_VALUE_EXCEPTION_MSG = "Value is not part of the cell's universe.";
+	protected static final String NO_POSSIBILITIES_EXCEPTION_MSG = "Cell has no possibilities left.";
+	protected static final String RULED_OUT_VALUE_EXCEPTION_MSG = "Value has already been ruled out for the cell.";
+
 	private final ValueUpdater valueUpdater;
+	/**
+	 * A cell only has a listener or two for each group it's in, so they're held in an array that's copied on write,
+	 * which is cheap to add to and to walk.
+	 */
 	private final Set<Cell.CellPossibilityListener<E>> possibilityListeners;
-	private Set<E> possibilities;
+	private final Domain<E> possibilities;
+	/**
+	 * Listeners told which values have just been removed, walked on every change. Null until the first is added.
+	 */
+	private PossibilityDeltaListener<E>[] deltaListeners;
+	/**
+	 * For each universe index, the listeners watching for that value to be removed, packed at the front,
+	 * and how many there are. Null until the first value is watched.
+	 */
+	private ValueRemovalListener<E>[][] watchers;
+	private int[] watcherCounts;
+	/**
+	 * The possibilities as the delta listeners and watchers last saw them, and scratch space for the values removed since.
+	 * Null until the first delta listener is added or value is watched.
+	 */
+	private long[] deltaBase;
+	private long[] removed;
 	private E value;
+	/**
+	 * Defers this cell's notifications when set, otherwise listeners are informed as soon as the cell changes.
+	 */
+	private Propagator propagator;
+	/**
+	 * True while the cell is waiting on its propagator's work-list.
+	 */
+	boolean scheduled;
+	/**
+	 * Saves the cell's state before it changes, so that a search can backtrack. Null outside of a search.
+	 */
+	private Trail trail;
+	private TrailedState trailedState;
+	/**
+	 * The trail's stamp when the cell's state was last saved.
+	 */
+	private long trailStamp;
 
+	/**
+	 * @param possibilities The values this cell could be. Also used as the cell's universe.
+	 */
 	public AbstractCell(final Set<E> possibilities) {
+		this(Universe.of(possibilities), possibilities);
+	}
+
+	/**
+	 * @param universe Every value this cell could be.
+	 */
+	public AbstractCell(final @Nonnull Universe<E> universe) {
+		this(universe, universe.getValues());
+	}
+
+	/**
+	 * @param universe The values that this cell's possibilities are drawn from.
+	 *                 Cells sharing a universe instance can have their possibilities combined word-wise by their groups.
+	 * @param possibilities The values this cell could be. Must be a subset of the universe.
+	 */
+	public AbstractCell(final @Nonnull Universe<E> universe, final @Nonnull Collection<E> possibilities) {
 		this.value = null;
 		this.valueUpdater = new ValueUpdater();
-		this.possibilityListeners = Sets.newConcurrentHashSet();
-		this.possibilities = Sets.newConcurrentHashSet(possibilities);
+		this.possibilityListeners = new CopyOnWriteArraySet<>();
+		this.possibilities = Domain.of(universe, possibilities);
 	}
 
 	/**
@@ -49,14 +115,129 @@ public abstract class AbstractCell<E> implements Cell<E> {
 		valueUpdater.addCellValueListener(listener, value);
 	}
 
+	/**
+	 * Removes a pair of listeners added with {@link #addCellListener(CellValueListener, CellPossibilityListener)},
+	 * for groups that stop holding, such as a sub group once the search that found it backtracks.
+	 */
+	void removeCellListener(final @Nonnull CellValueListener<E> valueListener,
+							final @Nonnull CellPossibilityListener<E> possibilityListener) {
+		valueUpdater.removeCellValueListener(valueListener);
+		possibilityListeners.remove(possibilityListener);
+	}
+
+	/**
+	 * Adds a listener that's told which values the cell has just lost, rather than which it has left,
+	 * so it can keep its own state in step with the cell's without rescanning it.
+	 * Unlike a {@link CellPossibilityListener}, it's also told when a value is set,
+	 * and is always told straight away, even when the cell's other notifications are deferred by a {@link Propagator}.
+	 * Values restored by backtracking or {@link Network#restore(long[])} aren't reported.
+	 */
+	@SuppressWarnings("unchecked")
+	public void addPossibilityDeltaListener(final @Nonnull PossibilityDeltaListener<E> listener) {
+		if (deltaListeners == null) {
+			deltaListeners = (PossibilityDeltaListener<E>[]) new PossibilityDeltaListener<?>[]{listener};
+			trackRemovals();
+		} else if (!Arrays.asList(deltaListeners).contains(listener)) {
+			deltaListeners = Arrays.copyOf(deltaListeners, deltaListeners.length + 1);
+			deltaListeners[deltaListeners.length - 1] = listener;
+		}
+	}
+
+	/**
+	 * Removes a listener added with {@link #addPossibilityDeltaListener}, if it's there.
+	 */
+	@SuppressWarnings("unchecked")
+	void removePossibilityDeltaListener(final @Nonnull PossibilityDeltaListener<E> listener) {
+		if (deltaListeners == null)
+			return;
+		final int index = Arrays.asList(deltaListeners).indexOf(listener);
+		if (index < 0)
+			return;
+		final PossibilityDeltaListener<E>[] listeners =
+				(PossibilityDeltaListener<E>[]) new PossibilityDeltaListener<?>[deltaListeners.length - 1];
+		System.arraycopy(deltaListeners, 0, listeners, 0, index);
+		System.arraycopy(deltaListeners, index + 1, listeners, index, listeners.length - index);
+		deltaListeners = listeners;
+	}
+
+	/**
+	 * Watches a single value, so the listener is only woken when that value leaves the cell,
+	 * rather than on every change as a {@link CellPossibilityListener} is.
+	 * Like a watched literal in a SAT solver, the listener returns false once it has moved its watch elsewhere,
+	 * and is then dropped; otherwise it keeps watching.
+	 * <p>
+	 * Watches aren't undone by backtracking, and a watched value that's been restored can be removed again,
+	 * so a watch left on a cell that no longer has its value wakes again after backtracking has given it back.
+	 * Like delta listeners, watchers are told straight away, after the delta listeners,
+	 * even when the cell's other notifications are deferred by a {@link Propagator}.
+	 * @param index A dense index into {@link #getUniverse()}.
+	 * @throws IllegalArgumentException If the index isn't part of the cell's universe.
+	 */
+	@SuppressWarnings("unchecked")
+	public void watchValueAt(final int index, final @Nonnull ValueRemovalListener<E> listener) {
+		if (index < 0 || index >= getUniverse().size())
+			throw new IllegalArgumentException(UNKNOWN_VALUE_EXCEPTION_MSG);
+		if (watchers == null) {
+			watchers = (ValueRemovalListener<E>[][]) new ValueRemovalListener<?>[getUniverse().size()][];
+			watcherCounts = new int[getUniverse().size()];
+			trackRemovals();
+		}
+		ValueRemovalListener<E>[] listeners = watchers[index];
+		if (listeners == null)
+			listeners = watchers[index] = (ValueRemovalListener<E>[]) new ValueRemovalListener<?>[2];
+		else if (watcherCounts[index] == listeners.length)
+			listeners = watchers[index] = Arrays.copyOf(listeners, 2 * listeners.length);
+		listeners[watcherCounts[index]++] = listener;
+	}
+
+	/**
+	 * @return The number of listeners watching the value with the given universe index.
+	 */
+	public int watcherCount(final int index) {
+		return watcherCounts == null ? 0 : watcherCounts[index];
+	}
+
+	/**
+	 * Starts keeping the possibilities as last reported, so that removals can be worked out, if they aren't already kept.
+	 */
+	private void trackRemovals() {
+		if (deltaBase != null)
+			return;
+		deltaBase = new long[possibilities.wordCount()];
+		removed = new long[possibilities.wordCount()];
+		copyPossibilities(deltaBase);
+	}
+
 	/**
 	 * {@inheritDoc}
+	 * @throws ContradictionException If the value has already been ruled out.
 	 */
 	@Override
 	public void setValue(final @Nonnull E value) {
+		final int index = getUniverse().indexOf(value);
+		if (index < 0)
+			throw new IllegalArgumentException(UNKNOWN_VALUE_EXCEPTION_MSG);
+		if (!possibilities.containsIndex(index))
+			throw new ContradictionException(RULED_OUT_VALUE_EXCEPTION_MSG);
+		final ValueAssignmentEvent event = new ValueAssignmentEvent();
+		if (event.isEnabled())
+			event.possibilitiesBefore = possibilities.size();
+		event.begin();
+		saveState();
 		this.value = value;
-		possibilities = Set.of(value);
-		valueUpdater.onCellValueUpdate(value);
+		possibilities.clear();
+		possibilities.addIndex(index);
+		informRemovals();
+		SolverStats.global().onValueAssignment();
+		if (propagator == null)
+			valueUpdater.onCellValueUpdate(value);
+		else
+			propagator.batch(() -> valueUpdater.onCellValueUpdate(value));
+		if (event.shouldCommit()) {
+			event.value = String.valueOf(value);
+			event.deferred = propagator != null;
+			event.commit();
+		}
 	}
 
 	/**
@@ -67,38 +248,193 @@ public abstract class AbstractCell<E> implements Cell<E> {
 
 	/**
 	 * {@inheritDoc}
-	 * Todo: Prevent two different set implementations from being used.
+	 * Listeners are only informed if the possibilities actually changed.
+	 * Intersecting with a {@link Domain} of the same universe is done word-wise.
 	 */
 	@Override
 	public void reducePossibilities(final Set<E> possibilities) {
-		this.possibilities = Sets.intersection(this.possibilities, possibilities);
-		onPossibilityUpdate();
+		saveState();
+		if (this.possibilities.retainAll(possibilities))
+			onPossibilityUpdate();
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * Listeners are only informed if the possibilities actually changed.
+	 * Removing a {@link Domain} of the same universe is done word-wise.
 	 */
 	@Override
 	public void removePossibilities(final Set<E> possibilities) {
-		this.possibilities.removeAll(possibilities);
-		onPossibilityUpdate();
+		saveState();
+		if (this.possibilities.removeAll(possibilities))
+			onPossibilityUpdate();
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * Listeners are only informed if the possibility was actually removed.
 	 */
 	@Override
 	public void removePossibility(final E possibility) {
-		possibilities.remove(possibility);
+		final int index = getUniverse().indexOf(possibility);
+		if (index >= 0)
+			removePossibilityAt(index);
+	}
+
+	/**
+	 * Removes the value with the given universe index as a possibility for this cell.
+	 * Lets groups that share this cell's universe remove a value without looking it up.
+	 * @param index A dense index into {@link #getUniverse()}.
+	 */
+	public void removePossibilityAt(final int index) {
+		if (!possibilities.containsIndex(index))
+			return;
+		saveState();
+		possibilities.removeIndex(index);
 		onPossibilityUpdate();
 	}
 
+	/**
+	 * Rules out every possibility but the value with the given universe index.
+	 * The cell then takes the value as it would after any other change, so a {@link Propagator} can defer it,
+	 * whereas {@link #setValue} tells the value listeners straight away.
+	 * Listeners are only informed if the possibilities actually changed.
+	 * @param index A dense index into {@link #getUniverse()}.
+	 * @throws ContradictionException If the value has already been ruled out.
+	 */
+	public void retainPossibilityAt(final int index) {
+		final boolean possible = possibilities.containsIndex(index);
+		if (possible && possibilities.size() == 1)
+			return;
+		saveState();
+		possibilities.clear();
+		if (possible)
+			possibilities.addIndex(index);
+		onPossibilityUpdate();
+	}
+
+	/**
+	 * @throws ContradictionException If the cell has no possibilities left.
+	 */
 	protected final void onPossibilityUpdate() {
-		if (possibilities.size() == 1) {
-			final Optional<E> value = possibilities.stream().findFirst();
-			setValue(value.get());
-		} else {
+		if (possibilities.isEmpty())
+			throw new ContradictionException(NO_POSSIBILITIES_EXCEPTION_MSG);
+		informRemovals();
+		if (propagator != null) {
+			propagator.schedule(this);
+			return;
+		}
+		if (possibilities.size() != 1) {
+			informPossibilityListeners();
+		} else if (value == null) {
+			setValue(getUniverse().get(possibilities.firstIndex()));
+		}
+	}
+
+	/**
+	 * Informs listeners of every change made since the cell was put on its propagator's work-list.
+	 */
+	final void flushPossibilityUpdate() {
+		if (possibilities.size() != 1) {
 			informPossibilityListeners();
+		} else if (value == null) {
+			setValue(getUniverse().get(possibilities.firstIndex()));
+		}
+	}
+
+	void setPropagator(final Propagator propagator) {
+		this.propagator = propagator;
+	}
+
+	void setTrail(final Trail trail) {
+		this.trail = trail;
+		this.trailStamp = trail.getStamp() - 1;
+	}
+
+	/**
+	 * Saves the state onto the trail, if this is the first change since the trail's last push or pop.
+	 */
+	void saveState() {
+		if (trail != null && trailStamp != trail.getStamp())
+			trailStamp = trail.record(trailedState());
+	}
+
+	@Nonnull
+	Trailed trailedState() {
+		if (trailedState == null)
+			trailedState = new TrailedState();
+		return trailedState;
+	}
+
+	/**
+	 * Tells the delta listeners, then the watchers of each value, which values have been removed since they were last told,
+	 * if any have.
+	 */
+	private void informRemovals() {
+		if (deltaBase == null)
+			return;
+		boolean changed = false;
+		for (int i = 0; i < removed.length; i++) {
+			final long word = possibilities.getWord(i);
+			removed[i] = deltaBase[i] & ~word;
+			deltaBase[i] = word;
+			changed |= removed[i] != 0;
+		}
+		if (!changed)
+			return;
+		if (deltaListeners != null) {
+			final int size = possibilities.size();
+			for (final PossibilityDeltaListener<E> listener : deltaListeners) {
+				listener.onPossibilitiesRemoved(this, removed, size);
+			}
+		}
+		if (watchers == null)
+			return;
+		// Watchers change other cells, which can change this one again and overwrite the scratch space, so it's copied.
+		if (removed.length == 1) {
+			informWatchers(removed[0], 0);
+		} else {
+			final long[] words = removed.clone();
+			for (int i = 0; i < words.length; i++) {
+				informWatchers(words[i], i);
+			}
+		}
+	}
+
+	private void informWatchers(long bits, final int word) {
+		for (; bits != 0; bits &= bits - 1) {
+			final int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+			if (watcherCounts[index] > 0)
+				informWatchers(index);
+		}
+	}
+
+	/**
+	 * Tells the watchers of a value that it's been removed, and drops those that have moved their watch elsewhere.
+	 */
+	private void informWatchers(final int index) {
+		final ValueRemovalListener<E>[] listeners = watchers[index];
+		final int count = watcherCounts[index];
+		int kept = 0;
+		int next = 0;
+		try {
+			while (next < count) {
+				final ValueRemovalListener<E> listener = listeners[next];
+				if (listener.onValueRemoved(this, index))
+					listeners[kept++] = listener;
+				next++;
+			}
+		} finally {
+			// Watchers that weren't reached because one threw are kept, as are any added during the walk,
+			// which may have grown the array.
+			final ValueRemovalListener<E>[] current = watchers[index];
+			if (current != listeners)
+				System.arraycopy(listeners, 0, current, 0, kept);
+			final int end = watcherCounts[index];
+			System.arraycopy(current, next, current, kept, end - next);
+			final int newCount = kept + end - next;
+			Arrays.fill(current, newCount, end, null);
+			watcherCounts[index] = newCount;
 		}
 	}
 
@@ -118,6 +454,71 @@ public abstract class AbstractCell<E> implements Cell<E> {
 		return Sets.newConcurrentHashSet(possibilities);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * A popcount of the cell's domain.
+	 */
+	@Override
+	public int getPossibilityCount() {
+		return possibilities.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasPossibility(final @Nonnull E value) {
+		return possibilities.contains(value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Values are given in the order of the cell's universe.
+	 */
+	@Override
+	public void forEachPossibility(final @Nonnull Consumer<? super E> action) {
+		final Universe<E> universe = getUniverse();
+		for (int i = possibilities.firstIndex(); i >= 0; i = possibilities.nextIndex(i + 1)) {
+			action.accept(universe.get(i));
+		}
+	}
+
+	/**
+	 * Lets the possibilities be walked by universe index, without boxing or a callback:
+	 * {@code for (int i = cell.nextPossibilityIndex(0); i >= 0; i = cell.nextPossibilityIndex(i + 1))}.
+	 * @param fromIndex The universe index to start from (inclusive).
+	 * @return The lowest universe index at or after fromIndex that the cell could be, or -1 if there is none.
+	 */
+	public int nextPossibilityIndex(final int fromIndex) {
+		return possibilities.nextIndex(fromIndex);
+	}
+
+	/**
+	 * Copies the cell's possibilities into a bitmask over its universe, where bit i stands for the universe's i-th value.
+	 * @param words At least {@link Universe#wordCount()} words of the cell's universe, which are overwritten.
+	 */
+	public void copyPossibilities(final @Nonnull long[] words) {
+		for (int i = 0; i < possibilities.wordCount(); i++) {
+			words[i] = possibilities.getWord(i);
+		}
+	}
+
+	/**
+	 * @return The universe that this cell's possibilities are drawn from.
+	 */
+	@Nonnull
+	public Universe<E> getUniverse() {
+		return possibilities.getUniverse();
+	}
+
+	/**
+	 * @return The live domain of this cell, for groups to read word-wise. Must not be modified directly.
+	 */
+	@Nonnull
+	Domain<E> domain() {
+		return possibilities;
+	}
+
 	public @Nonnull Optional<E> getValue() {
 		return Optional.ofNullable(value);
 	}
@@ -127,7 +528,70 @@ public abstract class AbstractCell<E> implements Cell<E> {
 	 */
 	@Override
 	public boolean hasValue() {
-		return getValue().isPresent();
+		return value != null;
+	}
+
+	/**
+	 * The cell's possibilities, followed by the universe index of its value, or -1 if it has none.
+	 */
+	private class TrailedState implements Trailed {
+
+		@Override
+		public int savedWordCount() {
+			return possibilities.wordCount() + 1;
+		}
+
+		@Override
+		public void save(final @Nonnull long[] words, final int offset) {
+			final int wordCount = possibilities.wordCount();
+			for (int i = 0; i < wordCount; i++) {
+				words[offset + i] = possibilities.getWord(i);
+			}
+			words[offset + wordCount] = value == null ? -1 : getUniverse().indexOf(value);
+		}
+
+		@Override
+		public void restore(final @Nonnull long[] words, final int offset) {
+			final int wordCount = possibilities.wordCount();
+			for (int i = 0; i < wordCount; i++) {
+				possibilities.setWord(i, words[offset + i]);
+			}
+			final int valueIndex = (int) words[offset + wordCount];
+			value = valueIndex < 0 ? null : getUniverse().get(valueIndex);
+			if (deltaBase != null)
+				copyPossibilities(deltaBase);
+		}
+	}
+
+	/**
+	 * Listens for the values a cell loses, as a bitmask over the cell's universe.
+	 * @param <E> The value type.
+	 * @see #addPossibilityDeltaListener(PossibilityDeltaListener)
+	 */
+	@FunctionalInterface
+	public interface PossibilityDeltaListener<E> {
+		/**
+		 * @param cell The cell that has lost values.
+		 * @param removed The values just removed, where bit i stands for the i-th value of the cell's universe.
+		 *                Only valid for the duration of the call, and must not be modified.
+		 * @param size The number of values the cell has left.
+		 */
+		void onPossibilitiesRemoved(@Nonnull AbstractCell<E> cell, @Nonnull long[] removed, int size);
+	}
+
+	/**
+	 * Listens for a single value leaving a cell.
+	 * @param <E> The value type.
+	 * @see #watchValueAt(int, ValueRemovalListener)
+	 */
+	@FunctionalInterface
+	public interface ValueRemovalListener<E> {
+		/**
+		 * @param cell The cell that has lost the value.
+		 * @param index The universe index of the value.
+		 * @return True to keep watching the value on this cell, or false to stop.
+		 */
+		boolean onValueRemoved(@Nonnull AbstractCell<E> cell, int index);
 	}
 
 	/**
@@ -145,7 +609,7 @@ public abstract class AbstractCell<E> implements Cell<E> {
 		private final Multimap<E, Cell.CellValueListener<E>> specificListeners;
 
 		public ValueUpdater() {
-			vagueListeners = Sets.newConcurrentHashSet();
+			vagueListeners = new CopyOnWriteArraySet<>();
 			specificListeners = HashMultimap.create();
 		}
 
@@ -157,6 +621,10 @@ public abstract class AbstractCell<E> implements Cell<E> {
 			this.specificListeners.put(value, listener);
 		}
 
+		public void removeCellValueListener(final @Nonnull CellValueListener<E> listener) {
+			this.vagueListeners.remove(listener);
+		}
+
 		public void onCellValueUpdate(final E value) {
 			vagueListeners.forEach(l -> l.onCellValueUpdate(AbstractCell.this, value));
 			specificListeners.get(value).forEach(l -> l.onCellValueUpdate(AbstractCell.this, value));
@@ -0,0 +1,396 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Regin's all-different filter.
+ * Finds a maximum matching between the group's unpaired cells and unpaired values using Hopcroft-Karp,
+ * then keeps exactly the cell/value pairs that belong to some maximum matching: the matched pairs,
+ * pairs on an alternating path from a free value, and pairs on an alternating cycle.
+ * Every other pair is removed, which covers every sub group (Hall set) of the group in a single O(E sqrt(V)) pass.
+ * <p>
+ * The matching from the previous pass is kept and repaired rather than rebuilt,
+ * so a pass after a small change usually only needs a single augmenting path.
+ * @param <E> The value type of the group.
+ */
+public class AllDifferentFilter<E> implements GroupStrategy<E> {
+
+	protected static final String NO_MATCHING_EXCEPTION_MSG = "Cells can't all be paired with different values.";
+
+	private static final int UNSEEN = -1;
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	/**
+	 * Scratch space kept between passes. Null while it's in use, so that a pass over another group,
+	 * triggered by this pass's pruning, works in its own scratch instead of corrupting this one.
+	 */
+	private Scratch idleScratch;
+	/**
+	 * The group that a pass is currently running over, if any.
+	 */
+	private GroupImpl<E> activeGroup;
+	/**
+	 * Set when the active group's cells change during its own pass, so the pass is run again once it's finished,
+	 * rather than starting a nested pass for every possibility that it removes.
+	 */
+	private boolean rerun;
+
+	@Override
+	public void reduce(final @Nonnull GroupImpl<E> group, final @Nonnull Cell<E> cell) {
+		group.indexOf(cell);
+		if (group == activeGroup) {
+			rerun = true;
+			return;
+		}
+		final GroupImpl<E> outerGroup = activeGroup;
+		final boolean outerRerun = rerun;
+		Scratch scratch = idleScratch;
+		idleScratch = null;
+		if (scratch == null || !scratch.fits(group))
+			scratch = new Scratch(group);
+		activeGroup = group;
+		try {
+			do {
+				rerun = false;
+				reduce(group, scratch);
+			} while (rerun);
+		} finally {
+			idleScratch = scratch;
+			activeGroup = outerGroup;
+			rerun = outerRerun;
+		}
+	}
+
+	private void reduce(final @Nonnull GroupImpl<E> group, final @Nonnull Scratch scratch) {
+		scratch.readEdges(group);
+		scratch.repairMatching(group);
+		scratch.maximiseMatching(group);
+		scratch.markReachableFromFreeValues(group);
+		scratch.findComponents(group);
+		final int pruned = scratch.findUnsupportedPairs(group);
+		for (int i = 0; i < pruned; i++) {
+			final int cell = scratch.prunedCells[i];
+			// Earlier removals may have paired the cell, in which case the group has already dealt with it.
+			if (group.isUnpaired(cell))
+				group.removePossibility(cell, scratch.prunedValues[i]);
+		}
+	}
+
+	/**
+	 * The bipartite graph between a group's cells and the values of its universe, and the working state of a pass.
+	 * Cells and values are referred to by their indices within the group.
+	 */
+	private static final class Scratch {
+		private final int cellCount;
+		private final int valueCount;
+		private final int valueWords;
+		private final int cellWords;
+
+		/**
+		 * For each cell, the values it could be.
+		 */
+		private final long[][] cellEdges;
+		/**
+		 * For each value, the cells that could be it.
+		 */
+		private final long[][] valueEdges;
+
+		private final int[] cellMatches;
+		private final int[] valueMatches;
+
+		private final int[] distances;
+		private final int[] queue;
+
+		private final boolean[] reachedCells;
+		private final boolean[] reachedValues;
+
+		private final int[] components;
+		private final int[] lowLinks;
+		private final int[] order;
+		private final int[] cursors;
+		private final int[] stack;
+		private final boolean[] onStack;
+		private final int[] callStack;
+
+		private int[] prunedCells;
+		private int[] prunedValues;
+
+		private Scratch(final @Nonnull GroupImpl<?> group) {
+			this.cellCount = group.cellCount();
+			this.valueCount = group.getUniverse().size();
+			this.valueWords = group.getUniverse().wordCount();
+			this.cellWords = Math.max(1, (cellCount + Long.SIZE - 1) / Long.SIZE);
+			this.cellEdges = new long[cellCount][valueWords];
+			this.valueEdges = new long[valueCount][cellWords];
+			this.cellMatches = new int[cellCount];
+			this.valueMatches = new int[valueCount];
+			Arrays.fill(cellMatches, UNSEEN);
+			this.distances = new int[cellCount];
+			this.queue = new int[Math.max(cellCount, valueCount)];
+			this.reachedCells = new boolean[cellCount];
+			this.reachedValues = new boolean[valueCount];
+			this.components = new int[cellCount];
+			this.lowLinks = new int[cellCount];
+			this.order = new int[cellCount];
+			this.cursors = new int[cellCount];
+			this.stack = new int[cellCount];
+			this.onStack = new boolean[cellCount];
+			this.callStack = new int[cellCount];
+			this.prunedCells = new int[Math.max(1, cellCount)];
+			this.prunedValues = new int[Math.max(1, cellCount)];
+		}
+
+		private boolean fits(final @Nonnull GroupImpl<?> group) {
+			return cellCount == group.cellCount() && valueCount == group.getUniverse().size();
+		}
+
+		private void readEdges(final @Nonnull GroupImpl<?> group) {
+			for (final long[] edges : valueEdges) {
+				Arrays.fill(edges, 0L);
+			}
+			for (int cell = group.nextUnpairedCell(0); cell >= 0; cell = group.nextUnpairedCell(cell + 1)) {
+				final long[] edges = cellEdges[cell];
+				Arrays.fill(edges, 0L);
+				group.addPossibilities(cell, edges);
+				for (int word = 0; word < valueWords; word++) {
+					edges[word] &= group.unpairedValueWord(word);
+					for (long bits = edges[word]; bits != 0; bits &= bits - 1) {
+						final int value = (word << 6) + Long.numberOfTrailingZeros(bits);
+						valueEdges[value][cell >>> 6] |= 1L << cell;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Keeps each unpaired cell's match from the previous pass if the cell can still take the value.
+		 */
+		private void repairMatching(final @Nonnull GroupImpl<?> group) {
+			Arrays.fill(valueMatches, UNSEEN);
+			for (int cell = 0; cell < cellCount; cell++) {
+				final int value = cellMatches[cell];
+				if (value == UNSEEN)
+					continue;
+				if (group.isUnpaired(cell) && hasEdge(cell, value) && valueMatches[value] == UNSEEN)
+					valueMatches[value] = cell;
+				else
+					cellMatches[cell] = UNSEEN;
+			}
+		}
+
+		/**
+		 * Hopcroft-Karp: repeatedly layers the graph by breadth first search from the free cells,
+		 * then augments along a maximal set of disjoint shortest paths.
+		 * @throws ContradictionException If some unpaired cell can't be matched.
+		 */
+		private void maximiseMatching(final @Nonnull GroupImpl<?> group) {
+			while (layer(group)) {
+				for (int cell = group.nextUnpairedCell(0); cell >= 0; cell = group.nextUnpairedCell(cell + 1)) {
+					if (cellMatches[cell] == UNSEEN)
+						augment(cell);
+				}
+			}
+			for (int cell = group.nextUnpairedCell(0); cell >= 0; cell = group.nextUnpairedCell(cell + 1)) {
+				if (cellMatches[cell] == UNSEEN)
+					throw new ContradictionException(NO_MATCHING_EXCEPTION_MSG);
+			}
+		}
+
+		/**
+		 * @return True if there's an augmenting path from a free cell to a free value.
+		 */
+		private boolean layer(final @Nonnull GroupImpl<?> group) {
+			int head = 0;
+			int tail = 0;
+			for (int cell = group.nextUnpairedCell(0); cell >= 0; cell = group.nextUnpairedCell(cell + 1)) {
+				if (cellMatches[cell] == UNSEEN) {
+					distances[cell] = 0;
+					queue[tail++] = cell;
+				} else {
+					distances[cell] = INFINITY;
+				}
+			}
+			boolean found = false;
+			while (head < tail) {
+				final int cell = queue[head++];
+				final long[] edges = cellEdges[cell];
+				for (int word = 0; word < valueWords; word++) {
+					for (long bits = edges[word]; bits != 0; bits &= bits - 1) {
+						final int next = valueMatches[(word << 6) + Long.numberOfTrailingZeros(bits)];
+						if (next == UNSEEN) {
+							found = true;
+						} else if (distances[next] == INFINITY) {
+							distances[next] = distances[cell] + 1;
+							queue[tail++] = next;
+						}
+					}
+				}
+			}
+			return found;
+		}
+
+		private boolean augment(final int cell) {
+			final long[] edges = cellEdges[cell];
+			for (int word = 0; word < valueWords; word++) {
+				for (long bits = edges[word]; bits != 0; bits &= bits - 1) {
+					final int value = (word << 6) + Long.numberOfTrailingZeros(bits);
+					final int next = valueMatches[value];
+					if (next == UNSEEN || (distances[next] == distances[cell] + 1 && augment(next))) {
+						cellMatches[cell] = value;
+						valueMatches[value] = cell;
+						return true;
+					}
+				}
+			}
+			distances[cell] = INFINITY;
+			return false;
+		}
+
+		/**
+		 * Walks the alternating paths that start at the free values, from a value to every cell that could take it,
+		 * and from a cell to its matched value. Every pair along the way belongs to some maximum matching.
+		 */
+		private void markReachableFromFreeValues(final @Nonnull GroupImpl<?> group) {
+			Arrays.fill(reachedCells, false);
+			Arrays.fill(reachedValues, false);
+			int head = 0;
+			int tail = 0;
+			for (int value = 0; value < valueCount; value++) {
+				if (valueMatches[value] == UNSEEN && !isEmpty(valueEdges[value])) {
+					reachedValues[value] = true;
+					queue[tail++] = value;
+				}
+			}
+			while (head < tail) {
+				final long[] edges = valueEdges[queue[head++]];
+				for (int word = 0; word < cellWords; word++) {
+					for (long bits = edges[word]; bits != 0; bits &= bits - 1) {
+						final int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+						if (reachedCells[cell])
+							continue;
+						reachedCells[cell] = true;
+						final int value = cellMatches[cell];
+						if (!reachedValues[value]) {
+							reachedValues[value] = true;
+							queue[tail++] = value;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Tarjan's strongly connected components over the unreached cells, where a cell leads to every other cell
+		 * that could take its matched value. Two cells in the same component lie on an alternating cycle.
+		 */
+		private void findComponents(final @Nonnull GroupImpl<?> group) {
+			Arrays.fill(order, UNSEEN);
+			int counter = 0;
+			int stackSize = 0;
+			for (int root = group.nextUnpairedCell(0); root >= 0; root = group.nextUnpairedCell(root + 1)) {
+				if (reachedCells[root] || order[root] != UNSEEN)
+					continue;
+				int depth = 0;
+				callStack[depth++] = root;
+				order[root] = lowLinks[root] = counter++;
+				cursors[root] = 0;
+				stack[stackSize++] = root;
+				onStack[root] = true;
+				while (depth > 0) {
+					final int cell = callStack[depth - 1];
+					final int next = nextNeighbour(cell);
+					if (next >= 0) {
+						if (order[next] == UNSEEN) {
+							order[next] = lowLinks[next] = counter++;
+							cursors[next] = 0;
+							stack[stackSize++] = next;
+							onStack[next] = true;
+							callStack[depth++] = next;
+						} else if (onStack[next]) {
+							lowLinks[cell] = Math.min(lowLinks[cell], order[next]);
+						}
+						continue;
+					}
+					depth--;
+					if (depth > 0) {
+						final int parent = callStack[depth - 1];
+						lowLinks[parent] = Math.min(lowLinks[parent], lowLinks[cell]);
+					}
+					if (lowLinks[cell] == order[cell]) {
+						int member;
+						do {
+							member = stack[--stackSize];
+							onStack[member] = false;
+							components[member] = cell;
+						} while (member != cell);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return The next unreached cell, other than the given one, that could take the given cell's matched value,
+		 * or -1 if there are no more.
+		 */
+		private int nextNeighbour(final int cell) {
+			final long[] edges = valueEdges[cellMatches[cell]];
+			for (int index = cursors[cell]; index < cellCount; ) {
+				final int word = index >>> 6;
+				final long bits = edges[word] & (-1L << index);
+				if (bits == 0) {
+					index = (word + 1) << 6;
+					continue;
+				}
+				final int next = (word << 6) + Long.numberOfTrailingZeros(bits);
+				index = next + 1;
+				if (next != cell && !reachedCells[next]) {
+					cursors[cell] = index;
+					return next;
+				}
+			}
+			cursors[cell] = cellCount;
+			return -1;
+		}
+
+		/**
+		 * Collects every pair that isn't matched, isn't reachable from a free value, and isn't on an alternating cycle.
+		 * @return The number of pairs collected into {@link #prunedCells} and {@link #prunedValues}.
+		 */
+		private int findUnsupportedPairs(final @Nonnull GroupImpl<?> group) {
+			int count = 0;
+			for (int cell = group.nextUnpairedCell(0); cell >= 0; cell = group.nextUnpairedCell(cell + 1)) {
+				final long[] edges = cellEdges[cell];
+				for (int word = 0; word < valueWords; word++) {
+					for (long bits = edges[word]; bits != 0; bits &= bits - 1) {
+						final int value = (word << 6) + Long.numberOfTrailingZeros(bits);
+						if (value == cellMatches[cell] || reachedValues[value])
+							continue;
+						if (!reachedCells[cell] && components[cell] == components[valueMatches[value]])
+							continue;
+						if (count == prunedCells.length) {
+							prunedCells = Arrays.copyOf(prunedCells, count * 2);
+							prunedValues = Arrays.copyOf(prunedValues, count * 2);
+						}
+						prunedCells[count] = cell;
+						prunedValues[count] = value;
+						count++;
+					}
+				}
+			}
+			return count;
+		}
+
+		private boolean hasEdge(final int cell, final int value) {
+			return (cellEdges[cell][value >>> 6] & (1L << value)) != 0;
+		}
+
+		private static boolean isEmpty(final @Nonnull long[] mask) {
+			for (final long word : mask) {
+				if (word != 0)
+					return false;
+			}
+			return true;
+		}
+	}
+}
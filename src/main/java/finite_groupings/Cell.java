@@ -3,6 +3,7 @@ package finite_groupings;
 import javax.annotation.Nonnull;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * The basic representation of a cell.
@@ -69,9 +70,37 @@ public interface Cell<E> {
 	@Nonnull
 	Set<E> getPossibilities();
 
+	/*
+		Reads that needn't copy the cell's possibilities.
+		The defaults go through getPossibilities(), so cells should override them where they can read their state directly.
+	 */
+
+	/**
+	 * @return The number of values this cell could be.
+	 */
+	default int getPossibilityCount() {
+		return getPossibilities().size();
+	}
+
+	/**
+	 * @return True if the cell could be the given value.
+	 */
+	default boolean hasPossibility(@Nonnull E value) {
+		return getPossibilities().contains(value);
+	}
+
+	/**
+	 * Calls the action with each value this cell could be.
+	 * The action must not change the cell's possibilities.
+	 */
+	default void forEachPossibility(@Nonnull Consumer<? super E> action) {
+		getPossibilities().forEach(action);
+	}
+
 	/**
 	 * Sets the value of a cell.
 	 * @param value The value to set the cell to.
+	 * @throws ContradictionException If the cell has already ruled the value out.
 	 */
 	void setValue(@Nonnull E value);
 
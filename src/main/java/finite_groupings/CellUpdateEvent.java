@@ -0,0 +1,24 @@
+package finite_groupings;
+
+import jdk.jfr.*;
+
+/**
+ * A cell updating its possibilities when polled by a {@link CellUpdater}.
+ */
+@Name("finite_groupings.CellUpdate")
+@Label("Cell Update")
+@Category({"Puzzle Solver", "Propagation"})
+@Description("A cell polled by a CellUpdater updating its possibilities.")
+@Enabled(false)
+@StackTrace(false)
+final class CellUpdateEvent extends Event {
+
+	@Label("Possibilities Before")
+	int possibilitiesBefore;
+
+	@Label("Possibilities After")
+	int possibilitiesAfter;
+
+	@Label("Value Found")
+	boolean valueFound;
+}
@@ -14,7 +14,15 @@ public class CellUpdater<E> {
 	private final UpdatablePriorityQueue<Cell<E>> queue;
 
 	public CellUpdater() {
-		this.queue = new UpdatablePriorityQueue<>();
+		this(new UpdatablePriorityQueue<>());
+	}
+
+	/**
+	 * @param queue The queue to update cells from, such as a {@link utils.updatablepriorityqueue.ConcurrentUpdatablePriorityQueue}
+	 *              if cells are updated or change from several threads at once.
+	 */
+	public CellUpdater(final @Nonnull UpdatablePriorityQueue<Cell<E>> queue) {
+		this.queue = queue;
 	}
 
 	public UpdatablePriorityQueue<Cell<E>> getQueue() {
@@ -23,6 +31,7 @@ public class CellUpdater<E> {
 
 	/**
 	 * Takes the cell with the largest priority and requests that it updates its set of potential values.
+	 * If the cell still doesn't have a value afterwards, it's queued again with a reset priority.
 	 */
 	public void update() {
 		final Priority<Cell<E>> priority = queue.poll();
@@ -30,11 +39,32 @@ public class CellUpdater<E> {
 			return;
 		//
 		synchronized (priority) {
-			priority.getValue().updatePossibilities();
+			final Cell<E> cell = priority.getValue();
+			updatePossibilities(cell);
 			priority.resetCount();
+			if (!cell.hasValue() && queue.add(cell))
+				SolverStats.global().onQueueSize(queue.size());
 		}
 	}
 
+	/**
+	 * Requests that the cell updates its set of potential values,
+	 * recording the update as a {@link CellUpdateEvent} and in the {@link SolverStats}.
+	 * Shared with {@link IntCellUpdater}, which only differs in how it queues cells.
+	 */
+	static void updatePossibilities(final @Nonnull Cell<?> cell) {
+		final CellUpdateEvent event = new CellUpdateEvent();
+		if (event.isEnabled())
+			event.possibilitiesBefore = cell.getPossibilityCount();
+		event.begin();
+		cell.updatePossibilities();
+		SolverStats.global().onPropagation();
+		if (event.shouldCommit()) {
+			event.possibilitiesAfter = cell.getPossibilityCount();
+			event.valueFound = cell.hasValue();
+			event.commit();
+		}
+	}
 
 	/**
 	 * Adds a value listener to the cell that removes it from the updater
@@ -46,9 +76,15 @@ public class CellUpdater<E> {
 	 */
 	public boolean add(final @Nonnull Cell<E> cell) {
 		if(queue.add(cell)) {
+			SolverStats.global().onQueueSize(queue.size());
 			cell.addCellListener(
 					(c, v) -> queue.remove(c),
-					(c, p) -> queue.getPriority(c).resetCount()
+					(c, p) -> {
+						// The cell has no priority while it's being updated.
+						final Priority<Cell<E>> priority = queue.getPriority(c);
+						if (priority != null)
+							priority.resetCount();
+					}
 			);
 			return true;
 		}
@@ -0,0 +1,15 @@
+package finite_groupings;
+
+/**
+ * Thrown when a network of cells can't be completed: a cell has no possibilities left,
+ * or a group's cells can't all be paired with different values.
+ * A search backtracks when it catches one; outside of a search it means the puzzle has no solution.
+ */
+public class ContradictionException extends IllegalStateException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ContradictionException(final String message) {
+		super(message);
+	}
+}
@@ -1,7 +1,11 @@
 package finite_groupings;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Sets;
+import finite_groupings.domain.Domain;
+import finite_groupings.domain.Universe;
+import finite_groupings.domain.UniverseMapping;
 
 import javax.annotation.Nonnull;
 import java.util.*;
@@ -11,31 +15,185 @@ public class GroupImpl<E> implements Group<E> {
 
 	protected static final String TOO_MANY_CELLS_EXCEPTION_MSG = "More cells than values to put in those cells.";
 	protected static final String LOST_CELL_EXCEPTION_MSG = "Cell update called by a stranger cell.";
+	protected static final String VALUE_TAKEN_EXCEPTION_MSG = "Value has already been paired with another cell.";
 
 	/**
 	 * All cells in the grouping.
 	 */
 	private final ImmutableSet<Cell<E>> allCells;
+	/**
+	 * All cells in the grouping, in index order.
+	 * Bit i of any cell mask refers to the i-th cell of this list.
+	 */
+	private final ImmutableList<Cell<E>> cells;
+	private final ImmutableMap<Cell<E>, Integer> cellIndices;
+	/**
+	 * The universe that all of the group's value masks are expressed in.
+	 */
+	private final Universe<E> universe;
+	/**
+	 * For each cell, translates between the cell's universe and the group's universe.
+	 * Null for cells that aren't {@link AbstractCell}s, which are read value by value through
+	 * {@link Cell#hasPossibility(Object)} instead.
+	 */
+	private final UniverseMapping[] mappings;
 	/**
 	 * All cells that still don't have a value.
 	 */
-	private final Set<Cell<E>> unpairedCells;
+	private final long[] unpairedCells;
+	/**
+	 * The support index: for each value of the group's universe, the number of unpaired cells that could still take it,
+	 * and those cells as a cell mask, the masks laid end to end with {@code unpairedCells.length} words each.
+	 * Kept in step with the cells by {@link #onCellPossibilitiesRemoved}, so it's only kept when every cell is an
+	 * {@link AbstractCell}, and both are null otherwise.
+	 */
+	private final int[] support;
+	private final long[] supportCells;
+	/**
+	 * Every value of the group, paired or not.
+	 */
+	private final Domain<E> allValues;
 	/**
 	 * All values that haven't yet been paired with a cell.
 	 */
-	private final Set<E> values;
+	private final Domain<E> values;
+	/**
+	 * Reduces the group's cells whenever one of them changes.
+	 */
+	private final GroupStrategy<E> strategy;
+	/**
+	 * Scratch space kept between sub group searches, to avoid reallocating it on every cell update.
+	 * Null while it's in use by a search.
+	 */
+	private Context idleContext;
+	/**
+	 * Saves the group's state before it changes, so that a search can backtrack. Null outside of a search.
+	 */
+	private Trail trail;
+	private TrailedState trailedState;
+	/**
+	 * The trail's stamp when the group's state was last saved.
+	 */
+	private long trailStamp;
+	/**
+	 * The listeners the group added to its cells, kept so that a sub group can take them off again,
+	 * with the delta listeners null without a support index.
+	 */
+	private final Cell.CellValueListener<E> valueListener;
+	private final Cell.CellPossibilityListener<E> possibilityListener;
+	private final AbstractCell.PossibilityDeltaListener<E>[] deltaListeners;
+	/**
+	 * The sub groups found by this group that still hold, in the order they were found.
+	 * They're attached to whichever trail this group is, and resynchronised with it.
+	 */
+	private final List<GroupImpl<E>> subGroups;
+	/**
+	 * The group that found this one, if it's a sub group.
+	 */
+	private GroupImpl<E> parent;
+	/**
+	 * Set once the group no longer holds, after the choice point it was found under has been backtracked past.
+	 */
+	private boolean detached;
 
+	/**
+	 * Uses the {@link GroupStrategy#subGroupSearch() sub group search},
+	 * followed by {@link GroupStrategy#hiddenSingles() hidden singles}, which read the group's support index
+	 * to catch a value that only one cell can take, or none, as soon as its support drops.
+	 */
 	public GroupImpl(final @Nonnull Set<Cell<E>> cells,
 					 final @Nonnull Set<E> values) {
+		this(cells, values, GroupStrategy.<E>subGroupSearch().andThen(GroupStrategy.hiddenSingles()));
+	}
+
+	/**
+	 * @param strategy Reduces the group's cells whenever one of them changes.
+	 * @see GroupStrategy
+	 */
+	@SuppressWarnings("unchecked")
+	public GroupImpl(final @Nonnull Set<Cell<E>> cells,
+					 final @Nonnull Set<E> values,
+					 final @Nonnull GroupStrategy<E> strategy) {
 		if (cells.size() > values.size())
 			throw new IllegalArgumentException(TOO_MANY_CELLS_EXCEPTION_MSG);
 		this.allCells = ImmutableSet.copyOf(cells);
-		//noinspection ConstantConditions
-		this.unpairedCells = Sets.newHashSet(Sets.filter(allCells, cell -> !cell.hasValue()));
-		this.values = Sets.newHashSet(values);
+		this.cells = allCells.asList();
+		final ImmutableMap.Builder<Cell<E>, Integer> cellIndices = ImmutableMap.builder();
+		for (int i = 0; i < this.cells.size(); i++) {
+			cellIndices.put(this.cells.get(i), i);
+		}
+		this.cellIndices = cellIndices.build();
+		this.universe = chooseUniverse(this.cells, values);
+		this.mappings = createMappings(this.cells, universe);
+		this.unpairedCells = new long[Math.max(1, (this.cells.size() + Long.SIZE - 1) / Long.SIZE)];
+		for (int i = 0; i < this.cells.size(); i++) {
+			if (!this.cells.get(i).hasValue())
+				unpairedCells[i >>> 6] |= 1L << i;
+		}
+		this.allValues = Domain.of(universe, values);
+		this.values = allValues.copy();
+		this.strategy = strategy;
+		this.subGroups = new ArrayList<>();
+		final boolean indexed = Arrays.stream(mappings).allMatch(Objects::nonNull);
+		this.support = indexed ? new int[universe.size()] : null;
+		this.supportCells = indexed ? new long[universe.size() * unpairedCells.length] : null;
+		if (indexed) {
+			for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+				addSupport(i);
+			}
+		}
 
-		// Sets the group to listen for changes to any of its cells.
-		cells.parallelStream().forEach(c -> c.addCellListener(this::onCellValueSet, this::onCellPossibilityUpdate));
+		// Sets the group to listen for changes to any of its cells, with one pair of listeners shared between them.
+		this.valueListener = this::onCellValueSet;
+		this.possibilityListener = this::onCellPossibilityUpdate;
+		this.deltaListeners = indexed ? (AbstractCell.PossibilityDeltaListener<E>[])
+				new AbstractCell.PossibilityDeltaListener<?>[this.cells.size()] : null;
+		for (int i = 0; i < this.cells.size(); i++) {
+			final Cell<E> cell = this.cells.get(i);
+			cell.addCellListener(valueListener, possibilityListener);
+			// Removals are frequent enough that each cell gets its own delta listener, which knows the cell's index.
+			final int index = i;
+			if (support != null) {
+				deltaListeners[i] = (c, removed, size) -> onCellPossibilitiesRemoved(index, removed);
+				((AbstractCell<E>) cell).addPossibilityDeltaListener(deltaListeners[i]);
+			}
+		}
+		strategy.attach(this);
+	}
+
+	/**
+	 * Picks the universe to express the group's values in.
+	 * Prefers a universe that the cells already share, so that their domains can be read without translation.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> Universe<E> chooseUniverse(final @Nonnull List<Cell<E>> cells, final @Nonnull Set<E> values) {
+		if (values instanceof Domain)
+			return ((Domain<E>) values).getUniverse();
+		Universe<E> shared = null;
+		for (final Cell<E> cell : cells) {
+			if (!(cell instanceof AbstractCell))
+				return Universe.of(values);
+			final Universe<E> universe = ((AbstractCell<E>) cell).getUniverse();
+			if (shared != null && shared != universe)
+				return Universe.of(values);
+			shared = universe;
+		}
+		if (shared != null && shared.containsAll(values))
+			return shared;
+		return Universe.of(values);
+	}
+
+	private static <E> UniverseMapping[] createMappings(final @Nonnull List<Cell<E>> cells,
+														final @Nonnull Universe<E> universe) {
+		final Map<Universe<E>, UniverseMapping> cache = new IdentityHashMap<>();
+		final UniverseMapping[] mappings = new UniverseMapping[cells.size()];
+		for (int i = 0; i < mappings.length; i++) {
+			if (cells.get(i) instanceof AbstractCell) {
+				final Universe<E> cellUniverse = ((AbstractCell<E>) cells.get(i)).getUniverse();
+				mappings[i] = cache.computeIfAbsent(cellUniverse, u -> UniverseMapping.between(u, universe));
+			}
+		}
+		return mappings;
 	}
 
 	/**
@@ -54,20 +212,57 @@ public class GroupImpl<E> implements Group<E> {
 	 *                      Values should always be a subset of the previous possible values.
 	 */
 	public void onCellPossibilityUpdate(final @Nonnull Cell<E> cell, final @Nonnull Set<E> possibilities) {
-		if (!allCells.contains(cell))
-			throw new IllegalStateException(LOST_CELL_EXCEPTION_MSG);
+		if (detached)
+			return;
 		updateCellGroupings(cell);
 	}
 
+	/**
+	 * Takes the values a cell has lost away from their support, if the cell is still unpaired.
+	 * This runs before the cell's value watchers are told of the removal, so they can read the updated index.
+	 * @see AbstractCell.PossibilityDeltaListener
+	 */
+	private void onCellPossibilitiesRemoved(final int index, final @Nonnull long[] removed) {
+		if (detached || !isUnpaired(index))
+			return;
+		saveState();
+		final UniverseMapping mapping = mappings[index];
+		final int cellWord = index >>> 6;
+		final long cellBit = 1L << index;
+		for (int word = 0; word < removed.length; word++) {
+			for (long bits = removed[word]; bits != 0; bits &= bits - 1) {
+				final int valueIndex = mapping.forward((word << 6) + Long.numberOfTrailingZeros(bits));
+				if (valueIndex < 0)
+					continue;
+				supportCells[valueIndex * unpairedCells.length + cellWord] &= ~cellBit;
+				support[valueIndex]--;
+			}
+		}
+	}
+
 	/**
 	 * @see finite_groupings.Cell.CellValueListener
 	 * @param cell A cell in the grouping that's been updated.
 	 * @param value The value that the cell has been paired with.
+	 * @throws ContradictionException If another of the group's cells has already been paired with the value.
 	 */
 	protected void onCellValueSet(final @Nonnull Cell<E> cell, final @Nonnull E value) {
-		values.remove(value);
-		unpairedCells.remove(cell);
-		unpairedCells.forEach(c -> c.removePossibility(value));
+		if (detached)
+			return;
+		final int valueIndex = universe.indexOf(value);
+		final int index = indexOf(cell);
+		if (valueIndex >= 0 && isUnpaired(index) && !values.containsIndex(valueIndex))
+			throw new ContradictionException(VALUE_TAKEN_EXCEPTION_MSG);
+		saveState();
+		if (valueIndex >= 0)
+			values.removeIndex(valueIndex);
+		if (support != null && isUnpaired(index))
+			removeSupport(index);
+		unpairedCells[index >>> 6] &= ~(1L << index);
+		// Cells may be paired by the removals below, so the live set is walked rather than a copy of it.
+		for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+			removePossibility(i, value, valueIndex);
+		}
 	}
 
 	@Override
@@ -75,68 +270,605 @@ public class GroupImpl<E> implements Group<E> {
 		return values;
 	}
 
+	/**
+	 * @return A snapshot of the cells that still don't have a value.
+	 */
 	protected Set<Cell<E>> getUnpairedCells() {
-		return Collections.unmodifiableSet(unpairedCells);
+		final ImmutableSet.Builder<Cell<E>> builder = ImmutableSet.builder();
+		for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+			builder.add(cells.get(i));
+		}
+		return builder.build();
 	}
 
+	/**
+	 * @return The universe that the group's value indices refer to.
+	 */
+	@Nonnull
+	Universe<E> getUniverse() {
+		return universe;
+	}
 
-	private static class Context<E> {
-		Set<Cell<E>> includedCells = new HashSet<>();
-		Set<E> includedValues = new HashSet<>();
+	/**
+	 * @return The number of cells in the group, paired or not.
+	 */
+	int cellCount() {
+		return cells.size();
+	}
+
+	/**
+	 * @return The cell with the given index within the group.
+	 */
+	@Nonnull
+	Cell<E> cellAt(final int index) {
+		return cells.get(index);
+	}
+
+	/**
+	 * @return Every value of the group, paired or not. Must not be modified.
+	 */
+	@Nonnull
+	Domain<E> allValues() {
+		return allValues;
+	}
+
+	/**
+	 * @return The index of the first unpaired cell at or after the given index, or -1 if there is none.
+	 */
+	int nextUnpairedCell(final int fromIndex) {
+		if (fromIndex >= cells.size())
+			return -1;
+		int word = fromIndex >>> 6;
+		long bits = unpairedCells[word] & (-1L << fromIndex);
+		while (bits == 0) {
+			if (++word == unpairedCells.length)
+				return -1;
+			bits = unpairedCells[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	boolean isUnpaired(final int cell) {
+		return isIncluded(unpairedCells, cell);
+	}
+
+	/**
+	 * @return The number of cells that still don't have a value.
+	 */
+	int unpairedCellCount() {
+		int count = 0;
+		for (final long word : unpairedCells) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * @param valueIndex An index into the group's universe.
+	 * @return True if the value hasn't yet been paired with a cell.
+	 */
+	boolean isUnpairedValue(final int valueIndex) {
+		return values.containsIndex(valueIndex);
+	}
+
+	/**
+	 * @param valueIndex An index into the group's universe.
+	 * @return The number of unpaired cells that could still take the value.
+	 */
+	int supportCount(final int valueIndex) {
+		if (support != null)
+			return support[valueIndex];
+		int count = 0;
+		for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+			if (hasPossibility(i, valueIndex))
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * @return True if the group keeps a support index, which it does when every cell is an {@link AbstractCell}.
+	 */
+	boolean hasSupportIndex() {
+		return support != null;
+	}
 
-		private Context<E> copy() {
-			final Context<E> copy = new Context<>();
-			copy.includedCells = new HashSet<>(this.includedCells);
-			copy.includedValues = new HashSet<>(this.includedValues);
-			return copy;
+	/**
+	 * @param valueIndex An index into the group's universe.
+	 * @return The index of the first unpaired cell at or after the given index that could take the value,
+	 * read from the support index, or -1 if there is none.
+	 */
+	int nextSupportingCell(final int valueIndex, final int fromIndex) {
+		if (fromIndex >= cells.size())
+			return -1;
+		final int offset = valueIndex * unpairedCells.length;
+		int word = fromIndex >>> 6;
+		long bits = supportCells[offset + word] & (-1L << fromIndex);
+		while (bits == 0) {
+			if (++word == unpairedCells.length)
+				return -1;
+			bits = supportCells[offset + word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * @return The word with the given index of the mask of unpaired cells that could take the value,
+	 * read from the support index.
+	 */
+	long supportingCellWord(final int valueIndex, final int word) {
+		return supportCells[valueIndex * unpairedCells.length + word];
+	}
+
+	/**
+	 * Copies the mask of unpaired cells that could take a value, from the support index if the group has one,
+	 * or by reading every unpaired cell otherwise.
+	 * @param valueIndex An index into the group's universe.
+	 * @param mask A cell mask of at least as many words as the group's, which is overwritten.
+	 */
+	void copySupportingCells(final int valueIndex, final @Nonnull long[] mask) {
+		if (supportCells != null) {
+			System.arraycopy(supportCells, valueIndex * unpairedCells.length, mask, 0, unpairedCells.length);
+			return;
+		}
+		Arrays.fill(mask, 0, unpairedCells.length, 0L);
+		for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+			if (hasPossibility(i, valueIndex))
+				mask[i >>> 6] |= 1L << i;
+		}
+	}
+
+	/**
+	 * Adds a cell to the support of every value it could take.
+	 */
+	private void addSupport(final int cell) {
+		final Domain<E> domain = ((AbstractCell<E>) cells.get(cell)).domain();
+		final UniverseMapping mapping = mappings[cell];
+		for (int i = domain.firstIndex(); i >= 0; i = domain.nextIndex(i + 1)) {
+			final int valueIndex = mapping.forward(i);
+			if (valueIndex >= 0) {
+				support[valueIndex]++;
+				supportCells[valueIndex * unpairedCells.length + (cell >>> 6)] |= 1L << cell;
+			}
+		}
+	}
+
+	/**
+	 * Takes a cell away from the support of every value it could take.
+	 */
+	private void removeSupport(final int cell) {
+		final Domain<E> domain = ((AbstractCell<E>) cells.get(cell)).domain();
+		final UniverseMapping mapping = mappings[cell];
+		for (int i = domain.firstIndex(); i >= 0; i = domain.nextIndex(i + 1)) {
+			final int valueIndex = mapping.forward(i);
+			if (valueIndex >= 0) {
+				support[valueIndex]--;
+				supportCells[valueIndex * unpairedCells.length + (cell >>> 6)] &= ~(1L << cell);
+			}
 		}
 	}
 
+	/**
+	 * @return The word of the group's unpaired values with the given index.
+	 */
+	long unpairedValueWord(final int word) {
+		return values.getWord(word);
+	}
+
+	void setTrail(final Trail trail) {
+		this.trail = trail;
+		this.trailStamp = trail.getStamp() - 1;
+		subGroups.forEach(subGroup -> subGroup.setTrail(trail));
+	}
+
+	/**
+	 * Saves the state onto the trail, if this is the first change since the trail's last push or pop.
+	 */
+	void saveState() {
+		if (trail != null && trailStamp != trail.getStamp())
+			trailStamp = trail.record(trailedState());
+	}
+
+	@Nonnull
+	Trailed trailedState() {
+		if (trailedState == null)
+			trailedState = new TrailedState();
+		return trailedState;
+	}
+
+	/**
+	 * Recomputes the group's unpaired cells and values from its cells,
+	 * after the cells have been set without informing their listeners.
+	 * @see Network#restore(long[])
+	 */
+	void resynchronise() {
+		saveState();
+		Arrays.fill(unpairedCells, 0L);
+		for (int i = 0; i < allValues.wordCount(); i++) {
+			values.setWord(i, allValues.getWord(i));
+		}
+		for (int i = 0; i < cells.size(); i++) {
+			final Optional<E> value = cells.get(i).getValue();
+			if (value.isEmpty()) {
+				unpairedCells[i >>> 6] |= 1L << i;
+			} else {
+				final int valueIndex = universe.indexOf(value.get());
+				if (valueIndex >= 0)
+					values.removeIndex(valueIndex);
+			}
+		}
+		if (support != null) {
+			Arrays.fill(support, 0);
+			Arrays.fill(supportCells, 0L);
+			for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+				addSupport(i);
+			}
+		}
+		subGroups.forEach(GroupImpl::resynchronise);
+	}
+
+	/**
+	 * Stops the group listening to its cells, and drops it from its parent's sub groups.
+	 * Cells that aren't {@link AbstractCell}s keep their listeners, which ignore them from then on.
+	 */
+	private void detach() {
+		detached = true;
+		for (int i = 0; i < cells.size(); i++) {
+			if (!(cells.get(i) instanceof AbstractCell))
+				continue;
+			final AbstractCell<E> cell = (AbstractCell<E>) cells.get(i);
+			cell.removeCellListener(valueListener, possibilityListener);
+			if (deltaListeners != null)
+				cell.removePossibilityDeltaListener(deltaListeners[i]);
+		}
+		// Sub groups are detached newest first, so this is normally the last of its parent's.
+		parent.subGroups.remove(parent.subGroups.lastIndexOf(this));
+	}
+
+	/**
+	 * Detaches a sub group when the level of the trail it was found on is popped.
+	 * Saves nothing, as the sub group's own state is saved separately.
+	 */
+	private class Registration implements Trailed {
+
+		@Override
+		public int savedWordCount() {
+			return 0;
+		}
+
+		@Override
+		public void save(final @Nonnull long[] words, final int offset) {
+		}
+
+		@Override
+		public void restore(final @Nonnull long[] words, final int offset) {
+			detach();
+		}
+	}
+
+	/**
+	 * The group's unpaired cells, followed by its unpaired values, then the cell masks of its support index, if it has one.
+	 * The support counts are recounted from the masks when restored.
+	 */
+	private class TrailedState implements Trailed {
+
+		@Override
+		public int savedWordCount() {
+			return unpairedCells.length + values.wordCount() + (support == null ? 0 : supportCells.length);
+		}
+
+		@Override
+		public void save(final @Nonnull long[] words, final int offset) {
+			System.arraycopy(unpairedCells, 0, words, offset, unpairedCells.length);
+			for (int i = 0; i < values.wordCount(); i++) {
+				words[offset + unpairedCells.length + i] = values.getWord(i);
+			}
+			if (support == null)
+				return;
+			System.arraycopy(supportCells, 0, words, offset + unpairedCells.length + values.wordCount(),
+					supportCells.length);
+		}
+
+		@Override
+		public void restore(final @Nonnull long[] words, final int offset) {
+			System.arraycopy(words, offset, unpairedCells, 0, unpairedCells.length);
+			for (int i = 0; i < values.wordCount(); i++) {
+				values.setWord(i, words[offset + unpairedCells.length + i]);
+			}
+			if (support == null)
+				return;
+			System.arraycopy(words, offset + unpairedCells.length + values.wordCount(), supportCells, 0,
+					supportCells.length);
+			for (int value = 0; value < support.length; value++) {
+				int count = 0;
+				for (int word = 0; word < unpairedCells.length; word++) {
+					count += Long.bitCount(supportCells[value * unpairedCells.length + word]);
+				}
+				support[value] = count;
+			}
+		}
+	}
+
+	/**
+	 * @return The index of the cell within this group.
+	 * @throws IllegalStateException If the cell doesn't belong to this group.
+	 */
+	int indexOf(final @Nonnull Cell<E> cell) {
+		final Integer index = cellIndices.get(cell);
+		if (index == null)
+			throw new IllegalStateException(LOST_CELL_EXCEPTION_MSG);
+		return index;
+	}
+
+	/*
+		Reading and writing cells in terms of the group's universe.
+	 */
+
+	/**
+	 * Adds the possibilities of a cell, expressed in the group's universe, to a value mask.
+	 */
+	void addPossibilities(final int cell, final @Nonnull long[] mask) {
+		final UniverseMapping mapping = mappings[cell];
+		if (mapping == null) {
+			cells.get(cell).forEachPossibility(value -> {
+				final int index = universe.indexOf(value);
+				if (index >= 0)
+					mask[index >>> 6] |= 1L << index;
+			});
+			return;
+		}
+		final Domain<E> domain = ((AbstractCell<E>) cells.get(cell)).domain();
+		if (mapping.isIdentity()) {
+			for (int i = 0; i < mask.length; i++) {
+				mask[i] |= domain.getWord(i);
+			}
+			return;
+		}
+		for (int i = domain.firstIndex(); i >= 0; i = domain.nextIndex(i + 1)) {
+			final int index = mapping.forward(i);
+			if (index >= 0)
+				mask[index >>> 6] |= 1L << index;
+		}
+	}
+
+	/**
+	 * @return The lowest group value index that the cell could be, or -1 if there is none.
+	 */
+	private int firstPossibility(final int cell) {
+		final UniverseMapping mapping = mappings[cell];
+		if (mapping == null) {
+			int first = -1;
+			for (final E value : cells.get(cell).getPossibilities()) {
+				final int index = universe.indexOf(value);
+				if (index >= 0 && (first < 0 || index < first))
+					first = index;
+			}
+			return first;
+		}
+		final Domain<E> domain = ((AbstractCell<E>) cells.get(cell)).domain();
+		for (int i = domain.firstIndex(); i >= 0; i = domain.nextIndex(i + 1)) {
+			final int index = mapping.forward(i);
+			if (index >= 0)
+				return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return The index in an {@link AbstractCell}'s own universe of a value of the group's universe,
+	 * or -1 if the cell's universe doesn't have it.
+	 */
+	int cellValueIndex(final int cell, final int valueIndex) {
+		return mappings[cell].backward(valueIndex);
+	}
+
+	boolean hasPossibility(final int cell, final int valueIndex) {
+		final UniverseMapping mapping = mappings[cell];
+		if (mapping == null)
+			return cells.get(cell).hasPossibility(universe.get(valueIndex));
+		final int index = mapping.backward(valueIndex);
+		return index >= 0 && ((AbstractCell<E>) cells.get(cell)).domain().containsIndex(index);
+	}
+
+	private int possibilityCount(final int cell) {
+		return cells.get(cell).getPossibilityCount();
+	}
+
+	/**
+	 * Removes a value, given as an index into the group's universe, from one of the group's cells.
+	 */
+	void removePossibility(final int cell, final int valueIndex) {
+		removePossibility(cell, universe.get(valueIndex), valueIndex);
+	}
+
+	private void removePossibility(final int cell, final @Nonnull E value, final int valueIndex) {
+		final UniverseMapping mapping = mappings[cell];
+		final int index = mapping == null || valueIndex < 0 ? -1 : mapping.backward(valueIndex);
+		if (index >= 0)
+			((AbstractCell<E>) cells.get(cell)).removePossibilityAt(index);
+		else if (mapping == null || !mapping.isIdentity())
+			cells.get(cell).removePossibility(value);
+	}
+
+	/*
+		Sub group search.
+	 */
+
+	/**
+	 * Scratch space for a single sub group search.
+	 * Every depth of the search has its own frame of included cells and values,
+	 * so sibling branches start from their parent's frame instead of copying it.
+	 */
+	protected static final class Context {
+		private final long[][] includedCells;
+		private final long[][] includedValues;
+		private final int[][] candidates;
+		/**
+		 * The depth and size of the sub group found by the search, if any, for its {@link SubGroupSearchEvent}.
+		 */
+		private int foundDepth;
+		private int foundSize;
+
+		private Context(final int cellCount, final int wordCount) {
+			final int cellWords = Math.max(1, (cellCount + Long.SIZE - 1) / Long.SIZE);
+			this.includedCells = new long[cellCount + 1][cellWords];
+			this.includedValues = new long[cellCount + 1][wordCount];
+			this.candidates = new int[cellCount + 1][cellCount];
+		}
+	}
+
+	/**
+	 * Runs the group's strategy now that the given cell has changed.
+	 */
 	protected void updateCellGroupings(final @Nonnull Cell<E> cell) {
-	    findSubGroups(new Context<>(), cell);
+		strategy.reduce(this, cell);
+	}
+
+	/**
+	 * Searches outwards from the given cell for a set of cells that can only take as many values as there are cells,
+	 * and removes those values from every other cell in the group.
+	 * @see GroupStrategy#subGroupSearch()
+	 */
+	protected void findSubGroups(final @Nonnull Cell<E> cell) {
+		findSubGroups(indexOf(cell));
 	}
 
-	protected Group<E> contextToSubGroup(final Context<E> context) {
-		final Set<Cell<E>> outcasts = Set.copyOf(Sets.difference(getUnpairedCells(), context.includedCells));
-		for (final Cell<E> cell : outcasts) {
-			cell.removePossibilities(context.includedValues);
+	private void findSubGroups(final int cell) {
+		Context context = idleContext;
+		idleContext = null;
+		if (context == null)
+			context = new Context(cells.size(), universe.wordCount());
+		final SubGroupSearchEvent event = new SubGroupSearchEvent();
+		event.begin();
+		context.foundDepth = 0;
+		context.foundSize = 0;
+		try {
+			findSubGroups(context, 0, cell);
+		} finally {
+			idleContext = context;
+		}
+		if (context.foundSize > 0)
+			SolverStats.global().onSubGroupFound();
+		if (event.shouldCommit()) {
+			event.groupSize = cells.size();
+			event.subGroupSize = context.foundSize;
+			event.depth = context.foundDepth;
+			event.commit();
 		}
-	    return new GroupImpl<>(context.includedCells, context.includedValues);
-    }
+	}
 
-	protected List<Group<E>> findSubGroups(final Context<E> context, final Cell<E> cell) {
-		context.includedCells.add(cell);
-		context.includedValues.addAll(cell.getPossibilities());
-		if (isCompleteSubGroup(context)) {
-			if (getUnpairedCells().size() == context.includedCells.size())
+	protected Group<E> contextToSubGroup(final @Nonnull long[] includedCells, final @Nonnull long[] includedValues) {
+		final Set<Cell<E>> subGroupCells = new HashSet<>();
+		final Domain<E> subGroupValues = Domain.empty(universe);
+		for (int i = 0; i < includedValues.length; i++) {
+			subGroupValues.setWord(i, includedValues[i]);
+		}
+		for (int i = 0; i < cells.size(); i++) {
+			if (isIncluded(includedCells, i))
+				subGroupCells.add(cells.get(i));
+		}
+		for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+			if (!isIncluded(includedCells, i))
+				cells.get(i).removePossibilities(subGroupValues);
+		}
+		// Value watches outlive the sub group once it's detached, so it doesn't look for hidden singles.
+		final GroupImpl<E> subGroup = new GroupImpl<>(subGroupCells, subGroupValues, GroupStrategy.subGroupSearch());
+		subGroup.parent = this;
+		subGroups.add(subGroup);
+		if (trail != null) {
+			trail.attach(subGroup);
+			// The sub group only holds below the choice point it was found under, if any, so it's detached with it.
+			trail.record(subGroup.new Registration());
+		}
+		return subGroup;
+	}
+
+	protected List<Group<E>> findSubGroups(final @Nonnull Context context, final int depth, final int cell) {
+		final long[] includedCells = context.includedCells[depth];
+		final long[] includedValues = context.includedValues[depth];
+		if (depth == 0) {
+			Arrays.fill(includedCells, 0L);
+			Arrays.fill(includedValues, 0L);
+		} else {
+			System.arraycopy(context.includedCells[depth - 1], 0, includedCells, 0, includedCells.length);
+			System.arraycopy(context.includedValues[depth - 1], 0, includedValues, 0, includedValues.length);
+		}
+		includedCells[cell >>> 6] |= 1L << cell;
+		addPossibilities(cell, includedValues);
+		if (isCompleteSubGroup(includedCells, includedValues)) {
+			if (bitCount(unpairedCells) == bitCount(includedCells))
 				return List.of();
-			final Group<E> subGroup = contextToSubGroup(context);
+			context.foundDepth = depth;
+			context.foundSize = bitCount(includedCells);
+			final Group<E> subGroup = contextToSubGroup(includedCells, includedValues);
 			// Todo continue to look for other sub groups
 			return List.of(subGroup);
 		}
-		final Context<E> contextCopy = context.copy();
-        final E variable = cell.getPossibilities().stream().findAny().orElseThrow();
-        return findSubGroups(contextCopy, variable);
+		final int variable = firstPossibility(cell);
+		if (variable < 0)
+			return List.of();
+		return findSubGroups(context, depth, variable, includedCells);
 	}
 
-	protected List<Group<E>> findSubGroups(final Context<E> context, final E value) {
-		final List<Cell<E>> cells = getUnpairedCells()
-                .stream()
-				.filter(c -> !context.includedCells.contains(c))
-                .filter(c -> c.getPossibilities().contains(value))
-                .sorted(Comparator.comparingInt(c -> c.getPossibilities().size()))
-                .toList();
-		for (final Cell<E> cell : cells) {
-		    final Context<E> contextCopy = context.copy();
-		    final List<Group<E>> subGroups = findSubGroups(contextCopy, cell);
-		    if (!subGroups.isEmpty()) {
-		        return subGroups;
-            }
-        }
+	/**
+	 * Tries to grow the sub group by each cell that could also take the given value,
+	 * starting with the cells that have the fewest possibilities.
+	 */
+	private List<Group<E>> findSubGroups(final @Nonnull Context context, final int depth,
+										 final int value, final @Nonnull long[] includedCells) {
+		final int[] candidates = context.candidates[depth];
+		int count = 0;
+		if (support != null) {
+			// The support index holds exactly the cells that could take the value.
+			for (int word = 0; word < includedCells.length; word++) {
+				for (long bits = supportingCellWord(value, word) & ~includedCells[word]; bits != 0; bits &= bits - 1) {
+					count = addCandidate(candidates, count, (word << 6) + Long.numberOfTrailingZeros(bits));
+				}
+			}
+		} else {
+			for (int i = nextUnpairedCell(0); i >= 0; i = nextUnpairedCell(i + 1)) {
+				if (hasPossibility(i, value) && !isIncluded(includedCells, i))
+					count = addCandidate(candidates, count, i);
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			final List<Group<E>> subGroups = findSubGroups(context, depth + 1, candidates[i]);
+			if (!subGroups.isEmpty()) {
+				return subGroups;
+			}
+		}
 		return List.of();
 	}
 
-	protected static boolean isCompleteSubGroup(final Context<?> context) {
-		return context.includedCells.size() == context.includedValues.size();
+	/**
+	 * Inserts a cell into the candidates, which are kept sorted by their number of possibilities.
+	 * @return The new number of candidates.
+	 */
+	private int addCandidate(final @Nonnull int[] candidates, final int count, final int cell) {
+		final int size = possibilityCount(cell);
+		int j = count;
+		while (j > 0 && possibilityCount(candidates[j - 1]) > size) {
+			candidates[j] = candidates[j - 1];
+			j--;
+		}
+		candidates[j] = cell;
+		return count + 1;
+	}
+
+	protected static boolean isCompleteSubGroup(final @Nonnull long[] includedCells,
+												final @Nonnull long[] includedValues) {
+		return bitCount(includedCells) == bitCount(includedValues);
+	}
+
+	private static boolean isIncluded(final @Nonnull long[] mask, final int index) {
+		return (mask[index >>> 6] & (1L << index)) != 0;
+	}
+
+	private static int bitCount(final @Nonnull long[] mask) {
+		int count = 0;
+		for (final long word : mask) {
+			count += Long.bitCount(word);
+		}
+		return count;
 	}
 }
@@ -0,0 +1,91 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The reasoning that a {@link GroupImpl} applies to its cells whenever one of their possibilities changes.
+ * @param <E> The value type of the group.
+ */
+@FunctionalInterface
+public interface GroupStrategy<E> {
+
+	/**
+	 * Removes any possibilities from the group's cells that can be ruled out now that the given cell has changed.
+	 * @param group The group that the cell belongs to.
+	 * @param cell The cell that's been updated.
+	 * @throws IllegalStateException If the cell doesn't belong to the group.
+	 */
+	void reduce(@Nonnull GroupImpl<E> group, @Nonnull Cell<E> cell);
+
+	/**
+	 * Called once by each group that the strategy is given to, once the group has been built,
+	 * so the strategy can subscribe to the group's cells itself. Does nothing by default.
+	 * @param group A group using this strategy.
+	 */
+	default void attach(final @Nonnull GroupImpl<E> group) {
+	}
+
+	/**
+	 * @return A strategy that applies this strategy, and then the given one.
+	 */
+	@Nonnull
+	default GroupStrategy<E> andThen(final @Nonnull GroupStrategy<E> after) {
+		final GroupStrategy<E> before = this;
+		return new GroupStrategy<>() {
+			@Override
+			public void reduce(final @Nonnull GroupImpl<E> group, final @Nonnull Cell<E> cell) {
+				before.reduce(group, cell);
+				after.reduce(group, cell);
+			}
+
+			@Override
+			public void attach(final @Nonnull GroupImpl<E> group) {
+				before.attach(group);
+				after.attach(group);
+			}
+		};
+	}
+
+	/**
+	 * The original strategy: searches outwards from the updated cell for a single sub group.
+	 * Exponential in the size of the group, and only prunes the first sub group that it finds.
+	 */
+	@Nonnull
+	static <E> GroupStrategy<E> subGroupSearch() {
+		return GroupImpl::findSubGroups;
+	}
+
+	/**
+	 * Prunes every possibility that can't be part of an assignment of different values to all of the group's cells.
+	 * Each call creates a new filter, which holds scratch space, so groups shouldn't share one between threads.
+	 * @see AllDifferentFilter
+	 */
+	@Nonnull
+	static <E> GroupStrategy<E> allDifferent() {
+		return new AllDifferentFilter<>();
+	}
+
+	/**
+	 * Pairs a value with the only cell left that could take it, using two watched cells per value,
+	 * so that it's only woken when one of those cells loses the value.
+	 * Best combined with another strategy, as in {@code subGroupSearch().andThen(hiddenSingles())},
+	 * which is what a {@link GroupImpl} uses unless it's given a strategy.
+	 * @see HiddenSingles
+	 */
+	@Nonnull
+	static <E> GroupStrategy<E> hiddenSingles() {
+		return new HiddenSingles<>();
+	}
+
+	/**
+	 * Prunes hidden subsets: sets of values that only as many cells could take between them.
+	 * Best combined with a cell side strategy, as in {@code subGroupSearch().andThen(hiddenSubsets(3))}.
+	 * Each call creates a new filter, which holds scratch space, so groups shouldn't share one between threads.
+	 * @param maxSize The largest number of values in a hidden subset to look for.
+	 * @see HiddenSubsetFilter
+	 */
+	@Nonnull
+	static <E> GroupStrategy<E> hiddenSubsets(final int maxSize) {
+		return new HiddenSubsetFilter<>(maxSize);
+	}
+}
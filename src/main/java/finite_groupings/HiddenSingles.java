@@ -0,0 +1,118 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Pairs a value with a cell as soon as that cell is the only unpaired one left that could take it (a hidden single),
+ * and fails as soon as no cell could take it.
+ * <p>
+ * Like the two watched literals of a SAT solver, each unpaired value watches two cells that could take it,
+ * through {@link AbstractCell#watchValueAt}. The strategy is only woken when a watched cell loses its watched value.
+ * It then reads the value's support from the group's support index, which is brought up to date before any watcher
+ * is told: with two or more cells left, the watch moves to one of them, and with one or none,
+ * the value is paired with that cell, or the group fails.
+ * Changes to cells that aren't watched, or that lose values they aren't watched for, cost nothing.
+ * <p>
+ * Watches don't need to be undone by backtracking: a cell that's watched could still take its value,
+ * unless it lost it when there was nowhere to move the watch, in which case backtracking past that loss gives it back.
+ * Values with fewer than two cells that could take them when the strategy is attached are watched where they can be,
+ * and so is every value after {@link Network#restore(long[])}, which doesn't report the values it removes;
+ * hidden singles may then be missed, but are never wrongly found.
+ * <p>
+ * Only groups whose cells are all {@link AbstractCell}s, and which have as many unpaired values as unpaired cells,
+ * so that every value must be taken, are reduced.
+ * @param <E> The value type of the group.
+ */
+public class HiddenSingles<E> implements GroupStrategy<E> {
+
+	protected static final String NO_SUPPORT_EXCEPTION_MSG = "No cell of the group can take the value.";
+
+	/**
+	 * Does nothing, as the strategy is woken by its watches rather than by every change to the group's cells.
+	 */
+	@Override
+	public void reduce(final @Nonnull GroupImpl<E> group, final @Nonnull Cell<E> cell) {
+	}
+
+	/**
+	 * Watches up to two cells that could take each of the group's unpaired values.
+	 */
+	@Override
+	public void attach(final @Nonnull GroupImpl<E> group) {
+		if (group.hasSupportIndex())
+			new Watches<>(group);
+	}
+
+	/**
+	 * The watches of a single group.
+	 */
+	private static final class Watches<E> {
+		private final GroupImpl<E> group;
+		/**
+		 * The two cells watched for each value of the group's universe, at 2 * value and 2 * value + 1,
+		 * or -1 where there's no cell to watch.
+		 */
+		private final int[] watched;
+		/**
+		 * One listener for each value, so moving a watch doesn't create one.
+		 */
+		private final AbstractCell.ValueRemovalListener<E>[] listeners;
+
+		@SuppressWarnings("unchecked")
+		private Watches(final @Nonnull GroupImpl<E> group) {
+			this.group = group;
+			final int valueCount = group.getUniverse().size();
+			this.watched = new int[2 * valueCount];
+			Arrays.fill(watched, -1);
+			this.listeners = (AbstractCell.ValueRemovalListener<E>[]) new AbstractCell.ValueRemovalListener<?>[valueCount];
+			for (int value = 0; value < valueCount; value++) {
+				if (!group.isUnpairedValue(value))
+					continue;
+				final int v = value;
+				listeners[value] = (cell, index) -> onValueRemoved(v, cell);
+				int slot = 2 * value;
+				for (int i = group.nextSupportingCell(value, 0); i >= 0 && slot < 2 * value + 2;
+					 i = group.nextSupportingCell(value, i + 1)) {
+					watched[slot++] = i;
+					watch(i, value);
+				}
+			}
+		}
+
+		private void watch(final int cell, final int value) {
+			((AbstractCell<E>) group.cellAt(cell)).watchValueAt(group.cellValueIndex(cell, value), listeners[value]);
+		}
+
+		/**
+		 * Moves the watch off a cell that's lost the value, or if there's no other cell to move it to,
+		 * pairs the value with the only cell left that could take it, or fails if there's none.
+		 * @return False if the watch has moved.
+		 * @throws ContradictionException If no unpaired cell can take the value.
+		 */
+		private boolean onValueRemoved(final int value, final @Nonnull AbstractCell<E> cell) {
+			if (!group.isUnpairedValue(value) || group.unpairedCellCount() != group.getValues().size())
+				return true;
+			final int support = group.supportCount(value);
+			if (support == 0)
+				throw new ContradictionException(NO_SUPPORT_EXCEPTION_MSG);
+			final int first = watched[2 * value];
+			final int slot = first >= 0 && group.cellAt(first) == cell ? 2 * value : 2 * value + 1;
+			final int other = watched[slot ^ 1];
+			// The cell that lost the value has already left its support, so only the other watch needs skipping.
+			int next = group.nextSupportingCell(value, 0);
+			if (next == other)
+				next = group.nextSupportingCell(value, next + 1);
+			if (support > 1) {
+				watched[slot] = next;
+				watch(next, value);
+				return false;
+			}
+			// The watch stays put, ready for backtracking to give the value back.
+			final int single = next >= 0 ? next : other;
+			// Reduced rather than set, so that a propagator can defer the cell's notifications.
+			((AbstractCell<E>) group.cellAt(single)).retainPossibilityAt(group.cellValueIndex(single, value));
+			return true;
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Finds hidden subsets: k unpaired values that only k cells could take between them,
+ * so those cells can't take any other value. A hidden single is a hidden subset of one value,
+ * and a hidden pair or triple one of two or three.
+ * <p>
+ * The sub group search grows sets of cells and unions their values, so it only finds a hidden subset as the naked
+ * subset of every other cell, deep in its search. This filter works from the value side instead,
+ * enumerating sets of up to a maximum number of values in index order, and unioning their cell masks,
+ * which are read from the group's support index when it has one.
+ * Values that more cells could take than the maximum are never tried, and a set is never grown once its cells
+ * outnumber the maximum, which prunes almost all of the enumeration in practice.
+ * <p>
+ * Only groups with as many unpaired values as unpaired cells are reduced, as other groups needn't use every value.
+ * @param <E> The value type of the group.
+ */
+public class HiddenSubsetFilter<E> implements GroupStrategy<E> {
+
+	protected static final String MAX_SIZE_EXCEPTION_MSG = "Hidden subsets need room for at least one value.";
+	protected static final String TOO_FEW_CELLS_EXCEPTION_MSG = "Values can't all be taken by different cells.";
+
+	/**
+	 * The largest number of values in a hidden subset that the filter looks for.
+	 */
+	private final int maxSize;
+	/**
+	 * Scratch space kept between passes. Null while it's in use, so that a pass over another group,
+	 * triggered by this pass's pruning, works in its own scratch instead of corrupting this one.
+	 */
+	private Scratch idleScratch;
+	/**
+	 * The group that a pass is currently running over, if any.
+	 */
+	private GroupImpl<E> activeGroup;
+	/**
+	 * Set when the active group's cells change during its own pass, so the pass is run again once it's finished,
+	 * rather than starting a nested pass for every possibility that it removes.
+	 */
+	private boolean rerun;
+	/**
+	 * The number of sets of values tried, across every pass.
+	 */
+	private long searchSteps;
+
+	/**
+	 * @param maxSize The largest number of values in a hidden subset to look for.
+	 * @throws IllegalArgumentException If the size is less than one.
+	 */
+	public HiddenSubsetFilter(final int maxSize) {
+		if (maxSize < 1)
+			throw new IllegalArgumentException(MAX_SIZE_EXCEPTION_MSG);
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return The number of sets of values that the filter has tried, across every group and pass.
+	 */
+	public long getSearchSteps() {
+		return searchSteps;
+	}
+
+	@Override
+	public void reduce(final @Nonnull GroupImpl<E> group, final @Nonnull Cell<E> cell) {
+		group.indexOf(cell);
+		if (group == activeGroup) {
+			rerun = true;
+			return;
+		}
+		final GroupImpl<E> outerGroup = activeGroup;
+		final boolean outerRerun = rerun;
+		Scratch scratch = idleScratch;
+		idleScratch = null;
+		if (scratch == null || !scratch.fits(group))
+			scratch = new Scratch(group, maxSize);
+		activeGroup = group;
+		try {
+			boolean pruned;
+			do {
+				rerun = false;
+				pruned = reduce(group, scratch);
+			} while (rerun || pruned);
+		} finally {
+			idleScratch = scratch;
+			activeGroup = outerGroup;
+			rerun = outerRerun;
+		}
+	}
+
+	/**
+	 * Prunes the first hidden subset that rules anything out, if there is one.
+	 * Pruning can pair cells, which doesn't set off another pass, so the caller looks for the next itself.
+	 * @return True if a hidden subset was pruned.
+	 */
+	private boolean reduce(final @Nonnull GroupImpl<E> group, final @Nonnull Scratch scratch) {
+		if (group.unpairedCellCount() != group.getValues().size())
+			return false;
+		scratch.readValues(group, maxSize);
+		final int size = search(group, scratch, 0, 0);
+		if (size == 0)
+			return false;
+		final long[] subsetCells = scratch.unions[size];
+		for (int word = 0; word < subsetCells.length; word++) {
+			for (long bits = subsetCells[word]; bits != 0; bits &= bits - 1) {
+				final int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+				Arrays.fill(scratch.others, 0L);
+				group.addPossibilities(cell, scratch.others);
+				for (int valueWord = 0; valueWord < scratch.others.length; valueWord++) {
+					for (long others = scratch.others[valueWord] & ~scratch.subsetValues[valueWord]
+							& group.unpairedValueWord(valueWord); others != 0; others &= others - 1) {
+						// Earlier removals may have paired the cell, in which case the group has already dealt with it.
+						if (group.isUnpaired(cell))
+							group.removePossibility(cell, (valueWord << 6) + Long.numberOfTrailingZeros(others));
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Grows the set of values chosen so far by each candidate from the given one on, depth first.
+	 * @param depth The number of values chosen so far, whose cells are unioned in {@code scratch.unions[depth]}.
+	 * @return The number of values in the first hidden subset found that rules anything out, or 0 if there's none.
+	 * @throws ContradictionException If some of the values can only be taken by fewer cells than there are values.
+	 */
+	private int search(final @Nonnull GroupImpl<E> group, final @Nonnull Scratch scratch,
+					   final int depth, final int from) {
+		final long[] union = scratch.unions[depth];
+		final long[] grown = scratch.unions[depth + 1];
+		final int size = depth + 1;
+		for (int i = from; i < scratch.candidateCount; i++) {
+			searchSteps++;
+			final long[] cells = scratch.cells[i];
+			int cellCount = 0;
+			for (int word = 0; word < grown.length; word++) {
+				grown[word] = union[word] | cells[word];
+				cellCount += Long.bitCount(grown[word]);
+			}
+			if (cellCount > maxSize)
+				continue;
+			if (cellCount < size)
+				throw new ContradictionException(TOO_FEW_CELLS_EXCEPTION_MSG);
+			scratch.chosen[depth] = scratch.candidates[i];
+			if (cellCount == size && rulesOut(group, scratch, size))
+				return size;
+			if (size < maxSize) {
+				final int found = search(group, scratch, size, i + 1);
+				if (found > 0)
+					return found;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return True if any of the cells of the chosen values could take a value outside of them,
+	 * leaving the chosen values in {@code scratch.subsetValues}.
+	 */
+	private boolean rulesOut(final @Nonnull GroupImpl<E> group, final @Nonnull Scratch scratch, final int size) {
+		Arrays.fill(scratch.subsetValues, 0L);
+		for (int i = 0; i < size; i++) {
+			scratch.subsetValues[scratch.chosen[i] >>> 6] |= 1L << scratch.chosen[i];
+		}
+		final long[] subsetCells = scratch.unions[size];
+		for (int word = 0; word < subsetCells.length; word++) {
+			for (long bits = subsetCells[word]; bits != 0; bits &= bits - 1) {
+				Arrays.fill(scratch.others, 0L);
+				group.addPossibilities((word << 6) + Long.numberOfTrailingZeros(bits), scratch.others);
+				for (int valueWord = 0; valueWord < scratch.others.length; valueWord++) {
+					if ((scratch.others[valueWord] & ~scratch.subsetValues[valueWord]
+							& group.unpairedValueWord(valueWord)) != 0)
+						return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The values that could be part of a hidden subset, their cells, and the working state of a pass.
+	 * Cells and values are referred to by their indices within the group.
+	 */
+	private static final class Scratch {
+		private final int cellCount;
+		private final int valueCount;
+
+		/**
+		 * The unpaired values that at most the maximum number of cells could take, and for each, those cells.
+		 */
+		private final int[] candidates;
+		private final long[][] cells;
+		private int candidateCount;
+
+		/**
+		 * The cells of the values chosen at each depth of the search, where depth 0 has none.
+		 */
+		private final long[][] unions;
+		private final int[] chosen;
+		private final long[] subsetValues;
+		private final long[] others;
+
+		private Scratch(final @Nonnull GroupImpl<?> group, final int maxSize) {
+			this.cellCount = group.cellCount();
+			this.valueCount = group.getUniverse().size();
+			final int cellWords = Math.max(1, (cellCount + Long.SIZE - 1) / Long.SIZE);
+			final int valueWords = group.getUniverse().wordCount();
+			this.candidates = new int[valueCount];
+			this.cells = new long[valueCount][cellWords];
+			final int depths = Math.min(maxSize, valueCount) + 1;
+			this.unions = new long[depths + 1][cellWords];
+			this.chosen = new int[depths];
+			this.subsetValues = new long[valueWords];
+			this.others = new long[valueWords];
+		}
+
+		private boolean fits(final @Nonnull GroupImpl<?> group) {
+			return cellCount == group.cellCount() && valueCount == group.getUniverse().size();
+		}
+
+		/**
+		 * Reads the candidates, in index order, with the cells that could take them.
+		 */
+		private void readValues(final @Nonnull GroupImpl<?> group, final int maxSize) {
+			candidateCount = 0;
+			for (int word = 0; word < group.getUniverse().wordCount(); word++) {
+				for (long bits = group.unpairedValueWord(word); bits != 0; bits &= bits - 1) {
+					final int value = (word << 6) + Long.numberOfTrailingZeros(bits);
+					if (group.supportCount(value) > maxSize)
+						continue;
+					candidates[candidateCount] = value;
+					group.copySupportingCells(value, cells[candidateCount]);
+					candidateCount++;
+				}
+			}
+		}
+	}
+}
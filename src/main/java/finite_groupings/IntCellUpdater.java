@@ -0,0 +1,75 @@
+package finite_groupings;
+
+import com.google.common.collect.ImmutableList;
+import utils.updatablepriorityqueue.IntUpdatablePriorityQueue;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Updates cells as a {@link CellUpdater} does, but for a fixed list of cells, such as {@link Network#getCells()},
+ * queueing each cell by its position in the list with an {@link IntUpdatablePriorityQueue}.
+ * Updating a cell or changing its priority never hashes the cell or creates a priority object,
+ * which suits networks of millions of cells.
+ */
+public class IntCellUpdater<E> {
+
+	private final ImmutableList<Cell<E>> cells;
+	private final IntUpdatablePriorityQueue queue;
+
+	/**
+	 * @param cells The cells to update, each identified by its position in the list.
+	 */
+	public IntCellUpdater(final @Nonnull List<? extends Cell<E>> cells) {
+		this.cells = ImmutableList.copyOf(cells);
+		this.queue = new IntUpdatablePriorityQueue(cells.size());
+	}
+
+	public IntUpdatablePriorityQueue getQueue() {
+		return queue;
+	}
+
+	@Nonnull
+	public Cell<E> getCell(final int id) {
+		return cells.get(id);
+	}
+
+	/**
+	 * Takes the cell with the largest priority and requests that it updates its set of potential values.
+	 * If the cell still doesn't have a value afterwards, it's queued again with a reset priority.
+	 */
+	public void update() {
+		final int id = queue.poll();
+		if (id == IntUpdatablePriorityQueue.NONE)
+			return;
+		final Cell<E> cell = cells.get(id);
+		CellUpdater.updatePossibilities(cell);
+		if (!cell.hasValue() && queue.add(id))
+			SolverStats.global().onQueueSize(queue.size());
+	}
+
+	/**
+	 * Queues the cell with the given id, and adds listeners to it that remove it from the queue once it has a value,
+	 * and reset its priority when its possibilities change, as {@link CellUpdater#add(Cell)} does.
+	 * @return False if the cell was already queued, otherwise true.
+	 */
+	public boolean add(final int id) {
+		if (!queue.add(id))
+			return false;
+		SolverStats.global().onQueueSize(queue.size());
+		cells.get(id).addCellListener(
+				(c, v) -> queue.remove(id),
+				(c, p) -> queue.resetCount(id)
+		);
+		return true;
+	}
+
+	/**
+	 * Queues every cell.
+	 */
+	public void addAll() {
+		for (int id = 0; id < cells.size(); id++) {
+			add(id);
+		}
+	}
+}
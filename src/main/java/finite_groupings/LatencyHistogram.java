@@ -0,0 +1,108 @@
+package finite_groupings;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values, such as latencies in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into {@code 2^SUB_BITS} equal buckets,
+ * so a percentile is accurate to within 1 part in {@code 2^SUB_BITS} of the value, at any scale.
+ * Every bucket is a {@link LongAdder}, so threads recording at once don't contend on a shared counter.
+ * <p>
+ * Reads aren't atomic with respect to concurrent records, so a percentile read while values are being recorded
+ * may miss some of them, as {@link LongAdder#sum()} does.
+ */
+final class LatencyHistogram {
+
+	private static final int SUB_BITS = 4;
+	private static final int SUB_COUNT = 1 << SUB_BITS;
+	/**
+	 * Values below {@code SUB_COUNT} get a bucket each, then every power of two up to {@code 2^62} gets {@code SUB_COUNT}.
+	 */
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BITS) * SUB_COUNT;
+
+	private final LongAdder[] buckets;
+	private final LongAccumulator max;
+
+	LatencyHistogram() {
+		this.buckets = new LongAdder[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			buckets[i] = new LongAdder();
+		}
+		this.max = new LongAccumulator(Math::max, 0L);
+	}
+
+	/**
+	 * @param value A non-negative value. Negative values are counted as 0.
+	 */
+	void record(final long value) {
+		final long v = Math.max(0L, value);
+		buckets[bucketOf(v)].increment();
+		max.accumulate(v);
+	}
+
+	static int bucketOf(final long value) {
+		if (value < SUB_COUNT)
+			return (int) value;
+		final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+		return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+	}
+
+	/**
+	 * @return The largest value that falls in the given bucket.
+	 */
+	static long upperBoundOf(final int bucket) {
+		if (bucket < SUB_COUNT)
+			return bucket;
+		final int shift = bucket / SUB_COUNT - 1;
+		final long lower = (long) (SUB_COUNT + bucket % SUB_COUNT) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+	long count() {
+		long count = 0;
+		for (final LongAdder bucket : buckets) {
+			count += bucket.sum();
+		}
+		return count;
+	}
+
+	long max() {
+		return max.get();
+	}
+
+	/**
+	 * @param quantile Between 0 and 1.
+	 * @return The value at or below which the given fraction of the values recorded fall,
+	 * rounded up to the end of its bucket but no higher than the largest value recorded, or 0 if none have been.
+	 * @throws IllegalArgumentException If the quantile is outside of 0 to 1.
+	 */
+	long valueAt(final double quantile) {
+		if (!(quantile >= 0 && quantile <= 1))
+			throw new IllegalArgumentException(String.format(SolverStats.INVALID_QUANTILE_EXCEPTION_MSG, quantile));
+		final long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+		if (total == 0)
+			return 0;
+		final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(upperBoundOf(i), max());
+		}
+		return max();
+	}
+
+	void reset() {
+		for (final LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		max.reset();
+	}
+}
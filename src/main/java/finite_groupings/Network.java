@@ -0,0 +1,132 @@
+package finite_groupings;
+
+import com.google.common.collect.ImmutableList;
+import utils.ClassUtils;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A set of groups and all of their cells, attached to a shared {@link Trail}.
+ * <p>
+ * The state of every cell can also be copied out into a flat snapshot, and copied back in,
+ * so that the state reached in one network can be carried over to an identically built network on another thread.
+ * Snapshots follow the order of {@link #getCells()}, so networks that share snapshots should be built with
+ * {@link #Network(List, Iterable)} from cells listed in the same order.
+ * @param <E> The value type of the cells.
+ */
+public class Network<E> {
+
+	protected static final String UNSUPPORTED_CELL_EXCEPTION_MSG = "Networks only support cells extending AbstractCell.";
+	protected static final String UNSUPPORTED_GROUP_EXCEPTION_MSG = "Networks only support groups extending GroupImpl.";
+	protected static final String MISSING_CELL_EXCEPTION_MSG = "A group's cell is missing from the network's cells.";
+	protected static final String SNAPSHOT_SIZE_EXCEPTION_MSG = "Snapshot was taken from a differently shaped network.";
+
+	private final ImmutableList<GroupImpl<E>> groups;
+	private final ImmutableList<AbstractCell<E>> cells;
+	private final Trail trail;
+	private final int snapshotSize;
+
+	/**
+	 * Orders the cells by the first group they appear in.
+	 * @param groups Every group in the network.
+	 * @see #Network(List, Iterable)
+	 */
+	public Network(final @Nonnull Iterable<? extends Group<E>> groups) {
+		this(List.copyOf(cellsOf(groups)), groups);
+	}
+
+	/**
+	 * @param cells Every cell in the network, in the order that snapshots are taken in.
+	 * @param groups Every group in the network. The groups and cells are attached to the network's trail,
+	 *               replacing any trail they were attached to before.
+	 * @throws IllegalArgumentException If a group isn't a {@link GroupImpl}, a cell isn't an {@link AbstractCell},
+	 * or a group has a cell that isn't in the list.
+	 */
+	@SuppressWarnings("unchecked")
+	public Network(final @Nonnull List<? extends Cell<E>> cells, final @Nonnull Iterable<? extends Group<E>> groups) {
+		this.trail = new Trail();
+		final ImmutableList.Builder<AbstractCell<E>> cellBuilder = ImmutableList.builder();
+		for (final Cell<E> cell : cells) {
+			cellBuilder.add(ClassUtils.safeCast(cell, AbstractCell.class)
+					.orElseThrow(() -> new IllegalArgumentException(UNSUPPORTED_CELL_EXCEPTION_MSG)));
+		}
+		this.cells = cellBuilder.build();
+		final Set<Cell<E>> cellSet = Set.copyOf(cells);
+		final ImmutableList.Builder<GroupImpl<E>> groupBuilder = ImmutableList.builder();
+		for (final Group<E> group : groups) {
+			groupBuilder.add(ClassUtils.safeCast(group, GroupImpl.class)
+					.orElseThrow(() -> new IllegalArgumentException(UNSUPPORTED_GROUP_EXCEPTION_MSG)));
+			if (!cellSet.containsAll(group.getAllCells()))
+				throw new IllegalArgumentException(MISSING_CELL_EXCEPTION_MSG);
+		}
+		this.groups = groupBuilder.build();
+		int snapshotSize = 0;
+		for (final AbstractCell<E> cell : this.cells) {
+			trail.attach(cell);
+			snapshotSize += cell.trailedState().savedWordCount();
+		}
+		this.groups.forEach(trail::attach);
+		this.snapshotSize = snapshotSize;
+	}
+
+	private static <E> Set<Cell<E>> cellsOf(final @Nonnull Iterable<? extends Group<E>> groups) {
+		final Set<Cell<E>> cells = new LinkedHashSet<>();
+		for (final Group<E> group : groups) {
+			cells.addAll(group.getAllCells());
+		}
+		return cells;
+	}
+
+	@Nonnull
+	public ImmutableList<GroupImpl<E>> getGroups() {
+		return groups;
+	}
+
+	@Nonnull
+	public ImmutableList<AbstractCell<E>> getCells() {
+		return cells;
+	}
+
+	@Nonnull
+	public Trail getTrail() {
+		return trail;
+	}
+
+	/**
+	 * @return The possibilities and value of every cell in the network.
+	 */
+	@Nonnull
+	public long[] snapshot() {
+		final long[] snapshot = new long[snapshotSize];
+		int offset = 0;
+		for (final AbstractCell<E> cell : cells) {
+			final Trailed state = cell.trailedState();
+			state.save(snapshot, offset);
+			offset += state.savedWordCount();
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Sets every cell in the network to its state in the snapshot, without informing any listeners,
+	 * then brings the groups back in line with their cells.
+	 * The change is recorded on the trail like any other, so it's undone by popping the current level.
+	 * @param snapshot A snapshot of this network, or of one built identically to it.
+	 * @throws IllegalArgumentException If the snapshot is from a network of a different shape.
+	 */
+	public void restore(final @Nonnull long[] snapshot) {
+		if (snapshot.length != snapshotSize)
+			throw new IllegalArgumentException(SNAPSHOT_SIZE_EXCEPTION_MSG);
+		int offset = 0;
+		for (final AbstractCell<E> cell : cells) {
+			final Trailed state = cell.trailedState();
+			cell.saveState();
+			state.restore(snapshot, offset);
+			offset += state.savedWordCount();
+		}
+		groups.forEach(GroupImpl::resynchronise);
+	}
+}
@@ -0,0 +1,227 @@
+package finite_groupings;
+
+import com.google.common.collect.ImmutableList;
+import finite_groupings.domain.Domain;
+import finite_groupings.domain.Universe;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Writes a {@link Network} out in a compact binary form, and reads it back in as a new, live network,
+ * so that a long running search can pick up where it left off without redoing its propagation.
+ * <p>
+ * The form holds the network's topology, as its universes, which universe each cell is drawn from,
+ * and the cells and values of each group, followed by the network's {@link Network#snapshot() snapshot},
+ * which holds every cell's possibilities as packed bitsets.
+ * Values are written by a {@link ValueCodec}, and the cells are created by a factory,
+ * as neither can be written out generically. Group strategies can't be written out either,
+ * so every group read is given the same strategy.
+ * <p>
+ * A network read back in is attached to a new trail, at its base level, and to no propagator.
+ * @param <E> The value type of the cells.
+ */
+public class NetworkCodec<E> {
+
+	protected static final String CORRUPT_DATA_EXCEPTION_MSG = "Network data is corrupt or from another version.";
+	protected static final String UNSUPPORTED_CELL_EXCEPTION_MSG = "Cells must be created with the universe given.";
+	protected static final String NETWORK_TOO_LARGE_EXCEPTION_MSG = "Network is too large to write out.";
+
+	private static final int MAGIC = 0x46474E57;
+	private static final int VERSION = 1;
+	/**
+	 * The magic number, the version, and the sizes of the values and of the rest of the network, in bytes.
+	 */
+	private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+	/**
+	 * Writes and reads single values.
+	 * @param <E> The value type.
+	 */
+	public interface ValueCodec<E> {
+		void write(@Nonnull DataOutput out, @Nonnull E value) throws IOException;
+
+		@Nonnull
+		E read(@Nonnull DataInput in) throws IOException;
+	}
+
+	/**
+	 * @return A codec of integers, as 4 bytes each.
+	 */
+	@Nonnull
+	public static ValueCodec<Integer> integers() {
+		return new ValueCodec<>() {
+			@Override
+			public void write(final @Nonnull DataOutput out, final @Nonnull Integer value) throws IOException {
+				out.writeInt(value);
+			}
+
+			@Nonnull
+			@Override
+			public Integer read(final @Nonnull DataInput in) throws IOException {
+				return in.readInt();
+			}
+		};
+	}
+
+	private final ValueCodec<E> values;
+	private final Function<Universe<E>, ? extends AbstractCell<E>> cells;
+	private final GroupStrategy<E> strategy;
+
+	/**
+	 * @param values Writes and reads the values of each universe.
+	 * @param cells Creates a cell with every value of the given universe possible.
+	 * @param strategy The strategy of every group read.
+	 */
+	public NetworkCodec(final @Nonnull ValueCodec<E> values,
+						final @Nonnull Function<Universe<E>, ? extends AbstractCell<E>> cells,
+						final @Nonnull GroupStrategy<E> strategy) {
+		this.values = values;
+		this.cells = cells;
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Writes the network, then flushes the stream without closing it.
+	 */
+	public void write(final @Nonnull Network<E> network, final @Nonnull OutputStream stream) throws IOException {
+		final ImmutableList<AbstractCell<E>> cellList = network.getCells();
+		final ImmutableList<GroupImpl<E>> groups = network.getGroups();
+		final Map<Universe<E>, Integer> universes = new IdentityHashMap<>();
+		final List<Universe<E>> universeList = new ArrayList<>();
+		final Map<Cell<E>, Integer> cellIndices = new IdentityHashMap<>(cellList.size());
+		for (final AbstractCell<E> cell : cellList) {
+			cellIndices.put(cell, cellIndices.size());
+			universes.computeIfAbsent(cell.getUniverse(), u -> add(universeList, u));
+		}
+		for (final GroupImpl<E> group : groups) {
+			universes.computeIfAbsent(group.getUniverse(), u -> add(universeList, u));
+		}
+
+		final ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+		final DataOutputStream valueOut = new DataOutputStream(valueBytes);
+		valueOut.writeInt(universeList.size());
+		for (final Universe<E> universe : universeList) {
+			valueOut.writeInt(universe.size());
+			for (final E value : universe.getValues()) {
+				values.write(valueOut, value);
+			}
+		}
+
+		final long[] snapshot = network.snapshot();
+		long bodySize = Integer.BYTES * (3L + cellList.size()) + (long) Long.BYTES * snapshot.length;
+		for (final GroupImpl<E> group : groups) {
+			bodySize += Integer.BYTES * (2L + group.cellCount()) + (long) Long.BYTES * group.allValues().wordCount();
+		}
+		if (bodySize > Integer.MAX_VALUE - HEADER_BYTES - valueBytes.size())
+			throw new IllegalArgumentException(NETWORK_TOO_LARGE_EXCEPTION_MSG);
+		final ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + valueBytes.size() + (int) bodySize);
+		out.putInt(MAGIC).putInt(VERSION).putInt(valueBytes.size()).putInt((int) bodySize);
+		out.put(valueBytes.toByteArray());
+		out.putInt(cellList.size());
+		for (final AbstractCell<E> cell : cellList) {
+			out.putInt(universes.get(cell.getUniverse()));
+		}
+		out.putInt(groups.size());
+		for (final GroupImpl<E> group : groups) {
+			out.putInt(universes.get(group.getUniverse()));
+			out.putInt(group.cellCount());
+			for (int i = 0; i < group.cellCount(); i++) {
+				out.putInt(cellIndices.get(group.cellAt(i)));
+			}
+			final Domain<E> allValues = group.allValues();
+			for (int i = 0; i < allValues.wordCount(); i++) {
+				out.putLong(allValues.getWord(i));
+			}
+		}
+		out.putInt(snapshot.length);
+		out.asLongBuffer().put(snapshot);
+		stream.write(out.array());
+		stream.flush();
+	}
+
+	private static <U> int add(final @Nonnull List<U> list, final @Nonnull U element) {
+		list.add(element);
+		return list.size() - 1;
+	}
+
+	/**
+	 * Reads a network written by {@link #write(Network, OutputStream)}, leaving the stream just past its end.
+	 * @throws IOException If the data is corrupt, or written by another version.
+	 * @throws IllegalArgumentException If the cell factory doesn't create cells with the universe it's given.
+	 */
+	@Nonnull
+	public Network<E> read(final @Nonnull InputStream stream) throws IOException {
+		final DataInputStream header = new DataInputStream(stream);
+		if (header.readInt() != MAGIC || header.readInt() != VERSION)
+			throw new IOException(CORRUPT_DATA_EXCEPTION_MSG);
+		final byte[] valueBytes = new byte[count(header.readInt())];
+		final byte[] bodyBytes = new byte[count(header.readInt())];
+		header.readFully(valueBytes);
+		header.readFully(bodyBytes);
+
+		final DataInputStream valueIn = new DataInputStream(new ByteArrayInputStream(valueBytes));
+		final List<Universe<E>> universes = new ArrayList<>();
+		final int universeCount = count(valueIn.readInt());
+		for (int u = 0; u < universeCount; u++) {
+			final int size = count(valueIn.readInt());
+			final List<E> universe = new ArrayList<>(Math.min(size, valueBytes.length));
+			for (int i = 0; i < size; i++) {
+				universe.add(values.read(valueIn));
+			}
+			universes.add(Universe.of(universe));
+		}
+
+		final ByteBuffer in = ByteBuffer.wrap(bodyBytes);
+		try {
+			final int cellCount = count(in.getInt());
+			final List<AbstractCell<E>> cellList = new ArrayList<>(Math.min(cellCount, bodyBytes.length));
+			for (int c = 0; c < cellCount; c++) {
+				final Universe<E> universe = universes.get(index(in.getInt(), universes.size()));
+				final AbstractCell<E> cell = cells.apply(universe);
+				if (cell.getUniverse() != universe)
+					throw new IllegalArgumentException(UNSUPPORTED_CELL_EXCEPTION_MSG);
+				cellList.add(cell);
+			}
+			final int groupCount = count(in.getInt());
+			final List<GroupImpl<E>> groups = new ArrayList<>(Math.min(groupCount, bodyBytes.length));
+			for (int g = 0; g < groupCount; g++) {
+				final Universe<E> universe = universes.get(index(in.getInt(), universes.size()));
+				final int size = count(in.getInt());
+				// Keeps the group's cells in the same order, so their indices within the group match.
+				final Set<Cell<E>> groupCells = new LinkedHashSet<>();
+				for (int i = 0; i < size; i++) {
+					groupCells.add(cellList.get(index(in.getInt(), cellCount)));
+				}
+				final Domain<E> allValues = Domain.empty(universe);
+				for (int i = 0; i < allValues.wordCount(); i++) {
+					allValues.setWord(i, in.getLong());
+				}
+				groups.add(new GroupImpl<>(groupCells, allValues, strategy));
+			}
+			final long[] snapshot = new long[count(in.getInt())];
+			in.asLongBuffer().get(snapshot);
+			final Network<E> network = new Network<>(cellList, groups);
+			network.restore(snapshot);
+			return network;
+		} catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IOException(CORRUPT_DATA_EXCEPTION_MSG, e);
+		}
+	}
+
+	private static int count(final int count) throws IOException {
+		if (count < 0)
+			throw new IOException(CORRUPT_DATA_EXCEPTION_MSG);
+		return count;
+	}
+
+	private static int index(final int index, final int bound) throws IOException {
+		if (index < 0 || index >= bound)
+			throw new IOException(CORRUPT_DATA_EXCEPTION_MSG);
+		return index;
+	}
+}
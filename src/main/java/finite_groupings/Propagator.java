@@ -0,0 +1,103 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Defers the notifications of the cells attached to it, so that changes spread through a network iteratively
+ * rather than through nested listener calls.
+ * <p>
+ * A cell whose possibilities change is put on a work-list instead of informing its listeners straight away,
+ * and is only put on once however many times it changes before it's reached.
+ * When it's reached, its listeners are informed once, with its possibilities as they are by then.
+ * The work-list is drained until no cell is left on it, either as soon as a change is made outside of a drain,
+ * or at the end of a {@link #batch(Runnable) batch}.
+ * <p>
+ * Not thread safe: all attached cells should only be changed by one thread at a time.
+ */
+public class Propagator {
+
+	private final Queue<AbstractCell<?>> queue;
+	private boolean draining;
+
+	public Propagator() {
+		this.queue = new ArrayDeque<>();
+		this.draining = false;
+	}
+
+	/**
+	 * Routes the cells' notifications through this propagator.
+	 */
+	public void attach(final @Nonnull Iterable<? extends AbstractCell<?>> cells) {
+		for (final AbstractCell<?> cell : cells) {
+			attach(cell);
+		}
+	}
+
+	public void attach(final @Nonnull AbstractCell<?> cell) {
+		cell.setPropagator(this);
+	}
+
+	/**
+	 * Runs the changes, holding back every notification until they've all been made,
+	 * then drains the work-list. Batches may be nested, in which case the outermost batch drains.
+	 */
+	public void batch(final @Nonnull Runnable changes) {
+		if (draining) {
+			changes.run();
+			return;
+		}
+		draining = true;
+		try {
+			changes.run();
+			drainQueue();
+		} finally {
+			draining = false;
+		}
+	}
+
+	/**
+	 * @return True if no cell is waiting to inform its listeners.
+	 */
+	public boolean isSettled() {
+		return queue.isEmpty();
+	}
+
+	/**
+	 * Puts a changed cell on the work-list, unless it's already on it, and drains the list if nothing else is.
+	 */
+	void schedule(final @Nonnull AbstractCell<?> cell) {
+		if (!cell.scheduled) {
+			cell.scheduled = true;
+			queue.add(cell);
+			SolverStats.global().onQueueSize(queue.size());
+		}
+		if (!draining)
+			batch(() -> {});
+	}
+
+	private void drainQueue() {
+		try {
+			AbstractCell<?> cell;
+			while ((cell = queue.poll()) != null) {
+				final PropagatorPollEvent event = new PropagatorPollEvent();
+				event.begin();
+				cell.scheduled = false;
+				cell.flushPossibilityUpdate();
+				SolverStats.global().onPropagation();
+				if (event.shouldCommit()) {
+					event.queueSize = queue.size();
+					event.possibilities = cell.getPossibilityCount();
+					event.commit();
+				}
+			}
+		} finally {
+			// Only reached with cells left if a listener failed, in which case they're abandoned with the drain.
+			AbstractCell<?> cell;
+			while ((cell = queue.poll()) != null) {
+				cell.scheduled = false;
+			}
+		}
+	}
+}
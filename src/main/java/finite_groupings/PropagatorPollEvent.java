@@ -0,0 +1,23 @@
+package finite_groupings;
+
+import jdk.jfr.*;
+
+/**
+ * A {@link Propagator} taking a cell off its work-list and informing the cell's listeners.
+ */
+@Name("finite_groupings.PropagatorPoll")
+@Label("Propagator Poll")
+@Category({"Puzzle Solver", "Propagation"})
+@Description("A propagator taking a cell off its work-list and informing the cell's listeners.")
+@Enabled(false)
+@StackTrace(false)
+final class PropagatorPollEvent extends Event {
+
+	@Label("Queue Size")
+	@Description("The number of cells left on the work-list after this one was taken off.")
+	int queueSize;
+
+	@Label("Possibilities")
+	@Description("The number of possibilities the cell had left after its listeners were informed, which may have ruled out more.")
+	int possibilities;
+}
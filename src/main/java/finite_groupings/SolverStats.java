@@ -0,0 +1,236 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Live counters of the work done by every solver in the JVM, for watching a long running service over JMX
+ * without attaching a profiler.
+ * <p>
+ * Propagations are counted as cells are updated by a {@link CellUpdater} or flushed by a {@link Propagator},
+ * value assignments as cells are {@link AbstractCell#setValue set}, and sub groups as {@link GroupImpl} finds them.
+ * The queue size high-water mark covers both the updater's priority queue and the propagator's work-list.
+ * Solve latencies are recorded by the {@link finite_groupings.search.Solver searches}, or by anything else that
+ * calls {@link #recordSolve(long)}.
+ * <p>
+ * Every counter is a {@link LongAdder} or {@link LongAccumulator}, and latencies go into a {@link LatencyHistogram}
+ * of them, so solvers on many threads don't contend on the stats they share.
+ * Call {@link #register()} once to publish the stats under {@value #OBJECT_NAME}.
+ */
+public final class SolverStats implements SolverStatsMBean {
+
+	protected static final String INVALID_QUANTILE_EXCEPTION_MSG = "Quantile must be between 0 and 1, not %s.";
+
+	public static final String OBJECT_NAME = "finite_groupings:type=SolverStats";
+
+	private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+	private static final SolverStats GLOBAL = new SolverStats(System::nanoTime);
+
+	private final Rate propagations;
+	private final Rate valueAssignments;
+	private final Rate subGroups;
+	private final Rate solves;
+	private final LongAccumulator queueSizeHighWaterMark;
+	private final LatencyHistogram solveLatencies;
+
+	/**
+	 * @param clock The time in nanoseconds, used to work out rates.
+	 */
+	SolverStats(final @Nonnull LongSupplier clock) {
+		this.propagations = new Rate(clock);
+		this.valueAssignments = new Rate(clock);
+		this.subGroups = new Rate(clock);
+		this.solves = new Rate(clock);
+		this.queueSizeHighWaterMark = new LongAccumulator(Math::max, 0L);
+		this.solveLatencies = new LatencyHistogram();
+	}
+
+	/**
+	 * @return The stats every solver in the JVM reports to.
+	 */
+	@Nonnull
+	public static SolverStats global() {
+		return GLOBAL;
+	}
+
+	/**
+	 * Registers the {@link #global() global} stats with the platform MBean server, unless they already are.
+	 * @return The name the stats are registered under.
+	 */
+	@Nonnull
+	public static synchronized ObjectName register() throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName(OBJECT_NAME);
+		if (!server.isRegistered(name))
+			server.registerMBean(GLOBAL, name);
+		return name;
+	}
+
+	/**
+	 * Unregisters the {@link #global() global} stats from the platform MBean server, if they're registered.
+	 */
+	public static synchronized void unregister() throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = new ObjectName(OBJECT_NAME);
+		if (server.isRegistered(name))
+			server.unregisterMBean(name);
+	}
+
+	void onPropagation() {
+		propagations.count.increment();
+	}
+
+	void onValueAssignment() {
+		valueAssignments.count.increment();
+	}
+
+	void onSubGroupFound() {
+		subGroups.count.increment();
+	}
+
+	void onQueueSize(final int size) {
+		queueSizeHighWaterMark.accumulate(size);
+	}
+
+	/**
+	 * Records a solve that took the given time.
+	 */
+	public void recordSolve(final long nanos) {
+		solves.count.increment();
+		solveLatencies.record(nanos);
+	}
+
+	@Override
+	public long getPropagationCount() {
+		return propagations.count.sum();
+	}
+
+	@Override
+	public double getPropagationRate() {
+		return propagations.perSecond();
+	}
+
+	@Override
+	public long getValueAssignmentCount() {
+		return valueAssignments.count.sum();
+	}
+
+	@Override
+	public double getValueAssignmentRate() {
+		return valueAssignments.perSecond();
+	}
+
+	@Override
+	public long getSubGroupCount() {
+		return subGroups.count.sum();
+	}
+
+	@Override
+	public double getSubGroupRate() {
+		return subGroups.perSecond();
+	}
+
+	@Override
+	public long getQueueSizeHighWaterMark() {
+		return queueSizeHighWaterMark.get();
+	}
+
+	@Override
+	public long getSolveCount() {
+		return solves.count.sum();
+	}
+
+	@Override
+	public double getSolveRate() {
+		return solves.perSecond();
+	}
+
+	@Override
+	public long getSolveLatencyMedian() {
+		return solveLatencies.valueAt(0.5);
+	}
+
+	@Override
+	public long getSolveLatency90thPercentile() {
+		return solveLatencies.valueAt(0.9);
+	}
+
+	@Override
+	public long getSolveLatency99thPercentile() {
+		return solveLatencies.valueAt(0.99);
+	}
+
+	@Override
+	public long getSolveLatency999thPercentile() {
+		return solveLatencies.valueAt(0.999);
+	}
+
+	@Override
+	public long getSolveLatencyMax() {
+		return solveLatencies.max();
+	}
+
+	/**
+	 * Sets every count back to 0 and empties the latency histogram.
+	 * Counts made while resetting may or may not survive it.
+	 */
+	@Override
+	public void reset() {
+		propagations.reset();
+		valueAssignments.reset();
+		subGroups.reset();
+		solves.reset();
+		queueSizeHighWaterMark.reset();
+		solveLatencies.reset();
+	}
+
+	/**
+	 * A count, and its rate over the window between the last two reads of the rate at least a second apart.
+	 * Reads swap the window in with a compare and set, so concurrent reads never block or double count.
+	 */
+	private static final class Rate {
+		private final LongSupplier clock;
+		private final LongAdder count;
+		private final AtomicReference<Window> window;
+
+		private Rate(final @Nonnull LongSupplier clock) {
+			this.clock = clock;
+			this.count = new LongAdder();
+			this.window = new AtomicReference<>(new Window(clock.getAsLong(), 0, 0));
+		}
+
+		private double perSecond() {
+			final Window last = window.get();
+			final long now = clock.getAsLong();
+			final long elapsed = now - last.start;
+			if (elapsed < WINDOW_NANOS)
+				return last.rate;
+			final long sum = count.sum();
+			final Window next = new Window(now, sum, (sum - last.count) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+			return window.compareAndSet(last, next) ? next.rate : window.get().rate;
+		}
+
+		private void reset() {
+			count.reset();
+			window.set(new Window(clock.getAsLong(), 0, 0));
+		}
+	}
+
+	private static final class Window {
+		private final long start;
+		private final long count;
+		private final double rate;
+
+		private Window(final long start, final long count, final double rate) {
+			this.start = start;
+			this.count = count;
+			this.rate = rate;
+		}
+	}
+}
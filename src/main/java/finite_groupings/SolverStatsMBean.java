@@ -0,0 +1,40 @@
+package finite_groupings;
+
+/**
+ * The management interface of {@link SolverStats}.
+ * Counts are totals since the stats were created or last reset.
+ * Rates are per second, over the latest window of at least a second between reads of that rate.
+ * Latencies are in nanoseconds.
+ */
+public interface SolverStatsMBean {
+
+	long getPropagationCount();
+
+	double getPropagationRate();
+
+	long getValueAssignmentCount();
+
+	double getValueAssignmentRate();
+
+	long getSubGroupCount();
+
+	double getSubGroupRate();
+
+	long getQueueSizeHighWaterMark();
+
+	long getSolveCount();
+
+	double getSolveRate();
+
+	long getSolveLatencyMedian();
+
+	long getSolveLatency90thPercentile();
+
+	long getSolveLatency99thPercentile();
+
+	long getSolveLatency999thPercentile();
+
+	long getSolveLatencyMax();
+
+	void reset();
+}
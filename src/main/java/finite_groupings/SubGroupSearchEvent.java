@@ -0,0 +1,27 @@
+package finite_groupings;
+
+import jdk.jfr.*;
+
+/**
+ * A {@link GroupImpl} searching outwards from a changed cell for a sub group.
+ */
+@Name("finite_groupings.SubGroupSearch")
+@Label("Sub Group Search")
+@Category({"Puzzle Solver", "Propagation"})
+@Description("A group searching outwards from a changed cell for a sub group.")
+@Enabled(false)
+@StackTrace(false)
+final class SubGroupSearchEvent extends Event {
+
+	@Label("Group Size")
+	@Description("The number of cells in the group searched.")
+	int groupSize;
+
+	@Label("Sub Group Size")
+	@Description("The number of cells in the sub group found, or 0 if none was.")
+	int subGroupSize;
+
+	@Label("Depth")
+	@Description("How many cells the search had grown by when it found the sub group.")
+	int depth;
+}
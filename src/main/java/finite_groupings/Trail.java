@@ -0,0 +1,135 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * An undo log for a network of cells and groups, used to backtrack a search.
+ * <p>
+ * Each attached cell or group saves its state onto the trail the first time it changes after a {@link #push()},
+ * and {@link #pop()} restores every state saved since the matching push, newest first.
+ * Backtracking therefore costs time proportional to the number of cells and groups changed since the choice point,
+ * not the size of the network. Nothing is saved while no level has been pushed.
+ * <p>
+ * Restoring is silent: no listeners are informed, as the network returns to a state they've already seen.
+ * Not thread safe.
+ */
+public class Trail {
+
+	protected static final String NO_LEVEL_EXCEPTION_MSG = "No level has been pushed onto the trail.";
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private Trailed[] targets;
+	private int[] offsets;
+	private int size;
+
+	private long[] words;
+	private int wordSize;
+
+	/**
+	 * The number of entries on the trail when each level was pushed.
+	 */
+	private int[] levels;
+	private int level;
+
+	/**
+	 * Changes on every push and pop, so that state is saved once per object per level.
+	 */
+	private long stamp;
+
+	public Trail() {
+		this.targets = new Trailed[INITIAL_CAPACITY];
+		this.offsets = new int[INITIAL_CAPACITY];
+		this.words = new long[INITIAL_CAPACITY];
+		this.levels = new int[INITIAL_CAPACITY];
+		this.size = 0;
+		this.wordSize = 0;
+		this.level = 0;
+		this.stamp = 0;
+	}
+
+	public void attach(final @Nonnull AbstractCell<?> cell) {
+		cell.setTrail(this);
+	}
+
+	public void attach(final @Nonnull GroupImpl<?> group) {
+		group.setTrail(this);
+	}
+
+	/**
+	 * @return The number of levels currently pushed.
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return The number of states currently saved on the trail.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Marks a choice point, which a later {@link #pop()} returns the network to.
+	 */
+	public void push() {
+		if (level == levels.length)
+			levels = Arrays.copyOf(levels, level * 2);
+		levels[level++] = size;
+		stamp++;
+	}
+
+	/**
+	 * Restores every attached cell and group to its state at the most recent {@link #push()}.
+	 * @throws IllegalStateException If there's no level to pop.
+	 */
+	public void pop() {
+		if (level == 0)
+			throw new IllegalStateException(NO_LEVEL_EXCEPTION_MSG);
+		final int start = levels[--level];
+		while (size > start) {
+			size--;
+			targets[size].restore(words, offsets[size]);
+			targets[size] = null;
+			wordSize = offsets[size];
+		}
+		stamp++;
+	}
+
+	/**
+	 * Pops levels until only the given number remain.
+	 */
+	public void popTo(final int level) {
+		while (this.level > level) {
+			pop();
+		}
+	}
+
+	long getStamp() {
+		return stamp;
+	}
+
+	/**
+	 * Saves the target's state, if a level has been pushed.
+	 * @return The stamp that the target should remember, so that it isn't saved again on this level.
+	 */
+	long record(final @Nonnull Trailed target) {
+		if (level == 0)
+			return stamp;
+		final int count = target.savedWordCount();
+		if (size == targets.length) {
+			targets = Arrays.copyOf(targets, size * 2);
+			offsets = Arrays.copyOf(offsets, size * 2);
+		}
+		if (wordSize + count > words.length)
+			words = Arrays.copyOf(words, Math.max(words.length * 2, wordSize + count));
+		targets[size] = target;
+		offsets[size] = wordSize;
+		target.save(words, wordSize);
+		wordSize += count;
+		size++;
+		return stamp;
+	}
+}
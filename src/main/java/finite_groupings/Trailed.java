@@ -0,0 +1,18 @@
+package finite_groupings;
+
+import javax.annotation.Nonnull;
+
+/**
+ * State that can be saved onto a {@link Trail} as a run of words, and later restored from it.
+ */
+interface Trailed {
+
+	/**
+	 * @return The number of words that {@link #save} writes.
+	 */
+	int savedWordCount();
+
+	void save(@Nonnull long[] words, int offset);
+
+	void restore(@Nonnull long[] words, int offset);
+}
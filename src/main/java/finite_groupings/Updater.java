@@ -16,7 +16,10 @@ public class Updater<E> extends UpdatablePriorityQueue<Cell<E>> {
 		if (priority == null)
 			return;
 		priority.resetCount();
-		priority.getValue().updatePossibilities();
+		final Cell<E> cell = priority.getValue();
+		cell.updatePossibilities();
+		if (!cell.hasValue())
+			super.add(cell);
 	}
 
 	/**
@@ -29,7 +32,11 @@ public class Updater<E> extends UpdatablePriorityQueue<Cell<E>> {
 	public boolean add(@Nonnull Cell<E> cell) {
 		cell.addCellListener(
 				(c, v) -> remove(c),
-				(c, p) -> getPriority(c).resetCount()
+				(c, p) -> {
+					final Priority<Cell<E>> priority = getPriority(c);
+					if (priority != null)
+						priority.resetCount();
+				}
 		);
 		return super.add(cell);
 	}
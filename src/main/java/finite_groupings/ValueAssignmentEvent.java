@@ -0,0 +1,26 @@
+package finite_groupings;
+
+import jdk.jfr.*;
+
+/**
+ * A cell being set to a value, along with the listener calls it sets off,
+ * unless they're deferred by a {@link Propagator}.
+ */
+@Name("finite_groupings.ValueAssignment")
+@Label("Value Assignment")
+@Category({"Puzzle Solver", "Propagation"})
+@Description("A cell being set to a value, including any listener calls it sets off that aren't deferred.")
+@Enabled(false)
+@StackTrace(false)
+final class ValueAssignmentEvent extends Event {
+
+	@Label("Value")
+	String value;
+
+	@Label("Possibilities Before")
+	int possibilitiesBefore;
+
+	@Label("Deferred")
+	@Description("True if the cell's listeners are informed later, by its propagator.")
+	boolean deferred;
+}
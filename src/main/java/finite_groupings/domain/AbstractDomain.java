@@ -0,0 +1,202 @@
+package finite_groupings.domain;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@inheritDoc}
+ * Implements the {@link java.util.Set} contract on top of the word accessors,
+ * using word-wide operations whenever both operands are domains of the same universe.
+ */
+public abstract class AbstractDomain<E> extends AbstractSet<E> implements Domain<E> {
+
+	protected static final String UNKNOWN_VALUE_EXCEPTION_MSG = "Value is not part of the domain's universe.";
+
+	private final Universe<E> universe;
+
+	protected AbstractDomain(final @Nonnull Universe<E> universe) {
+		this.universe = universe;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nonnull
+	@Override
+	public Universe<E> getUniverse() {
+		return universe;
+	}
+
+	/**
+	 * @return A mask of the bits of the given word that refer to values in the universe.
+	 */
+	protected final long validBits(final int wordIndex) {
+		final int remaining = universe.size() - wordIndex * Long.SIZE;
+		return remaining >= Long.SIZE ? -1L : (1L << remaining) - 1;
+	}
+
+	/**
+	 * @return True if the collection is a domain that shares this domain's universe, and so can be combined word-wise.
+	 */
+	protected final boolean isCompatible(final Collection<?> c) {
+		return c instanceof Domain && ((Domain<?>) c).getUniverse() == universe;
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		final int index = universe.indexOf(o);
+		return index >= 0 && containsIndex(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @throws IllegalArgumentException If the value isn't part of the domain's universe.
+	 */
+	@Override
+	public boolean add(final E e) {
+		final int index = universe.indexOf(e);
+		if (index < 0)
+			throw new IllegalArgumentException(UNKNOWN_VALUE_EXCEPTION_MSG);
+		return addIndex(index);
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		final int index = universe.indexOf(o);
+		return index >= 0 && removeIndex(index);
+	}
+
+	@Override
+	public boolean containsAll(final @Nonnull Collection<?> c) {
+		if (!isCompatible(c))
+			return super.containsAll(c);
+		final Domain<?> other = (Domain<?>) c;
+		for (int i = 0; i < wordCount(); i++) {
+			if ((other.getWord(i) & ~getWord(i)) != 0)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean addAll(final @Nonnull Collection<? extends E> c) {
+		if (!isCompatible(c))
+			return super.addAll(c);
+		final Domain<?> other = (Domain<?>) c;
+		boolean changed = false;
+		for (int i = 0; i < wordCount(); i++) {
+			final long word = getWord(i);
+			final long updated = word | other.getWord(i);
+			if (updated != word) {
+				setWord(i, updated);
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean removeAll(final @Nonnull Collection<?> c) {
+		if (!isCompatible(c)) {
+			boolean changed = false;
+			for (final Object o : c) {
+				changed |= remove(o);
+			}
+			return changed;
+		}
+		final Domain<?> other = (Domain<?>) c;
+		boolean changed = false;
+		for (int i = 0; i < wordCount(); i++) {
+			final long word = getWord(i);
+			final long updated = word & ~other.getWord(i);
+			if (updated != word) {
+				setWord(i, updated);
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean retainAll(final @Nonnull Collection<?> c) {
+		if (!isCompatible(c)) {
+			boolean changed = false;
+			for (int i = firstIndex(); i >= 0; i = nextIndex(i + 1)) {
+				if (!c.contains(universe.get(i)))
+					changed |= removeIndex(i);
+			}
+			return changed;
+		}
+		final Domain<?> other = (Domain<?>) c;
+		boolean changed = false;
+		for (int i = 0; i < wordCount(); i++) {
+			final long word = getWord(i);
+			final long updated = word & other.getWord(i);
+			if (updated != word) {
+				setWord(i, updated);
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < wordCount(); i++) {
+			setWord(i, 0L);
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<>() {
+			private int next = firstIndex();
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public E next() {
+				if (next < 0)
+					throw new NoSuchElementException();
+				last = next;
+				next = nextIndex(next + 1);
+				return universe.get(last);
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0)
+					throw new IllegalStateException();
+				removeIndex(last);
+				last = -1;
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof Collection) || !isCompatible((Collection<?>) o))
+			return super.equals(o);
+		final Domain<?> other = (Domain<?>) o;
+		for (int i = 0; i < wordCount(); i++) {
+			if (getWord(i) != other.getWord(i))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+}
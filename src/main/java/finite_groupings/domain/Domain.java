@@ -0,0 +1,113 @@
+package finite_groupings.domain;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A mutable set of values drawn from a fixed {@link Universe}, stored as a packed bitset over the universe's indices.
+ * Bulk operations between two domains of the same universe (intersection, removal, containment)
+ * are performed a 64-bit word at a time, and size or single-value checks are a popcount.
+ * @param <E> The value type.
+ */
+public interface Domain<E> extends Set<E> {
+
+	/**
+	 * @return The universe that this domain's values are drawn from.
+	 */
+	@Nonnull
+	Universe<E> getUniverse();
+
+	/**
+	 * @param index A dense index into the universe.
+	 * @return True if the value with the given index is in this domain.
+	 */
+	boolean containsIndex(int index);
+
+	/**
+	 * @param index A dense index into the universe.
+	 * @return True if the domain changed as a result of the call.
+	 */
+	boolean addIndex(int index);
+
+	/**
+	 * @param index A dense index into the universe.
+	 * @return True if the domain changed as a result of the call.
+	 */
+	boolean removeIndex(int index);
+
+	/**
+	 * @return The lowest index in this domain, or -1 if the domain is empty.
+	 */
+	int firstIndex();
+
+	/**
+	 * @param fromIndex The index to start searching from (inclusive).
+	 * @return The lowest index in this domain that is greater than or equal to fromIndex, or -1 if there is none.
+	 */
+	int nextIndex(int fromIndex);
+
+	/**
+	 * @return The number of 64-bit words backing this domain.
+	 */
+	int wordCount();
+
+	/**
+	 * @param wordIndex The word to read.
+	 * @return The word holding the bits for indices {@code [64 * wordIndex, 64 * wordIndex + 64)}.
+	 */
+	long getWord(int wordIndex);
+
+	/**
+	 * Overwrites a word of this domain.
+	 * Bits beyond the size of the universe are ignored.
+	 * @param wordIndex The word to write.
+	 * @param word The new bits for indices {@code [64 * wordIndex, 64 * wordIndex + 64)}.
+	 */
+	void setWord(int wordIndex, long word);
+
+	/**
+	 * @return An independent domain over the same universe, holding the same values.
+	 */
+	@Nonnull
+	Domain<E> copy();
+
+	/**
+	 * @param universe The universe to draw values from.
+	 * @return A new domain holding none of the universe's values.
+	 */
+	@Nonnull
+	static <E> Domain<E> empty(final @Nonnull Universe<E> universe) {
+		if (universe.size() <= Long.SIZE)
+			return new LongDomain<>(universe);
+		return new LongArrayDomain<>(universe);
+	}
+
+	/**
+	 * @param universe The universe to draw values from.
+	 * @return A new domain holding every one of the universe's values.
+	 */
+	@Nonnull
+	static <E> Domain<E> full(final @Nonnull Universe<E> universe) {
+		final Domain<E> domain = empty(universe);
+		for (int i = 0; i < domain.wordCount(); i++) {
+			domain.setWord(i, -1L);
+		}
+		return domain;
+	}
+
+	/**
+	 * @param universe The universe to draw values from.
+	 * @param values The values to initially hold. Every value must be part of the universe.
+	 * @return A new domain holding the given values.
+	 */
+	@Nonnull
+	static <E> Domain<E> of(final @Nonnull Universe<E> universe, final @Nonnull Collection<? extends E> values) {
+		// Cells are commonly built with every value of their universe, which needn't be added one at a time.
+		if (values == universe.getValues())
+			return full(universe);
+		final Domain<E> domain = empty(universe);
+		domain.addAll(values);
+		return domain;
+	}
+}
@@ -0,0 +1,95 @@
+package finite_groupings.domain;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A domain over a universe of any size, held in an array of {@code long} words.
+ */
+public final class LongArrayDomain<E> extends AbstractDomain<E> {
+
+	private final long[] words;
+
+	LongArrayDomain(final @Nonnull Universe<E> universe) {
+		super(universe);
+		this.words = new long[universe.wordCount()];
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (final long word : words) {
+			size += Long.bitCount(word);
+		}
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (final long word : words) {
+			if (word != 0L)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean containsIndex(final int index) {
+		return (words[index >>> 6] & (1L << index)) != 0;
+	}
+
+	@Override
+	public boolean addIndex(final int index) {
+		final long previous = words[index >>> 6];
+		words[index >>> 6] = previous | (1L << index);
+		return words[index >>> 6] != previous;
+	}
+
+	@Override
+	public boolean removeIndex(final int index) {
+		final long previous = words[index >>> 6];
+		words[index >>> 6] = previous & ~(1L << index);
+		return words[index >>> 6] != previous;
+	}
+
+	@Override
+	public int firstIndex() {
+		return nextIndex(0);
+	}
+
+	@Override
+	public int nextIndex(final int fromIndex) {
+		int wordIndex = fromIndex >>> 6;
+		if (wordIndex >= words.length)
+			return -1;
+		long word = words[wordIndex] & (-1L << fromIndex);
+		while (word == 0L) {
+			if (++wordIndex == words.length)
+				return -1;
+			word = words[wordIndex];
+		}
+		return wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word);
+	}
+
+	@Override
+	public int wordCount() {
+		return words.length;
+	}
+
+	@Override
+	public long getWord(final int wordIndex) {
+		return words[wordIndex];
+	}
+
+	@Override
+	public void setWord(final int wordIndex, final long word) {
+		words[wordIndex] = word & validBits(wordIndex);
+	}
+
+	@Nonnull
+	@Override
+	public Domain<E> copy() {
+		final LongArrayDomain<E> copy = new LongArrayDomain<>(getUniverse());
+		System.arraycopy(words, 0, copy.words, 0, words.length);
+		return copy;
+	}
+}
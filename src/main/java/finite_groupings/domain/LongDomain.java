@@ -0,0 +1,86 @@
+package finite_groupings.domain;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A domain over a universe of at most 64 values, held in a single {@code long}.
+ */
+public final class LongDomain<E> extends AbstractDomain<E> {
+
+	private long bits;
+
+	LongDomain(final @Nonnull Universe<E> universe) {
+		super(universe);
+		this.bits = 0L;
+	}
+
+	@Override
+	public int size() {
+		return Long.bitCount(bits);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return bits == 0L;
+	}
+
+	@Override
+	public boolean containsIndex(final int index) {
+		return (bits & (1L << index)) != 0;
+	}
+
+	@Override
+	public boolean addIndex(final int index) {
+		final long previous = bits;
+		bits |= 1L << index;
+		return bits != previous;
+	}
+
+	@Override
+	public boolean removeIndex(final int index) {
+		final long previous = bits;
+		bits &= ~(1L << index);
+		return bits != previous;
+	}
+
+	@Override
+	public int firstIndex() {
+		return bits == 0L ? -1 : Long.numberOfTrailingZeros(bits);
+	}
+
+	@Override
+	public int nextIndex(final int fromIndex) {
+		if (fromIndex >= Long.SIZE)
+			return -1;
+		final long remaining = bits & (-1L << fromIndex);
+		return remaining == 0L ? -1 : Long.numberOfTrailingZeros(remaining);
+	}
+
+	@Override
+	public int wordCount() {
+		return 1;
+	}
+
+	@Override
+	public long getWord(final int wordIndex) {
+		return bits;
+	}
+
+	@Override
+	public void setWord(final int wordIndex, final long word) {
+		bits = word & validBits(0);
+	}
+
+	@Override
+	public void clear() {
+		bits = 0L;
+	}
+
+	@Nonnull
+	@Override
+	public Domain<E> copy() {
+		final LongDomain<E> copy = new LongDomain<>(getUniverse());
+		copy.bits = bits;
+		return copy;
+	}
+}
@@ -0,0 +1,113 @@
+package finite_groupings.domain;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+
+/**
+ * An ordered, immutable collection of every value that a {@link Domain} can hold.
+ * Each value is given a dense index, so that a domain can be stored as a packed bitset over those indices.
+ * Universes are interned: cells created from equal value collections share the same instance,
+ * which lets groups compare universes by identity and combine their domains a word at a time.
+ * @param <E> The value type.
+ */
+public final class Universe<E> {
+
+	static final String DUPLICATE_VALUE_EXCEPTION_MSG = "A universe can't contain the same value twice.";
+
+	private static final Interner<Universe<?>> INTERNER = Interners.newWeakInterner();
+
+	private final ImmutableList<E> values;
+	private final ImmutableMap<E, Integer> indices;
+
+	private Universe(final @Nonnull ImmutableList<E> values) {
+		final ImmutableMap.Builder<E, Integer> indices = ImmutableMap.builderWithExpectedSize(values.size());
+		for (int i = 0; i < values.size(); i++) {
+			indices.put(values.get(i), i);
+		}
+		this.values = values;
+		try {
+			this.indices = indices.build();
+		} catch (final IllegalArgumentException e) {
+			throw new IllegalArgumentException(DUPLICATE_VALUE_EXCEPTION_MSG, e);
+		}
+	}
+
+	/**
+	 * @param values The values of the universe, in index order.
+	 * @return The interned universe holding the given values.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public static <E> Universe<E> of(final @Nonnull Collection<? extends E> values) {
+		return (Universe<E>) INTERNER.intern(new Universe<>(ImmutableList.copyOf(values)));
+	}
+
+	/**
+	 * @return The number of values in this universe.
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	/**
+	 * @return The number of 64-bit words needed to hold a bitset over this universe.
+	 */
+	public int wordCount() {
+		return Math.max(1, (values.size() + Long.SIZE - 1) / Long.SIZE);
+	}
+
+	/**
+	 * @param index A dense index, between 0 (inclusive) and {@link #size()} (exclusive).
+	 * @return The value with the given index.
+	 */
+	public E get(final int index) {
+		return values.get(index);
+	}
+
+	/**
+	 * @param value Any object.
+	 * @return The dense index of the value, or -1 if it isn't part of this universe.
+	 */
+	public int indexOf(final Object value) {
+		//noinspection SuspiciousMethodCalls
+		final Integer index = indices.get(value);
+		return index == null ? -1 : index;
+	}
+
+	public boolean contains(final Object value) {
+		//noinspection SuspiciousMethodCalls
+		return indices.containsKey(value);
+	}
+
+	public boolean containsAll(final @Nonnull Collection<?> values) {
+		return indices.keySet().containsAll(values);
+	}
+
+	/**
+	 * @return All values of this universe, in index order.
+	 */
+	@Nonnull
+	public ImmutableList<E> getValues() {
+		return values;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		return this == o || (o instanceof Universe && values.equals(((Universe<?>) o).values));
+	}
+
+	@Override
+	public int hashCode() {
+		return values.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "Universe" + values;
+	}
+}
@@ -0,0 +1,64 @@
+package finite_groupings.domain;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Translates dense indices between two universes, e.g. from a cell's universe to the universe of a group it is in.
+ * Mapping between a universe and itself is the identity, in which case domains can be combined word-wise.
+ */
+public final class UniverseMapping {
+
+	private static final UniverseMapping IDENTITY = new UniverseMapping(null, null);
+
+	private final int[] forward;
+	private final int[] backward;
+
+	private UniverseMapping(final int[] forward, final int[] backward) {
+		this.forward = forward;
+		this.backward = backward;
+	}
+
+	/**
+	 * @param from The universe to translate indices from.
+	 * @param to The universe to translate indices to.
+	 * @return A mapping between the two universes.
+	 */
+	@Nonnull
+	public static <E> UniverseMapping between(final @Nonnull Universe<E> from, final @Nonnull Universe<E> to) {
+		if (from == to)
+			return IDENTITY;
+		final int[] forward = new int[from.size()];
+		final int[] backward = new int[to.size()];
+		Arrays.fill(backward, -1);
+		for (int i = 0; i < forward.length; i++) {
+			forward[i] = to.indexOf(from.get(i));
+			if (forward[i] >= 0)
+				backward[forward[i]] = i;
+		}
+		return new UniverseMapping(forward, backward);
+	}
+
+	/**
+	 * @return True if both universes are the same, so indices don't need translating.
+	 */
+	public boolean isIdentity() {
+		return this == IDENTITY;
+	}
+
+	/**
+	 * @param index An index in the source universe.
+	 * @return The index of the same value in the target universe, or -1 if the target doesn't hold it.
+	 */
+	public int forward(final int index) {
+		return forward == null ? index : forward[index];
+	}
+
+	/**
+	 * @param index An index in the target universe.
+	 * @return The index of the same value in the source universe, or -1 if the source doesn't hold it.
+	 */
+	public int backward(final int index) {
+		return backward == null ? index : backward[index];
+	}
+}
@@ -0,0 +1,284 @@
+package finite_groupings.search;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import finite_groupings.AbstractCell;
+import finite_groupings.Cell;
+import finite_groupings.ContradictionException;
+import finite_groupings.Network;
+import finite_groupings.SolverStats;
+import finite_groupings.Trail;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A backtracking search that splits the search tree between the threads of a {@link ForkJoinPool}.
+ * <p>
+ * Networks aren't thread safe, so every worker thread builds its own copy of the network from a factory.
+ * A subtree is handed between threads as a {@link Network#snapshot() snapshot} of the network at its root,
+ * which the thread that picks it up restores into its own copy before searching it as {@link Solver} would.
+ * <p>
+ * Whenever a worker has few tasks queued for others to steal, a choice point is split:
+ * the branch removing the value from the cell is forked as a task, and the branch pairing the cell with the value
+ * is searched on. Once enough solutions have been found, every worker abandons its search at its next choice point.
+ * <p>
+ * Solutions are mapped onto the cells of a reference network built from the same factory,
+ * which is also where the search starts from: any changes made to it before solving are carried over to the workers.
+ * @param <E> The value type of the cells.
+ */
+public class ParallelSolver<E> implements AutoCloseable {
+
+	/**
+	 * Choice points are split while a worker has fewer than this many tasks queued beyond what other workers need.
+	 */
+	private static final int SPLIT_THRESHOLD = 2;
+
+	private final Network<E> network;
+	private final ForkJoinPool pool;
+	private final ThreadLocal<Network<E>> workerNetworks;
+	private final VariableOrdering<E> variableOrdering;
+	private final ValueOrdering<E> valueOrdering;
+
+	private final LongAdder choices;
+	private final LongAdder failures;
+	private final LongAdder splits;
+
+	/**
+	 * Branches on the cell with the fewest possibilities, trying its values in order.
+	 * @see #ParallelSolver(Supplier, int, VariableOrdering, ValueOrdering)
+	 */
+	public ParallelSolver(final @Nonnull Supplier<Network<E>> networkFactory, final int parallelism) {
+		this(networkFactory, parallelism, VariableOrdering.smallestDomain(), ValueOrdering.inOrder());
+	}
+
+	/**
+	 * @param networkFactory Builds a new, identical network on every call, with cells listed in the same order.
+	 * @param parallelism The number of worker threads.
+	 * @param variableOrdering Shared between the workers, so it must be thread safe.
+	 * @param valueOrdering Shared between the workers, so it must be thread safe.
+	 */
+	public ParallelSolver(final @Nonnull Supplier<Network<E>> networkFactory,
+						  final int parallelism,
+						  final @Nonnull VariableOrdering<E> variableOrdering,
+						  final @Nonnull ValueOrdering<E> valueOrdering) {
+		this.network = networkFactory.get();
+		this.pool = new ForkJoinPool(parallelism);
+		this.workerNetworks = ThreadLocal.withInitial(networkFactory);
+		this.variableOrdering = variableOrdering;
+		this.valueOrdering = valueOrdering;
+		this.choices = new LongAdder();
+		this.failures = new LongAdder();
+		this.splits = new LongAdder();
+	}
+
+	/**
+	 * @return The network that solutions refer to, and that the search starts from.
+	 */
+	@Nonnull
+	public Network<E> getNetwork() {
+		return network;
+	}
+
+	/**
+	 * @return The first solution found by any worker, or nothing if there's no solution.
+	 */
+	@Nonnull
+	public Optional<Map<Cell<E>, E>> solve() {
+		return solveAll(1).stream().findFirst();
+	}
+
+	@Nonnull
+	public List<Map<Cell<E>, E>> solveAll() {
+		return solveAll(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param limit The number of solutions after which every worker stops searching.
+	 * @return Up to {@code limit} solutions, in no particular order.
+	 */
+	@Nonnull
+	public List<Map<Cell<E>, E>> solveAll(final int limit) {
+		if (limit <= 0)
+			return List.of();
+		final long start = System.nanoTime();
+		final Run run = new Run(limit);
+		try {
+			pool.invoke(new SearchTask(null, run, network.snapshot()));
+		} finally {
+			SolverStats.global().recordSolve(System.nanoTime() - start);
+		}
+		final List<Map<Cell<E>, E>> solutions = new ArrayList<>();
+		for (final List<E> values : run.solutions) {
+			final ImmutableMap.Builder<Cell<E>, E> solution = ImmutableMap.builder();
+			for (int i = 0; i < values.size(); i++) {
+				solution.put(network.getCells().get(i), values.get(i));
+			}
+			solutions.add(solution.build());
+		}
+		return solutions.size() > limit ? solutions.subList(0, limit) : solutions;
+	}
+
+	public long getChoiceCount() {
+		return choices.sum();
+	}
+
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	/**
+	 * @return The number of subtrees handed out as tasks over the solver's lifetime.
+	 */
+	public long getSplitCount() {
+		return splits.sum();
+	}
+
+	/**
+	 * Shuts down the worker threads.
+	 */
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+	/**
+	 * The state shared by every task of a single call.
+	 */
+	private final class Run {
+		private final int limit;
+		private final AtomicBoolean stopped;
+		private final AtomicInteger found;
+		private final Queue<List<E>> solutions;
+
+		private Run(final int limit) {
+			this.limit = limit;
+			this.stopped = new AtomicBoolean(false);
+			this.found = new AtomicInteger(0);
+			this.solutions = new ConcurrentLinkedQueue<>();
+		}
+
+		/**
+		 * @return True if the search should stop.
+		 */
+		private boolean report(final @Nonnull List<AbstractCell<E>> cells) {
+			if (found.incrementAndGet() > limit)
+				return true;
+			final ImmutableList.Builder<E> values = ImmutableList.builder();
+			for (final AbstractCell<E> cell : cells) {
+				values.add(cell.getValue().orElseThrow());
+			}
+			solutions.add(values.build());
+			if (found.get() >= limit)
+				stopped.set(true);
+			return stopped.get();
+		}
+	}
+
+	/**
+	 * Searches the subtree below a snapshot, completing once it and every task it forked have finished.
+	 */
+	private final class SearchTask extends CountedCompleter<Void> {
+		private static final long serialVersionUID = 1L;
+
+		private final Run run;
+		private final long[] snapshot;
+
+		private SearchTask(final CountedCompleter<?> parent, final @Nonnull Run run, final @Nonnull long[] snapshot) {
+			super(parent);
+			this.run = run;
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public void compute() {
+			if (!run.stopped.get()) {
+				final Network<E> network = workerNetworks.get();
+				final Trail trail = network.getTrail();
+				final int level = trail.getLevel();
+				trail.push();
+				try {
+					network.restore(snapshot);
+					search(network);
+				} finally {
+					trail.popTo(level);
+				}
+			}
+			tryComplete();
+		}
+
+		/**
+		 * @return True if the search should stop.
+		 */
+		private boolean search(final @Nonnull Network<E> network) {
+			if (run.stopped.get())
+				return true;
+			final Optional<AbstractCell<E>> next = variableOrdering.select(network.getCells());
+			if (next.isEmpty())
+				return run.report(network.getCells());
+			final AbstractCell<E> cell = next.get();
+			for (final E value : valueOrdering.order(cell)) {
+				if (!cell.hasPossibility(value))
+					continue;
+				if (ForkJoinTask.getSurplusQueuedTaskCount() < SPLIT_THRESHOLD) {
+					fork(network, cell, value);
+					return branch(network, cell, value);
+				}
+				if (branch(network, cell, value))
+					return true;
+				try {
+					cell.removePossibility(value);
+				} catch (final ContradictionException e) {
+					failures.increment();
+					return false;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Searches the branch in which the cell is paired with the value.
+		 * @return True if the search should stop.
+		 */
+		private boolean branch(final @Nonnull Network<E> network, final @Nonnull AbstractCell<E> cell,
+							   final @Nonnull E value) {
+			choices.increment();
+			network.getTrail().push();
+			try {
+				cell.setValue(value);
+				return search(network);
+			} catch (final ContradictionException e) {
+				failures.increment();
+				return false;
+			} finally {
+				network.getTrail().pop();
+			}
+		}
+
+		/**
+		 * Hands the branch in which the value is removed from the cell to another worker.
+		 */
+		private void fork(final @Nonnull Network<E> network, final @Nonnull AbstractCell<E> cell,
+						  final @Nonnull E value) {
+			network.getTrail().push();
+			try {
+				cell.removePossibility(value);
+				addToPendingCount(1);
+				splits.increment();
+				new SearchTask(this, run, network.snapshot()).fork();
+			} catch (final ContradictionException e) {
+				failures.increment();
+			} finally {
+				network.getTrail().pop();
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package finite_groupings.search;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import finite_groupings.*;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * A backtracking search over a network of groups, for when propagation alone stalls.
+ * <p>
+ * At each choice point the search picks a cell and a value, and either pairs the cell with the value,
+ * or, once that branch is exhausted, removes the value from the cell and carries on.
+ * The cells and groups propagate every choice as usual, and every change is recorded on a {@link Trail},
+ * so backtracking only undoes what the branch changed.
+ * A branch fails when propagation throws a {@link ContradictionException}.
+ * <p>
+ * The network is returned to its original state once each call finishes,
+ * including any sub groups that the {@link GroupStrategy#subGroupSearch() sub group search} found along the way,
+ * which stop listening to their cells once the branch that they were found in is backtracked.
+ * @param <E> The value type of the cells.
+ */
+public class Solver<E> {
+
+	private final Network<E> network;
+	private final ImmutableList<AbstractCell<E>> cells;
+	private final Trail trail;
+	private final VariableOrdering<E> variableOrdering;
+	private final ValueOrdering<E> valueOrdering;
+
+	private long choices;
+	private long failures;
+
+	/**
+	 * Branches on the cell with the fewest possibilities, trying its values in order.
+	 */
+	public Solver(final @Nonnull Set<? extends Group<E>> groups) {
+		this(groups, VariableOrdering.smallestDomain(), ValueOrdering.inOrder());
+	}
+
+	/**
+	 * @param groups Every group in the network.
+	 * @throws IllegalArgumentException If a group isn't a {@link GroupImpl}, or a cell isn't an {@link AbstractCell}.
+	 * @see Network#Network(Iterable)
+	 */
+	public Solver(final @Nonnull Set<? extends Group<E>> groups,
+				  final @Nonnull VariableOrdering<E> variableOrdering,
+				  final @Nonnull ValueOrdering<E> valueOrdering) {
+		this(new Network<>(groups), variableOrdering, valueOrdering);
+	}
+
+	public Solver(final @Nonnull Network<E> network,
+				  final @Nonnull VariableOrdering<E> variableOrdering,
+				  final @Nonnull ValueOrdering<E> valueOrdering) {
+		this.network = network;
+		this.cells = network.getCells();
+		this.trail = network.getTrail();
+		this.variableOrdering = variableOrdering;
+		this.valueOrdering = valueOrdering;
+	}
+
+	/**
+	 * @return The first solution found, mapping every cell to its value, or nothing if there's no solution.
+	 */
+	@Nonnull
+	public Optional<Map<Cell<E>, E>> solve() {
+		return solveAll(1).stream().findFirst();
+	}
+
+	/**
+	 * @return Every solution.
+	 */
+	@Nonnull
+	public List<Map<Cell<E>, E>> solveAll() {
+		return solveAll(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param limit The number of solutions after which to stop searching.
+	 * @return Up to {@code limit} solutions, in the order they were found.
+	 */
+	@Nonnull
+	public List<Map<Cell<E>, E>> solveAll(final int limit) {
+		final List<Map<Cell<E>, E>> solutions = new ArrayList<>();
+		if (limit <= 0)
+			return solutions;
+		final long start = System.nanoTime();
+		final int level = trail.getLevel();
+		// Refutations at the top of the search change the network too, so they need a level to be undone from.
+		trail.push();
+		try {
+			search(limit, solutions);
+		} finally {
+			trail.popTo(level);
+			SolverStats.global().recordSolve(System.nanoTime() - start);
+		}
+		return solutions;
+	}
+
+	/**
+	 * @return True if the search should stop.
+	 */
+	private boolean search(final int limit, final @Nonnull List<Map<Cell<E>, E>> solutions) {
+		final Optional<AbstractCell<E>> next = variableOrdering.select(cells);
+		if (next.isEmpty()) {
+			solutions.add(snapshot());
+			return solutions.size() >= limit;
+		}
+		final AbstractCell<E> cell = next.get();
+		for (final E value : valueOrdering.order(cell)) {
+			if (!cell.hasPossibility(value))
+				continue;
+			choices++;
+			trail.push();
+			try {
+				cell.setValue(value);
+				if (search(limit, solutions))
+					return true;
+			} catch (final ContradictionException e) {
+				failures++;
+			} finally {
+				trail.pop();
+			}
+			try {
+				cell.removePossibility(value);
+			} catch (final ContradictionException e) {
+				failures++;
+				return false;
+			}
+		}
+		return false;
+	}
+
+	@Nonnull
+	private Map<Cell<E>, E> snapshot() {
+		final ImmutableMap.Builder<Cell<E>, E> solution = ImmutableMap.builder();
+		for (final AbstractCell<E> cell : cells) {
+			solution.put(cell, cell.getValue().orElseThrow());
+		}
+		return solution.build();
+	}
+
+	@Nonnull
+	public Network<E> getNetwork() {
+		return network;
+	}
+
+	/**
+	 * @return The number of values tried at choice points over the solver's lifetime.
+	 */
+	public long getChoiceCount() {
+		return choices;
+	}
+
+	/**
+	 * @return The number of branches that ended in a contradiction over the solver's lifetime.
+	 */
+	public long getFailureCount() {
+		return failures;
+	}
+}
@@ -0,0 +1,49 @@
+package finite_groupings.search;
+
+import finite_groupings.AbstractCell;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Chooses the order in which a search tries the values of the cell it's branching on.
+ * @param <E> The value type of the cells.
+ */
+@FunctionalInterface
+public interface ValueOrdering<E> {
+
+	/**
+	 * @param cell The cell being branched on.
+	 * @return The cell's possibilities, in the order they should be tried.
+	 */
+	@Nonnull
+	List<E> order(@Nonnull AbstractCell<E> cell);
+
+	/**
+	 * @return An ordering that tries values in the order of the cell's universe.
+	 */
+	@Nonnull
+	static <E> ValueOrdering<E> inOrder() {
+		return cell -> {
+			final List<E> values = new ArrayList<>(cell.getPossibilityCount());
+			cell.forEachPossibility(values::add);
+			return values;
+		};
+	}
+
+	/**
+	 * @return An ordering that tries values in a random order, drawn from the given source.
+	 */
+	@Nonnull
+	static <E> ValueOrdering<E> shuffled(final @Nonnull Random random) {
+		final ValueOrdering<E> inOrder = inOrder();
+		return cell -> {
+			final List<E> values = inOrder.order(cell);
+			Collections.shuffle(values, random);
+			return values;
+		};
+	}
+}
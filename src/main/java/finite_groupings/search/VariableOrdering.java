@@ -0,0 +1,54 @@
+package finite_groupings.search;
+
+import finite_groupings.AbstractCell;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chooses which cell a search should branch on next.
+ * @param <E> The value type of the cells.
+ */
+@FunctionalInterface
+public interface VariableOrdering<E> {
+
+	/**
+	 * @param cells Every cell in the network, in the same order on every call.
+	 * @return A cell without a value, or nothing if every cell has a value.
+	 */
+	@Nonnull
+	Optional<AbstractCell<E>> select(@Nonnull List<AbstractCell<E>> cells);
+
+	/**
+	 * @return An ordering that picks the first cell without a value.
+	 */
+	@Nonnull
+	static <E> VariableOrdering<E> inOrder() {
+		return cells -> cells.stream().filter(c -> !c.hasValue()).findFirst();
+	}
+
+	/**
+	 * @return An ordering that picks the cell without a value that has the fewest possibilities,
+	 * breaking ties by order. Failing early on the most constrained cell keeps the search tree small.
+	 */
+	@Nonnull
+	static <E> VariableOrdering<E> smallestDomain() {
+		return cells -> {
+			AbstractCell<E> best = null;
+			int bestCount = Integer.MAX_VALUE;
+			for (final AbstractCell<E> cell : cells) {
+				if (cell.hasValue())
+					continue;
+				final int count = cell.getPossibilityCount();
+				if (count < bestCount) {
+					best = cell;
+					bestCount = count;
+					if (count <= 2)
+						break;
+				}
+			}
+			return Optional.ofNullable(best);
+		};
+	}
+}
@@ -0,0 +1,381 @@
+package i_paper_maths_puzzle;
+
+import com.google.common.collect.ImmutableList;
+import i_paper_maths_puzzle.pojos.Cell;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import i_paper_maths_puzzle.pojos.Number;
+import i_paper_maths_puzzle.pojos.Operator;
+import utils.ClassUtils;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static i_paper_maths_puzzle.pojos.Line.CELL_COUNT;
+
+/**
+ * A file of every solution of every puzzle with the given operator layouts, keyed by the puzzles' answers,
+ * so that solving a puzzle with one of those layouts is a lookup in a memory mapped file.
+ * <p>
+ * Every puzzle with the same operators, wherever they're placed, is one of the 9! orders of the digits,
+ * so an index of a layout holds all 9! orders that divide exactly, grouped by the six answers they work out to.
+ * The whole space of 4^12 layouts would come to around 6 * 10^12 entries, far too many to store,
+ * so an index only covers the layouts it's {@link #build(Collection, Path) built} for,
+ * and {@link #lookup(MathsPuzzle)} tells callers when to fall back on the {@link MathsPuzzleSolver}.
+ * <p>
+ * The file holds a directory of layouts, then a section for each layout:
+ * the distinct answer keys in ascending order, where each solution's run of entries starts,
+ * and the solutions themselves, each the rank of its order of the digits.
+ * Sections are mapped separately, so files can grow past the 2GB limit of a single mapping.
+ * <p>
+ * Lookups only use absolute reads of the mapped buffers, so an open index can be shared between threads.
+ */
+public class AnswerIndex implements Closeable {
+
+	protected static final String MISSING_OPERATOR_EXCEPTION_MSG = "Puzzle is missing an operator.";
+	protected static final String CORRUPT_FILE_EXCEPTION_MSG = "Answer index file is corrupt or from another version.";
+
+	private static final int MAGIC = 0x414E5358;
+	private static final int VERSION = 1;
+
+	private static final Number[] NUMBERS = Number.values();
+	private static final int DIGIT_COUNT = NUMBERS.length;
+	private static final int LINE_TOTAL = 2 * CELL_COUNT;
+	private static final int[] FACTORIALS = {1, 1, 2, 6, 24, 120, 720, 5040, 40320, 362880};
+	/**
+	 * Every order of the digits in the grid.
+	 */
+	private static final int ORDER_COUNT = FACTORIALS[DIGIT_COUNT];
+
+	/**
+	 * Each answer takes 10 bits of a key, offset so that every answer a line can work out to is positive.
+	 */
+	private static final int ANSWER_BITS = 10;
+	private static final int ANSWER_OFFSET = 1 << (ANSWER_BITS - 1);
+	/**
+	 * Each operator pair takes 4 bits of a layout.
+	 */
+	private static final int PAIR_BITS = 4;
+
+	private static final int HEADER_BYTES = 3 * Integer.BYTES;
+	private static final int DIRECTORY_ENTRY_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+	private final FileChannel channel;
+	private final int[] layouts;
+	private final int[] keyCounts;
+	private final MappedByteBuffer[] sections;
+
+	private AnswerIndex(final @Nonnull FileChannel channel, final @Nonnull int[] layouts,
+						final @Nonnull int[] keyCounts, final @Nonnull MappedByteBuffer[] sections) {
+		this.channel = channel;
+		this.layouts = layouts;
+		this.keyCounts = keyCounts;
+		this.sections = sections;
+	}
+
+	/**
+	 * @return The operator pair of every row, then every column, packed 4 bits each into a single int.
+	 * @throws IllegalArgumentException If an operator is missing from the puzzle.
+	 */
+	public static int layoutOf(final @Nonnull MathsPuzzle puzzle) {
+		int layout = 0;
+		for (int k = 0; k < CELL_COUNT; k++) {
+			layout |= LineIndex.operatorPair(operator(puzzle, 1, 2 * k), operator(puzzle, 3, 2 * k)) << (PAIR_BITS * k);
+			layout |= LineIndex.operatorPair(operator(puzzle, 2 * k, 1), operator(puzzle, 2 * k, 3))
+					<< (PAIR_BITS * (CELL_COUNT + k));
+		}
+		return layout;
+	}
+
+	@Nonnull
+	private static Operator operator(final @Nonnull MathsPuzzle puzzle, final int x, final int y) {
+		final Cell cell = puzzle.getCell(x, y);
+		return ClassUtils.safeCast(cell, Operator.class)
+				.orElseThrow(() -> new IllegalArgumentException(MISSING_OPERATOR_EXCEPTION_MSG));
+	}
+
+	private static int pairOf(final int layout, final int line) {
+		return (layout >>> (PAIR_BITS * line)) & ((1 << PAIR_BITS) - 1);
+	}
+
+	/**
+	 * Builds the sections of each layout in parallel, then writes them out in the order given.
+	 * Sections are built in batches of as many layouts as the common pool has threads,
+	 * each written out before the next is started, so only a batch of sections, at around 4MB a layout,
+	 * is held in memory at once.
+	 * @param layouts Layouts packed by {@link #layoutOf(MathsPuzzle)}. Repeats are ignored.
+	 */
+	public static void build(final @Nonnull Collection<Integer> layouts, final @Nonnull Path file) throws IOException {
+		final int[] sorted = layouts.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+		final LineIndex index = LineIndex.shared();
+		try (final FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + sorted.length * DIRECTORY_ENTRY_BYTES);
+			out.position(header.capacity());
+			header.putInt(MAGIC).putInt(VERSION).putInt(sorted.length);
+			final int batchSize = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+			for (int start = 0; start < sorted.length; start += batchSize) {
+				final Section[] batch = IntStream.range(start, Math.min(start + batchSize, sorted.length))
+						.parallel()
+						.mapToObj(i -> buildSection(index, sorted[i]))
+						.toArray(Section[]::new);
+				// A failed write throws straight out, so no more sections are built.
+				for (final Section section : batch) {
+					header.putInt(section.layout).putInt(section.keys.length)
+							.putLong(out.position()).putLong(section.bytes.remaining());
+					while (section.bytes.hasRemaining()) {
+						out.write(section.bytes);
+					}
+				}
+			}
+			header.flip();
+			out.position(0);
+			while (header.hasRemaining()) {
+				out.write(header);
+			}
+		}
+	}
+
+	private static final class Section {
+		private final int layout;
+		private final long[] keys;
+		private final ByteBuffer bytes;
+
+		private Section(final int layout, final @Nonnull long[] keys, final @Nonnull ByteBuffer bytes) {
+			this.layout = layout;
+			this.keys = keys;
+			this.bytes = bytes;
+		}
+	}
+
+	@Nonnull
+	private static Section buildSection(final @Nonnull LineIndex index, final int layout) {
+		final long[] keys = new long[ORDER_COUNT];
+		final int[] ranks = new int[ORDER_COUNT];
+		final int[] digits = new int[DIGIT_COUNT];
+		int count = 0;
+		for (int rank = 0; rank < ORDER_COUNT; rank++) {
+			unrank(rank, digits);
+			final long key = key(index, layout, digits);
+			if (key >= 0) {
+				keys[count] = key;
+				ranks[count] = rank;
+				count++;
+			}
+		}
+		final long[] distinct = Arrays.stream(keys, 0, count).sorted().distinct().toArray();
+		// Counting sort of the ranks by key, so each key's solutions are contiguous.
+		final int[] offsets = new int[distinct.length + 1];
+		final int[] groups = new int[count];
+		for (int i = 0; i < count; i++) {
+			groups[i] = Arrays.binarySearch(distinct, keys[i]);
+			offsets[groups[i] + 1]++;
+		}
+		for (int i = 1; i < offsets.length; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+		final int[] grouped = new int[count];
+		final int[] next = Arrays.copyOf(offsets, distinct.length);
+		for (int i = 0; i < count; i++) {
+			grouped[next[groups[i]]++] = ranks[i];
+		}
+
+		final ByteBuffer bytes = ByteBuffer.allocate(
+				distinct.length * Long.BYTES + offsets.length * Integer.BYTES + count * Integer.BYTES);
+		bytes.asLongBuffer().put(distinct);
+		bytes.position(distinct.length * Long.BYTES);
+		bytes.asIntBuffer().put(offsets).put(grouped);
+		bytes.position(0);
+		return new Section(layout, distinct, bytes);
+	}
+
+	/**
+	 * @return The six answers the digits work out to, packed into a key, or -1 if a line divides inexactly.
+	 */
+	private static long key(final @Nonnull LineIndex index, final int layout, final @Nonnull int[] digits) {
+		long key = 0;
+		for (int k = 0; k < CELL_COUNT; k++) {
+			final int row = index.result(pairOf(layout, k),
+					LineIndex.pack(digits[3 * k], digits[3 * k + 1], digits[3 * k + 2]));
+			final int col = index.result(pairOf(layout, CELL_COUNT + k),
+					LineIndex.pack(digits[k], digits[3 + k], digits[6 + k]));
+			if (row == LineIndex.NO_RESULT || col == LineIndex.NO_RESULT)
+				return -1;
+			key |= (long) (row + ANSWER_OFFSET) << (ANSWER_BITS * k);
+			key |= (long) (col + ANSWER_OFFSET) << (ANSWER_BITS * (CELL_COUNT + k));
+		}
+		return key;
+	}
+
+	/**
+	 * @return The puzzle's answers packed into a key, or -1 if an answer is out of range for any line.
+	 */
+	private static long key(final @Nonnull MathsPuzzle puzzle) {
+		long key = 0;
+		for (int k = 0; k < CELL_COUNT; k++) {
+			final int row = puzzle.getRowAnswer(k) + ANSWER_OFFSET;
+			final int col = puzzle.getColAnswer(k) + ANSWER_OFFSET;
+			if (row < 0 || row >= 1 << ANSWER_BITS || col < 0 || col >= 1 << ANSWER_BITS)
+				return -1;
+			key |= (long) row << (ANSWER_BITS * k);
+			key |= (long) col << (ANSWER_BITS * (CELL_COUNT + k));
+		}
+		return key;
+	}
+
+	/**
+	 * Writes the digits of the order with the given rank, counting the orders of 1 to 9 lexicographically.
+	 */
+	static void unrank(int rank, final @Nonnull int[] digits) {
+		int unused = (1 << DIGIT_COUNT) - 1;
+		for (int i = 0; i < DIGIT_COUNT; i++) {
+			final int factorial = FACTORIALS[DIGIT_COUNT - 1 - i];
+			int skip = rank / factorial;
+			rank %= factorial;
+			int digit = Integer.numberOfTrailingZeros(unused);
+			while (skip-- > 0) {
+				digit = Integer.numberOfTrailingZeros(unused & ~((2 << digit) - 1));
+			}
+			unused &= ~(1 << digit);
+			digits[i] = digit + 1;
+		}
+	}
+
+	/**
+	 * Maps every section of the file. The file stays open until the index is closed.
+	 */
+	@Nonnull
+	public static AnswerIndex open(final @Nonnull Path file) throws IOException {
+		final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			readFully(channel, header, 0);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) < 0)
+				throw new IOException(CORRUPT_FILE_EXCEPTION_MSG);
+			final int count = header.getInt(8);
+			final ByteBuffer directory = ByteBuffer.allocate(count * DIRECTORY_ENTRY_BYTES);
+			readFully(channel, directory, HEADER_BYTES);
+			final int[] layouts = new int[count];
+			final int[] keyCounts = new int[count];
+			final MappedByteBuffer[] sections = new MappedByteBuffer[count];
+			for (int i = 0; i < count; i++) {
+				final int entry = i * DIRECTORY_ENTRY_BYTES;
+				layouts[i] = directory.getInt(entry);
+				keyCounts[i] = directory.getInt(entry + Integer.BYTES);
+				final long offset = directory.getLong(entry + 2 * Integer.BYTES);
+				final long size = directory.getLong(entry + 2 * Integer.BYTES + Long.BYTES);
+				if (offset < 0 || size < 0 || offset + size > channel.size() || (i > 0 && layouts[i] <= layouts[i - 1]))
+					throw new IOException(CORRUPT_FILE_EXCEPTION_MSG);
+				sections[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+			}
+			return new AnswerIndex(channel, layouts, keyCounts, sections);
+		} catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static void readFully(final @Nonnull FileChannel channel, final @Nonnull ByteBuffer buffer,
+								  final long position) throws IOException {
+		long at = position;
+		while (buffer.hasRemaining()) {
+			final int read = channel.read(buffer, at);
+			if (read < 0)
+				throw new EOFException(CORRUPT_FILE_EXCEPTION_MSG);
+			at += read;
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * @return The number of layouts in the index.
+	 */
+	public int size() {
+		return layouts.length;
+	}
+
+	public boolean contains(final int layout) {
+		return Arrays.binarySearch(layouts, layout) >= 0;
+	}
+
+	/**
+	 * Finds every solution of the puzzle, in the same form as {@link MathsPuzzleSolver#solveAll(MathsPuzzle, int)}.
+	 * @return The solutions, or nothing if the puzzle's layout isn't in the index.
+	 * @throws IllegalArgumentException If an operator is missing from the puzzle.
+	 */
+	@Nonnull
+	public Optional<List<ImmutableList<Number>>> lookup(final @Nonnull MathsPuzzle puzzle) {
+		final int section = Arrays.binarySearch(layouts, layoutOf(puzzle));
+		if (section < 0)
+			return Optional.empty();
+		final List<ImmutableList<Number>> solutions = new ArrayList<>();
+		final long key = key(puzzle);
+		if (key < 0)
+			return Optional.of(solutions);
+		final MappedByteBuffer buffer = sections[section];
+		final int keyCount = keyCounts[section];
+		int low = 0;
+		int high = keyCount - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final long midKey = buffer.getLong(mid * Long.BYTES);
+			if (midKey < key) {
+				low = mid + 1;
+			} else if (midKey > key) {
+				high = mid - 1;
+			} else {
+				addSolutions(puzzle, buffer, keyCount, mid, solutions);
+				break;
+			}
+		}
+		return Optional.of(solutions);
+	}
+
+	/**
+	 * Adds the solutions filed under the key that agree with the puzzle's given numbers.
+	 */
+	private static void addSolutions(final @Nonnull MathsPuzzle puzzle, final @Nonnull MappedByteBuffer buffer,
+									 final int keyCount, final int keyIndex,
+									 final @Nonnull List<ImmutableList<Number>> solutions) {
+		final int offsets = keyCount * Long.BYTES;
+		final int ranks = offsets + (keyCount + 1) * Integer.BYTES;
+		final int start = buffer.getInt(offsets + keyIndex * Integer.BYTES);
+		final int end = buffer.getInt(offsets + (keyIndex + 1) * Integer.BYTES);
+		final int[] digits = new int[DIGIT_COUNT];
+		for (int i = start; i < end; i++) {
+			unrank(buffer.getInt(ranks + i * Integer.BYTES), digits);
+			if (agrees(puzzle, digits)) {
+				final ImmutableList.Builder<Number> solution = ImmutableList.builder();
+				for (final int digit : digits) {
+					solution.add(NUMBERS[digit - 1]);
+				}
+				solutions.add(solution.build());
+			}
+		}
+	}
+
+	private static boolean agrees(final @Nonnull MathsPuzzle puzzle, final @Nonnull int[] digits) {
+		for (int i = 0; i < digits.length; i++) {
+			final Optional<Number> given = ClassUtils.safeCast(
+					puzzle.getCell(2 * (i % CELL_COUNT), 2 * (i / CELL_COUNT)), Number.class);
+			if (given.isPresent() && given.get().value != digits[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Closes the file. The mappings themselves are only released once they're garbage collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
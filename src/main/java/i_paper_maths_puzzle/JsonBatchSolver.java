@@ -0,0 +1,377 @@
+package i_paper_maths_puzzle;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.ImmutableList;
+import i_paper_maths_puzzle.pojos.Cell;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import i_paper_maths_puzzle.pojos.Number;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static i_paper_maths_puzzle.pojos.Line.CELL_COUNT;
+import static i_paper_maths_puzzle.pojos.Line.LINE_LENGTH;
+
+/**
+ * Solves a stream of puzzles written as newline delimited JSON, across a pool of threads,
+ * writing a line of JSON for each puzzle with its solution and how long it took to solve, in the order they're read.
+ * <p>
+ * Each puzzle is an object such as
+ * <pre>{"id":"p1","grid":[" - +5","* * *","7-3*4","* - *","8+9-2"],"rows":[0,16,15],"cols":[56,9,40]}</pre>
+ * where {@code grid} is the puzzle's rows in the text form of {@link MathsPuzzle#MathsPuzzle(String[])},
+ * without the answers, and {@code rows} and {@code cols} are the answers. The id is optional, and may be
+ * a string or a number. Other fields are skipped. Each puzzle is written back as
+ * <pre>{"id":"p1","solution":[1,6,5,7,3,4,8,9,2],"unique":true,"nanos":10512}</pre>
+ * with the numbers row by row, or a null solution if there's none.
+ * <p>
+ * Puzzles are parsed token by token, and solved in chunks as single tasks.
+ * The calling thread reads, the worker threads solve, and a thread of its own writes, with a bounded queue of chunks
+ * between reading and writing, so a file of any length is streamed through in constant memory.
+ * If writing fails, reading stops at the next puzzle, rather than carrying on through the rest of the input.
+ */
+public class JsonBatchSolver implements AutoCloseable {
+
+	protected static final String INVALID_PUZZLE_EXCEPTION_MSG = "Invalid puzzle on line %d.";
+
+	private static final JsonFactory JSON = new JsonFactory();
+
+	private static final int CHUNK_SIZE = 256;
+	/**
+	 * The number of chunks in flight per thread, so that threads don't sit idle while the oldest chunk is written.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+	/**
+	 * Tells the writer that every chunk has been read.
+	 */
+	private static final Future<List<Solved>> END = CompletableFuture.completedFuture(List.of());
+
+	private final MathsPuzzleSolver solver;
+	private final ExecutorService solvers;
+	private final ExecutorService writer;
+	private final int maxChunksInFlight;
+
+	/**
+	 * Uses the {@link LineIndex#shared() shared} line index.
+	 */
+	public JsonBatchSolver(final int threads) {
+		this(threads, LineIndex.shared());
+	}
+
+	public JsonBatchSolver(final int threads, final @Nonnull LineIndex index) {
+		this.solver = new MathsPuzzleSolver(index);
+		this.solvers = Executors.newFixedThreadPool(threads);
+		this.writer = Executors.newSingleThreadExecutor();
+		this.maxChunksInFlight = threads * CHUNKS_PER_THREAD;
+	}
+
+	/**
+	 * A puzzle as it's read.
+	 */
+	private static final class Record {
+		private final long line;
+		@Nullable
+		private final String id;
+		private final boolean numericId;
+		private final MathsPuzzle puzzle;
+
+		private Record(final long line, final @Nullable String id, final boolean numericId,
+					   final @Nonnull MathsPuzzle puzzle) {
+			this.line = line;
+			this.id = id;
+			this.numericId = numericId;
+			this.puzzle = puzzle;
+		}
+	}
+
+	/**
+	 * A puzzle as it's written.
+	 */
+	private static final class Solved {
+		private final Record record;
+		@Nullable
+		private final ImmutableList<Number> solution;
+		private final boolean unique;
+		private final long nanos;
+
+		private Solved(final @Nonnull Record record, final @Nullable ImmutableList<Number> solution,
+					   final boolean unique, final long nanos) {
+			this.record = record;
+			this.solution = solution;
+			this.unique = unique;
+			this.nanos = nanos;
+		}
+	}
+
+	/**
+	 * @return The number of puzzles read.
+	 * @see #solve(Reader, Writer)
+	 */
+	public long solve(final @Nonnull Path puzzles, final @Nonnull Path solutions) throws IOException {
+		try (final Reader reader = Files.newBufferedReader(puzzles, StandardCharsets.UTF_8);
+			 final Writer writer = Files.newBufferedWriter(solutions, StandardCharsets.UTF_8)) {
+			return solve(reader, writer);
+		}
+	}
+
+	/**
+	 * Reads puzzles until the end of the reader, then flushes the writer. Neither is closed.
+	 * @return The number of puzzles read.
+	 * @throws IllegalArgumentException If a puzzle is malformed. Solutions before its chunk are still written.
+	 * @throws IOException If the reader or writer fails, or the input isn't JSON.
+	 */
+	public long solve(final @Nonnull Reader puzzles, final @Nonnull Writer solutions) throws IOException {
+		final BlockingQueue<Future<List<Solved>>> inFlight = new ArrayBlockingQueue<>(maxChunksInFlight);
+		final AtomicBoolean writeFailed = new AtomicBoolean(false);
+		final Future<Long> written = writer.submit(() -> writeAll(inFlight, solutions, writeFailed));
+		try {
+			try {
+				readAll(puzzles, inFlight, writeFailed);
+			} catch (final IOException | RuntimeException e) {
+				// Lets the writer finish the chunks read before the failure.
+				inFlight.put(END);
+				try {
+					written.get();
+				} catch (final ExecutionException suppressed) {
+					e.addSuppressed(suppressed.getCause());
+				}
+				throw e;
+			}
+			inFlight.put(END);
+			return written.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Reads the puzzles in chunks, queueing each one to be written once it's solved.
+	 * Waits while the queue's full, so reading never gets more than a bounded number of chunks ahead of writing.
+	 * @param writeFailed Set by the writer if it fails, after which nothing more would be written,
+	 *                    so reading stops without queueing the chunk it was part way through.
+	 */
+	private void readAll(final @Nonnull Reader puzzles, final @Nonnull BlockingQueue<Future<List<Solved>>> inFlight,
+						 final @Nonnull AtomicBoolean writeFailed) throws IOException, InterruptedException {
+		try (final JsonParser parser = JSON.createParser(puzzles)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			List<Record> chunk = new ArrayList<>(CHUNK_SIZE);
+			Record record;
+			while (!writeFailed.get() && (record = read(parser)) != null) {
+				chunk.add(record);
+				if (chunk.size() == CHUNK_SIZE) {
+					inFlight.put(submit(chunk));
+					chunk = new ArrayList<>(CHUNK_SIZE);
+				}
+			}
+			if (!chunk.isEmpty() && !writeFailed.get())
+				inFlight.put(submit(chunk));
+		}
+	}
+
+	/**
+	 * @return The next puzzle, or null at the end of the input.
+	 */
+	@Nullable
+	private static Record read(final @Nonnull JsonParser parser) throws IOException {
+		final JsonToken start = parser.nextToken();
+		if (start == null)
+			return null;
+		final long line = parser.getCurrentLocation().getLineNr();
+		if (start != JsonToken.START_OBJECT)
+			throw invalid(line);
+		String id = null;
+		boolean numericId = false;
+		Cell[][] rows = null;
+		int[] rowAnswers = null;
+		int[] colAnswers = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			final String field = parser.getCurrentName();
+			final JsonToken value = parser.nextToken();
+			switch (field) {
+				case "id":
+					if (value != JsonToken.VALUE_STRING && value != JsonToken.VALUE_NUMBER_INT)
+						throw invalid(line);
+					id = parser.getText();
+					numericId = value == JsonToken.VALUE_NUMBER_INT;
+					break;
+				case "grid":
+					rows = grid(parser, line);
+					break;
+				case "rows":
+					rowAnswers = answers(parser, line);
+					break;
+				case "cols":
+					colAnswers = answers(parser, line);
+					break;
+				default:
+					parser.skipChildren();
+			}
+		}
+		if (rows == null || rowAnswers == null || colAnswers == null)
+			throw invalid(line);
+		try {
+			return new Record(line, id, numericId, new MathsPuzzle(rows, rowAnswers, colAnswers));
+		} catch (final IllegalArgumentException e) {
+			throw new IllegalArgumentException(String.format(INVALID_PUZZLE_EXCEPTION_MSG, line), e);
+		}
+	}
+
+	/**
+	 * Parses each row's characters straight out of the parser's buffer.
+	 */
+	@Nonnull
+	private static Cell[][] grid(final @Nonnull JsonParser parser, final long line) throws IOException {
+		if (parser.currentToken() != JsonToken.START_ARRAY)
+			throw invalid(line);
+		final Cell[][] rows = new Cell[LINE_LENGTH][LINE_LENGTH];
+		for (int y = 0; y < LINE_LENGTH; y++) {
+			if (parser.nextToken() != JsonToken.VALUE_STRING || parser.getTextLength() != LINE_LENGTH)
+				throw invalid(line);
+			final char[] text = parser.getTextCharacters();
+			final int offset = parser.getTextOffset();
+			try {
+				for (int x = 0; x < LINE_LENGTH; x++) {
+					rows[y][x] = Cell.parseChar(text[offset + x]);
+				}
+			} catch (final IllegalArgumentException e) {
+				throw new IllegalArgumentException(String.format(INVALID_PUZZLE_EXCEPTION_MSG, line), e);
+			}
+		}
+		if (parser.nextToken() != JsonToken.END_ARRAY)
+			throw invalid(line);
+		return rows;
+	}
+
+	@Nonnull
+	private static int[] answers(final @Nonnull JsonParser parser, final long line) throws IOException {
+		if (parser.currentToken() != JsonToken.START_ARRAY)
+			throw invalid(line);
+		final int[] answers = new int[CELL_COUNT];
+		for (int k = 0; k < CELL_COUNT; k++) {
+			if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT)
+				throw invalid(line);
+			answers[k] = parser.getIntValue();
+		}
+		if (parser.nextToken() != JsonToken.END_ARRAY)
+			throw invalid(line);
+		return answers;
+	}
+
+	@Nonnull
+	private static IllegalArgumentException invalid(final long line) {
+		return new IllegalArgumentException(String.format(INVALID_PUZZLE_EXCEPTION_MSG, line));
+	}
+
+	@Nonnull
+	private Future<List<Solved>> submit(final @Nonnull List<Record> chunk) {
+		return solvers.submit(() -> {
+			final List<Solved> solved = new ArrayList<>(chunk.size());
+			for (final Record record : chunk) {
+				final long start = System.nanoTime();
+				final List<ImmutableList<Number>> solutions;
+				try {
+					solutions = solver.solveAll(record.puzzle, 2);
+				} catch (final IllegalArgumentException e) {
+					throw new IllegalArgumentException(String.format(INVALID_PUZZLE_EXCEPTION_MSG, record.line), e);
+				}
+				final long nanos = System.nanoTime() - start;
+				solved.add(new Solved(record, solutions.isEmpty() ? null : solutions.get(0),
+						solutions.size() == 1, nanos));
+			}
+			return solved;
+		});
+	}
+
+	/**
+	 * Writes each chunk as it's solved, in the order they were read, until the end of the queue.
+	 * After a failure the reader is told to stop, and the rest of the chunks are still taken off the queue,
+	 * so the reader never blocks on it, then the failure is thrown.
+	 * @return The number of puzzles written.
+	 */
+	private static long writeAll(final @Nonnull BlockingQueue<Future<List<Solved>>> inFlight,
+								 final @Nonnull Writer solutions, final @Nonnull AtomicBoolean failed) throws Exception {
+		Exception failure = null;
+		long count = 0;
+		try (final JsonGenerator generator = JSON.createGenerator(solutions)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			// Each record ends its own line, so Jackson's default space between root values would start the next.
+			generator.setRootValueSeparator(null);
+			Future<List<Solved>> chunk;
+			while ((chunk = inFlight.take()) != END) {
+				if (failure != null) {
+					chunk.cancel(false);
+					continue;
+				}
+				try {
+					for (final Solved solved : chunk.get()) {
+						write(generator, solved);
+						count++;
+					}
+				} catch (final ExecutionException e) {
+					failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+				} catch (final IOException | RuntimeException e) {
+					failure = e;
+				}
+				if (failure != null)
+					failed.set(true);
+			}
+			generator.flush();
+		}
+		if (failure != null)
+			throw failure;
+		return count;
+	}
+
+	private static void write(final @Nonnull JsonGenerator generator, final @Nonnull Solved solved)
+			throws IOException {
+		generator.writeStartObject();
+		if (solved.record.id != null) {
+			generator.writeFieldName("id");
+			if (solved.record.numericId) {
+				generator.writeNumber(solved.record.id);
+			} else {
+				generator.writeString(solved.record.id);
+			}
+		}
+		generator.writeFieldName("solution");
+		if (solved.solution == null) {
+			generator.writeNull();
+		} else {
+			generator.writeStartArray();
+			for (final Number number : solved.solution) {
+				generator.writeNumber(number.value);
+			}
+			generator.writeEndArray();
+		}
+		generator.writeBooleanField("unique", solved.unique);
+		generator.writeNumberField("nanos", solved.nanos);
+		generator.writeEndObject();
+		generator.writeRaw('\n');
+	}
+
+	/**
+	 * Shuts down the worker threads and the writer.
+	 */
+	@Override
+	public void close() {
+		solvers.shutdown();
+		writer.shutdown();
+	}
+}
@@ -0,0 +1,319 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.Number;
+import i_paper_maths_puzzle.pojos.Operator;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Every line of a maths puzzle, three different digits and two operators, indexed by what it works out to.
+ * Immutable, and built once and shared by every solve through {@link #shared()}.
+ * Building takes a couple of milliseconds, which is no slower than reading a written index back in,
+ * so {@link #write(OutputStream)} and {@link #read(InputStream)} are for carrying an index elsewhere,
+ * not for saving startup time.
+ * <p>
+ * The index answers three questions:
+ * <ul>
+ *     <li>what a line works out to, as a single array lookup;</li>
+ *     <li>which lines work out to an answer, as a contiguous run of an array;</li>
+ *     <li>which digits could go in each cell of a line, given its answer and whichever of its cells are known,
+ *     as a single hash lookup returning a 27 bit mask: bits 0 to 8 for the digits 1 to 9 of the first cell,
+ *     bits 9 to 17 for the second, and bits 18 to 26 for the third.</li>
+ * </ul>
+ * <p>
+ * Lines are packed into an int as {@code (a - 1) * 81 + (b - 1) * 9 + (c - 1)}, and the operator pair as
+ * {@code first.ordinal() * 4 + second.ordinal()}.
+ * Lines are worked out left to right, and only divide where the result is a whole number.
+ */
+public final class LineIndex {
+
+	static final String CORRUPT_DATA_EXCEPTION_MSG = "Line index data is corrupt or from another version.";
+
+	/**
+	 * A line that repeats a digit or divides inexactly has no result.
+	 */
+	public static final int NO_RESULT = Integer.MIN_VALUE;
+
+	static final int DIGIT_COUNT = Number.values().length;
+	static final int LINE_COUNT = DIGIT_COUNT * DIGIT_COUNT * DIGIT_COUNT;
+	static final int OPERATOR_PAIR_COUNT = Operator.values().length * Operator.values().length;
+	static final int POSITION_COUNT = 3;
+
+	private static final int MAGIC = 0x4C494458;
+	private static final int VERSION = 1;
+	/**
+	 * Each cell of a line is either one of the 9 digits or unknown, written as 0.
+	 */
+	private static final int PATTERN_COUNT = (DIGIT_COUNT + 1) * (DIGIT_COUNT + 1) * (DIGIT_COUNT + 1);
+	private static final int EMPTY_KEY = -1;
+
+	/**
+	 * What every line works out to, by {@code pair * LINE_COUNT + line}.
+	 */
+	private final int[] results;
+	private final int smallestAnswer;
+	private final int answerRange;
+	/**
+	 * The lines working out to each answer are {@code lines[lineOffsets[i]]} up to {@code lines[lineOffsets[i + 1]]},
+	 * where {@code i = pair * answerRange + answer - smallestAnswer}.
+	 */
+	private final int[] lineOffsets;
+	private final int[] lines;
+	/**
+	 * An open addressed hash table from (pair, answer, known cells) to the digit masks.
+	 */
+	private final int[] keys;
+	private final int[] masks;
+
+	private LineIndex(final @Nonnull int[] results) {
+		this.results = results;
+		int smallest = Integer.MAX_VALUE;
+		int largest = Integer.MIN_VALUE;
+		int count = 0;
+		for (final int result : results) {
+			if (result != NO_RESULT) {
+				smallest = Math.min(smallest, result);
+				largest = Math.max(largest, result);
+				count++;
+			}
+		}
+		this.smallestAnswer = smallest;
+		this.answerRange = largest - smallest + 1;
+
+		this.lineOffsets = new int[OPERATOR_PAIR_COUNT * answerRange + 1];
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != NO_RESULT)
+				lineOffsets[answerSlot(i / LINE_COUNT, results[i]) + 1]++;
+		}
+		for (int i = 1; i < lineOffsets.length; i++) {
+			lineOffsets[i] += lineOffsets[i - 1];
+		}
+		this.lines = new int[count];
+		final int[] next = Arrays.copyOf(lineOffsets, lineOffsets.length - 1);
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != NO_RESULT)
+				lines[next[answerSlot(i / LINE_COUNT, results[i])]++] = i % LINE_COUNT;
+		}
+
+		// Each line matches the 8 patterns of its cells being known or not, but many lines share a pattern,
+		// so the table is filled at its largest possible size, then moved into one that's at most half full.
+		final int[][] table = newTable(count * (1 << POSITION_COUNT));
+		for (int pair = 0; pair < OPERATOR_PAIR_COUNT; pair++) {
+			for (int line = 0; line < LINE_COUNT; line++) {
+				final int result = results[pair * LINE_COUNT + line];
+				if (result != NO_RESULT)
+					addPatterns(table, pair, result, line);
+			}
+		}
+		int entries = 0;
+		for (final int key : table[0]) {
+			if (key != EMPTY_KEY)
+				entries++;
+		}
+		final int[][] compact = newTable(entries);
+		for (int slot = 0; slot < table[0].length; slot++) {
+			if (table[0][slot] != EMPTY_KEY)
+				compact[1][find(compact[0], table[0][slot])] = table[1][slot];
+		}
+		this.keys = compact[0];
+		this.masks = compact[1];
+	}
+
+	/**
+	 * @return Keys filled with {@link #EMPTY_KEY}, and masks, with room for the entries at most half full.
+	 */
+	@Nonnull
+	private static int[][] newTable(final int entries) {
+		final int capacity = Integer.highestOneBit(Math.max(1, entries * 2 - 1)) << 1;
+		final int[] keys = new int[capacity];
+		Arrays.fill(keys, EMPTY_KEY);
+		return new int[][] {keys, new int[capacity]};
+	}
+
+	/**
+	 * @return The key's slot, claiming an empty one if the key isn't in the table yet.
+	 */
+	private static int find(final @Nonnull int[] keys, final int key) {
+		int slot = slot(keys, key);
+		while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+			slot = (slot + 1) & (keys.length - 1);
+		}
+		keys[slot] = key;
+		return slot;
+	}
+
+	private void addPatterns(final @Nonnull int[][] table, final int pair, final int answer, final int line) {
+		final int mask = (1 << (digit(line, 0) - 1))
+				| (1 << (DIGIT_COUNT + digit(line, 1) - 1))
+				| (1 << (2 * DIGIT_COUNT + digit(line, 2) - 1));
+		for (int known = 0; known < 1 << POSITION_COUNT; known++) {
+			final int a = (known & 1) != 0 ? digit(line, 0) : 0;
+			final int b = (known & 2) != 0 ? digit(line, 1) : 0;
+			final int c = (known & 4) != 0 ? digit(line, 2) : 0;
+			table[1][find(table[0], key(pair, answer, a, b, c))] |= mask;
+		}
+	}
+
+	/**
+	 * @return The index, built the first time it's asked for.
+	 */
+	@Nonnull
+	public static LineIndex shared() {
+		return Holder.INSTANCE;
+	}
+
+	private static final class Holder {
+		private static final LineIndex INSTANCE = build();
+	}
+
+	/**
+	 * Works out every line with every pair of operators.
+	 */
+	@Nonnull
+	public static LineIndex build() {
+		final int[] results = new int[OPERATOR_PAIR_COUNT * LINE_COUNT];
+		for (final Operator first : Operator.values()) {
+			for (final Operator second : Operator.values()) {
+				final int offset = operatorPair(first, second) * LINE_COUNT;
+				for (int line = 0; line < LINE_COUNT; line++) {
+					results[offset + line] = evaluate(first, second, line);
+				}
+			}
+		}
+		return new LineIndex(results);
+	}
+
+	private static int evaluate(final @Nonnull Operator first, final @Nonnull Operator second, final int line) {
+		final int a = digit(line, 0);
+		final int b = digit(line, 1);
+		final int c = digit(line, 2);
+		if (a == b || b == c || a == c || !first.isExact(a, b))
+			return NO_RESULT;
+		final int left = first.apply(a, b);
+		if (!second.isExact(left, c))
+			return NO_RESULT;
+		return second.apply(left, c);
+	}
+
+	/**
+	 * Reads an index written by {@link #write(OutputStream)}. The stream is left open.
+	 * @throws IOException If the stream fails, or doesn't hold an index of this version.
+	 */
+	@Nonnull
+	public static LineIndex read(final @Nonnull InputStream in) throws IOException {
+		final DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+		if (data.readInt() != MAGIC || data.readInt() != VERSION || data.readInt() != OPERATOR_PAIR_COUNT * LINE_COUNT)
+			throw new IOException(CORRUPT_DATA_EXCEPTION_MSG);
+		final int[] results = new int[OPERATOR_PAIR_COUNT * LINE_COUNT];
+		for (int i = 0; i < results.length; i++) {
+			results[i] = data.readInt();
+		}
+		return new LineIndex(results);
+	}
+
+	/**
+	 * Writes what every line works out to, compressed, from which the rest of the index is derived when it's read.
+	 * The stream is left open.
+	 */
+	public void write(final @Nonnull OutputStream out) throws IOException {
+		final GZIPOutputStream gzip = new GZIPOutputStream(out);
+		final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(results.length);
+		for (final int result : results) {
+			data.writeInt(result);
+		}
+		data.flush();
+		gzip.finish();
+	}
+
+	public static int operatorPair(final @Nonnull Operator first, final @Nonnull Operator second) {
+		return first.ordinal() * Operator.values().length + second.ordinal();
+	}
+
+	/**
+	 * @param a From 1 to 9.
+	 * @param b From 1 to 9.
+	 * @param c From 1 to 9.
+	 */
+	public static int pack(final int a, final int b, final int c) {
+		return ((a - 1) * DIGIT_COUNT + b - 1) * DIGIT_COUNT + c - 1;
+	}
+
+	/**
+	 * @param position 0, 1 or 2.
+	 * @return The digit, from 1 to 9, at the position of the packed line.
+	 */
+	public static int digit(final int line, final int position) {
+		switch (position) {
+			case 0: return line / (DIGIT_COUNT * DIGIT_COUNT) + 1;
+			case 1: return line / DIGIT_COUNT % DIGIT_COUNT + 1;
+			default: return line % DIGIT_COUNT + 1;
+		}
+	}
+
+	/**
+	 * @return What the packed line works out to with the operator pair, or {@link #NO_RESULT}.
+	 */
+	public int result(final int pair, final int line) {
+		return results[pair * LINE_COUNT + line];
+	}
+
+	/**
+	 * @return A new array of the packed lines that work out to the answer with the operator pair.
+	 */
+	@Nonnull
+	public int[] lines(final int pair, final int answer) {
+		if (answer < smallestAnswer || answer >= smallestAnswer + answerRange)
+			return new int[0];
+		final int slot = answerSlot(pair, answer);
+		return Arrays.copyOfRange(lines, lineOffsets[slot], lineOffsets[slot + 1]);
+	}
+
+	/**
+	 * @param a The first digit, or 0 if it isn't known.
+	 * @param b The second digit, or 0 if it isn't known.
+	 * @param c The third digit, or 0 if it isn't known.
+	 * @return The digits that each cell could be, as a 27 bit mask, or 0 if no line fits.
+	 */
+	public int possibleDigits(final int pair, final int answer, final int a, final int b, final int c) {
+		if (answer < smallestAnswer || answer >= smallestAnswer + answerRange)
+			return 0;
+		final int key = key(pair, answer, a, b, c);
+		int slot = slot(keys, key);
+		while (keys[slot] != EMPTY_KEY) {
+			if (keys[slot] == key)
+				return masks[slot];
+			slot = (slot + 1) & (keys.length - 1);
+		}
+		return 0;
+	}
+
+	/**
+	 * @return The approximate number of bytes held by the index's arrays.
+	 */
+	public long getFootprint() {
+		return 4L * (results.length + lineOffsets.length + lines.length + keys.length + masks.length);
+	}
+
+	private int answerSlot(final int pair, final int answer) {
+		return pair * answerRange + answer - smallestAnswer;
+	}
+
+	private int key(final int pair, final int answer, final int a, final int b, final int c) {
+		return (pair * answerRange + answer - smallestAnswer) * PATTERN_COUNT
+				+ (a * (DIGIT_COUNT + 1) + b) * (DIGIT_COUNT + 1) + c;
+	}
+
+	/**
+	 * @param keys A table whose length is a power of 2.
+	 */
+	private static int slot(final @Nonnull int[] keys, final int key) {
+		return (key * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(keys.length) + 1);
+	}
+}
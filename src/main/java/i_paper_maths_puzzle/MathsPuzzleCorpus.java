@@ -0,0 +1,261 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.Cell;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import utils.ClassUtils;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static i_paper_maths_puzzle.pojos.Line.CELL_COUNT;
+import static i_paper_maths_puzzle.pojos.Line.LINE_LENGTH;
+
+/**
+ * Reads files of puzzles in the text form that {@link MathsPuzzle#MathsPuzzle(String[])} parses,
+ * each followed by one or more empty lines, as {@link MathsPuzzleGenerator#write} writes them.
+ * <p>
+ * The file is split into regions of about {@link #SPLIT_BYTES} that each start on a record,
+ * and each region is memory mapped and parsed byte by byte, straight into a grid of cells and the answers,
+ * which are reused from one record to the next. So the only allocations per record are the puzzles themselves,
+ * and the regions can be parsed in parallel.
+ * Regions are mapped separately, so files can grow well past the 2GB limit of a single mapping.
+ */
+public final class MathsPuzzleCorpus {
+
+	protected static final String INVALID_RECORD_EXCEPTION_MSG = "Invalid puzzle record at byte %d.";
+
+	/**
+	 * The size of each region the file's split into, before it's moved along to the start of a record.
+	 */
+	static final long SPLIT_BYTES = 64L << 20;
+	/**
+	 * How much of the file to read at a time, while looking for where a region starts.
+	 */
+	private static final int BOUNDARY_SCAN_BYTES = 4096;
+
+	/**
+	 * The cell of each character, or null for characters that aren't cells.
+	 */
+	private static final Cell[] CELLS = new Cell[128];
+
+	static {
+		for (final char c : " */+-123456789".toCharArray()) {
+			CELLS[c] = Cell.parseChar(c);
+		}
+	}
+
+	private MathsPuzzleCorpus() {
+		// Util class.
+		throw ClassUtils.createUtilConstructorAssertionError(getClass());
+	}
+
+	/**
+	 * Reads every puzzle in the file, in the order they're written. The stream is parallel,
+	 * running on the fork join pool of its terminal operation, and closing it closes the file.
+	 * @throws UncheckedIOException From the stream, if the file can't be read.
+	 * @throws IllegalArgumentException From the stream, if a record is malformed.
+	 */
+	@Nonnull
+	public static Stream<MathsPuzzle> read(final @Nonnull Path file) throws IOException {
+		return read(file, SPLIT_BYTES);
+	}
+
+	@Nonnull
+	static Stream<MathsPuzzle> read(final @Nonnull Path file, final long splitBytes) throws IOException {
+		final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			final long[] starts = regionStarts(channel, splitBytes);
+			return IntStream.range(0, starts.length - 1)
+					.parallel()
+					.mapToObj(i -> region(channel, starts[i], starts[i + 1]))
+					.flatMap(region -> StreamSupport.stream(region, false))
+					.onClose(() -> {
+						try {
+							channel.close();
+						} catch (final IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+		} catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return Where each region starts, then the end of the file.
+	 * Each region starts at the first record after a multiple of the split size.
+	 */
+	@Nonnull
+	private static long[] regionStarts(final @Nonnull FileChannel channel, final long splitBytes) throws IOException {
+		final long size = channel.size();
+		final int splits = (int) Math.max(1, (size + splitBytes - 1) / splitBytes);
+		final long[] starts = new long[splits + 1];
+		final ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+		int count = 1;
+		for (int i = 1; i < splits; i++) {
+			final long start = recordAfter(channel, Math.max(i * splitBytes, starts[count - 1]), scan);
+			if (start < size && start > starts[count - 1])
+				starts[count++] = start;
+		}
+		starts[count++] = size;
+		return Arrays.copyOf(starts, count);
+	}
+
+	/**
+	 * @return Where the first record starting after the position is, found by looking for an empty line.
+	 */
+	private static long recordAfter(final @Nonnull FileChannel channel, final long position,
+									final @Nonnull ByteBuffer scan) throws IOException {
+		long at = position;
+		boolean lineStart = false;
+		boolean emptyLine = false;
+		while (true) {
+			scan.clear();
+			final int read = channel.read(scan, at);
+			if (read < 0)
+				return channel.size();
+			for (int i = 0; i < read; i++) {
+				final byte b = scan.get(i);
+				if (b == '\n') {
+					emptyLine = lineStart;
+					lineStart = true;
+				} else if (b == '\r' && lineStart) {
+					continue;
+				} else if (emptyLine) {
+					return at + i;
+				} else {
+					lineStart = false;
+				}
+			}
+			at += read;
+		}
+	}
+
+	@Nonnull
+	private static Spliterator<MathsPuzzle> region(final @Nonnull FileChannel channel, final long start,
+												   final long end) {
+		try {
+			return new Region(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), start);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parses the records of a single region, one at a time.
+	 */
+	private static final class Region extends Spliterators.AbstractSpliterator<MathsPuzzle> {
+
+		private final MappedByteBuffer buffer;
+		private final long offset;
+		private int position;
+
+		private final Cell[][] rows = new Cell[LINE_LENGTH][LINE_LENGTH];
+		private final int[] rowAnswers = new int[CELL_COUNT];
+		private final int[] colAnswers = new int[CELL_COUNT];
+
+		private Region(final @Nonnull MappedByteBuffer buffer, final long offset) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+			this.buffer = buffer;
+			this.offset = offset;
+		}
+
+		@Override
+		public boolean tryAdvance(final @Nonnull Consumer<? super MathsPuzzle> action) {
+			skipEmptyLines();
+			if (position >= buffer.limit())
+				return false;
+			for (int y = 0; y < LINE_LENGTH; y++) {
+				for (int x = 0; x < LINE_LENGTH; x++) {
+					rows[y][x] = cell();
+				}
+				if (y % 2 == 0) {
+					expect('=');
+					rowAnswers[y / 2] = number();
+				}
+				endLine();
+			}
+			for (int k = 0; k < CELL_COUNT; k++) {
+				if (k > 0)
+					expect(' ');
+				expect('=');
+			}
+			endLine();
+			for (int k = 0; k < CELL_COUNT; k++) {
+				if (k > 0)
+					expect(',');
+				colAnswers[k] = number();
+			}
+			endLine();
+			action.accept(new MathsPuzzle(rows, rowAnswers, colAnswers));
+			return true;
+		}
+
+		private void skipEmptyLines() {
+			while (position < buffer.limit() && (buffer.get(position) == '\n' || buffer.get(position) == '\r')) {
+				position++;
+			}
+		}
+
+		@Nonnull
+		private Cell cell() {
+			final int c = position < buffer.limit() ? buffer.get(position) : -1;
+			if (c < 0 || CELLS[c] == null)
+				throw invalid();
+			position++;
+			return CELLS[c];
+		}
+
+		private void expect(final char c) {
+			if (position >= buffer.limit() || buffer.get(position) != c)
+				throw invalid();
+			position++;
+		}
+
+		private int number() {
+			final boolean negative = position < buffer.limit() && buffer.get(position) == '-';
+			if (negative)
+				position++;
+			final int start = position;
+			long value = 0;
+			while (position < buffer.limit() && buffer.get(position) >= '0' && buffer.get(position) <= '9') {
+				value = value * 10 + buffer.get(position) - '0';
+				position++;
+				if (value > Integer.MAX_VALUE)
+					throw invalid();
+			}
+			if (position == start)
+				throw invalid();
+			return (int) (negative ? -value : value);
+		}
+
+		/**
+		 * Steps over the end of a line, which the end of the region also counts as.
+		 */
+		private void endLine() {
+			if (position < buffer.limit() && buffer.get(position) == '\r')
+				position++;
+			if (position < buffer.limit())
+				expect('\n');
+		}
+
+		@Nonnull
+		private IllegalArgumentException invalid() {
+			return new IllegalArgumentException(String.format(INVALID_RECORD_EXCEPTION_MSG, offset + position));
+		}
+	}
+}
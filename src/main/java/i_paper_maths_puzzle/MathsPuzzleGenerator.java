@@ -0,0 +1,178 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.Cell;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import i_paper_maths_puzzle.pojos.NullCell;
+import i_paper_maths_puzzle.pojos.Number;
+import i_paper_maths_puzzle.pojos.Operator;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static i_paper_maths_puzzle.pojos.Line.CELL_COUNT;
+import static i_paper_maths_puzzle.pojos.Line.LINE_LENGTH;
+
+/**
+ * Generates maths puzzles that each have a unique solution.
+ * <p>
+ * A puzzle starts as a random order of the digits with random operators, picked again for any line that divides
+ * inexactly, and the answers are worked out from them. Every number starts out given, then the numbers are taken
+ * away in a random order, each one only staying away if the {@link MathsPuzzleSolver} still finds exactly one
+ * solution. So every puzzle generated is unique, and giving away any fewer of its numbers would make it ambiguous.
+ * <p>
+ * Generators hold no state of their own, so one can be shared between threads.
+ */
+public class MathsPuzzleGenerator {
+
+	/**
+	 * Spreads out the seeds of consecutive puzzles.
+	 */
+	private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private static final Number[] NUMBERS = Number.values();
+	private static final Operator[] OPERATORS = Operator.values();
+
+	private final LineIndex index;
+	private final MathsPuzzleSolver solver;
+
+	/**
+	 * Uses the {@link LineIndex#shared() shared} line index.
+	 */
+	public MathsPuzzleGenerator() {
+		this(LineIndex.shared());
+	}
+
+	public MathsPuzzleGenerator(final @Nonnull LineIndex index) {
+		this.index = index;
+		this.solver = new MathsPuzzleSolver(index);
+	}
+
+	/**
+	 * Generates puzzles in parallel, on the fork join pool that the stream's terminal operation runs in.
+	 * Each puzzle only depends on the seed and its position in the stream, so the same seed always gives the same
+	 * puzzles in the same order, however many threads generate them.
+	 */
+	@Nonnull
+	public Stream<MathsPuzzle> generate(final long seed, final long count) {
+		return LongStream.range(0, count)
+				.parallel()
+				.mapToObj(i -> generate(new SplittableRandom(seed + i * SEED_GAMMA)));
+	}
+
+	/**
+	 * Writes puzzles in the text form that {@link MathsPuzzle#MathsPuzzle(String[])} parses,
+	 * each followed by an empty line.
+	 * @see #generate(long, long)
+	 */
+	public void write(final long seed, final long count, final @Nonnull Writer out) throws IOException {
+		try {
+			generate(seed, count).forEachOrdered(puzzle -> {
+				try {
+					for (final String line : puzzle.toLines()) {
+						out.write(line);
+						out.write('\n');
+					}
+					out.write('\n');
+				} catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Generates a single puzzle, drawing every random choice from the source.
+	 */
+	@Nonnull
+	public MathsPuzzle generate(final @Nonnull SplittableRandom random) {
+		final int[] digits = shuffled(random, NUMBERS.length);
+		for (int i = 0; i < digits.length; i++) {
+			digits[i]++;
+		}
+		final Operator[][] rowOperators = new Operator[CELL_COUNT][];
+		final Operator[][] colOperators = new Operator[CELL_COUNT][];
+		final int[] rowAnswers = new int[CELL_COUNT];
+		final int[] colAnswers = new int[CELL_COUNT];
+		for (int k = 0; k < CELL_COUNT; k++) {
+			rowOperators[k] = new Operator[2];
+			colOperators[k] = new Operator[2];
+			rowAnswers[k] = pickOperators(random, rowOperators[k],
+					LineIndex.pack(digits[3 * k], digits[3 * k + 1], digits[3 * k + 2]));
+			colAnswers[k] = pickOperators(random, colOperators[k],
+					LineIndex.pack(digits[k], digits[3 + k], digits[6 + k]));
+		}
+
+		final boolean[] given = new boolean[digits.length];
+		Arrays.fill(given, true);
+		for (final int cell : shuffled(random, digits.length)) {
+			given[cell] = false;
+			final MathsPuzzle puzzle = build(digits, given, rowOperators, colOperators, rowAnswers, colAnswers);
+			if (solver.countSolutions(puzzle, 2) != 1)
+				given[cell] = true;
+		}
+		return build(digits, given, rowOperators, colOperators, rowAnswers, colAnswers);
+	}
+
+	/**
+	 * @return The numbers from 0 up to the count, in a random order.
+	 */
+	@Nonnull
+	private static int[] shuffled(final @Nonnull SplittableRandom random, final int count) {
+		final int[] order = new int[count];
+		for (int i = 0; i < count; i++) {
+			final int j = random.nextInt(i + 1);
+			order[i] = order[j];
+			order[j] = i;
+		}
+		return order;
+	}
+
+	/**
+	 * Picks a random pair of operators that work out to a whole number with the line.
+	 * @return What the line works out to.
+	 */
+	private int pickOperators(final @Nonnull SplittableRandom random, final @Nonnull Operator[] operators,
+							  final int line) {
+		int result;
+		do {
+			operators[0] = OPERATORS[random.nextInt(OPERATORS.length)];
+			operators[1] = OPERATORS[random.nextInt(OPERATORS.length)];
+			result = index.result(LineIndex.operatorPair(operators[0], operators[1]), line);
+		} while (result == LineIndex.NO_RESULT);
+		return result;
+	}
+
+	@Nonnull
+	private static MathsPuzzle build(final @Nonnull int[] digits, final @Nonnull boolean[] given,
+									 final @Nonnull Operator[][] rowOperators,
+									 final @Nonnull Operator[][] colOperators,
+									 final @Nonnull int[] rowAnswers, final @Nonnull int[] colAnswers) {
+		final Cell[][] rows = new Cell[LINE_LENGTH][LINE_LENGTH];
+		for (int y = 0; y < LINE_LENGTH; y++) {
+			for (int x = 0; x < LINE_LENGTH; x++) {
+				final Cell cell;
+				if (y % 2 == 0 && x % 2 == 0) {
+					final int i = (y / 2) * CELL_COUNT + x / 2;
+					cell = given[i] ? NUMBERS[digits[i] - 1] : NullCell.INSTANCE;
+				} else if (y % 2 == 0) {
+					cell = rowOperators[y / 2][x / 2];
+				} else if (x % 2 == 0) {
+					cell = colOperators[x / 2][y / 2];
+				} else {
+					cell = NullCell.INSTANCE;
+				}
+				rows[y][x] = cell;
+			}
+		}
+		return new MathsPuzzle(rows, rowAnswers, colAnswers);
+	}
+}
@@ -0,0 +1,273 @@
+package i_paper_maths_puzzle;
+
+import com.google.common.collect.ImmutableList;
+import i_paper_maths_puzzle.pojos.Cell;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import i_paper_maths_puzzle.pojos.Number;
+import i_paper_maths_puzzle.pojos.Operator;
+import utils.ClassUtils;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static i_paper_maths_puzzle.pojos.Line.CELL_COUNT;
+
+/**
+ * Fills in the blank numbers of a {@link MathsPuzzle}, so that every row and column works out to its answer.
+ * Lines are worked out left to right, or top to bottom, ignoring the usual precedence of operators,
+ * and every number from 1 to 9 is used exactly once.
+ * <p>
+ * Rather than trying every order of the missing numbers, each line is matched against the {@link LineIndex}
+ * of every line of three different digits that works out to its answer.
+ * The cells' possible digits are narrowed down to those used by the lines left for both their row and column,
+ * then the rows are searched, with each column checked by a single index lookup.
+ * <p>
+ * Solutions are listed row by row: the number at index {@code 3 * y + x} belongs at grid position
+ * {@code (2 * x, 2 * y)} of the puzzle.
+ */
+public class MathsPuzzleSolver {
+
+	protected static final String MISSING_OPERATOR_EXCEPTION_MSG = "Puzzle is missing an operator.";
+
+	private static final Number[] NUMBERS = Number.values();
+	/**
+	 * Bits 1 to 9, one for each digit.
+	 */
+	private static final int ALL_DIGITS = ((1 << NUMBERS.length) - 1) << 1;
+	private static final int DIGITS_PER_POSITION = NUMBERS.length;
+	private static final int POSITION_MASK = (1 << DIGITS_PER_POSITION) - 1;
+
+	private final LineIndex index;
+
+	/**
+	 * Uses the {@link LineIndex#shared() shared} line index.
+	 */
+	public MathsPuzzleSolver() {
+		this(LineIndex.shared());
+	}
+
+	public MathsPuzzleSolver(final @Nonnull LineIndex index) {
+		this.index = index;
+	}
+
+	/**
+	 * @return The first solution found, or nothing if the puzzle has no solution.
+	 * @throws IllegalArgumentException If an operator is missing from the puzzle.
+	 */
+	@Nonnull
+	public Optional<ImmutableList<Number>> solve(final @Nonnull MathsPuzzle puzzle) {
+		return solveAll(puzzle, 1).stream().findFirst();
+	}
+
+	/**
+	 * A limit of 2 tells whether a puzzle's solution is unique.
+	 * @param limit The number of solutions after which to stop searching.
+	 * @return Up to {@code limit} solutions.
+	 * @throws IllegalArgumentException If an operator is missing from the puzzle.
+	 */
+	@Nonnull
+	public List<ImmutableList<Number>> solveAll(final @Nonnull MathsPuzzle puzzle, final int limit) {
+		final List<ImmutableList<Number>> solutions = new ArrayList<>();
+		if (limit > 0)
+			new Search(index, puzzle, limit, solutions).run();
+		return solutions;
+	}
+
+	/**
+	 * @return The number of solutions, counting no further than the limit.
+	 */
+	public int countSolutions(final @Nonnull MathsPuzzle puzzle, final int limit) {
+		return solveAll(puzzle, limit).size();
+	}
+
+	/**
+	 * The state of a single solve. Rows and columns are both lines of cells: lines 0 to 2 are the rows,
+	 * lines 3 to 5 are the columns.
+	 */
+	private static final class Search {
+		private final LineIndex index;
+		private final int limit;
+		private final List<ImmutableList<Number>> solutions;
+		/**
+		 * The digits each cell could be, as bitmasks, row by row.
+		 */
+		private final int[] domains;
+		private final int[] pairs;
+		private final int[][] lines;
+		private final int[] lineCounts;
+		private final int[] answers;
+		/**
+		 * The digits used by a line's remaining candidates at each position, reused while narrowing.
+		 */
+		private final int[] usedDigits;
+		private boolean contradiction;
+
+		private Search(final @Nonnull LineIndex index, final @Nonnull MathsPuzzle puzzle, final int limit,
+					   final @Nonnull List<ImmutableList<Number>> solutions) {
+			this.index = index;
+			this.limit = limit;
+			this.solutions = solutions;
+			this.domains = new int[CELL_COUNT * CELL_COUNT];
+			this.pairs = new int[2 * CELL_COUNT];
+			this.lines = new int[2 * CELL_COUNT][];
+			this.lineCounts = new int[2 * CELL_COUNT];
+			this.answers = new int[2 * CELL_COUNT];
+			this.usedDigits = new int[CELL_COUNT];
+
+			int used = 0;
+			for (int i = 0; i < domains.length; i++) {
+				final Optional<Number> given = ClassUtils.safeCast(puzzle.getCell(2 * (i % CELL_COUNT), 2 * (i / CELL_COUNT)), Number.class);
+				if (given.isEmpty())
+					continue;
+				final int bit = 1 << given.get().value;
+				contradiction |= (used & bit) != 0;
+				used |= bit;
+				domains[i] = bit;
+			}
+			for (int i = 0; i < domains.length; i++) {
+				if (domains[i] == 0)
+					domains[i] = ALL_DIGITS & ~used;
+			}
+			for (int k = 0; k < CELL_COUNT; k++) {
+				pairs[k] = LineIndex.operatorPair(operator(puzzle, 1, 2 * k), operator(puzzle, 3, 2 * k));
+				pairs[CELL_COUNT + k] = LineIndex.operatorPair(operator(puzzle, 2 * k, 1), operator(puzzle, 2 * k, 3));
+				answers[k] = puzzle.getRowAnswer(k);
+				answers[CELL_COUNT + k] = puzzle.getColAnswer(k);
+			}
+			for (int line = 0; line < lines.length; line++) {
+				lines[line] = index.lines(pairs[line], answers[line]);
+				lineCounts[line] = lines[line].length;
+			}
+		}
+
+		@Nonnull
+		private static Operator operator(final @Nonnull MathsPuzzle puzzle, final int x, final int y) {
+			final Cell cell = puzzle.getCell(x, y);
+			return ClassUtils.safeCast(cell, Operator.class)
+					.orElseThrow(() -> new IllegalArgumentException(MISSING_OPERATOR_EXCEPTION_MSG));
+		}
+
+		/**
+		 * @return The index of the line's cell at the position, row by row.
+		 */
+		private static int cellOf(final int line, final int position) {
+			return line < CELL_COUNT
+					? line * CELL_COUNT + position
+					: position * CELL_COUNT + line - CELL_COUNT;
+		}
+
+		private void run() {
+			if (contradiction || !narrow())
+				return;
+			searchRows(0, 0, new int[CELL_COUNT]);
+		}
+
+		/**
+		 * Narrows each line's cells to the digits the index allows given the cells already known,
+		 * then drops lines that use a digit their cells can no longer be,
+		 * and narrows each cell to the digits used by its row and column's remaining lines, until nothing changes.
+		 * @return False if a cell or line is left without any possibilities.
+		 */
+		private boolean narrow() {
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (int line = 0; line < lines.length; line++) {
+					final int possible = index.possibleDigits(pairs[line], answers[line],
+							knownDigit(cellOf(line, 0)), knownDigit(cellOf(line, 1)), knownDigit(cellOf(line, 2)));
+					for (int p = 0; p < CELL_COUNT; p++) {
+						final int cell = cellOf(line, p);
+						final int allowed = ((possible >>> (p * DIGITS_PER_POSITION)) & POSITION_MASK) << 1;
+						if ((domains[cell] & ~allowed) != 0) {
+							domains[cell] &= allowed;
+							changed = true;
+						}
+					}
+					final int[] candidates = lines[line];
+					int count = 0;
+					Arrays.fill(usedDigits, 0);
+					for (int i = 0; i < lineCounts[line]; i++) {
+						final int candidate = candidates[i];
+						if (fits(line, candidate)) {
+							candidates[count++] = candidate;
+							for (int p = 0; p < CELL_COUNT; p++) {
+								usedDigits[p] |= 1 << LineIndex.digit(candidate, p);
+							}
+						}
+					}
+					lineCounts[line] = count;
+					if (count == 0)
+						return false;
+					for (int p = 0; p < CELL_COUNT; p++) {
+						final int cell = cellOf(line, p);
+						if ((domains[cell] & ~usedDigits[p]) != 0) {
+							domains[cell] &= usedDigits[p];
+							changed = true;
+						}
+					}
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return The cell's digit if it can only be one, otherwise 0.
+		 */
+		private int knownDigit(final int cell) {
+			final int domain = domains[cell];
+			return Integer.bitCount(domain) == 1 ? Integer.numberOfTrailingZeros(domain) : 0;
+		}
+
+		private boolean fits(final int line, final int candidate) {
+			for (int p = 0; p < CELL_COUNT; p++) {
+				if ((domains[cellOf(line, p)] & (1 << LineIndex.digit(candidate, p))) == 0)
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * @return True if the search should stop.
+		 */
+		private boolean searchRows(final int row, final int used, final int[] chosen) {
+			if (row == CELL_COUNT)
+				return checkColumns(chosen);
+			final int[] candidates = lines[row];
+			for (int i = 0; i < lineCounts[row]; i++) {
+				final int candidate = candidates[i];
+				final int mask = (1 << LineIndex.digit(candidate, 0))
+						| (1 << LineIndex.digit(candidate, 1))
+						| (1 << LineIndex.digit(candidate, 2));
+				if ((used & mask) != 0)
+					continue;
+				chosen[row] = candidate;
+				if (searchRows(row + 1, used | mask, chosen))
+					return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return True if the search should stop.
+		 */
+		private boolean checkColumns(final int[] rows) {
+			for (int col = 0; col < CELL_COUNT; col++) {
+				final int line = LineIndex.pack(
+						LineIndex.digit(rows[0], col), LineIndex.digit(rows[1], col), LineIndex.digit(rows[2], col));
+				if (index.result(pairs[CELL_COUNT + col], line) != answers[CELL_COUNT + col])
+					return false;
+			}
+			final ImmutableList.Builder<Number> solution = ImmutableList.builder();
+			for (final int row : rows) {
+				for (int p = 0; p < CELL_COUNT; p++) {
+					solution.add(NUMBERS[LineIndex.digit(row, p) - 1]);
+				}
+			}
+			solutions.add(solution.build());
+			return solutions.size() >= limit;
+		}
+	}
+}
@@ -32,4 +32,22 @@ public interface Cell {
 			default: throw new IllegalArgumentException("Invalid Char.");
 		}
 	}
+
+	/**
+	 * The inverse of {@link #parseChar(char)}.
+	 */
+	static char toChar(final Cell cell) {
+		switch (cell.getType()) {
+			case NULL: return ' ';
+			case NUMBER: return (char) ('0' + ((Number) cell).value);
+			default: break;
+		}
+		switch ((Operator) cell) {
+			case MULTIPLY: return '*';
+			case DIVIDE: return '/';
+			case ADD: return '+';
+			case SUBTRACT: return '-';
+			default: throw new IllegalArgumentException("Invalid Cell.");
+		}
+	}
 }
@@ -31,6 +31,24 @@ public class MathsPuzzle {
 		assertValid();
 	}
 
+	/**
+	 * @param rows The grid's cells, row by row, as they're laid out in the text form.
+	 * @param rowAnswers The answer of each row of numbers, from the top.
+	 * @param colAnswers The answer of each column of numbers, from the left.
+	 */
+	public MathsPuzzle(final Cell[][] rows, final int[] rowAnswers, final int[] colAnswers) {
+		values = initValues();
+		available = EnumSet.allOf(Number.class);
+		for (int y = 0; y < LINE_LENGTH; y++) {
+			for (int x = 0; x < LINE_LENGTH; x++) {
+				setCell(x, y, rows[y][x]);
+			}
+		}
+		System.arraycopy(rowAnswers, 0, this.rowAnswers, 0, CELL_COUNT);
+		System.arraycopy(colAnswers, 0, this.colAnswers, 0, CELL_COUNT);
+		assertValid();
+	}
+
 	private static Table<Integer, Integer, Set<Number>> initValues() {
 		final Table<Integer, Integer, Set<Number>> values = TreeBasedTable.create();
 		IntStream.range(0, LINE_LENGTH).forEach(i ->
@@ -64,6 +82,25 @@ public class MathsPuzzle {
 		return colAnswers[x];
 	}
 
+	/**
+	 * @return The puzzle in the text form that {@link #MathsPuzzle(String[])} parses.
+	 */
+	public String[] toLines() {
+		final String[] lines = new String[LINE_LENGTH + 2];
+		for (int y = 0; y < LINE_LENGTH; y++) {
+			final StringBuilder line = new StringBuilder();
+			for (int x = 0; x < LINE_LENGTH; x++) {
+				line.append(Cell.toChar(cells[x][y]));
+			}
+			if (y % 2 == 0)
+				line.append('=').append(rowAnswers[y / 2]);
+			lines[y] = line.toString();
+		}
+		lines[LINE_LENGTH] = "= = =";
+		lines[LINE_LENGTH + 1] = colAnswers[0] + "," + colAnswers[1] + "," + colAnswers[2];
+		return lines;
+	}
+
 	private void parseLines(String[] lines) {
 		for (int j = 0; j < LINE_LENGTH; j++) {
 			final String line = lines[j];
@@ -7,6 +7,26 @@ package i_paper_maths_puzzle.pojos;
 public enum Operator implements Cell {
 	MULTIPLY, DIVIDE, ADD, SUBTRACT;
 
+	/**
+	 * @return The result of applying this operator. Division is integer division, see {@link #isExact(int, int)}.
+	 */
+	public int apply(final int left, final int right) {
+		switch (this) {
+			case MULTIPLY: return left * right;
+			case DIVIDE: return left / right;
+			case ADD: return left + right;
+			case SUBTRACT: return left - right;
+			default: throw new AssertionError(this);
+		}
+	}
+
+	/**
+	 * Puzzles only divide where the result is a whole number.
+	 * @return False if this operator is division and the right doesn't divide the left.
+	 */
+	public boolean isExact(final int left, final int right) {
+		return this != DIVIDE || left % right == 0;
+	}
 
 	@Override
 	public CellType getType() {
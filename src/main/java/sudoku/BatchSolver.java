@@ -0,0 +1,144 @@
+package sudoku;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Solves a stream of sudoku puzzles, one per line, across a pool of threads,
+ * writing each solution on the line matching its puzzle's.
+ * <p>
+ * Lines are read in chunks, and each chunk is solved as a single task by a worker thread's own {@link Sudoku}.
+ * Only a bounded number of chunks are in flight at once, and they're written out in the order they were read,
+ * so a file of any length is streamed through in constant memory.
+ * <p>
+ * A puzzle with no solution is written out as an empty line, as is an empty line.
+ */
+public class BatchSolver implements AutoCloseable {
+
+	protected static final String INVALID_LINE_EXCEPTION_MSG = "Invalid puzzle on line %d.";
+
+	private static final int CHUNK_SIZE = 256;
+	/**
+	 * The number of chunks in flight per thread, so that threads don't sit idle while the oldest chunk is written.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final ExecutorService executor;
+	private final ThreadLocal<Sudoku> sudokus;
+	private final int maxChunksInFlight;
+
+	public BatchSolver(final int threads) {
+		this.executor = Executors.newFixedThreadPool(threads);
+		this.sudokus = ThreadLocal.withInitial(Sudoku::new);
+		this.maxChunksInFlight = threads * CHUNKS_PER_THREAD;
+	}
+
+	/**
+	 * @return The number of puzzles read.
+	 * @throws IllegalArgumentException If a line isn't a valid puzzle.
+	 * @throws IOException If either file can't be read or written.
+	 * @see #solve(BufferedReader, Writer)
+	 */
+	public long solve(final @Nonnull Path puzzles, final @Nonnull Path solutions) throws IOException {
+		try (final BufferedReader reader = Files.newBufferedReader(puzzles, StandardCharsets.US_ASCII);
+			 final Writer writer = Files.newBufferedWriter(solutions, StandardCharsets.US_ASCII)) {
+			return solve(reader, writer);
+		}
+	}
+
+	/**
+	 * Reads puzzles until the end of the reader, then flushes the writer.
+	 * Leading and trailing whitespace on each line is ignored.
+	 * @return The number of puzzles read.
+	 * @throws IllegalArgumentException If a line isn't a valid puzzle. Solutions before its chunk are still written.
+	 * @throws IOException If the reader or writer fails.
+	 */
+	public long solve(final @Nonnull BufferedReader puzzles, final @Nonnull Writer solutions) throws IOException {
+		final Queue<Future<List<String>>> inFlight = new ArrayDeque<>();
+		long count = 0;
+		try {
+			List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+			String line;
+			while ((line = puzzles.readLine()) != null) {
+				chunk.add(line.strip());
+				if (chunk.size() == CHUNK_SIZE) {
+					if (inFlight.size() == maxChunksInFlight)
+						write(inFlight.remove(), solutions);
+					inFlight.add(submit(chunk, count));
+					count += chunk.size();
+					chunk = new ArrayList<>(CHUNK_SIZE);
+				}
+			}
+			if (!chunk.isEmpty()) {
+				inFlight.add(submit(chunk, count));
+				count += chunk.size();
+			}
+			while (!inFlight.isEmpty()) {
+				write(inFlight.remove(), solutions);
+			}
+		} finally {
+			inFlight.forEach(f -> f.cancel(false));
+		}
+		solutions.flush();
+		return count;
+	}
+
+	/**
+	 * @param firstLine The index of the chunk's first line, from 0.
+	 */
+	@Nonnull
+	private Future<List<String>> submit(final @Nonnull List<String> chunk, final long firstLine) {
+		return executor.submit(() -> {
+			final Sudoku sudoku = sudokus.get();
+			final List<String> solved = new ArrayList<>(chunk.size());
+			for (int i = 0; i < chunk.size(); i++) {
+				final String puzzle = chunk.get(i);
+				if (puzzle.isEmpty()) {
+					solved.add(puzzle);
+					continue;
+				}
+				try {
+					solved.add(sudoku.solve(puzzle).orElse(""));
+				} catch (final IllegalArgumentException e) {
+					throw new IllegalArgumentException(String.format(INVALID_LINE_EXCEPTION_MSG, firstLine + i + 1), e);
+				}
+			}
+			return solved;
+		});
+	}
+
+	private static void write(final @Nonnull Future<List<String>> chunk, final @Nonnull Writer solutions)
+			throws IOException {
+		final List<String> solved;
+		try {
+			solved = chunk.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+		for (final String solution : solved) {
+			solutions.write(solution);
+			solutions.write('\n');
+		}
+	}
+
+	/**
+	 * Shuts down the worker threads.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,156 @@
+package sudoku;
+
+import finite_groupings.*;
+import finite_groupings.domain.Universe;
+import finite_groupings.search.Solver;
+import finite_groupings.search.ValueOrdering;
+import finite_groupings.search.VariableOrdering;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A 9x9 sudoku grid, built as a network of 81 cells and 27 groups: one for every row, column and box.
+ * Every group uses the {@link GroupStrategy#allDifferent() all different filter}.
+ * <p>
+ * Puzzles are written as 81 characters, row by row: a digit from 1 to 9 for a given cell,
+ * and {@code '.'} or {@code '0'} for a blank one. Solutions are written the same way, without blanks.
+ * <p>
+ * The network is built once and reused: each puzzle is set on a new level of the network's trail,
+ * and popped off again once it's solved. Not thread safe, so use one instance per thread.
+ */
+public class Sudoku {
+
+	public static final int BOX_SIZE = 3;
+	public static final int SIZE = BOX_SIZE * BOX_SIZE;
+	public static final int CELL_COUNT = SIZE * SIZE;
+
+	protected static final String PUZZLE_LENGTH_EXCEPTION_MSG = "Puzzle should have exactly " + CELL_COUNT + " cells.";
+	protected static final String INVALID_CELL_EXCEPTION_MSG = "Cell should be a digit from 1 to 9, or '.' or '0' if blank.";
+	protected static final String GIVEN_CLASH_EXCEPTION_MSG = "Given is no longer possible for its cell.";
+
+	private static final Universe<Integer> DIGITS =
+			Universe.of(IntStream.rangeClosed(1, SIZE).boxed().collect(Collectors.toList()));
+
+	private final Network<Integer> network;
+	private final Propagator propagator;
+	private final Solver<Integer> solver;
+
+	public Sudoku() {
+		final List<SudokuCell> cells = new ArrayList<>(CELL_COUNT);
+		for (int i = 0; i < CELL_COUNT; i++) {
+			cells.add(new SudokuCell(DIGITS));
+		}
+		final Set<Integer> digits = Set.copyOf(DIGITS.getValues());
+		final List<GroupImpl<Integer>> groups = new ArrayList<>(3 * SIZE);
+		for (int i = 0; i < SIZE; i++) {
+			final Set<Cell<Integer>> row = new HashSet<>();
+			final Set<Cell<Integer>> col = new HashSet<>();
+			final Set<Cell<Integer>> box = new HashSet<>();
+			final int boxRow = (i / BOX_SIZE) * BOX_SIZE;
+			final int boxCol = (i % BOX_SIZE) * BOX_SIZE;
+			for (int j = 0; j < SIZE; j++) {
+				row.add(cells.get(i * SIZE + j));
+				col.add(cells.get(j * SIZE + i));
+				box.add(cells.get((boxRow + j / BOX_SIZE) * SIZE + boxCol + j % BOX_SIZE));
+			}
+			groups.add(new GroupImpl<>(row, digits, GroupStrategy.allDifferent()));
+			groups.add(new GroupImpl<>(col, digits, GroupStrategy.allDifferent()));
+			groups.add(new GroupImpl<>(box, digits, GroupStrategy.allDifferent()));
+		}
+		this.network = new Network<>(cells, groups);
+		this.propagator = new Propagator();
+		propagator.attach(network.getCells());
+		this.solver = new Solver<>(network, VariableOrdering.smallestDomain(), ValueOrdering.inOrder());
+	}
+
+	/**
+	 * @return The network of cells, listed row by row, and groups that puzzles are solved on.
+	 */
+	@Nonnull
+	public Network<Integer> getNetwork() {
+		return network;
+	}
+
+	/**
+	 * @param puzzle 81 characters, row by row.
+	 * @return The first solution found, or nothing if the puzzle has no solution.
+	 * @throws IllegalArgumentException If the puzzle isn't 81 digits and blanks.
+	 */
+	@Nonnull
+	public Optional<String> solve(final @Nonnull CharSequence puzzle) {
+		return solveAll(puzzle, 1).stream().findFirst();
+	}
+
+	/**
+	 * A limit of 2 tells whether a puzzle's solution is unique.
+	 * @param puzzle 81 characters, row by row.
+	 * @param limit The number of solutions after which to stop searching.
+	 * @return Up to {@code limit} solutions, in the order they were found.
+	 * @throws IllegalArgumentException If the puzzle isn't 81 digits and blanks.
+	 */
+	@Nonnull
+	public List<String> solveAll(final @Nonnull CharSequence puzzle, final int limit) {
+		final int[] givens = parse(puzzle);
+		final Trail trail = network.getTrail();
+		final int level = trail.getLevel();
+		trail.push();
+		try {
+			propagator.batch(() -> setGivens(givens));
+			final List<String> solutions = new ArrayList<>();
+			for (final Map<Cell<Integer>, Integer> solution : solver.solveAll(limit)) {
+				solutions.add(format(solution));
+			}
+			return solutions;
+		} catch (final ContradictionException e) {
+			return List.of();
+		} finally {
+			trail.popTo(level);
+		}
+	}
+
+	/**
+	 * @return The digit of every cell, or 0 if it's blank.
+	 */
+	@Nonnull
+	private static int[] parse(final @Nonnull CharSequence puzzle) {
+		if (puzzle.length() != CELL_COUNT)
+			throw new IllegalArgumentException(PUZZLE_LENGTH_EXCEPTION_MSG);
+		final int[] givens = new int[CELL_COUNT];
+		for (int i = 0; i < CELL_COUNT; i++) {
+			final char c = puzzle.charAt(i);
+			if (c >= '1' && c <= '9')
+				givens[i] = c - '0';
+			else if (c != '.' && c != '0')
+				throw new IllegalArgumentException(INVALID_CELL_EXCEPTION_MSG);
+		}
+		return givens;
+	}
+
+	/**
+	 * @throws ContradictionException If a given clashes with another given, or with what they imply.
+	 */
+	private void setGivens(final @Nonnull int[] givens) {
+		for (int i = 0; i < CELL_COUNT; i++) {
+			if (givens[i] == 0)
+				continue;
+			final AbstractCell<Integer> cell = network.getCells().get(i);
+			// Setting a value checks it's still possible, but a cell that's already been paired isn't set again.
+			if (!cell.hasValue())
+				cell.setValue(givens[i]);
+			else if (!cell.hasPossibility(givens[i]))
+				throw new ContradictionException(GIVEN_CLASH_EXCEPTION_MSG);
+		}
+	}
+
+	@Nonnull
+	private String format(final @Nonnull Map<Cell<Integer>, Integer> solution) {
+		final StringBuilder builder = new StringBuilder(CELL_COUNT);
+		for (final AbstractCell<Integer> cell : network.getCells()) {
+			builder.append((char) ('0' + solution.get(cell)));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,21 @@
+package sudoku;
+
+import finite_groupings.AbstractCell;
+import finite_groupings.domain.Universe;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A cell of a sudoku grid. Does no reasoning of its own, leaving all of the work to its row, column and box.
+ */
+class SudokuCell extends AbstractCell<Integer> {
+
+	SudokuCell(final @Nonnull Universe<Integer> digits) {
+		super(digits);
+	}
+
+	@Override
+	public void updatePossibilities() {
+		informPossibilityListeners();
+	}
+}
@@ -0,0 +1,315 @@
+package utils.updatablepriorityqueue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * A bucket queue of {@link Priority priorities}: an array of doubly linked lists, one per count,
+ * threaded through the priorities themselves, along with the highest bucket that isn't empty.
+ * <p>
+ * Adding, removing and polling a priority, and moving it after its count has changed, are all O(1),
+ * apart from when the highest bucket is emptied, and the next one down has to be found.
+ * That's one step when counts move by 1, as they do when they're incremented, decremented, or polled in order.
+ * Priorities with equal counts come out first in, first out.
+ * <p>
+ * The buckets span every count between the lowest and highest seen, so the queue suits small counts,
+ * such as those of a {@link finite_groupings.CellUpdater}. Counts more than {@value #MAX_BUCKETS} apart can't be held.
+ * @param <E> The value type of the priorities.
+ */
+public class BucketQueue<E> implements IndexedQueue<E> {
+
+	protected static final String COUNT_RANGE_EXCEPTION_MSG = "Counts can't span more than %d buckets.";
+
+	private static final int INITIAL_BUCKETS = 16;
+	static final int MAX_BUCKETS = 1 << 20;
+
+	/**
+	 * The first and last priority of each bucket.
+	 */
+	private Priority<E>[] heads;
+	private Priority<E>[] tails;
+	/**
+	 * The count of the priorities in the first bucket.
+	 */
+	private int offset;
+	/**
+	 * The highest bucket that isn't empty, or -1 if they all are.
+	 */
+	private int top;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public BucketQueue() {
+		this.heads = (Priority<E>[]) new Priority<?>[INITIAL_BUCKETS];
+		this.tails = (Priority<E>[]) new Priority<?>[INITIAL_BUCKETS];
+		this.offset = Priority.DEFAULT_COUNT;
+		this.top = -1;
+		this.size = 0;
+	}
+
+	/**
+	 * @return Always {@code null}, as priorities are ordered naturally.
+	 */
+	@Nullable
+	@Override
+	public Comparator<? super Priority<E>> comparator() {
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return True if the object is a priority currently held by this queue, rather than by another bucket queue.
+	 */
+	@Override
+	public boolean contains(final Object o) {
+		return o instanceof Priority && ((Priority<?>) o).bucketQueue == this;
+	}
+
+	@Override
+	public boolean add(final @Nonnull Priority<E> priority) {
+		if (contains(priority))
+			return false;
+		final int bucket = bucketOf(priority.count);
+		attach(priority, bucket);
+		size++;
+		if (bucket > top)
+			top = bucket;
+		return true;
+	}
+
+	@Nullable
+	@Override
+	public Priority<E> peek() {
+		return top < 0 ? null : heads[top];
+	}
+
+	@Nullable
+	@Override
+	public Priority<E> poll() {
+		if (top < 0)
+			return null;
+		final Priority<E> head = heads[top];
+		removeLinked(head);
+		return head;
+	}
+
+	@Nonnull
+	@Override
+	public Priority<E> element() {
+		if (top < 0)
+			throw new NoSuchElementException();
+		return heads[top];
+	}
+
+	@Nonnull
+	@Override
+	public Priority<E> remove() {
+		final Priority<E> head = element();
+		removeLinked(head);
+		return head;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(final Object o) {
+		if (!contains(o))
+			return false;
+		removeLinked((Priority<E>) o);
+		return true;
+	}
+
+	/**
+	 * Moves a priority whose count has changed to the back of its new bucket.
+	 * Does nothing if the priority isn't in the queue, or its count hasn't left its bucket.
+	 * @throws IllegalArgumentException If the buckets can't span the new count, leaving the priority in its old bucket.
+	 */
+	@Override
+	public void update(final @Nonnull Priority<E> priority) {
+		if (!contains(priority))
+			return;
+		final int from = priority.index;
+		if ((long) priority.count - offset == from)
+			return;
+		// Detached first, so the buckets don't have to keep spanning its old count if they grow.
+		detach(priority);
+		final int bucket;
+		try {
+			bucket = bucketOf(priority.count);
+		} catch (final IllegalArgumentException e) {
+			attach(priority, from);
+			top = Math.max(top, from);
+			throw e;
+		}
+		attach(priority, bucket);
+		if (bucket > top)
+			top = bucket;
+		else
+			lowerTop();
+	}
+
+	@Override
+	public void clear() {
+		for (int bucket = 0; bucket <= top; bucket++) {
+			Priority<E> priority = heads[bucket];
+			while (priority != null) {
+				final Priority<E> next = priority.next;
+				priority.index = -1;
+				priority.bucketQueue = null;
+				priority.previous = null;
+				priority.next = null;
+				priority = next;
+			}
+			heads[bucket] = null;
+			tails[bucket] = null;
+		}
+		top = -1;
+		size = 0;
+	}
+
+	/**
+	 * @return The priorities of the queue, from the highest bucket down.
+	 */
+	@Nonnull
+	@Override
+	public Stream<Priority<E>> stream() {
+		final List<Priority<E>> priorities = new ArrayList<>(size);
+		for (int bucket = top; bucket >= 0; bucket--) {
+			for (Priority<E> priority = heads[bucket]; priority != null; priority = priority.next) {
+				priorities.add(priority);
+			}
+		}
+		return priorities.stream();
+	}
+
+	private void removeLinked(final @Nonnull Priority<E> priority) {
+		final int bucket = priority.index;
+		detach(priority);
+		priority.index = -1;
+		priority.bucketQueue = null;
+		size--;
+		if (bucket == top)
+			lowerTop();
+	}
+
+	/**
+	 * Links a priority onto the back of a bucket.
+	 */
+	private void attach(final @Nonnull Priority<E> priority, final int bucket) {
+		final Priority<E> tail = tails[bucket];
+		priority.index = bucket;
+		priority.bucketQueue = this;
+		priority.previous = tail;
+		priority.next = null;
+		if (tail == null)
+			heads[bucket] = priority;
+		else
+			tail.next = priority;
+		tails[bucket] = priority;
+	}
+
+	/**
+	 * Unlinks a priority from its bucket, leaving its index for the caller to change.
+	 */
+	private void detach(final @Nonnull Priority<E> priority) {
+		final int bucket = priority.index;
+		if (priority.previous == null)
+			heads[bucket] = priority.next;
+		else
+			priority.previous.next = priority.next;
+		if (priority.next == null)
+			tails[bucket] = priority.previous;
+		else
+			priority.next.previous = priority.previous;
+		priority.previous = null;
+		priority.next = null;
+	}
+
+	/**
+	 * Moves the top down to the highest bucket that isn't empty, once the top bucket may have been emptied.
+	 */
+	private void lowerTop() {
+		while (top >= 0 && heads[top] == null) {
+			top--;
+		}
+	}
+
+	/**
+	 * @return The bucket of the given count, after moving or growing the buckets to cover it if needed.
+	 * @throws IllegalArgumentException If the buckets would have to span more than {@link #MAX_BUCKETS} counts.
+	 */
+	private int bucketOf(final int count) {
+		final long bucket = (long) count - offset;
+		if (bucket >= 0 && bucket < heads.length)
+			return (int) bucket;
+		grow(count);
+		return count - offset;
+	}
+
+	/**
+	 * Moves the buckets, growing them if needed, so they cover both the given count and every bucket in use.
+	 */
+	private void grow(final int count) {
+		lowerTop();
+		int lowest = 0;
+		long low = count;
+		long high = count;
+		if (top >= 0) {
+			while (heads[lowest] == null) {
+				lowest++;
+			}
+			low = Math.min(low, (long) offset + lowest);
+			high = Math.max(high, (long) offset + top);
+		}
+		final long needed = high - low + 1;
+		if (needed > MAX_BUCKETS)
+			throw new IllegalArgumentException(String.format(COUNT_RANGE_EXCEPTION_MSG, MAX_BUCKETS));
+		// At least as many buckets are left spare as are in use, half either side,
+		// so the buckets only move again once counts have drifted by half as much again as they span.
+		int length = heads.length;
+		while (length < 2 * needed && length < MAX_BUCKETS) {
+			length *= 2;
+		}
+		final long newOffset = Math.max(Integer.MIN_VALUE, low - (length - needed) / 2);
+		final int shift = (int) (offset - newOffset);
+		heads = moved(heads, length, lowest, top, shift);
+		tails = moved(tails, length, lowest, top, shift);
+		offset = (int) newOffset;
+		if (top >= 0) {
+			top += shift;
+			if (shift != 0) {
+				for (int bucket = lowest + shift; bucket <= top; bucket++) {
+					for (Priority<E> priority = heads[bucket]; priority != null; priority = priority.next) {
+						priority.index = bucket;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return New buckets of the given length, holding the buckets in use shifted along.
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	private static <E> Priority<E>[] moved(final @Nonnull Priority<E>[] buckets, final int length,
+										   final int lowest, final int top, final int shift) {
+		final Priority<E>[] moved = (Priority<E>[]) new Priority<?>[length];
+		if (top >= 0)
+			System.arraycopy(buckets, lowest, moved, lowest + shift, top - lowest + 1);
+		return moved;
+	}
+}
@@ -0,0 +1,456 @@
+package utils.updatablepriorityqueue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread safe {@link UpdatablePriorityQueue}, for many threads updating priorities while several poll.
+ * <p>
+ * The queue is a MultiQueue: its priorities are spread over a number of {@link IndexedHeap heaps},
+ * a couple per thread, each behind its own lock.
+ * An added value goes into a random heap, or, if that heap is locked, a second random heap.
+ * A poll looks at the heads of two random heaps, and takes the better head if it can lock that heap without waiting.
+ * Threads therefore rarely wait on each other, at the cost of the queue's ordering being relaxed:
+ * a poll returns one of the better priorities, but not necessarily the best.
+ * With a single heap the queue is exact, but every operation then shares the one lock.
+ * <p>
+ * Each priority stays in the heap it was added to until it's polled or removed, after which it's dead:
+ * it can still be counted, but it's no longer in the queue, and adding its value again creates a new priority,
+ * as the unsynchronized queue does. A priority's count is changed under its heap's lock,
+ * so that counting and sifting are atomic, and increments from different threads aren't lost.
+ * <p>
+ * Priorities are looked up in a {@link ConcurrentHashMap}, and {@link #size()}, {@link #iterator()},
+ * and the other whole-queue views are weakly consistent, in the same way as its views are.
+ * @param <E> The value type.
+ */
+public class ConcurrentUpdatablePriorityQueue<E> extends UpdatablePriorityQueue<E> {
+
+	protected static final String INVALID_SHARDS_EXCEPTION_MSG = "A queue needs at least one heap, not %d.";
+	protected static final String NO_SINGLE_HEAP_EXCEPTION_MSG = "A concurrent queue has no single heap.";
+
+	/**
+	 * The number of heaps per thread. Two is enough for threads to usually find an unlocked heap straight away.
+	 */
+	private static final int HEAPS_PER_THREAD = 2;
+	/**
+	 * The number of random tries a poll makes before it checks every heap in turn.
+	 */
+	private static final int POLL_TRIES = 8;
+
+	private final Map<E, ConcurrentPriority<E>> priorities;
+	private final Shard<E>[] shards;
+
+	/**
+	 * Creates a queue of two heaps for every available processor.
+	 */
+	public ConcurrentUpdatablePriorityQueue() {
+		this(HEAPS_PER_THREAD * Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param heaps The number of heaps to spread the priorities over, about twice the number of threads using the queue.
+	 * @throws IllegalArgumentException If there are no heaps.
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentUpdatablePriorityQueue(final int heaps) {
+		// The priorities are kept here and in the heaps, so the parent's own map and heap aren't built.
+		super(null, null);
+		if (heaps < 1)
+			throw new IllegalArgumentException(String.format(INVALID_SHARDS_EXCEPTION_MSG, heaps));
+		this.priorities = new ConcurrentHashMap<>();
+		this.shards = (Shard<E>[]) new Shard<?>[heaps];
+		for (int i = 0; i < heaps; i++) {
+			shards[i] = new Shard<>();
+		}
+	}
+
+	/**
+	 * A priority that knows which heap it's in.
+	 * Goes from {@link #NEW} into a heap while holding its own monitor and the heap's lock,
+	 * and from the heap to {@link #DEAD} while holding the heap's lock, so which heap it's in is always checked again
+	 * under one or the other.
+	 */
+	private static final class ConcurrentPriority<E> extends Priority<E> {
+		private static final int NEW = -1;
+		private static final int DEAD = -2;
+
+		private volatile int shard;
+
+		private ConcurrentPriority(final @Nonnull ConcurrentUpdatablePriorityQueue<E> queue, final @Nonnull E value) {
+			super(queue, value);
+			this.shard = NEW;
+		}
+	}
+
+	/**
+	 * A heap and its lock, along with its size and the count of its head,
+	 * which are read without the lock to pick a heap to poll.
+	 */
+	private static final class Shard<E> {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final IndexedHeap<E> heap = new IndexedHeap<>();
+		private volatile int size;
+		private volatile int top;
+
+		/**
+		 * Refreshes the size and head count, once the heap has changed. Must hold the lock.
+		 */
+		private void changed() {
+			size = heap.size();
+			final Priority<E> head = heap.peek();
+			top = head == null ? Integer.MIN_VALUE : head.count;
+		}
+	}
+
+	@Override
+	public Priority<E> getPriority(final @Nonnull E value) {
+		return priorities.get(value);
+	}
+
+	@Override
+	protected Map<E, Priority<E>> getPriorities() {
+		return Collections.unmodifiableMap(priorities);
+	}
+
+	/**
+	 * @throws UnsupportedOperationException Always, as the priorities are spread over many heaps.
+	 */
+	@Override
+	protected IndexedQueue<E> getQueue() {
+		throw new UnsupportedOperationException(NO_SINGLE_HEAP_EXCEPTION_MSG);
+	}
+
+	@Override
+	protected void updatePriority(final @Nonnull Priority<E> priority) {
+		change(priority, 0, 0);
+	}
+
+	@Override
+	protected void setCount(final @Nonnull Priority<E> priority, final int count) {
+		change(priority, 0, count);
+	}
+
+	@Override
+	protected void addToCount(final @Nonnull Priority<E> priority, final int delta) {
+		change(priority, 1, delta);
+	}
+
+	/**
+	 * Sets a priority's count to {@code count * keep + delta}, and moves it to its new place in its heap, if it's in one.
+	 * <p>
+	 * While the priority's in a heap, its count is only changed under that heap's lock.
+	 * Otherwise it's changed under the priority's monitor, which it moves into a heap under,
+	 * and it only leaves a heap under the heap's lock, so no two changes to its count can overlap.
+	 */
+	private void change(final @Nonnull Priority<E> priority, final int keep, final int delta) {
+		final ConcurrentPriority<E> concurrentPriority = (ConcurrentPriority<E>) priority;
+		while (true) {
+			final int index = concurrentPriority.shard;
+			if (index >= 0) {
+				final Shard<E> shard = shards[index];
+				shard.lock.lock();
+				try {
+					// The priority may have been polled or removed while this thread waited for the lock.
+					if (concurrentPriority.shard == index) {
+						priority.count = priority.count * keep + delta;
+						shard.heap.update(priority);
+						shard.changed();
+						return;
+					}
+				} finally {
+					shard.lock.unlock();
+				}
+			}
+			synchronized (concurrentPriority) {
+				// The priority may have been added to a heap while this thread waited for the monitor.
+				if (concurrentPriority.shard < 0) {
+					priority.count = priority.count * keep + delta;
+					return;
+				}
+			}
+		}
+	}
+
+	/*
+	Queue Implementation.
+	 */
+
+	/**
+	 * {@inheritDoc}
+	 * Looks at the head of every heap, so is exact, but slower than a poll.
+	 */
+	@Nullable
+	@Override
+	public Priority<E> peek() {
+		Priority<E> best = null;
+		for (final Shard<E> shard : shards) {
+			shard.lock.lock();
+			try {
+				final Priority<E> head = shard.heap.peek();
+				if (head != null && (best == null || head.compareTo(best) < 0))
+					best = head;
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The head returned is the better of the heads of two random heaps, so may not be the best in the queue.
+	 * Only returns {@code null} if every heap was empty when it was checked.
+	 */
+	@Nullable
+	@Override
+	public Priority<E> poll() {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < POLL_TRIES; i++) {
+			final Shard<E> a = shards[random.nextInt(shards.length)];
+			final Shard<E> b = shards[random.nextInt(shards.length)];
+			final Shard<E> shard = a.size == 0 || (b.size > 0 && b.top > a.top) ? b : a;
+			if (shard.size == 0 || !shard.lock.tryLock())
+				continue;
+			final Priority<E> head;
+			try {
+				head = pollLocked(shard);
+			} finally {
+				shard.lock.unlock();
+			}
+			if (head != null)
+				return forget(head);
+		}
+		// The queue is nearly empty, or heavily contended, so every heap is checked in turn.
+		final int start = random.nextInt(shards.length);
+		for (int i = 0; i < shards.length; i++) {
+			final Shard<E> shard = shards[(start + i) % shards.length];
+			final Priority<E> head;
+			shard.lock.lock();
+			try {
+				head = pollLocked(shard);
+			} finally {
+				shard.lock.unlock();
+			}
+			if (head != null)
+				return forget(head);
+		}
+		return null;
+	}
+
+	@Nullable
+	private Priority<E> pollLocked(final @Nonnull Shard<E> shard) {
+		final Priority<E> head = shard.heap.poll();
+		if (head == null)
+			return null;
+		((ConcurrentPriority<E>) head).shard = ConcurrentPriority.DEAD;
+		shard.changed();
+		return head;
+	}
+
+	/**
+	 * Removes a dead priority's mapping, unless its value has already been added again.
+	 */
+	@Nonnull
+	private Priority<E> forget(final @Nonnull Priority<E> priority) {
+		priorities.remove(priority.getValue(), priority);
+		return priority;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Like {@link #poll()}, the head removed may not be the best in the queue.
+	 */
+	@Nonnull
+	@Override
+	public Priority<E> remove() {
+		final Priority<E> head = poll();
+		if (head == null)
+			throw new NoSuchElementException();
+		return head;
+	}
+
+	@Nonnull
+	@Override
+	public Priority<E> element() {
+		final Priority<E> head = peek();
+		if (head == null)
+			throw new NoSuchElementException();
+		return head;
+	}
+
+	@Nullable
+	@Override
+	public Comparator<? super Priority<E>> comparator() {
+		return null;
+	}
+
+	/*
+	Collection Implementation.
+	 */
+
+	/**
+	 * {@inheritDoc}
+	 * Sums the sizes of the heaps, without locking them.
+	 */
+	@Override
+	public int size() {
+		long size = 0;
+		for (final Shard<E> shard : shards) {
+			size += shard.size;
+		}
+		return (int) Math.min(size, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (final Shard<E> shard : shards) {
+			if (shard.size > 0)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean contains(final @Nonnull Object o) {
+		//noinspection SuspiciousMethodCalls
+		final ConcurrentPriority<E> priority = priorities.get(o);
+		return priority != null && priority.shard >= 0;
+	}
+
+	@Nonnull
+	@Override
+	public Iterator<E> iterator() {
+		return priorities.entrySet().stream()
+				.filter(e -> e.getValue().shard >= 0)
+				.map(Map.Entry::getKey)
+				.iterator();
+	}
+
+	@Nonnull
+	@Override
+	public Object[] toArray() {
+		return snapshot().toArray();
+	}
+
+	@Nonnull
+	@Override
+	public <T> T[] toArray(final @Nonnull T[] a) {
+		return snapshot().toArray(a);
+	}
+
+	@Nonnull
+	private List<E> snapshot() {
+		final List<E> values = new ArrayList<>();
+		iterator().forEachRemaining(values::add);
+		return values;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The value is added to a random heap.
+	 */
+	@Override
+	public boolean add(final @Nonnull E e) {
+		while (true) {
+			final ConcurrentPriority<E> priority = priorities.computeIfAbsent(e, v -> new ConcurrentPriority<>(this, v));
+			synchronized (priority) {
+				if (priority.shard >= 0)
+					return false;
+				if (priority.shard == ConcurrentPriority.NEW) {
+					insert(priority);
+					return true;
+				}
+			}
+			// The priority was polled or removed before its mapping was, so the mapping's cleared and tried again.
+			priorities.remove(e, priority);
+		}
+	}
+
+	/**
+	 * Puts a new priority into a heap. Must hold the priority's monitor.
+	 */
+	private void insert(final @Nonnull ConcurrentPriority<E> priority) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		int index = random.nextInt(shards.length);
+		if (!shards[index].lock.tryLock()) {
+			index = random.nextInt(shards.length);
+			shards[index].lock.lock();
+		}
+		final Shard<E> shard = shards[index];
+		try {
+			shard.heap.add(priority);
+			priority.shard = index;
+			shard.changed();
+		} finally {
+			shard.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(final @Nonnull Object o) {
+		//noinspection SuspiciousMethodCalls
+		final ConcurrentPriority<E> priority = priorities.get(o);
+		if (priority == null)
+			return false;
+		synchronized (priority) {
+			final int index = priority.shard;
+			if (index < 0)
+				return false;
+			final Shard<E> shard = shards[index];
+			shard.lock.lock();
+			try {
+				if (priority.shard != index)
+					return false;
+				shard.heap.remove(priority);
+				priority.shard = ConcurrentPriority.DEAD;
+				shard.changed();
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		forget(priority);
+		return true;
+	}
+
+	@Override
+	public boolean containsAll(final @Nonnull Collection<?> c) {
+		return c.stream().allMatch(this::contains);
+	}
+
+	@Override
+	public boolean retainAll(final @Nonnull Collection<?> c) {
+		boolean changed = false;
+		for (final E value : snapshot()) {
+			if (!c.contains(value))
+				changed |= remove(value);
+		}
+		return changed;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Values added while the queue is being cleared may or may not survive it.
+	 */
+	@Override
+	public void clear() {
+		for (final Shard<E> shard : shards) {
+			final List<Priority<E>> cleared;
+			shard.lock.lock();
+			try {
+				cleared = shard.heap.stream().toList();
+				for (final Priority<E> priority : cleared) {
+					((ConcurrentPriority<E>) priority).shard = ConcurrentPriority.DEAD;
+				}
+				shard.heap.clear();
+				shard.changed();
+			} finally {
+				shard.lock.unlock();
+			}
+			cleared.forEach(this::forget);
+		}
+	}
+}
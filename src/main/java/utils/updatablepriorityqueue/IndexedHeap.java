@@ -0,0 +1,214 @@
+package utils.updatablepriorityqueue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * An array-backed d-ary min-heap of {@link Priority priorities}, ordered by their natural ordering.
+ * Each priority records its own slot in the heap, so a priority whose count has changed can be sifted into place,
+ * and a priority can be removed, in O(log n) rather than by searching the heap for it.
+ * @param <E> The value type of the priorities.
+ */
+public class IndexedHeap<E> implements IndexedQueue<E> {
+
+	/**
+	 * The number of children per node.
+	 * A wider heap is shallower, which makes sifting up (the common case when counts are incremented) cheaper.
+	 */
+	private static final int ARITY = 4;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Priority<E>[] heap;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public IndexedHeap() {
+		this.heap = (Priority<E>[]) new Priority<?>[INITIAL_CAPACITY];
+		this.size = 0;
+	}
+
+	/**
+	 * @return The comparator used to order the heap, always {@code null} as priorities are ordered naturally.
+	 */
+	@Nullable
+	@Override
+	public Comparator<? super Priority<E>> comparator() {
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return True if the object is a priority currently held by this heap.
+	 */
+	@Override
+	public boolean contains(final Object o) {
+		if (!(o instanceof Priority))
+			return false;
+		final int index = ((Priority<?>) o).index;
+		return index >= 0 && index < size && heap[index] == o;
+	}
+
+	/**
+	 * @param priority The priority to add.
+	 * @return False if the priority was already in the heap, otherwise true.
+	 */
+	@Override
+	public boolean add(final @Nonnull Priority<E> priority) {
+		if (contains(priority))
+			return false;
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, size * 2);
+		siftUp(size++, priority);
+		return true;
+	}
+
+	@Nullable
+	@Override
+	public Priority<E> peek() {
+		return size == 0 ? null : heap[0];
+	}
+
+	@Nullable
+	@Override
+	public Priority<E> poll() {
+		if (size == 0)
+			return null;
+		final Priority<E> head = heap[0];
+		removeAt(0);
+		return head;
+	}
+
+	/**
+	 * @return The head of the heap.
+	 * @throws NoSuchElementException If the heap is empty.
+	 */
+	@Nonnull
+	@Override
+	public Priority<E> element() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return heap[0];
+	}
+
+	/**
+	 * Removes and returns the head of the heap.
+	 * @throws NoSuchElementException If the heap is empty.
+	 */
+	@Nonnull
+	@Override
+	public Priority<E> remove() {
+		final Priority<E> head = element();
+		removeAt(0);
+		return head;
+	}
+
+	/**
+	 * @return True if the priority was in the heap and has been removed.
+	 */
+	@Override
+	public boolean remove(final Object o) {
+		if (!contains(o))
+			return false;
+		removeAt(((Priority<?>) o).index);
+		return true;
+	}
+
+	/**
+	 * Moves a priority whose count has changed to its new place in the heap.
+	 * Does nothing if the priority isn't in the heap.
+	 */
+	@Override
+	public void update(final @Nonnull Priority<E> priority) {
+		if (!contains(priority))
+			return;
+		final int index = priority.index;
+		if (index > 0 && priority.compareTo(heap[parent(index)]) < 0)
+			siftUp(index, priority);
+		else
+			siftDown(index, priority);
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			heap[i].index = -1;
+			heap[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * @return The priorities of the heap, in no particular order.
+	 */
+	@Nonnull
+	@Override
+	public Stream<Priority<E>> stream() {
+		return Arrays.stream(heap, 0, size);
+	}
+
+	private void removeAt(final int index) {
+		final Priority<E> removed = heap[index];
+		removed.index = -1;
+		final int last = --size;
+		final Priority<E> moved = heap[last];
+		heap[last] = null;
+		if (index == last)
+			return;
+		siftDown(index, moved);
+		if (heap[index] == moved)
+			siftUp(index, moved);
+	}
+
+	private void siftUp(int index, final @Nonnull Priority<E> priority) {
+		while (index > 0) {
+			final int parent = parent(index);
+			final Priority<E> parentPriority = heap[parent];
+			if (priority.compareTo(parentPriority) >= 0)
+				break;
+			place(index, parentPriority);
+			index = parent;
+		}
+		place(index, priority);
+	}
+
+	private void siftDown(int index, final @Nonnull Priority<E> priority) {
+		while (true) {
+			final int firstChild = index * ARITY + 1;
+			if (firstChild >= size)
+				break;
+			final int lastChild = Math.min(firstChild + ARITY, size);
+			int best = firstChild;
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				if (heap[child].compareTo(heap[best]) < 0)
+					best = child;
+			}
+			if (heap[best].compareTo(priority) >= 0)
+				break;
+			place(index, heap[best]);
+			index = best;
+		}
+		place(index, priority);
+	}
+
+	private void place(final int index, final @Nonnull Priority<E> priority) {
+		heap[index] = priority;
+		priority.index = index;
+	}
+
+	private static int parent(final int index) {
+		return (index - 1) / ARITY;
+	}
+}
@@ -0,0 +1,79 @@
+package utils.updatablepriorityqueue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * The queue of {@link Priority priorities} behind an {@link UpdatablePriorityQueue}, with the highest count at its head.
+ * Each priority records where it is in the queue, so a priority whose count has changed can be moved into place,
+ * and a priority can be removed, without searching the queue for it.
+ * Priorities with equal counts come out in no particular order.
+ * @param <E> The value type of the priorities.
+ * @see IndexedHeap
+ * @see BucketQueue
+ */
+public interface IndexedQueue<E> {
+
+	/**
+	 * @return The comparator used to order the queue, or {@code null} if priorities are ordered naturally.
+	 */
+	@Nullable
+	Comparator<? super Priority<E>> comparator();
+
+	int size();
+
+	boolean isEmpty();
+
+	/**
+	 * @return True if the object is a priority currently held by this queue.
+	 */
+	boolean contains(Object o);
+
+	/**
+	 * @param priority The priority to add.
+	 * @return False if the priority was already in the queue, otherwise true.
+	 */
+	boolean add(@Nonnull Priority<E> priority);
+
+	@Nullable
+	Priority<E> peek();
+
+	@Nullable
+	Priority<E> poll();
+
+	/**
+	 * @return The head of the queue.
+	 * @throws NoSuchElementException If the queue is empty.
+	 */
+	@Nonnull
+	Priority<E> element();
+
+	/**
+	 * Removes and returns the head of the queue.
+	 * @throws NoSuchElementException If the queue is empty.
+	 */
+	@Nonnull
+	Priority<E> remove();
+
+	/**
+	 * @return True if the priority was in the queue and has been removed.
+	 */
+	boolean remove(Object o);
+
+	/**
+	 * Moves a priority whose count has changed to its new place in the queue.
+	 * Does nothing if the priority isn't in the queue.
+	 */
+	void update(@Nonnull Priority<E> priority);
+
+	void clear();
+
+	/**
+	 * @return The priorities of the queue, in no particular order.
+	 */
+	@Nonnull
+	Stream<Priority<E>> stream();
+}
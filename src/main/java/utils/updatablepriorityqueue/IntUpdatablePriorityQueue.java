@@ -0,0 +1,235 @@
+package utils.updatablepriorityqueue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The counterpart of an {@link UpdatablePriorityQueue} for dense int ids, from 0 up to a fixed capacity,
+ * such as the positions of cells in a {@link finite_groupings.Network}.
+ * <p>
+ * The heap, each id's slot in it, and each id's count are all held in {@code int} arrays,
+ * so there are no {@link Priority} objects, no map from values to priorities, and no boxing:
+ * 12 bytes per id, however many are queued. Like an {@link IndexedHeap}, the heap is 4-ary,
+ * the highest count comes out first, and ties come out in no particular order.
+ * <p>
+ * An id's count is reset to {@link Priority#DEFAULT_COUNT} when it's added.
+ * Changing the count of an id that isn't queued is allowed, but does nothing to the queue.
+ */
+public class IntUpdatablePriorityQueue {
+
+	protected static final String ID_RANGE_EXCEPTION_MSG = "Id %d is outside of 0 to %d.";
+	protected static final String NEGATIVE_CAPACITY_EXCEPTION_MSG = "Capacity can't be negative.";
+
+	/**
+	 * Returned by {@link #peek()} and {@link #poll()} when the queue is empty.
+	 */
+	public static final int NONE = -1;
+
+	private static final int ARITY = 4;
+
+	/**
+	 * The queued ids, in heap order.
+	 */
+	private final int[] heap;
+	/**
+	 * The slot of each id in the heap, or -1 if it isn't queued.
+	 */
+	private final int[] slots;
+	private final int[] counts;
+	private int size;
+
+	/**
+	 * @param capacity One more than the largest id the queue can hold.
+	 */
+	public IntUpdatablePriorityQueue(final int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException(NEGATIVE_CAPACITY_EXCEPTION_MSG);
+		this.heap = new int[capacity];
+		this.slots = new int[capacity];
+		this.counts = new int[capacity];
+		Arrays.fill(slots, -1);
+		Arrays.fill(counts, Priority.DEFAULT_COUNT);
+		this.size = 0;
+	}
+
+	public int capacity() {
+		return heap.length;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return The bytes held by the queue's arrays.
+	 */
+	public long getFootprint() {
+		return 4L * (heap.length + slots.length + counts.length);
+	}
+
+	public boolean contains(final int id) {
+		return slots[checkId(id)] >= 0;
+	}
+
+	/**
+	 * Queues an id with the default count.
+	 * @return False if the id was already queued, otherwise true.
+	 */
+	public boolean add(final int id) {
+		if (slots[checkId(id)] >= 0)
+			return false;
+		counts[id] = Priority.DEFAULT_COUNT;
+		siftUp(size++, id);
+		return true;
+	}
+
+	/**
+	 * @return True if the id was queued and has been removed.
+	 */
+	public boolean remove(final int id) {
+		final int slot = slots[checkId(id)];
+		if (slot < 0)
+			return false;
+		removeAt(slot);
+		return true;
+	}
+
+	/**
+	 * @return The id with the highest count, or {@link #NONE} if the queue is empty.
+	 */
+	public int peek() {
+		return size == 0 ? NONE : heap[0];
+	}
+
+	/**
+	 * Removes and returns the id with the highest count, or {@link #NONE} if the queue is empty.
+	 */
+	public int poll() {
+		if (size == 0)
+			return NONE;
+		final int head = heap[0];
+		removeAt(0);
+		return head;
+	}
+
+	/**
+	 * @return The id with the highest count.
+	 * @throws NoSuchElementException If the queue is empty.
+	 */
+	public int element() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return heap[0];
+	}
+
+	/**
+	 * Removes and returns the id with the highest count.
+	 * @throws NoSuchElementException If the queue is empty.
+	 */
+	public int remove() {
+		final int head = element();
+		removeAt(0);
+		return head;
+	}
+
+	public int getCount(final int id) {
+		return counts[checkId(id)];
+	}
+
+	/**
+	 * Sets an id's count, and moves it to its new place in the queue if it's queued.
+	 */
+	public void setCount(final int id, final int count) {
+		final int old = counts[checkId(id)];
+		counts[id] = count;
+		final int slot = slots[id];
+		if (slot < 0 || count == old)
+			return;
+		if (count > old)
+			siftUp(slot, id);
+		else
+			siftDown(slot, id);
+	}
+
+	public void incrementCount(final int id) {
+		setCount(id, getCount(id) + 1);
+	}
+
+	public void decrementCount(final int id) {
+		setCount(id, getCount(id) - 1);
+	}
+
+	public void resetCount(final int id) {
+		setCount(id, Priority.DEFAULT_COUNT);
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			slots[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	private int checkId(final int id) {
+		if (id < 0 || id >= heap.length)
+			throw new IllegalArgumentException(String.format(ID_RANGE_EXCEPTION_MSG, id, heap.length - 1));
+		return id;
+	}
+
+	private void removeAt(final int slot) {
+		slots[heap[slot]] = -1;
+		final int last = --size;
+		if (slot == last)
+			return;
+		final int moved = heap[last];
+		siftDown(slot, moved);
+		if (heap[slot] == moved)
+			siftUp(slot, moved);
+	}
+
+	private void siftUp(int slot, final int id) {
+		final int count = counts[id];
+		while (slot > 0) {
+			final int parent = (slot - 1) / ARITY;
+			final int parentId = heap[parent];
+			if (count <= counts[parentId])
+				break;
+			place(slot, parentId);
+			slot = parent;
+		}
+		place(slot, id);
+	}
+
+	private void siftDown(int slot, final int id) {
+		final int count = counts[id];
+		while (true) {
+			final int firstChild = slot * ARITY + 1;
+			if (firstChild >= size)
+				break;
+			final int lastChild = Math.min(firstChild + ARITY, size);
+			int best = firstChild;
+			int bestCount = counts[heap[best]];
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				final int childCount = counts[heap[child]];
+				if (childCount > bestCount) {
+					best = child;
+					bestCount = childCount;
+				}
+			}
+			if (bestCount <= count)
+				break;
+			place(slot, heap[best]);
+			slot = best;
+		}
+		place(slot, id);
+	}
+
+	private void place(final int slot, final int id) {
+		heap[slot] = id;
+		slots[id] = slot;
+	}
+}
@@ -16,7 +16,22 @@ public class Priority<E> implements Comparable<Priority<?>> {
 	 * The parent queue that this priority belongs to.
 	 */
 	private final UpdatablePriorityQueue<E> queue;
-	private int count;
+	/**
+	 * Only changed through the queue, so a concurrent queue can change it under the same lock as its heap.
+	 * @see UpdatablePriorityQueue#setCount(Priority, int)
+	 */
+	int count;
+	/**
+	 * Where this priority is in its queue's {@link IndexedQueue}, or -1 if it isn't in it:
+	 * its slot in an {@link IndexedHeap}, or its bucket in a {@link BucketQueue}.
+	 */
+	int index;
+	/**
+	 * The {@link BucketQueue} holding this priority, if any, and its neighbours in its bucket there.
+	 */
+	BucketQueue<E> bucketQueue;
+	Priority<E> previous;
+	Priority<E> next;
 
 	private final E value;
 
@@ -25,6 +40,7 @@ public class Priority<E> implements Comparable<Priority<?>> {
 		this.queue = queue;
 		this.count = DEFAULT_COUNT;
 		this.value = value;
+		this.index = -1;
 	}
 
 	public int getCount() {
@@ -40,16 +56,15 @@ public class Priority<E> implements Comparable<Priority<?>> {
 	}
 
 	public void incrementCount() {
-		setCount(count + 1);
+		queue.addToCount(this, 1);
 	}
 
 	public void decrementCount() {
-		setCount(count - 1);
+		queue.addToCount(this, -1);
 	}
 
 	public void setCount(final int count) {
-		this.count = count;
-		queue.updatePriority(this);
+		queue.setCount(this, count);
 	}
 
 	@Override
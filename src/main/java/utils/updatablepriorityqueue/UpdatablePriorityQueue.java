@@ -8,6 +8,11 @@ import javax.annotation.Nullable;
 import java.util.*;
 
 /**
+ * A queue of values ordered by counts that can change while they're queued.
+ * <p>
+ * Subclasses may keep their priorities somewhere else, such as over several queues,
+ * in which case they create this class without a map or {@link IndexedQueue} of its own,
+ * and override every method that would use them, including {@link #getQueue()}.
  * @author Harry Clarke (harry-clarke@outlook.com).
  * @since 29/10/2017.
  */
@@ -22,31 +27,74 @@ public class UpdatablePriorityQueue<E> implements Collection<E> {
 	 * The underlying priority queue.
 	 * Uses {@link Priority} instead of the raw value to allow for comparison to be based on a counter instead of on the
 	 * value itself.
-	 * Counter values are updated by first removing, then adding the priority back into the queue
-	 * ({@link UpdatablePriorityQueue#updatePriority(Priority)}).
+	 * Each priority knows its own place in the queue, so when a counter changes it is moved into place
+	 * ({@link UpdatablePriorityQueue#updatePriority(Priority)}) in O(log n) for an {@link IndexedHeap},
+	 * or O(1) for a {@link BucketQueue}.
 	 */
-	private final PriorityQueue<Priority<E>> queue;
+	private final IndexedQueue<E> queue;
 
+	/**
+	 * Creates a queue backed by an {@link IndexedHeap}.
+	 */
 	public UpdatablePriorityQueue() {
+		this(new IndexedHeap<>());
+	}
+
+	/**
+	 * @param queue An empty queue to hold the priorities, such as a {@link BucketQueue} for small counts.
+	 */
+	public UpdatablePriorityQueue(final @Nonnull IndexedQueue<E> queue) {
+		this(Maps.newHashMap(), queue);
+	}
+
+	/**
+	 * @param priorities The mapping of values to their priorities, or {@code null} for a subclass that keeps its own.
+	 * @param queue The queue to hold the priorities, or {@code null} for a subclass that keeps its own.
+	 * Either way, a subclass that passes {@code null} has to override every method that would use it.
+	 */
+	protected UpdatablePriorityQueue(final @Nullable Map<E, Priority<E>> priorities,
+									 final @Nullable IndexedQueue<E> queue) {
 		super();
-		priorities = Maps.newHashMap();
-		queue = new PriorityQueue<>();
+		this.priorities = priorities;
+		this.queue = queue;
 	}
 
 	public Priority<E> getPriority(final @Nonnull E value) {
 		return priorities.get(value);
 	}
 
+	/**
+	 * Moves a priority whose count has changed to its new place in the queue.
+	 * Priorities that have been polled or removed from the queue aren't added back.
+	 */
 	protected void updatePriority(final @Nonnull Priority<E> priority) {
-		queue.remove(priority);
-		queue.add(priority);
+		queue.update(priority);
+	}
+
+	/**
+	 * Sets a priority's count, and moves it to its new place in the queue.
+	 */
+	protected void setCount(final @Nonnull Priority<E> priority, final int count) {
+		priority.count = count;
+		updatePriority(priority);
+	}
+
+	/**
+	 * Adds to a priority's count, and moves it to its new place in the queue.
+	 */
+	protected void addToCount(final @Nonnull Priority<E> priority, final int delta) {
+		setCount(priority, priority.count + delta);
 	}
 
 	protected Map<E, Priority<E>> getPriorities() {
 		return priorities;
 	}
 
-	protected PriorityQueue<Priority<E>> getQueue() {
+	/**
+	 * @return The queue holding the priorities.
+	 * A subclass that spreads its priorities over several queues has no single queue, so may throw instead.
+	 */
+	protected IndexedQueue<E> getQueue() {
 		return queue;
 	}
 
@@ -81,10 +129,10 @@ public class UpdatablePriorityQueue<E> implements Collection<E> {
 	 */
 	@Nullable
 	public Priority<E> poll() {
-		return Optional.ofNullable(queue.poll())
-				.map(Priority::getValue)
-				.map(priorities::remove)
-				.orElse(null);
+		final Priority<E> priority = queue.poll();
+		if (priority != null)
+			priorities.remove(priority.getValue());
+		return priority;
 	}
 
 	/**
@@ -336,7 +384,7 @@ public class UpdatablePriorityQueue<E> implements Collection<E> {
 	@Override
 	public boolean containsAll(final @Nonnull Collection<?> c) {
 		return priorities.keySet().containsAll(c)
-				|| queue.containsAll(c);
+				|| c.stream().allMatch(queue::contains);
 	}
 
 	/**
@@ -1,9 +1,12 @@
 package finite_groupings;
 
 import com.google.common.collect.ImmutableSet;
+import finite_groupings.domain.Universe;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -148,4 +151,158 @@ class AbstractCellTest {
 		assertTrue(listener.called);
 	}
 
-}
\ No newline at end of file
+	@Test
+	void testPossibilityReads() {
+		final Universe<Integer> universe = Universe.of(List.of(5, 4, 3, 2, 1));
+		final MockAbstractCell<Integer> cell = new MockAbstractCell<>(universe, Set.of(1, 2, 4));
+		assertEquals(3, cell.getPossibilityCount());
+		assertTrue(cell.hasPossibility(4));
+		assertFalse(cell.hasPossibility(3));
+		assertFalse(cell.hasPossibility(6));
+
+		final List<Integer> values = new ArrayList<>();
+		cell.forEachPossibility(values::add);
+		assertEquals(List.of(4, 2, 1), values);
+
+		final List<Integer> indices = new ArrayList<>();
+		for (int i = cell.nextPossibilityIndex(0); i >= 0; i = cell.nextPossibilityIndex(i + 1)) {
+			indices.add(i);
+		}
+		assertEquals(List.of(1, 3, 4), indices);
+
+		final long[] words = new long[universe.wordCount()];
+		cell.copyPossibilities(words);
+		assertArrayEquals(new long[]{0b11010}, words);
+
+		cell.removePossibility(2);
+		assertEquals(2, cell.getPossibilityCount());
+		assertFalse(cell.hasPossibility(2));
+		assertFalse(cell.hasValue());
+		cell.setValue(4);
+		assertTrue(cell.hasValue());
+		assertEquals(1, cell.getPossibilityCount());
+	}
+
+	@Test
+	void testPossibilityDeltaListener() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3, 4));
+		final MockAbstractCell<Integer> cell = new MockAbstractCell<>(universe, Set.of(1, 2, 3, 4));
+		final List<Long> removals = new ArrayList<>();
+		final List<Integer> sizes = new ArrayList<>();
+		cell.addPossibilityDeltaListener((c, removed, size) -> {
+			assertSame(cell, c);
+			removals.add(removed[0]);
+			sizes.add(size);
+		});
+
+		cell.removePossibility(2);
+		cell.removePossibility(2);
+		cell.reducePossibilities(Set.of(1, 3, 4));
+		assertThrows(ContradictionException.class, () -> cell.setValue(2));
+		cell.setValue(3);
+
+		assertEquals(List.of(0b0010L, 0b1001L), removals);
+		assertEquals(List.of(3, 1), sizes);
+	}
+
+	@Test
+	void testPossibilityDeltaListenerDeferred() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3));
+		final MockAbstractCell<Integer> cell = new MockAbstractCell<>(universe, Set.of(1, 2, 3));
+		final Propagator propagator = new Propagator();
+		propagator.attach(List.of(cell));
+		final List<Long> removals = new ArrayList<>();
+		cell.addPossibilityDeltaListener((c, removed, size) -> removals.add(removed[0]));
+
+		propagator.batch(() -> {
+			cell.removePossibility(1);
+			assertEquals(List.of(0b001L), removals);
+		});
+		assertEquals(List.of(0b001L), removals);
+	}
+
+	@Test
+	void testWatchValue() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3, 4));
+		final MockAbstractCell<Integer> cell = new MockAbstractCell<>(universe, Set.of(1, 2, 3, 4));
+		final List<Integer> removals = new ArrayList<>();
+		cell.watchValueAt(1, (c, index) -> {
+			assertSame(cell, c);
+			removals.add(index);
+			return true;
+		});
+		cell.watchValueAt(2, (c, index) -> {
+			removals.add(10 + index);
+			return false;
+		});
+		cell.watchValueAt(2, (c, index) -> removals.add(20 + index));
+		assertEquals(2, cell.watcherCount(2));
+		assertThrows(IllegalArgumentException.class, () -> cell.watchValueAt(4, (c, index) -> true));
+
+		cell.removePossibility(1);
+		assertEquals(List.of(), removals);
+		cell.removePossibility(3);
+		assertEquals(List.of(12, 22), removals);
+		assertEquals(1, cell.watcherCount(2));
+		cell.setValue(4);
+		assertEquals(List.of(12, 22, 1), removals);
+	}
+
+	@Test
+	void testWatchValueAfterBacktracking() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3));
+		final MockAbstractCell<Integer> cell = new MockAbstractCell<>(universe, Set.of(1, 2, 3));
+		final Trail trail = new Trail();
+		trail.attach(cell);
+		final List<Integer> removals = new ArrayList<>();
+		cell.watchValueAt(0, (c, index) -> removals.add(index));
+
+		trail.push();
+		cell.removePossibility(1);
+		trail.pop();
+		cell.removePossibility(1);
+		assertEquals(List.of(0, 0), removals);
+	}
+
+	@Test
+	void testWatcherThrowing() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3));
+		final MockAbstractCell<Integer> cell = new MockAbstractCell<>(universe, Set.of(1, 2, 3));
+		final Trail trail = new Trail();
+		trail.attach(cell);
+		final List<Integer> removals = new ArrayList<>();
+		cell.watchValueAt(0, (c, index) -> {
+			removals.add(1);
+			return false;
+		});
+		cell.watchValueAt(0, (c, index) -> {
+			throw new ContradictionException("");
+		});
+		cell.watchValueAt(0, (c, index) -> removals.add(3));
+
+		trail.push();
+		assertThrows(ContradictionException.class, () -> cell.removePossibility(1));
+		trail.pop();
+		// The first watcher moved, and the one that threw is kept along with the one it stopped from being told.
+		assertEquals(List.of(1), removals);
+		assertEquals(2, cell.watcherCount(0));
+	}
+
+	@Test
+	void testRetainPossibility() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3));
+		final MockAbstractCell<Integer> cell = new MockAbstractCell<>(universe, Set.of(1, 2, 3));
+		final Propagator propagator = new Propagator();
+		propagator.attach(List.of(cell));
+		propagator.batch(() -> {
+			cell.retainPossibilityAt(1);
+			assertEquals(Set.of(2), cell.getPossibilities());
+			assertFalse(cell.hasValue());
+		});
+		assertEquals(2, (int) cell.getValue().orElseThrow());
+		cell.retainPossibilityAt(1);
+
+		final MockAbstractCell<Integer> other = new MockAbstractCell<>(universe, Set.of(1, 3));
+		assertThrows(ContradictionException.class, () -> other.retainPossibilityAt(1));
+	}
+}
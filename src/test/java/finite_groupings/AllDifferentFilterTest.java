@@ -0,0 +1,88 @@
+package finite_groupings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static finite_groupings.GroupStrategyChecks.UNIVERSE;
+import static finite_groupings.MockAbstractCellFactory.createAll;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllDifferentFilterTest {
+
+	private static GroupImpl<Integer> group(final List<MockAbstractCell<Integer>> cells, final Set<Integer> values) {
+		return GroupStrategyChecks.group(cells, values, GroupStrategy.allDifferent());
+	}
+
+	@Test
+	void checkSmallerSubset() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(
+				Set.of(1, 2, 3), Set.of(1, 2, 3), Set.of(1, 2, 3), Set.of(1, 2, 3, 4)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2, 3, 4));
+		group.updateCellGroupings(cells.get(0));
+		assertEquals(4, (int) cells.get(3).getValue().orElseThrow());
+	}
+
+	/**
+	 * The sub group doesn't include the updated cell, so a search outwards from that cell wouldn't find it.
+	 */
+	@Test
+	void checkSubGroupAwayFromUpdatedCell() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(
+				Set.of(1, 2), Set.of(1, 2), Set.of(1, 2, 3, 4), Set.of(1, 2, 3, 4)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2, 3, 4));
+		group.updateCellGroupings(cells.get(3));
+		assertEquals(Set.of(1, 2), cells.get(0).getPossibilities());
+		assertEquals(Set.of(3, 4), cells.get(2).getPossibilities());
+		assertEquals(Set.of(3, 4), cells.get(3).getPossibilities());
+	}
+
+	@Test
+	void checkEverySubGroupPruned() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(
+				Set.of(1, 2), Set.of(1, 2), Set.of(3, 4), Set.of(3, 4),
+				Set.of(1, 2, 3, 4, 5, 6), Set.of(1, 2, 3, 4, 5, 6)));
+		final GroupImpl<Integer> group = group(cells, Set.copyOf(UNIVERSE.getValues()));
+		group.updateCellGroupings(cells.get(0));
+		assertEquals(Set.of(5, 6), cells.get(4).getPossibilities());
+		assertEquals(Set.of(5, 6), cells.get(5).getPossibilities());
+		assertEquals(Set.of(3, 4), cells.get(2).getPossibilities());
+	}
+
+	/**
+	 * With more values than cells, a value that no other cell needs keeps every cell that could take it.
+	 */
+	@Test
+	void checkSpareValues() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(
+				Set.of(1, 2), Set.of(1, 2), Set.of(1, 2, 3), Set.of(3, 4)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2, 3, 4, 5));
+		group.updateCellGroupings(cells.get(0));
+		assertEquals(3, (int) cells.get(2).getValue().orElseThrow());
+		assertEquals(4, (int) cells.get(3).getValue().orElseThrow());
+		assertEquals(Set.of(1, 2), cells.get(0).getPossibilities());
+	}
+
+	@Test
+	void checkNoMatching() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(Set.of(1, 2), Set.of(1, 2), Set.of(1, 2)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2, 3));
+		assertThrows(IllegalStateException.class, () -> group.updateCellGroupings(cells.get(0)));
+	}
+
+	@Test
+	void checkLostCell() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(Set.of(1, 2), Set.of(1, 2)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2));
+		assertThrows(IllegalStateException.class,
+				() -> group.updateCellGroupings(new MockAbstractCell<>(UNIVERSE, Set.of(1))));
+	}
+
+	/**
+	 * The filter should rule out exactly the possibilities that no assignment of different values uses.
+	 */
+	@Test
+	void checkAgainstBruteForce() {
+		GroupStrategyChecks.checkAgainstBruteForce(GroupStrategy::allDifferent, 2, 5, true);
+	}
+}
@@ -83,4 +83,16 @@ class CellUpdaterTest {
 
 		assertEquals(0, priority.getCount());
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testUpdateRequeuesCell() {
+		final MockAbstractCell<Boolean> cell = new MockAbstractCell<>(FULL_SET);
+		updater.add(cell);
+		updater.getQueue().getPriority(cell).incrementCount();
+
+		updater.update();
+
+		assertTrue(updater.getQueue().contains(cell));
+		assertEquals(0, updater.getQueue().getPriority(cell).getCount());
+	}
+}
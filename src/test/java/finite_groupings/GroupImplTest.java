@@ -1,12 +1,14 @@
 package finite_groupings;
 
 import com.google.common.collect.Sets;
+import finite_groupings.domain.Universe;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static finite_groupings.AbstractCellTest.FULL_SET;
@@ -200,4 +202,96 @@ class GroupImplTest {
 		assertEquals(4, (int) zebraCell.getValue().orElseThrow());
 
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Checks that a group over a universe too large for a single word still pairs its cells up.
+	 */
+	@Test
+	void checkLargeUniverse() {
+		final Universe<Integer> universe = Universe.of(IntStream.range(0, 70).boxed().collect(Collectors.toList()));
+		final List<MockAbstractCell<Integer>> cells = List.of(
+				new MockAbstractCell<>(universe, Set.of(0, 69)),
+				new MockAbstractCell<>(universe, Set.of(0, 69)));
+		final GroupImpl<Integer> grouping = new GroupImpl<>(Sets.newHashSet(cells), Set.copyOf(universe.getValues()));
+
+		cells.get(0).setValue(69);
+
+		assertEquals(0, (int) cells.get(1).getValue().orElseThrow());
+		assertEquals(68, grouping.getValues().size());
+		assertEquals(Set.of(), grouping.getUnpairedCells());
+	}
+
+	/**
+	 * Checks that a group built with the default strategy pairs a value with the only cell left that could take it,
+	 * and fails once no cell can.
+	 */
+	@Test
+	void checkDefaultFindsHiddenSingles() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3, 4));
+		final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(universe,
+				Collections.nCopies(4, Set.of(1, 2, 3, 4)));
+		new GroupImpl<>(Sets.newHashSet(cells), Set.of(1, 2, 3, 4));
+		cells.get(0).removePossibility(4);
+		cells.get(1).removePossibility(4);
+		cells.get(2).removePossibility(4);
+		assertEquals(4, (int) cells.get(3).getValue().orElseThrow());
+
+		final List<MockAbstractCell<Integer>> unsupported = MockAbstractCellFactory.createAll(universe,
+				List.of(Set.of(1, 2, 3), Set.of(1, 2, 3), Set.of(1, 2, 3), Set.of(1, 2, 3, 4)));
+		new GroupImpl<>(Sets.newHashSet(unsupported), Set.of(1, 2, 3, 4));
+		final ContradictionException e = assertThrows(ContradictionException.class,
+				() -> unsupported.get(3).removePossibility(4));
+		assertEquals(HiddenSingles.NO_SUPPORT_EXCEPTION_MSG, e.getMessage());
+	}
+
+	/**
+	 * Checks that each value's support, kept up to date from the cells' removals, matches a recount,
+	 * through cascades, contradictions and backtracking, while the default hidden singles strategy reads it.
+	 */
+	@Test
+	void checkSupportCounts() {
+		final Random random = new Random(7);
+		final Universe<Integer> universe = Universe.of(IntStream.range(0, 9).boxed().collect(Collectors.toList()));
+		final List<MockAbstractCell<Integer>> cells = new ArrayList<>();
+		for (int i = 0; i < 9; i++) {
+			cells.add(new MockAbstractCell<>(universe, Set.copyOf(universe.getValues())));
+		}
+		final GroupImpl<Integer> grouping = new GroupImpl<>(Sets.newHashSet(cells), Set.copyOf(universe.getValues()));
+		final Trail trail = new Trail();
+		cells.forEach(trail::attach);
+		trail.attach(grouping);
+		for (int step = 0; step < 2000; step++) {
+			if (trail.getLevel() > 0 && random.nextInt(4) == 0) {
+				trail.pop();
+			} else {
+				trail.push();
+				final MockAbstractCell<Integer> cell = cells.get(random.nextInt(cells.size()));
+				try {
+					cell.removePossibility(random.nextInt(9));
+				} catch (final ContradictionException e) {
+					trail.pop();
+				}
+			}
+			for (int value = 0; value < 9; value++) {
+				int count = 0;
+				for (int i = grouping.nextUnpairedCell(0); i >= 0; i = grouping.nextUnpairedCell(i + 1)) {
+					if (grouping.cellAt(i).hasPossibility(value))
+						count++;
+				}
+				assertEquals(count, grouping.supportCount(value));
+				int supporting = 0;
+				for (int i = 0; i < grouping.cellCount(); i++) {
+					if ((grouping.supportingCellWord(value, 0) & (1L << i)) != 0) {
+						assertTrue(grouping.isUnpaired(i));
+						assertTrue(grouping.cellAt(i).hasPossibility(value));
+						supporting++;
+					}
+				}
+				assertEquals(count, supporting);
+				// Any value left with a single cell would have been paired with it.
+				if (grouping.getValues().contains(value))
+					assertTrue(count >= 2);
+			}
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package finite_groupings;
+
+import com.google.common.collect.Sets;
+import finite_groupings.domain.Universe;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static finite_groupings.MockAbstractCellFactory.createAll;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Groups and checks shared by the tests of each {@link GroupStrategy}.
+ */
+public final class GroupStrategyChecks {
+
+	public static final Universe<Integer> UNIVERSE = Universe.of(List.of(1, 2, 3, 4, 5, 6));
+
+	private GroupStrategyChecks() {
+	}
+
+	@Nonnull
+	public static GroupImpl<Integer> group(final @Nonnull List<MockAbstractCell<Integer>> cells,
+										   final @Nonnull Set<Integer> values,
+										   final @Nonnull GroupStrategy<Integer> strategy) {
+		return new GroupImpl<>(Sets.newHashSet(cells), values, strategy);
+	}
+
+	/**
+	 * Narrows the cells of random groups down to random possibilities, one removal at a time,
+	 * and compares what's left with every assignment of different values to the cells.
+	 * Each possibility that some assignment uses must survive, and with an exact strategy nothing else may.
+	 * The strategy may only fail if there's no assignment at all.
+	 * @param strategies Creates the strategy for each group.
+	 * @param minCells The fewest cells in a group, at least two.
+	 * @param maxCells The most cells in a group, up to the size of {@link #UNIVERSE}.
+	 * @param exact True if the strategy should rule out every possibility that no assignment uses.
+	 */
+	public static void checkAgainstBruteForce(final @Nonnull Supplier<GroupStrategy<Integer>> strategies,
+											  final int minCells, final int maxCells, final boolean exact) {
+		final Random random = new Random(0);
+		for (int round = 0; round < 500; round++) {
+			final int cellCount = minCells + random.nextInt(maxCells - minCells + 1);
+			final List<Set<Integer>> possibilities = new ArrayList<>();
+			for (int i = 0; i < cellCount; i++) {
+				final Set<Integer> p = new HashSet<>();
+				while (p.size() < 2 || random.nextInt(3) == 0) {
+					p.add(1 + random.nextInt(UNIVERSE.size()));
+				}
+				possibilities.add(p);
+			}
+			final List<Set<Integer>> supported = new ArrayList<>();
+			for (int i = 0; i < cellCount; i++) {
+				supported.add(new HashSet<>());
+			}
+			final boolean solvable = collectSupport(possibilities, 0, new ArrayDeque<>(), supported);
+
+			final Set<Integer> values = Set.copyOf(UNIVERSE.getValues());
+			final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, Collections.nCopies(cellCount, values));
+			final GroupImpl<Integer> group = group(cells, values, strategies.get());
+			final String message = "Round " + round + ": " + possibilities;
+			try {
+				for (int i = 0; i < cellCount; i++) {
+					for (final int value : values) {
+						if (!possibilities.get(i).contains(value))
+							cells.get(i).removePossibility(value);
+					}
+				}
+				group.updateCellGroupings(cells.get(0));
+			} catch (final IllegalStateException e) {
+				assertFalse(solvable, message);
+				continue;
+			}
+			if (exact)
+				assertTrue(solvable, message);
+			if (!solvable)
+				continue;
+			for (int i = 0; i < cellCount; i++) {
+				if (exact) {
+					assertEquals(supported.get(i), cells.get(i).getPossibilities(), message);
+				} else {
+					assertTrue(cells.get(i).getPossibilities().containsAll(supported.get(i)), message);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects, for each cell, the values it takes in some assignment of different values to all of the cells.
+	 * @return True if there's any such assignment.
+	 */
+	private static boolean collectSupport(final List<Set<Integer>> possibilities, final int cell,
+										  final Deque<Integer> assignment, final List<Set<Integer>> supported) {
+		if (cell == possibilities.size()) {
+			final Iterator<Integer> values = assignment.descendingIterator();
+			for (int i = 0; i < cell; i++) {
+				supported.get(i).add(values.next());
+			}
+			return true;
+		}
+		boolean solvable = false;
+		for (final Integer value : possibilities.get(cell)) {
+			if (assignment.contains(value))
+				continue;
+			assignment.push(value);
+			solvable |= collectSupport(possibilities, cell + 1, assignment, supported);
+			assignment.pop();
+		}
+		return solvable;
+	}
+
+	/**
+	 * Groups with more values than cells don't have to use every value,
+	 * so a value that only one cell could take isn't paired with it.
+	 */
+	public static void checkSpareValues(final @Nonnull GroupStrategy<Integer> strategy) {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, Collections.nCopies(3, Set.of(1, 2, 3, 4)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2, 3, 4), strategy);
+		cells.get(0).removePossibility(4);
+		cells.get(1).removePossibility(4);
+		group.updateCellGroupings(cells.get(2));
+		assertEquals(Set.of(1, 2, 3, 4), cells.get(2).getPossibilities());
+	}
+}
@@ -0,0 +1,87 @@
+package finite_groupings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static finite_groupings.GroupStrategyChecks.UNIVERSE;
+import static finite_groupings.MockAbstractCellFactory.createAll;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HiddenSinglesTest {
+
+	private static GroupImpl<Integer> group(final List<MockAbstractCell<Integer>> cells, final Set<Integer> values) {
+		return GroupStrategyChecks.group(cells, values, GroupStrategy.hiddenSingles());
+	}
+
+	@Test
+	void checkHiddenSingle() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, Collections.nCopies(4, Set.of(1, 2, 3, 4)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2, 3, 4));
+		cells.get(0).removePossibility(4);
+		cells.get(1).removePossibility(4);
+		assertEquals(2, group.supportCount(3));
+		assertFalse(cells.get(2).hasValue());
+		cells.get(2).removePossibility(4);
+		assertEquals(4, (int) cells.get(3).getValue().orElseThrow());
+		assertEquals(Set.of(1, 2, 3), cells.get(0).getPossibilities());
+	}
+
+	@Test
+	void checkWatchesOnlyTwoCellsPerValue() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, Collections.nCopies(4, Set.of(1, 2, 3, 4)));
+		group(cells, Set.of(1, 2, 3, 4));
+		int watches = 0;
+		for (final MockAbstractCell<Integer> cell : cells) {
+			for (int index = 0; index < UNIVERSE.size(); index++) {
+				watches += cell.watcherCount(index);
+			}
+		}
+		assertEquals(8, watches);
+	}
+
+	@Test
+	void checkNoSupport() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE,
+				List.of(Set.of(1, 2), Set.of(1, 2), Set.of(1, 2, 3)));
+		group(cells, Set.of(1, 2, 3));
+		assertThrows(ContradictionException.class, () -> cells.get(2).removePossibility(3));
+	}
+
+	@Test
+	void checkSpareValues() {
+		GroupStrategyChecks.checkSpareValues(GroupStrategy.hiddenSingles());
+	}
+
+	@Test
+	void checkWatchesSurviveBacktracking() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, Collections.nCopies(4, Set.of(1, 2, 3, 4)));
+		final GroupImpl<Integer> group = group(cells, Set.of(1, 2, 3, 4));
+		final Trail trail = new Trail();
+		cells.forEach(trail::attach);
+		trail.attach(group);
+
+		trail.push();
+		cells.get(0).removePossibility(4);
+		cells.get(1).removePossibility(4);
+		cells.get(2).removePossibility(4);
+		assertTrue(cells.get(3).hasValue());
+		trail.pop();
+		assertFalse(cells.get(3).hasValue());
+		assertEquals(4, group.supportCount(3));
+
+		cells.get(3).removePossibility(4);
+		cells.get(2).removePossibility(4);
+		cells.get(1).removePossibility(4);
+		assertEquals(4, (int) cells.get(0).getValue().orElseThrow());
+	}
+
+	/**
+	 * Hidden singles never rule out a possibility that some assignment of different values uses,
+	 * though they don't rule out every one that none does.
+	 */
+	@Test
+	void checkAgainstBruteForce() {
+		GroupStrategyChecks.checkAgainstBruteForce(GroupStrategy::hiddenSingles, 2, UNIVERSE.size(), false);
+	}
+}
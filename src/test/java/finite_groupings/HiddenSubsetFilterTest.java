@@ -0,0 +1,73 @@
+package finite_groupings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static finite_groupings.GroupStrategyChecks.UNIVERSE;
+import static finite_groupings.GroupStrategyChecks.group;
+import static finite_groupings.MockAbstractCellFactory.createAll;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HiddenSubsetFilterTest {
+
+	@Test
+	void checkHiddenPair() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(
+				Set.of(1, 2, 3, 4), Set.of(1, 2, 5, 6), Set.of(3, 4, 5, 6),
+				Set.of(3, 4, 5, 6), Set.of(3, 4, 5, 6), Set.of(3, 4, 5, 6)));
+		final HiddenSubsetFilter<Integer> filter = new HiddenSubsetFilter<>(2);
+		final GroupImpl<Integer> group = group(cells, Set.copyOf(UNIVERSE.getValues()), filter);
+		group.updateCellGroupings(cells.get(5));
+		assertEquals(Set.of(1, 2), cells.get(0).getPossibilities());
+		assertEquals(Set.of(1, 2), cells.get(1).getPossibilities());
+		assertEquals(Set.of(3, 4, 5, 6), cells.get(2).getPossibilities());
+		assertTrue(filter.getSearchSteps() > 0);
+	}
+
+	@Test
+	void checkMaxSize() {
+		final List<Set<Integer>> possibilities = List.of(
+				Set.of(1, 2, 3, 4), Set.of(1, 2, 3, 5), Set.of(1, 2, 3, 6),
+				Set.of(4, 5, 6), Set.of(4, 5, 6), Set.of(4, 5, 6));
+		final List<MockAbstractCell<Integer>> pairCells = createAll(UNIVERSE, possibilities);
+		group(pairCells, Set.copyOf(UNIVERSE.getValues()), GroupStrategy.hiddenSubsets(2))
+				.updateCellGroupings(pairCells.get(0));
+		assertEquals(Set.of(1, 2, 3, 4), pairCells.get(0).getPossibilities());
+
+		final List<MockAbstractCell<Integer>> tripleCells = createAll(UNIVERSE, possibilities);
+		group(tripleCells, Set.copyOf(UNIVERSE.getValues()), GroupStrategy.hiddenSubsets(3))
+				.updateCellGroupings(tripleCells.get(0));
+		assertEquals(Set.of(1, 2, 3), tripleCells.get(0).getPossibilities());
+		assertEquals(Set.of(1, 2, 3), tripleCells.get(2).getPossibilities());
+	}
+
+	@Test
+	void checkTooFewCells() {
+		final List<MockAbstractCell<Integer>> cells = createAll(UNIVERSE, List.of(
+				Set.of(1, 2, 3, 4), Set.of(1, 2, 3, 5), Set.of(4, 5, 6),
+				Set.of(4, 5, 6), Set.of(4, 5, 6), Set.of(4, 5, 6)));
+		final GroupImpl<Integer> group = group(cells, Set.copyOf(UNIVERSE.getValues()), GroupStrategy.hiddenSubsets(3));
+		assertThrows(ContradictionException.class, () -> group.updateCellGroupings(cells.get(0)));
+	}
+
+	@Test
+	void checkSpareValues() {
+		GroupStrategyChecks.checkSpareValues(GroupStrategy.hiddenSubsets(2));
+	}
+
+	@Test
+	void checkInvalidMaxSize() {
+		assertThrows(IllegalArgumentException.class, () -> new HiddenSubsetFilter<Integer>(0));
+	}
+
+	/**
+	 * Pruning every hidden subset, however large, prunes every Hall set, so a group that has to use every value
+	 * should be left with exactly the possibilities that some assignment of different values uses.
+	 */
+	@Test
+	void checkAgainstBruteForce() {
+		GroupStrategyChecks.checkAgainstBruteForce(() -> GroupStrategy.hiddenSubsets(UNIVERSE.size()),
+				UNIVERSE.size(), UNIVERSE.size(), true);
+	}
+}
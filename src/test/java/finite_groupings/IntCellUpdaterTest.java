@@ -0,0 +1,79 @@
+package finite_groupings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static finite_groupings.AbstractCellTest.FULL_SET;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntCellUpdaterTest {
+
+	@Test
+	void testEmptyUpdate() {
+		new IntCellUpdater<Boolean>(List.of()).update();
+	}
+
+	@Test
+	void testUpdate() {
+		final TestListener listener = new TestListener();
+		final Cell<Boolean> cell = new AbstractCell<>(Set.of(true, false)) {
+			@Override
+			public void updatePossibilities() {
+				listener.call();
+			}
+		};
+		final IntCellUpdater<Boolean> updater = new IntCellUpdater<>(List.of(cell));
+		assertTrue(updater.add(0));
+		assertFalse(updater.add(0));
+		assertSame(cell, updater.getCell(0));
+
+		updater.getQueue().incrementCount(0);
+		assertFalse(listener.called);
+
+		updater.update();
+		assertTrue(listener.called);
+		assertTrue(updater.getQueue().contains(0));
+		assertEquals(0, updater.getQueue().getCount(0));
+	}
+
+	@Test
+	void testUpdatesHighestPriorityFirst() {
+		final MockAbstractCell<Boolean> first = new MockAbstractCell<>(FULL_SET);
+		final MockAbstractCell<Boolean> second = new MockAbstractCell<>(FULL_SET);
+		final IntCellUpdater<Boolean> updater = new IntCellUpdater<>(List.of(first, second));
+		updater.addAll();
+		updater.getQueue().setCount(1, 3);
+
+		assertEquals(1, updater.getQueue().peek());
+		updater.update();
+		assertEquals(0, updater.getQueue().getCount(1));
+	}
+
+	@Test
+	void testValueUpdate() {
+		final MockAbstractCell<Boolean> cell = new MockAbstractCell<>(FULL_SET);
+		final IntCellUpdater<Boolean> updater = new IntCellUpdater<>(List.of(cell));
+		updater.add(0);
+
+		cell.setValue(true);
+		assertFalse(updater.getQueue().contains(0));
+	}
+
+	@Test
+	void testPossibilityUpdate() {
+		final Cell<Integer> cell = new AbstractCell<>(Set.of(1, 2, 3)) {
+			@Override
+			public void updatePossibilities() {
+			}
+		};
+		final IntCellUpdater<Integer> updater = new IntCellUpdater<>(List.of(cell));
+		updater.add(0);
+		updater.getQueue().incrementCount(0);
+
+		cell.reducePossibilities(Set.of(1, 2));
+
+		assertEquals(0, updater.getQueue().getCount(0));
+	}
+}
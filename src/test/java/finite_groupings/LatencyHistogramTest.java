@@ -0,0 +1,70 @@
+package finite_groupings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+	@Test
+	void testBucketBounds() {
+		for (long value = 0; value < 100000; value++) {
+			final int bucket = LatencyHistogram.bucketOf(value);
+			assertTrue(value <= LatencyHistogram.upperBoundOf(bucket));
+			assertTrue(bucket == 0 || value > LatencyHistogram.upperBoundOf(bucket - 1));
+		}
+		final int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(last));
+	}
+
+	@Test
+	void testPercentiles() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.valueAt(0.5));
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value * 1000);
+		}
+		assertEquals(1000, histogram.count());
+		assertEquals(1000000, histogram.max());
+		// Within one sixteenth of the exact percentile, and never below it.
+		assertEquals(500000, histogram.valueAt(0.5), 500000 / 16.0);
+		assertTrue(histogram.valueAt(0.5) >= 500000);
+		assertEquals(990000, histogram.valueAt(0.99), 990000 / 16.0);
+		assertEquals(1000000, histogram.valueAt(1));
+		assertEquals(1000, histogram.valueAt(0), 1000 / 16.0);
+		assertThrows(IllegalArgumentException.class, () -> histogram.valueAt(1.5));
+
+		histogram.reset();
+		assertEquals(0, histogram.count());
+		assertEquals(0, histogram.max());
+	}
+
+	@Test
+	void testConcurrentRecords() throws Exception {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10000; i++) {
+						histogram.record(i);
+					}
+				}));
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(40000, histogram.count());
+		assertEquals(9999, histogram.max());
+	}
+}
@@ -1,5 +1,7 @@
 package finite_groupings;
 
+import finite_groupings.domain.Universe;
+
 import javax.annotation.Nonnull;
 
 import java.util.Set;
@@ -16,6 +18,10 @@ public class MockAbstractCell<E> extends AbstractCell<E> {
 		super(possibilities);
 	}
 
+	public MockAbstractCell(final @Nonnull Universe<E> universe, final @Nonnull Set<E> possibilities) {
+		super(universe, possibilities);
+	}
+
 	@Override
 	public void updatePossibilities() {
 		informPossibilityListeners();
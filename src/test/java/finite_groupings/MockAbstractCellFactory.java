@@ -1,5 +1,7 @@
 package finite_groupings;
 
+import finite_groupings.domain.Universe;
+
 import javax.annotation.Nonnull;
 import java.util.List;
 import java.util.Set;
@@ -31,6 +33,17 @@ public class MockAbstractCellFactory<E> implements Supplier<MockAbstractCell<E>>
 		return factory.createAll();
 	}
 
+	/**
+	 * @return One cell for each set of possibilities, in order, all sharing the given universe.
+	 */
+	@Nonnull
+	public static <E> List<MockAbstractCell<E>> createAll(final @Nonnull Universe<E> universe,
+														   final @Nonnull List<Set<E>> possibilities) {
+		return possibilities.stream()
+				.map(p -> new MockAbstractCell<>(universe, p))
+				.collect(Collectors.toList());
+	}
+
 	/**
 	 * Gets a result.
 	 *
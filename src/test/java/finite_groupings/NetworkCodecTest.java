@@ -0,0 +1,104 @@
+package finite_groupings;
+
+import finite_groupings.domain.Universe;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkCodecTest {
+
+	private static final int SIZE = 4;
+
+	private final NetworkCodec<Integer> codec = new NetworkCodec<>(NetworkCodec.integers(),
+			u -> new MockAbstractCell<>(u, Set.copyOf(u.getValues())), GroupStrategy.allDifferent());
+
+	/**
+	 * A latin square, with one extra group of the first row's cells drawn from a wider set of values.
+	 */
+	private static Network<Integer> latinSquare() {
+		final Universe<Integer> universe = Universe.of(List.of(1, 2, 3, 4));
+		final List<AbstractCell<Integer>> cells = new ArrayList<>();
+		for (int i = 0; i < SIZE * SIZE; i++) {
+			cells.add(new MockAbstractCell<>(universe, Set.copyOf(universe.getValues())));
+		}
+		final List<GroupImpl<Integer>> groups = new ArrayList<>();
+		for (int k = 0; k < SIZE; k++) {
+			final Set<Cell<Integer>> row = new LinkedHashSet<>();
+			final Set<Cell<Integer>> col = new LinkedHashSet<>();
+			for (int i = 0; i < SIZE; i++) {
+				row.add(cells.get(k * SIZE + i));
+				col.add(cells.get(i * SIZE + k));
+			}
+			groups.add(new GroupImpl<>(row, new HashSet<>(universe.getValues()), GroupStrategy.allDifferent()));
+			groups.add(new GroupImpl<>(col, new HashSet<>(universe.getValues()), GroupStrategy.allDifferent()));
+		}
+		groups.add(new GroupImpl<>(new LinkedHashSet<>(cells.subList(0, SIZE)), Set.of(1, 2, 3, 4, 5),
+				GroupStrategy.allDifferent()));
+		return new Network<>(cells, groups);
+	}
+
+	private Network<Integer> roundTrip(final Network<Integer> network) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(network, out);
+		return codec.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Test
+	void testRoundTrip() throws IOException {
+		final Network<Integer> network = latinSquare();
+		network.getCells().get(0).setValue(1);
+		network.getCells().get(5).setValue(2);
+		network.getCells().get(10).removePossibility(3);
+
+		final Network<Integer> read = roundTrip(network);
+		assertArrayEquals(network.snapshot(), read.snapshot());
+		assertEquals(network.getGroups().size(), read.getGroups().size());
+		for (int g = 0; g < network.getGroups().size(); g++) {
+			final GroupImpl<Integer> from = network.getGroups().get(g);
+			final GroupImpl<Integer> to = read.getGroups().get(g);
+			assertEquals(from.getValues(), to.getValues());
+			assertEquals(from.getUniverse(), to.getUniverse());
+			for (int i = 0; i < from.cellCount(); i++) {
+				assertEquals(network.getCells().indexOf(from.cellAt(i)), read.getCells().indexOf(to.cellAt(i)));
+			}
+		}
+		for (int i = 0; i < network.getCells().size(); i++) {
+			assertEquals(network.getCells().get(i).getPossibilities(), read.getCells().get(i).getPossibilities());
+		}
+	}
+
+	@Test
+	void testReadNetworkIsLive() throws IOException {
+		final Network<Integer> network = latinSquare();
+		network.getCells().get(0).setValue(1);
+		final Network<Integer> read = roundTrip(network);
+
+		// The groups read are listening to their cells.
+		read.getTrail().push();
+		read.getCells().get(1).setValue(2);
+		assertFalse(read.getCells().get(2).getPossibilities().contains(2));
+		assertFalse(read.getCells().get(5).getPossibilities().contains(2));
+		read.getTrail().pop();
+		assertEquals(Set.of(2, 3, 4), read.getCells().get(2).getPossibilities());
+
+		network.getCells().get(1).setValue(2);
+		assertEquals(network.getCells().get(2).getPossibilities(), roundTrip(network).getCells().get(2).getPossibilities());
+	}
+
+	@Test
+	void testCorruptData() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.write(latinSquare(), out);
+		final byte[] bytes = out.toByteArray();
+
+		final byte[] wrongVersion = bytes.clone();
+		wrongVersion[7]++;
+		assertThrows(IOException.class, () -> codec.read(new ByteArrayInputStream(wrongVersion)));
+		assertThrows(IOException.class, () -> codec.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))));
+	}
+}
@@ -0,0 +1,61 @@
+package finite_groupings;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkTest {
+
+	private static Network<Integer> network() {
+		final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(Set.of(1, 2, 3));
+		final GroupImpl<Integer> group = new GroupImpl<>(Sets.newHashSet(cells), Set.of(1, 2, 3),
+				GroupStrategy.allDifferent());
+		return new Network<>(cells, List.of(group));
+	}
+
+	@Test
+	void testSnapshotCarriesOver() {
+		final Network<Integer> from = network();
+		from.getCells().get(0).setValue(2);
+		from.getCells().get(1).removePossibility(1);
+
+		final Network<Integer> to = network();
+		to.restore(from.snapshot());
+		assertEquals(2, to.getCells().get(0).getValue().orElseThrow());
+		assertEquals(3, to.getCells().get(1).getValue().orElseThrow());
+		assertEquals(1, to.getCells().get(2).getValue().orElseThrow());
+		assertEquals(Set.of(), to.getGroups().get(0).getValues());
+		assertEquals(Set.of(), to.getGroups().get(0).getUnpairedCells());
+	}
+
+	@Test
+	void testRestoreIsTrailed() {
+		final Network<Integer> from = network();
+		from.getCells().get(0).setValue(2);
+
+		final Network<Integer> to = network();
+		to.getTrail().push();
+		to.restore(from.snapshot());
+		assertEquals(Set.of(1, 3), to.getGroups().get(0).getValues());
+		to.getCells().get(1).setValue(1);
+		to.getTrail().pop();
+		for (final AbstractCell<Integer> cell : to.getCells()) {
+			assertEquals(Set.of(1, 2, 3), cell.getPossibilities());
+		}
+		assertEquals(Set.of(1, 2, 3), to.getGroups().get(0).getValues());
+		assertEquals(3, to.getGroups().get(0).getUnpairedCells().size());
+	}
+
+	@Test
+	void testMismatchedNetworks() {
+		final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(Set.of(1, 2));
+		final GroupImpl<Integer> group = new GroupImpl<>(Sets.newHashSet(cells), Set.of(1, 2));
+		final Network<Integer> small = new Network<>(cells, List.of(group));
+		assertThrows(IllegalArgumentException.class, () -> small.restore(network().snapshot()));
+		assertThrows(IllegalArgumentException.class, () -> new Network<>(cells.subList(0, 1), List.of(group)));
+	}
+}
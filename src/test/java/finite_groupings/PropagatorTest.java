@@ -0,0 +1,94 @@
+package finite_groupings;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropagatorTest {
+
+	private Propagator propagator;
+	private MockAbstractCell<Integer> cell;
+	private List<Set<Integer>> notifications;
+
+	@BeforeEach
+	void setUp() {
+		propagator = new Propagator();
+		cell = new MockAbstractCell<>(Set.of(1, 2, 3, 4, 5));
+		notifications = new ArrayList<>();
+		cell.addCellListener((c, v) -> notifications.add(Set.of(v)), (c, p) -> notifications.add(Set.copyOf(p)));
+		propagator.attach(cell);
+	}
+
+	@Test
+	void testChangeOutsideBatchDrains() {
+		cell.removePossibility(1);
+		assertEquals(List.of(Set.of(2, 3, 4, 5)), notifications);
+		assertTrue(propagator.isSettled());
+	}
+
+	@Test
+	void testBatchCoalesces() {
+		propagator.batch(() -> {
+			cell.removePossibility(1);
+			cell.removePossibility(2);
+			cell.removePossibilities(Set.of(3, 4));
+			assertTrue(notifications.isEmpty());
+		});
+		assertEquals(List.of(Set.of(5)), notifications);
+		assertEquals(5, (int) cell.getValue().orElseThrow());
+	}
+
+	@Test
+	void testNestedBatch() {
+		propagator.batch(() -> {
+			propagator.batch(() -> cell.removePossibility(1));
+			cell.removePossibility(2);
+			assertTrue(notifications.isEmpty());
+		});
+		assertEquals(List.of(Set.of(3, 4, 5)), notifications);
+	}
+
+	/**
+	 * A chain of cells, each sharing a group with the next, where setting the first cell forces every other.
+	 * Synchronous listeners would recurse once per cell.
+	 */
+	@Test
+	void testLongChain() {
+		final int length = 5000;
+		final List<MockAbstractCell<Integer>> chain = new ArrayList<>();
+		for (int i = 0; i < length; i++) {
+			chain.add(new MockAbstractCell<>(Set.of(i, i + 1)));
+		}
+		for (int i = 0; i + 1 < length; i++) {
+			new GroupImpl<>(Sets.newHashSet(chain.subList(i, i + 2)), Set.of(i, i + 1, i + 2));
+		}
+		propagator.attach(chain);
+		chain.get(0).setValue(1);
+		for (int i = 0; i < length; i++) {
+			assertEquals(i + 1, (int) chain.get(i).getValue().orElseThrow());
+		}
+		assertTrue(propagator.isSettled());
+	}
+
+	@Test
+	void testFailedDrainIsAbandoned() {
+		final MockAbstractCell<Integer> other = new MockAbstractCell<>(Set.of(1, 2, 3));
+		other.addCellListener((c, v) -> {}, (c, p) -> {
+			throw new IllegalStateException();
+		});
+		propagator.attach(other);
+		assertThrows(IllegalStateException.class, () -> propagator.batch(() -> {
+			other.removePossibility(1);
+			cell.removePossibility(1);
+		}));
+		assertTrue(propagator.isSettled());
+		cell.removePossibility(2);
+		assertEquals(List.of(Set.of(3, 4, 5)), notifications);
+	}
+}
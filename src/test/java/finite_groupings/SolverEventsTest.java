@@ -0,0 +1,110 @@
+package finite_groupings;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the flight recorder events are emitted on the existing scenarios, but only when they're enabled.
+ */
+class SolverEventsTest {
+
+	private static final String CELL_UPDATE = "finite_groupings.CellUpdate";
+	private static final String SUB_GROUP_SEARCH = "finite_groupings.SubGroupSearch";
+	private static final String VALUE_ASSIGNMENT = "finite_groupings.ValueAssignment";
+	private static final String PROPAGATOR_POLL = "finite_groupings.PropagatorPoll";
+	private static final Set<String> EVENTS = Set.of(CELL_UPDATE, SUB_GROUP_SEARCH, VALUE_ASSIGNMENT, PROPAGATOR_POLL);
+
+	private static void runScenarios() {
+		final GroupImplTest groupTest = new GroupImplTest();
+		groupTest.setUp();
+		groupTest.checkLastManStanding();
+		groupTest.setUp();
+		groupTest.checkSmallerSubset();
+		groupTest.setUp();
+		groupTest.checkLargeUniverse();
+
+		final CellUpdaterTest updaterTest = new CellUpdaterTest();
+		updaterTest.setUp();
+		updaterTest.testUpdate();
+
+		final PropagatorTest propagatorTest = new PropagatorTest();
+		propagatorTest.setUp();
+		propagatorTest.testBatchCoalesces();
+	}
+
+	private static List<RecordedEvent> record(final Recording recording) throws IOException {
+		final Path file = Files.createTempFile("events", ".jfr");
+		try {
+			recording.start();
+			runScenarios();
+			recording.stop();
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file).stream()
+					.filter(e -> EVENTS.contains(e.getEventType().getName()))
+					.collect(Collectors.toList());
+		} finally {
+			recording.close();
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void testEventsEmitted() throws IOException, ParseException {
+		final Configuration configuration;
+		try (final Reader reader = new InputStreamReader(Objects.requireNonNull(
+				getClass().getResourceAsStream("propagation.jfc")), StandardCharsets.UTF_8)) {
+			configuration = Configuration.create(reader);
+		}
+		final List<RecordedEvent> events = record(new Recording(configuration));
+		final Map<String, List<RecordedEvent>> byName = events.stream()
+				.collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+		assertEquals(EVENTS, byName.keySet());
+
+		// checkSmallerSubset finds the three cells that can only be 1, 2 or 3, having grown the search by two.
+		assertTrue(byName.get(SUB_GROUP_SEARCH).stream()
+				.anyMatch(e -> e.getInt("subGroupSize") == 3 && e.getInt("depth") == 2 && e.getInt("groupSize") == 4));
+		assertTrue(byName.get(VALUE_ASSIGNMENT).stream()
+				.anyMatch(e -> e.getString("value").equals("4") && !e.getBoolean("deferred")));
+		// testBatchCoalesces assigns its value while draining the propagator.
+		assertTrue(byName.get(VALUE_ASSIGNMENT).stream()
+				.anyMatch(e -> e.getString("value").equals("5") && e.getBoolean("deferred")));
+		assertTrue(byName.get(PROPAGATOR_POLL).stream().allMatch(e -> e.getInt("queueSize") == 0));
+		assertTrue(byName.get(CELL_UPDATE).stream()
+				.allMatch(e -> e.getInt("possibilitiesBefore") == 2 && !e.getBoolean("valueFound")));
+	}
+
+	@Test
+	void testEventsDisabledByDefault() throws IOException {
+		final Recording recording = new Recording();
+		recording.enable("jdk.CPULoad");
+		assertEquals(List.of(), record(recording).stream()
+				.map(e -> e.getEventType().getName()).collect(Collectors.toList()));
+	}
+
+	@Test
+	void testEventsEnabledIndividually() throws IOException {
+		final Recording recording = new Recording();
+		recording.enable(SUB_GROUP_SEARCH).withoutThreshold();
+		final Map<String, Long> counts = record(recording).stream()
+				.collect(Collectors.groupingBy(e -> e.getEventType().getName(), Collectors.counting()));
+		assertEquals(Set.of(SUB_GROUP_SEARCH), counts.keySet());
+	}
+}
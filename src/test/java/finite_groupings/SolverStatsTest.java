@@ -0,0 +1,101 @@
+package finite_groupings;
+
+import com.google.common.collect.Sets;
+import finite_groupings.search.Solver;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverStatsTest {
+
+	private final SolverStats stats = SolverStats.global();
+
+	@Test
+	void testSubGroupFound() {
+		final long subGroups = stats.getSubGroupCount();
+		final long assignments = stats.getValueAssignmentCount();
+		final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(Set.of(1, 2, 3));
+		final MockAbstractCell<Integer> zebraCell = new MockAbstractCell<>(Set.of(1, 2, 3, 4));
+		cells.add(zebraCell);
+		final GroupImpl<Integer> grouping = new GroupImpl<>(Sets.newHashSet(cells), Set.of(1, 2, 3, 4));
+		grouping.updateCellGroupings(cells.get(0));
+
+		assertEquals(subGroups + 1, stats.getSubGroupCount());
+		assertTrue(stats.getValueAssignmentCount() > assignments);
+	}
+
+	@Test
+	void testPropagationsAndQueueSize() {
+		final long propagations = stats.getPropagationCount();
+		final Propagator propagator = new Propagator();
+		final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(Set.of(1, 2, 3, 4, 5));
+		cells.forEach(propagator::attach);
+		propagator.batch(() -> cells.forEach(c -> c.removePossibility(1)));
+
+		assertEquals(propagations + cells.size(), stats.getPropagationCount());
+		assertTrue(stats.getQueueSizeHighWaterMark() >= cells.size());
+	}
+
+	@Test
+	void testSolveLatency() {
+		final long solves = stats.getSolveCount();
+		final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(Set.of(1, 2, 3));
+		final Solver<Integer> solver = new Solver<>(Set.of(new GroupImpl<>(Sets.newHashSet(cells), Set.of(1, 2, 3),
+				GroupStrategy.allDifferent())));
+		assertEquals(6, solver.solveAll().size());
+
+		assertEquals(solves + 1, stats.getSolveCount());
+		assertTrue(stats.getSolveLatencyMax() > 0);
+		assertTrue(stats.getSolveLatencyMedian() <= stats.getSolveLatency99thPercentile());
+	}
+
+	@Test
+	void testRate() {
+		final AtomicLong clock = new AtomicLong();
+		final SolverStats stats = new SolverStats(clock::get);
+		for (int i = 0; i < 300; i++) {
+			stats.onPropagation();
+		}
+		// The rate isn't worked out until a whole window has passed.
+		clock.set(TimeUnit.MILLISECONDS.toNanos(500));
+		assertEquals(0, stats.getPropagationRate());
+		clock.set(TimeUnit.SECONDS.toNanos(2));
+		assertEquals(150, stats.getPropagationRate(), 1e-9);
+		// Reads within the next window see the same rate.
+		stats.onPropagation();
+		assertEquals(150, stats.getPropagationRate(), 1e-9);
+		clock.set(TimeUnit.SECONDS.toNanos(3));
+		assertEquals(1, stats.getPropagationRate(), 1e-9);
+
+		stats.onQueueSize(7);
+		stats.onQueueSize(3);
+		assertEquals(7, stats.getQueueSizeHighWaterMark());
+		stats.reset();
+		assertEquals(0, stats.getPropagationCount());
+		assertEquals(0, stats.getQueueSizeHighWaterMark());
+	}
+
+	@Test
+	void testRegister() throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = SolverStats.register();
+		try {
+			assertEquals(SolverStats.register(), name);
+			assertEquals(stats.getSolveCount(), server.getAttribute(name, "SolveCount"));
+			assertNotNull(server.getAttribute(name, "SolveLatency99thPercentile"));
+			assertNotNull(server.getAttribute(name, "PropagationRate"));
+		} finally {
+			SolverStats.unregister();
+		}
+		assertFalse(server.isRegistered(name));
+	}
+}
@@ -0,0 +1,94 @@
+package finite_groupings;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrailTest {
+
+	private Trail trail;
+	private List<MockAbstractCell<Integer>> cells;
+	private GroupImpl<Integer> group;
+
+	@BeforeEach
+	void setUp() {
+		trail = new Trail();
+		cells = MockAbstractCellFactory.createAll(Set.of(1, 2, 3));
+		group = new GroupImpl<>(Sets.newHashSet(cells), Set.of(1, 2, 3), GroupStrategy.allDifferent());
+		cells.forEach(trail::attach);
+		trail.attach(group);
+	}
+
+	@Test
+	void testNothingSavedWithoutLevel() {
+		cells.get(0).removePossibility(1);
+		assertEquals(0, trail.size());
+		assertThrows(IllegalStateException.class, trail::pop);
+	}
+
+	@Test
+	void testPopRestoresCellsAndGroup() {
+		trail.push();
+		cells.get(0).setValue(1);
+		assertEquals(Set.of(2, 3), cells.get(1).getPossibilities());
+		assertEquals(Set.of(2, 3), group.getValues());
+		trail.pop();
+
+		assertFalse(cells.get(0).hasValue());
+		for (final MockAbstractCell<Integer> cell : cells) {
+			assertEquals(Set.of(1, 2, 3), cell.getPossibilities());
+		}
+		assertEquals(Set.of(1, 2, 3), group.getValues());
+		assertEquals(Sets.newHashSet(cells), group.getUnpairedCells());
+		assertEquals(0, trail.size());
+	}
+
+	@Test
+	void testStateSavedOncePerLevel() {
+		trail.push();
+		// The cell, and its group's support counts.
+		cells.get(0).removePossibility(1);
+		assertEquals(2, trail.size());
+		cells.get(0).removePossibilities(Set.of(1));
+		cells.get(0).reducePossibilities(Set.of(1, 2, 3));
+		assertEquals(2, trail.size());
+		trail.push();
+		cells.get(0).reducePossibilities(Set.of(1, 2, 3));
+		assertEquals(3, trail.size());
+	}
+
+	@Test
+	void testNestedLevels() {
+		trail.push();
+		cells.get(0).removePossibility(1);
+		trail.push();
+		cells.get(0).setValue(2);
+		assertEquals(Set.of(1, 3), cells.get(2).getPossibilities());
+		trail.pop();
+		assertEquals(Set.of(2, 3), cells.get(0).getPossibilities());
+		assertEquals(Set.of(1, 2, 3), cells.get(2).getPossibilities());
+		// The same cell changed again on the outer level is restored too.
+		cells.get(0).removePossibility(3);
+		trail.pop();
+		assertEquals(Set.of(1, 2, 3), cells.get(0).getPossibilities());
+		assertFalse(cells.get(0).hasValue());
+		assertEquals(0, trail.getLevel());
+	}
+
+	@Test
+	void testContradictionRestored() {
+		trail.push();
+		cells.get(0).removePossibilities(Set.of(1, 2));
+		assertThrows(ContradictionException.class, () -> cells.get(1).setValue(3));
+		trail.pop();
+		for (final MockAbstractCell<Integer> cell : cells) {
+			assertEquals(Set.of(1, 2, 3), cell.getPossibilities());
+		}
+		assertEquals(Set.of(1, 2, 3), group.getValues());
+	}
+}
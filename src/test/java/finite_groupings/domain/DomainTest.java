@@ -0,0 +1,134 @@
+package finite_groupings.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DomainTest {
+
+	private static final Universe<Integer> SMALL = universe(9);
+	private static final Universe<Integer> LARGE = universe(130);
+
+	private static Universe<Integer> universe(final int size) {
+		return Universe.of(IntStream.range(0, size).boxed().collect(Collectors.toList()));
+	}
+
+	@Test
+	void testInterned() {
+		assertSame(SMALL, universe(9));
+		assertNotSame(SMALL, universe(10));
+	}
+
+	@Test
+	void testImplementation() {
+		assertTrue(Domain.empty(SMALL) instanceof LongDomain);
+		assertTrue(Domain.empty(LARGE) instanceof LongArrayDomain);
+	}
+
+	@Test
+	void testFull() {
+		assertFull(SMALL);
+		assertFull(LARGE);
+	}
+
+	private static void assertFull(final Universe<Integer> universe) {
+		final Domain<Integer> domain = Domain.full(universe);
+		assertEquals(universe.size(), domain.size());
+		assertEquals(Set.copyOf(universe.getValues()), domain);
+		assertEquals(universe.getValues(), List.copyOf(domain));
+	}
+
+	@Test
+	void testAddRemove() {
+		assertAddRemove(SMALL, 8);
+		assertAddRemove(LARGE, 129);
+	}
+
+	private static void assertAddRemove(final Universe<Integer> universe, final int last) {
+		final Domain<Integer> domain = Domain.empty(universe);
+		assertTrue(domain.isEmpty());
+		assertEquals(-1, domain.firstIndex());
+
+		assertTrue(domain.add(last));
+		assertFalse(domain.add(last));
+		assertTrue(domain.add(1));
+		assertEquals(2, domain.size());
+		assertEquals(1, domain.firstIndex());
+		assertEquals(last, domain.nextIndex(2));
+		assertEquals(-1, domain.nextIndex(last + 1));
+
+		assertTrue(domain.remove(1));
+		assertFalse(domain.remove(1));
+		assertFalse(domain.remove(-1));
+		assertEquals(Set.of(last), domain);
+		assertThrows(IllegalArgumentException.class, () -> domain.add(-1));
+	}
+
+	@Test
+	void testWordWiseOperations() {
+		assertWordWiseOperations(SMALL);
+		assertWordWiseOperations(LARGE);
+	}
+
+	private static void assertWordWiseOperations(final Universe<Integer> universe) {
+		final Domain<Integer> domain = Domain.full(universe);
+		final Domain<Integer> evens = Domain.of(universe,
+				universe.getValues().stream().filter(v -> v % 2 == 0).collect(Collectors.toList()));
+
+		assertTrue(domain.containsAll(evens));
+		assertFalse(evens.containsAll(domain));
+
+		final Domain<Integer> odds = domain.copy();
+		assertTrue(odds.removeAll(evens));
+		assertFalse(odds.removeAll(evens));
+		assertEquals(universe.size() / 2, odds.size());
+
+		assertTrue(domain.retainAll(evens));
+		assertEquals(evens, domain);
+
+		assertTrue(domain.addAll(odds));
+		assertEquals(Domain.full(universe), domain);
+	}
+
+	@Test
+	void testMixedOperations() {
+		final Domain<Integer> domain = Domain.full(SMALL);
+		assertTrue(domain.retainAll(Set.of(1, 2, 3, 100)));
+		assertEquals(Set.of(1, 2, 3), domain);
+		assertTrue(domain.removeAll(Set.of(2, 100)));
+		assertEquals(Set.of(1, 3), domain);
+	}
+
+	@Test
+	void testCopyIsIndependent() {
+		final Domain<Integer> domain = Domain.full(LARGE);
+		final Domain<Integer> copy = domain.copy();
+		copy.removeIndex(70);
+		assertTrue(domain.containsIndex(70));
+		assertFalse(copy.containsIndex(70));
+	}
+
+	@Test
+	void testSetWordIgnoresUnknownBits() {
+		final Domain<Integer> domain = Domain.empty(SMALL);
+		domain.setWord(0, -1L);
+		assertEquals(SMALL.size(), domain.size());
+	}
+
+	@Test
+	void testMapping() {
+		final Universe<Integer> other = Universe.of(List.of(8, 7, 42));
+		final UniverseMapping mapping = UniverseMapping.between(other, SMALL);
+		assertFalse(mapping.isIdentity());
+		assertEquals(8, mapping.forward(0));
+		assertEquals(-1, mapping.forward(2));
+		assertEquals(1, mapping.backward(7));
+		assertEquals(-1, mapping.backward(0));
+		assertTrue(UniverseMapping.between(SMALL, SMALL).isIdentity());
+	}
+}
@@ -0,0 +1,117 @@
+package finite_groupings.search;
+
+import finite_groupings.*;
+import finite_groupings.domain.Universe;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSolverTest {
+
+	/**
+	 * @return An empty latin square, with its cells listed row by row.
+	 */
+	private static Network<Integer> latinSquare(final int size) {
+		return latinSquare(size, GroupStrategy::allDifferent);
+	}
+
+	private static Network<Integer> latinSquare(final int size, final Supplier<GroupStrategy<Integer>> strategies) {
+		final Universe<Integer> universe = Universe.of(IntStream.range(0, size).boxed().collect(Collectors.toList()));
+		final Set<Integer> values = Set.copyOf(universe.getValues());
+		final List<MockAbstractCell<Integer>> cells = new ArrayList<>();
+		for (int i = 0; i < size * size; i++) {
+			cells.add(new MockAbstractCell<>(universe, values));
+		}
+		final List<GroupImpl<Integer>> groups = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			final Set<Cell<Integer>> row = new HashSet<>();
+			final Set<Cell<Integer>> col = new HashSet<>();
+			for (int j = 0; j < size; j++) {
+				row.add(cells.get(i * size + j));
+				col.add(cells.get(j * size + i));
+			}
+			groups.add(new GroupImpl<>(row, values, strategies.get()));
+			groups.add(new GroupImpl<>(col, values, strategies.get()));
+		}
+		return new Network<>(cells, groups);
+	}
+
+	private static List<Integer> toValues(final Network<Integer> network, final Map<Cell<Integer>, Integer> solution) {
+		return network.getCells().stream().map(solution::get).collect(Collectors.toList());
+	}
+
+	@Test
+	void testFindsEverySolution() {
+		try (final ParallelSolver<Integer> solver = new ParallelSolver<>(() -> latinSquare(4), 2)) {
+			final List<Map<Cell<Integer>, Integer>> solutions = solver.solveAll();
+			assertEquals(576, solutions.size());
+
+			final Network<Integer> network = latinSquare(4);
+			final Set<List<Integer>> expected = new Solver<>(network, VariableOrdering.smallestDomain(),
+					ValueOrdering.inOrder()).solveAll().stream()
+					.map(s -> toValues(network, s))
+					.collect(Collectors.toSet());
+			final Set<List<Integer>> actual = solutions.stream()
+					.map(s -> toValues(solver.getNetwork(), s))
+					.collect(Collectors.toSet());
+			assertEquals(expected, actual);
+			assertTrue(solver.getSplitCount() > 0);
+		}
+	}
+
+	/**
+	 * Workers search many subtrees with the same network, so sub groups found in one mustn't outlive it.
+	 */
+	@Test
+	void testFindsEverySolutionWithSubGroupSearch() {
+		try (final ParallelSolver<Integer> solver = new ParallelSolver<>(
+				() -> latinSquare(4, GroupStrategy::subGroupSearch), 2)) {
+			assertEquals(576, solver.solveAll().size());
+			assertEquals(576, solver.solveAll().size());
+		}
+	}
+
+	@Test
+	void testStopsAtLimit() {
+		try (final ParallelSolver<Integer> solver = new ParallelSolver<>(() -> latinSquare(6), 3)) {
+			assertEquals(5, solver.solveAll(5).size());
+			assertTrue(solver.solve().isPresent());
+		}
+	}
+
+	@Test
+	void testStartsFromReferenceNetwork() {
+		try (final ParallelSolver<Integer> solver = new ParallelSolver<>(() -> latinSquare(5), 2)) {
+			final AbstractCell<Integer> corner = solver.getNetwork().getCells().get(0);
+			corner.setValue(4);
+			final Map<Cell<Integer>, Integer> solution = solver.solve().orElseThrow();
+			assertEquals(4, solution.get(corner));
+			for (final GroupImpl<Integer> group : solver.getNetwork().getGroups()) {
+				assertEquals(5, group.getAllCells().stream().map(solution::get).distinct().count());
+			}
+			// The reference network is left as it was.
+			assertFalse(solver.getNetwork().getCells().get(1).hasValue());
+		}
+	}
+
+	@Test
+	void testNoSolution() {
+		try (final ParallelSolver<Integer> solver = new ParallelSolver<>(() -> {
+			final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(Set.of(0, 1));
+			cells.add(new MockAbstractCell<>(Set.of(0, 1)));
+			final List<GroupImpl<Integer>> groups = new ArrayList<>();
+			for (int i = 0; i < cells.size(); i++) {
+				final Set<Cell<Integer>> pair = Set.of(cells.get(i), cells.get((i + 1) % cells.size()));
+				groups.add(new GroupImpl<>(pair, Set.of(0, 1), GroupStrategy.allDifferent()));
+			}
+			return new Network<>(cells, groups);
+		}, 2)) {
+			assertTrue(solver.solveAll().isEmpty());
+		}
+	}
+}
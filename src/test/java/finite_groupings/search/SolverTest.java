@@ -0,0 +1,143 @@
+package finite_groupings.search;
+
+import finite_groupings.*;
+import finite_groupings.domain.Universe;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+
+	/**
+	 * An empty latin square, with a group for every row and every column.
+	 */
+	private static final class LatinSquare {
+		private final List<List<MockAbstractCell<Integer>>> rows = new ArrayList<>();
+		private final Set<GroupImpl<Integer>> groups = new HashSet<>();
+
+		private LatinSquare(final int size) {
+			this(size, GroupStrategy::allDifferent);
+		}
+
+		private LatinSquare(final int size, final Supplier<GroupStrategy<Integer>> strategies) {
+			final Universe<Integer> universe = Universe.of(IntStream.range(0, size).boxed().collect(Collectors.toList()));
+			final Set<Integer> values = Set.copyOf(universe.getValues());
+			for (int row = 0; row < size; row++) {
+				final List<MockAbstractCell<Integer>> cells = new ArrayList<>();
+				for (int col = 0; col < size; col++) {
+					cells.add(new MockAbstractCell<>(universe, values));
+				}
+				rows.add(cells);
+			}
+			for (int i = 0; i < size; i++) {
+				final Set<Cell<Integer>> row = new HashSet<>();
+				final Set<Cell<Integer>> col = new HashSet<>();
+				for (int j = 0; j < size; j++) {
+					row.add(rows.get(i).get(j));
+					col.add(rows.get(j).get(i));
+				}
+				groups.add(new GroupImpl<>(row, values, strategies.get()));
+				groups.add(new GroupImpl<>(col, values, strategies.get()));
+			}
+		}
+
+		private MockAbstractCell<Integer> get(final int row, final int col) {
+			return rows.get(row).get(col);
+		}
+	}
+
+	@Test
+	void testCountsLatinSquares() {
+		assertEquals(12, new Solver<>(new LatinSquare(3).groups).solveAll().size());
+		assertEquals(576, new Solver<>(new LatinSquare(4).groups).solveAll().size());
+	}
+
+	/**
+	 * The sub group search registers the sub groups it finds on their cells,
+	 * which must be undone along with the branch that they were found in.
+	 */
+	@Test
+	void testCountsLatinSquaresWithSubGroupSearch() {
+		final LatinSquare square = new LatinSquare(4, GroupStrategy::subGroupSearch);
+		final Solver<Integer> solver = new Solver<>(square.groups);
+		assertEquals(576, solver.solveAll().size());
+		assertEquals(576, solver.solveAll().size());
+		assertEquals(Set.of(0, 1, 2, 3), square.get(0, 0).getPossibilities());
+	}
+
+	@Test
+	void testOrderingsFindTheSameSolutions() {
+		final LatinSquare square = new LatinSquare(4);
+		final Set<Map<Cell<Integer>, Integer>> smallestDomain = Set.copyOf(new Solver<>(square.groups).solveAll());
+		final Set<Map<Cell<Integer>, Integer>> inOrder = Set.copyOf(new Solver<>(square.groups,
+				VariableOrdering.inOrder(), ValueOrdering.shuffled(new Random(0))).solveAll());
+		assertEquals(smallestDomain, inOrder);
+	}
+
+	@Test
+	void testSolutionsAreValid() {
+		final LatinSquare square = new LatinSquare(5);
+		square.get(0, 0).setValue(3);
+		final Map<Cell<Integer>, Integer> solution = new Solver<>(square.groups).solve().orElseThrow();
+		assertEquals(3, solution.get(square.get(0, 0)));
+		for (final GroupImpl<Integer> group : square.groups) {
+			assertEquals(group.getAllCells().size(),
+					group.getAllCells().stream().map(solution::get).distinct().count());
+		}
+	}
+
+	@Test
+	void testNetworkRestored() {
+		final LatinSquare square = new LatinSquare(4);
+		square.get(1, 1).setValue(0);
+		final Solver<Integer> solver = new Solver<>(square.groups);
+		assertEquals(3, solver.solveAll(3).size());
+		assertTrue(solver.getChoiceCount() > 0);
+		assertEquals(0, (int) square.get(1, 1).getValue().orElseThrow());
+		assertFalse(square.get(0, 0).hasValue());
+		assertEquals(Set.of(1, 2, 3), square.get(0, 1).getPossibilities());
+		assertEquals(Set.of(0, 1, 2, 3), square.get(0, 0).getPossibilities());
+	}
+
+	/**
+	 * Three cells that must all differ from each other, with only two values between them.
+	 * Each pair of cells is a group of its own, so no single group can see the problem.
+	 */
+	@Test
+	void testNoSolution() {
+		final List<MockAbstractCell<Integer>> cells = MockAbstractCellFactory.createAll(Set.of(0, 1));
+		cells.add(new MockAbstractCell<>(Set.of(0, 1)));
+		final Set<GroupImpl<Integer>> groups = new HashSet<>();
+		for (int i = 0; i < cells.size(); i++) {
+			final Set<Cell<Integer>> pair = Set.of(cells.get(i), cells.get((i + 1) % cells.size()));
+			groups.add(new GroupImpl<>(pair, Set.of(0, 1), GroupStrategy.allDifferent()));
+		}
+		final Solver<Integer> solver = new Solver<>(groups);
+		assertTrue(solver.solve().isEmpty());
+		assertTrue(solver.getFailureCount() > 0);
+		for (final MockAbstractCell<Integer> cell : cells) {
+			assertEquals(Set.of(0, 1), cell.getPossibilities());
+		}
+	}
+
+	@Test
+	void testUnsupportedGroup() {
+		final Group<Integer> group = new Group<>() {
+			@Override
+			public Set<Cell<Integer>> getAllCells() {
+				return Set.of();
+			}
+
+			@Override
+			public Set<Integer> getValues() {
+				return Set.of();
+			}
+		};
+		assertThrows(IllegalArgumentException.class, () -> new Solver<>(Set.of(group)));
+	}
+}
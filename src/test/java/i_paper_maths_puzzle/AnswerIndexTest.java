@@ -0,0 +1,81 @@
+package i_paper_maths_puzzle;
+
+import com.google.common.collect.ImmutableList;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import i_paper_maths_puzzle.pojos.Number;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerIndexTest {
+
+	private static final int PUZZLES = 4;
+
+	private final MathsPuzzleSolver solver = new MathsPuzzleSolver();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void testLookupMatchesSolver() throws IOException {
+		final List<MathsPuzzle> puzzles = new MathsPuzzleGenerator().generate(5, PUZZLES)
+				.collect(Collectors.toCollection(ArrayList::new));
+		puzzles.add(new MathsPuzzle(MathsPuzzleTest.EXAMPLE_2));
+		final Path file = dir.resolve("answers.idx");
+		AnswerIndex.build(puzzles.stream().map(AnswerIndex::layoutOf).collect(Collectors.toList()), file);
+
+		try (final AnswerIndex index = AnswerIndex.open(file)) {
+			for (final MathsPuzzle puzzle : puzzles) {
+				assertTrue(index.contains(AnswerIndex.layoutOf(puzzle)));
+				final List<ImmutableList<Number>> solutions = index.lookup(puzzle).orElseThrow();
+				assertEquals(Set.copyOf(solver.solveAll(puzzle, Integer.MAX_VALUE)), new HashSet<>(solutions));
+				assertEquals(1, solutions.size());
+			}
+
+			final String[] wrongAnswer = MathsPuzzleTest.EXAMPLE_2.clone();
+			wrongAnswer[6] = "56,9,41";
+			assertEquals(Optional.of(List.of()), index.lookup(new MathsPuzzle(wrongAnswer)));
+		}
+	}
+
+	@Test
+	void testMissingLayout() throws IOException {
+		final Path file = dir.resolve("answers.idx");
+		AnswerIndex.build(List.of(), file);
+		try (final AnswerIndex index = AnswerIndex.open(file)) {
+			assertEquals(0, index.size());
+			assertEquals(Optional.empty(), index.lookup(new MathsPuzzle(MathsPuzzleTest.EXAMPLE_2)));
+		}
+	}
+
+	@Test
+	void testUnrank() {
+		final int[] digits = new int[Number.values().length];
+		AnswerIndex.unrank(0, digits);
+		assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9}, digits);
+		AnswerIndex.unrank(1, digits);
+		assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 9, 8}, digits);
+		AnswerIndex.unrank(362879, digits);
+		assertArrayEquals(new int[] {9, 8, 7, 6, 5, 4, 3, 2, 1}, digits);
+	}
+
+	@Test
+	void testCorruptFile() throws IOException {
+		final Path file = dir.resolve("answers.idx");
+		Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+		assertThrows(IOException.class, () -> AnswerIndex.open(file));
+		Files.write(file, new byte[] {1, 2});
+		assertThrows(IOException.class, () -> AnswerIndex.open(file));
+	}
+}
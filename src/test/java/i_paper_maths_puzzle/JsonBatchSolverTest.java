@@ -0,0 +1,153 @@
+package i_paper_maths_puzzle;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static i_paper_maths_puzzle.pojos.Line.CELL_COUNT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonBatchSolverTest {
+
+	private static final String EXAMPLE_2 = "{\"id\":\"p1\",\"grid\":[\" - +5\",\"* * *\",\"7-3*4\",\"* - *\",\"8+9-2\"],"
+			+ "\"rows\":[0,16,15],\"cols\":[56,9,40]}";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static List<JsonNode> solve(final int threads, final String puzzles) throws IOException {
+		final StringWriter solutions = new StringWriter();
+		try (final JsonBatchSolver solver = new JsonBatchSolver(threads)) {
+			final long count = solver.solve(new StringReader(puzzles), solutions);
+			final List<JsonNode> lines = new ArrayList<>();
+			for (final String line : solutions.toString().split("\n")) {
+				lines.add(MAPPER.readTree(line));
+			}
+			assertEquals(lines.size(), count);
+			return lines;
+		}
+	}
+
+	private static String json(final long id, final MathsPuzzle puzzle) {
+		final StringBuilder json = new StringBuilder("{\"extra\":{\"nested\":[1,2]},\"id\":").append(id)
+				.append(",\"grid\":[");
+		final String[] lines = puzzle.toLines();
+		for (int y = 0; y < 5; y++) {
+			json.append(y > 0 ? "," : "").append('"').append(lines[y], 0, 5).append('"');
+		}
+		json.append("],\"rows\":[");
+		for (int k = 0; k < CELL_COUNT; k++) {
+			json.append(k > 0 ? "," : "").append(puzzle.getRowAnswer(k));
+		}
+		return json.append("],\"cols\":[").append(lines[6]).append("]}").toString();
+	}
+
+	@Test
+	void testSolutionsInInputOrder() throws IOException {
+		// Enough puzzles for several chunks, ending in a partial chunk.
+		final List<MathsPuzzle> puzzles = new MathsPuzzleGenerator().generate(4, 700).collect(Collectors.toList());
+		final MathsPuzzleSolver solver = new MathsPuzzleSolver();
+		final StringBuilder input = new StringBuilder();
+		for (int i = 0; i < puzzles.size(); i++) {
+			input.append(json(i, puzzles.get(i))).append('\n');
+		}
+		final List<JsonNode> solved = solve(3, input.toString());
+		assertEquals(puzzles.size(), solved.size());
+		for (int i = 0; i < puzzles.size(); i++) {
+			final JsonNode node = solved.get(i);
+			assertEquals(i, node.get("id").asLong());
+			assertTrue(node.get("unique").asBoolean());
+			assertTrue(node.get("nanos").asLong() >= 0);
+			final List<Integer> expected = solver.solve(puzzles.get(i)).orElseThrow().stream()
+					.map(n -> n.value).collect(Collectors.toList());
+			final List<Integer> actual = new ArrayList<>();
+			node.get("solution").forEach(n -> actual.add(n.asInt()));
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void testNoSolution() throws IOException {
+		final String noSolution = EXAMPLE_2.replace("\"p1\"", "\"p2\"").replace("56,9,40", "56,9,41");
+		final List<JsonNode> solved = solve(2, EXAMPLE_2 + "\n\n" + noSolution + "\n");
+		assertEquals(List.of("p1", "p2"), solved.stream().map(n -> n.get("id").asText()).collect(Collectors.toList()));
+		assertEquals("[1,6,5,7,3,4,8,9,2]", solved.get(0).get("solution").toString());
+		assertTrue(solved.get(1).get("solution").isNull());
+		assertFalse(solved.get(1).get("unique").asBoolean());
+	}
+
+	/**
+	 * Each solution is on a line of its own, with nothing between one line and the next.
+	 */
+	@Test
+	void testOutputIsNewlineDelimited() throws IOException {
+		final String noSolution = EXAMPLE_2.replace("\"p1\"", "\"p2\"").replace("56,9,40", "56,9,41");
+		final StringWriter solutions = new StringWriter();
+		try (final JsonBatchSolver solver = new JsonBatchSolver(2)) {
+			solver.solve(new StringReader(EXAMPLE_2 + "\n" + noSolution + "\n"), solutions);
+		}
+		assertEquals("{\"id\":\"p1\",\"solution\":[1,6,5,7,3,4,8,9,2],\"unique\":true,\"nanos\":0}\n"
+						+ "{\"id\":\"p2\",\"solution\":null,\"unique\":false,\"nanos\":0}\n",
+				solutions.toString().replaceAll("\"nanos\":\\d+", "\"nanos\":0"));
+	}
+
+	/**
+	 * The input never ends, so the solver only returns if it stops reading once it can't write.
+	 */
+	@Test
+	void testStopsReadingWhenWritingFails() {
+		final char[] line = (EXAMPLE_2 + "\n").toCharArray();
+		final Reader endless = new Reader() {
+			private long position;
+
+			@Override
+			public int read(final char[] buffer, final int offset, final int length) {
+				for (int i = 0; i < length; i++) {
+					buffer[offset + i] = line[(int) (position++ % line.length)];
+				}
+				return length;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		final Writer failing = new Writer() {
+			@Override
+			public void write(final char[] buffer, final int offset, final int length) throws IOException {
+				throw new IOException("Disk full.");
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+			try (final JsonBatchSolver solver = new JsonBatchSolver(2)) {
+				assertThrows(IOException.class, () -> solver.solve(endless, failing));
+			}
+		});
+	}
+
+	@Test
+	void testInvalidPuzzle() {
+		final String invalid = EXAMPLE_2.replace("\"8+9-2\"", "\"8+9-\"");
+		final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> solve(1, EXAMPLE_2 + "\n" + EXAMPLE_2 + "\n" + invalid + "\n"));
+		assertEquals(String.format(JsonBatchSolver.INVALID_PUZZLE_EXCEPTION_MSG, 3), e.getMessage());
+	}
+}
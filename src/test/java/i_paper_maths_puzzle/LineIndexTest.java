@@ -0,0 +1,105 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.Operator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static i_paper_maths_puzzle.LineIndex.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineIndexTest {
+
+	private static final LineIndex INDEX = LineIndex.build();
+
+	private static void assertSameIndex(final LineIndex expected, final LineIndex actual) {
+		for (int pair = 0; pair < OPERATOR_PAIR_COUNT; pair++) {
+			for (int line = 0; line < LINE_COUNT; line++) {
+				assertEquals(expected.result(pair, line), actual.result(pair, line));
+			}
+		}
+		assertEquals(expected.getFootprint(), actual.getFootprint());
+	}
+
+	@Test
+	void testResult() {
+		assertEquals(0, INDEX.result(operatorPair(Operator.SUBTRACT, Operator.ADD), pack(1, 6, 5)));
+		assertEquals(16, INDEX.result(operatorPair(Operator.SUBTRACT, Operator.MULTIPLY), pack(7, 3, 4)));
+		assertEquals(-2, INDEX.result(operatorPair(Operator.SUBTRACT, Operator.DIVIDE), pack(1, 7, 3)));
+		assertEquals(3, INDEX.result(operatorPair(Operator.DIVIDE, Operator.ADD), pack(8, 4, 1)));
+		// Repeated digits, and inexact division.
+		assertEquals(NO_RESULT, INDEX.result(operatorPair(Operator.ADD, Operator.ADD), pack(1, 1, 2)));
+		assertEquals(NO_RESULT, INDEX.result(operatorPair(Operator.DIVIDE, Operator.ADD), pack(9, 2, 1)));
+		assertEquals(NO_RESULT, INDEX.result(operatorPair(Operator.ADD, Operator.DIVIDE), pack(1, 2, 6)));
+	}
+
+	@Test
+	void testLines() {
+		for (int pair = 0; pair < OPERATOR_PAIR_COUNT; pair++) {
+			int expected = 0;
+			for (int line = 0; line < LINE_COUNT; line++) {
+				if (INDEX.result(pair, line) != NO_RESULT)
+					expected++;
+			}
+			int found = 0;
+			for (int answer = -100; answer <= 1000; answer++) {
+				for (final int line : INDEX.lines(pair, answer)) {
+					assertEquals(answer, INDEX.result(pair, line));
+					found++;
+				}
+			}
+			assertEquals(expected, found);
+		}
+	}
+
+	@Test
+	void testPossibleDigits() {
+		for (int pair = 0; pair < OPERATOR_PAIR_COUNT; pair++) {
+			for (int line = 0; line < LINE_COUNT; line++) {
+				final int answer = INDEX.result(pair, line);
+				if (answer == NO_RESULT)
+					continue;
+				for (int known = 0; known < 8; known++) {
+					final int a = (known & 1) != 0 ? digit(line, 0) : 0;
+					final int b = (known & 2) != 0 ? digit(line, 1) : 0;
+					final int c = (known & 4) != 0 ? digit(line, 2) : 0;
+					int expected = 0;
+					for (final int other : INDEX.lines(pair, answer)) {
+						if ((a == 0 || a == digit(other, 0)) && (b == 0 || b == digit(other, 1)) && (c == 0 || c == digit(other, 2)))
+							expected |= 1 << (digit(other, 0) - 1) | 1 << (9 + digit(other, 1) - 1) | 1 << (18 + digit(other, 2) - 1);
+					}
+					assertEquals(expected, INDEX.possibleDigits(pair, answer, a, b, c));
+				}
+			}
+		}
+		final int subtractAdd = operatorPair(Operator.SUBTRACT, Operator.ADD);
+		// 1 - 6 + c = 0 only with c = 5.
+		assertEquals(1 | 1 << (9 + 5) | 1 << (18 + 4), INDEX.possibleDigits(subtractAdd, 0, 1, 6, 0));
+		assertEquals(0, INDEX.possibleDigits(subtractAdd, 0, 1, 2, 0));
+		assertEquals(0, INDEX.possibleDigits(subtractAdd, 10_000, 0, 0, 0));
+	}
+
+	@Test
+	void testWriteRead() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		INDEX.write(out);
+		assertSameIndex(INDEX, LineIndex.read(new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	@Test
+	void testShared() {
+		assertSame(LineIndex.shared(), LineIndex.shared());
+		assertSameIndex(INDEX, LineIndex.shared());
+	}
+
+	@Test
+	void testReadCorrupt() throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		INDEX.write(out);
+		final byte[] bytes = out.toByteArray();
+		assertThrows(IOException.class, () -> LineIndex.read(new ByteArrayInputStream(new byte[] {1, 2, 3})));
+		assertThrows(IOException.class, () -> LineIndex.read(new ByteArrayInputStream(bytes, 0, bytes.length / 2)));
+	}
+}
@@ -0,0 +1,68 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathsPuzzleCorpusTest {
+
+	private static final int COUNT = 100;
+
+	private final MathsPuzzleGenerator generator = new MathsPuzzleGenerator();
+
+	@TempDir
+	Path dir;
+
+	private static List<String> text(final Stream<MathsPuzzle> puzzles) {
+		try (puzzles) {
+			return puzzles.map(p -> String.join("\n", p.toLines())).collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	void testReadsGeneratedPuzzles() throws IOException {
+		final Path file = dir.resolve("corpus.txt");
+		try (final Writer out = Files.newBufferedWriter(file)) {
+			generator.write(2, COUNT, out);
+		}
+		final List<String> expected = text(generator.generate(2, COUNT));
+		assertEquals(expected, text(MathsPuzzleCorpus.read(file)));
+		// Splits land in the middle of records, and more than once in the same record.
+		for (final long split : new long[] {1, 7, 50, 1000}) {
+			assertEquals(expected, text(MathsPuzzleCorpus.read(file, split)), "split " + split);
+		}
+	}
+
+	@Test
+	void testLineEndings() throws IOException {
+		final Path file = dir.resolve("corpus.txt");
+		final String record = String.join("\r\n", MathsPuzzleTest.EXAMPLE_2);
+		Files.writeString(file, "\r\n" + record + "\r\n\r\n\r\n" + record);
+		final String expected = String.join("\n", new MathsPuzzle(MathsPuzzleTest.EXAMPLE_2).toLines());
+		assertEquals(List.of(expected, expected), text(MathsPuzzleCorpus.read(file, 10)));
+
+		Files.writeString(file, "");
+		assertEquals(List.of(), text(MathsPuzzleCorpus.read(file)));
+	}
+
+	@Test
+	void testInvalidRecord() throws IOException {
+		final Path file = dir.resolve("corpus.txt");
+		final String[] lines = MathsPuzzleTest.EXAMPLE_2.clone();
+		lines[6] = "56,9";
+		Files.writeString(file, String.join("\n", lines) + "\n");
+		final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> text(MathsPuzzleCorpus.read(file)));
+		assertEquals(String.format(MathsPuzzleCorpus.INVALID_RECORD_EXCEPTION_MSG, 48), e.getMessage());
+	}
+}
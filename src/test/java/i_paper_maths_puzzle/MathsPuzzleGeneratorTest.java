@@ -0,0 +1,68 @@
+package i_paper_maths_puzzle;
+
+import i_paper_maths_puzzle.pojos.Cell;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import i_paper_maths_puzzle.pojos.NullCell;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static i_paper_maths_puzzle.pojos.Line.LINE_LENGTH;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathsPuzzleGeneratorTest {
+
+	private static final int COUNT = 200;
+
+	private final MathsPuzzleGenerator generator = new MathsPuzzleGenerator();
+	private final MathsPuzzleSolver solver = new MathsPuzzleSolver();
+
+	private static List<String> text(final List<MathsPuzzle> puzzles) {
+		return puzzles.stream().map(p -> String.join("\n", p.toLines())).collect(Collectors.toList());
+	}
+
+	@Test
+	void testPuzzlesUniqueAndMinimal() {
+		for (final MathsPuzzle puzzle : generator.generate(1, COUNT).collect(Collectors.toList())) {
+			assertEquals(1, solver.countSolutions(puzzle, 2));
+			// Taking away any given number makes the puzzle ambiguous.
+			final String[] lines = puzzle.toLines();
+			for (int y = 0; y < LINE_LENGTH; y += 2) {
+				for (int x = 0; x < LINE_LENGTH; x += 2) {
+					if (puzzle.getCell(x, y).getType() != Cell.CellType.NUMBER)
+						continue;
+					final String[] blanked = lines.clone();
+					final char[] line = blanked[y].toCharArray();
+					line[x] = Cell.toChar(NullCell.INSTANCE);
+					blanked[y] = new String(line);
+					assertEquals(2, solver.countSolutions(new MathsPuzzle(blanked), 2));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSameSeedSamePuzzles() {
+		final List<String> first = text(generator.generate(7, COUNT).collect(Collectors.toList()));
+		assertEquals(first, text(generator.generate(7, COUNT).sequential().collect(Collectors.toList())));
+		assertNotEquals(first, text(generator.generate(8, COUNT).collect(Collectors.toList())));
+	}
+
+	@Test
+	void testWrite() throws IOException {
+		final StringWriter out = new StringWriter();
+		generator.write(3, 10, out);
+		final List<MathsPuzzle> expected = generator.generate(3, 10).collect(Collectors.toList());
+		final String[] records = out.toString().split("\n\n");
+		assertEquals(expected.size(), records.length);
+		for (int i = 0; i < records.length; i++) {
+			final String[] lines = records[i].split("\n");
+			assertArrayEquals(expected.get(i).toLines(), lines);
+			assertEquals(1, solver.countSolutions(new MathsPuzzle(lines), 2), Arrays.toString(lines));
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package i_paper_maths_puzzle;
+
+import com.google.common.collect.ImmutableList;
+import i_paper_maths_puzzle.pojos.MathsPuzzle;
+import i_paper_maths_puzzle.pojos.Number;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static i_paper_maths_puzzle.pojos.Number.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathsPuzzleSolverTest {
+
+	private static final ImmutableList<Number> EXAMPLE_1_SOLUTION =
+			ImmutableList.of(ONE, SIX, FIVE, SEVEN, THREE, FOUR, EIGHT, NINE, TWO);
+
+	private static final String[] BLANK_EXAMPLE_1 = new String[] {
+			" - + =0",
+			"* * *",
+			" - * =16",
+			"* - *",
+			" + - =15",
+			"= = =",
+			"56,9,40"
+	};
+
+	private final MathsPuzzleSolver solver = new MathsPuzzleSolver();
+
+	@Test
+	void testSolve() {
+		assertEquals(Optional.of(EXAMPLE_1_SOLUTION), solver.solve(new MathsPuzzle(MathsPuzzleTest.EXAMPLE_2)));
+	}
+
+	@Test
+	void testSolvedPuzzle() {
+		final MathsPuzzle puzzle = new MathsPuzzle(MathsPuzzleTest.EXAMPLE_1);
+		assertEquals(List.of(EXAMPLE_1_SOLUTION), solver.solveAll(puzzle, 2));
+	}
+
+	@Test
+	void testBlankPuzzle() {
+		final MathsPuzzle puzzle = new MathsPuzzle(BLANK_EXAMPLE_1);
+		final List<ImmutableList<Number>> solutions = solver.solveAll(puzzle, Integer.MAX_VALUE);
+		assertTrue(solutions.contains(EXAMPLE_1_SOLUTION));
+		for (final ImmutableList<Number> solution : solutions) {
+			assertEquals(Number.values().length, solution.stream().distinct().count());
+		}
+		assertEquals(Math.min(2, solutions.size()), solver.countSolutions(puzzle, 2));
+	}
+
+	@Test
+	void testNoSolution() {
+		final String[] wrongAnswer = MathsPuzzleTest.EXAMPLE_2.clone();
+		wrongAnswer[6] = "56,9,41";
+		assertEquals(Optional.empty(), solver.solve(new MathsPuzzle(wrongAnswer)));
+
+		final String[] repeatedGiven = MathsPuzzleTest.EXAMPLE_2.clone();
+		repeatedGiven[0] = "5- +5=0";
+		assertEquals(0, solver.countSolutions(new MathsPuzzle(repeatedGiven), 2));
+	}
+
+	@Test
+	void testInexactDivision() {
+		// Example 1 would still work if 1 / 6 could round down to 0.
+		final String[] division = MathsPuzzleTest.EXAMPLE_1.clone();
+		division[0] = "1/6*5=0";
+		assertEquals(Optional.empty(), solver.solve(new MathsPuzzle(division)));
+	}
+
+	@Test
+	void testMissingOperator() {
+		final String[] missing = MathsPuzzleTest.EXAMPLE_2.clone();
+		missing[1] = "*   *";
+		final MathsPuzzle puzzle = new MathsPuzzle(missing);
+		assertThrows(IllegalArgumentException.class, () -> solver.solve(puzzle));
+	}
+}
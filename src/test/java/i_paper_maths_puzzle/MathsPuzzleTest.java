@@ -4,6 +4,8 @@ import i_paper_maths_puzzle.pojos.*;
 import i_paper_maths_puzzle.pojos.Number;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -50,6 +52,23 @@ public class MathsPuzzleTest {
 		assertPuzzleEquals(EXAMPLE_1_CELLS, EXAMPLE_1_ROW_ANSWERS, EXAMPLE_1_COL_ANSWERS, puzzle);
 	}
 
+	@Test
+	public void testToLines() {
+		assertArrayEquals(EXAMPLE_1, new MathsPuzzle(EXAMPLE_1).toLines());
+		assertArrayEquals(EXAMPLE_2, new MathsPuzzle(EXAMPLE_2).toLines());
+	}
+
+	@Test
+	public void testFromCells() {
+		final Cell[][] rows = new Cell[Line.LINE_LENGTH][];
+		for (int y = 0; y < Line.LINE_LENGTH; y++) {
+			rows[y] = Arrays.copyOf(EXAMPLE_1_CELLS[y], Line.LINE_LENGTH);
+		}
+		final MathsPuzzle puzzle = new MathsPuzzle(rows, EXAMPLE_1_ROW_ANSWERS, EXAMPLE_1_COL_ANSWERS);
+		assertPuzzleEquals(EXAMPLE_1_CELLS, EXAMPLE_1_ROW_ANSWERS, EXAMPLE_1_COL_ANSWERS, puzzle);
+		assertArrayEquals(EXAMPLE_1, puzzle.toLines());
+	}
+
 	public static void assertPuzzleEquals(final Cell[][] grid, final int[] rowAnswers, final int[] colAnswers, final MathsPuzzle puzzle) {
 		assertGridEquals(grid, puzzle);
 
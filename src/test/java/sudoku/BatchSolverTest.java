@@ -0,0 +1,56 @@
+package sudoku;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+
+	private static String solve(final int threads, final List<String> puzzles) throws IOException {
+		final StringWriter solutions = new StringWriter();
+		try (final BatchSolver solver = new BatchSolver(threads)) {
+			final long count = solver.solve(new BufferedReader(new StringReader(String.join("\n", puzzles))), solutions);
+			assertEquals(puzzles.size(), count);
+		}
+		return solutions.toString();
+	}
+
+	@Test
+	void testSolutionsInInputOrder() throws IOException {
+		final List<String> hard = SudokuTest.hardPuzzles();
+		final Map<String, String> solved = new HashMap<>();
+		final Sudoku sudoku = new Sudoku();
+		final List<String> puzzles = new ArrayList<>();
+		final List<String> expected = new ArrayList<>();
+		// Enough lines for several chunks, ending in a partial chunk.
+		for (int i = 0; i < 700; i++) {
+			final String puzzle = i % 50 == 7 ? "" : i % 10 == 0 ? SudokuTest.EASY : hard.get(i % hard.size());
+			puzzles.add(puzzle);
+			expected.add(puzzle.isEmpty() ? "" : solved.computeIfAbsent(puzzle, p -> sudoku.solve(p).orElseThrow()));
+		}
+		final String solutions = solve(3, puzzles);
+		assertEquals(expected, solutions.lines().toList());
+	}
+
+	@Test
+	void testNoSolutionWrittenAsEmptyLine() throws IOException {
+		final List<String> puzzles = List.of(SudokuTest.EASY, "11" + ".".repeat(Sudoku.CELL_COUNT - 2), SudokuTest.EASY);
+		assertEquals(SudokuTest.EASY_SOLUTION + "\n\n" + SudokuTest.EASY_SOLUTION + "\n", solve(2, puzzles));
+	}
+
+	@Test
+	void testInvalidLine() {
+		final List<String> puzzles = List.of(SudokuTest.EASY, SudokuTest.EASY, "not a puzzle");
+		final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> solve(1, puzzles));
+		assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+	}
+}
@@ -0,0 +1,109 @@
+package sudoku;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SudokuTest {
+
+	static final String EASY =
+			"..3.2.6..9..3.5..1..18.64....81.29..7.......8..67.82....26.95..8..2.3..9..5.1.3..";
+	static final String EASY_SOLUTION =
+			"483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+
+	/**
+	 * Well known hard puzzles, each with a unique solution.
+	 */
+	static List<String> hardPuzzles() throws IOException {
+		try (final InputStream in = SudokuTest.class.getResourceAsStream("hard.txt")) {
+			assertNotNull(in);
+			return new String(in.readAllBytes(), StandardCharsets.US_ASCII).lines().map(String::strip).toList();
+		}
+	}
+
+	/**
+	 * Asserts that the solution fills every row, column and box with the digits 1 to 9, and keeps the puzzle's givens.
+	 */
+	static void assertSolves(final String puzzle, final String solution) {
+		assertEquals(Sudoku.CELL_COUNT, solution.length());
+		for (int i = 0; i < Sudoku.CELL_COUNT; i++) {
+			final char given = puzzle.charAt(i);
+			if (given != '.' && given != '0')
+				assertEquals(given, solution.charAt(i));
+		}
+		for (int i = 0; i < Sudoku.SIZE; i++) {
+			final Set<Character> row = new HashSet<>();
+			final Set<Character> col = new HashSet<>();
+			final Set<Character> box = new HashSet<>();
+			final int boxRow = (i / Sudoku.BOX_SIZE) * Sudoku.BOX_SIZE;
+			final int boxCol = (i % Sudoku.BOX_SIZE) * Sudoku.BOX_SIZE;
+			for (int j = 0; j < Sudoku.SIZE; j++) {
+				row.add(solution.charAt(i * Sudoku.SIZE + j));
+				col.add(solution.charAt(j * Sudoku.SIZE + i));
+				box.add(solution.charAt((boxRow + j / Sudoku.BOX_SIZE) * Sudoku.SIZE + boxCol + j % Sudoku.BOX_SIZE));
+			}
+			assertEquals(Set.of('1', '2', '3', '4', '5', '6', '7', '8', '9'), row);
+			assertEquals(row, col);
+			assertEquals(row, box);
+		}
+	}
+
+	@Test
+	void testSolve() {
+		assertEquals(Optional.of(EASY_SOLUTION), new Sudoku().solve(EASY));
+	}
+
+	@Test
+	void testHardPuzzlesHaveUniqueSolutions() throws IOException {
+		final Sudoku sudoku = new Sudoku();
+		for (final String puzzle : hardPuzzles()) {
+			final List<String> solutions = sudoku.solveAll(puzzle, 2);
+			assertEquals(1, solutions.size(), puzzle);
+			assertSolves(puzzle, solutions.get(0));
+		}
+	}
+
+	@Test
+	void testNetworkReusedBetweenPuzzles() throws IOException {
+		final Sudoku sudoku = new Sudoku();
+		final String hard = hardPuzzles().get(0);
+		final String hardSolution = sudoku.solve(hard).orElseThrow();
+		assertEquals(Optional.of(EASY_SOLUTION), sudoku.solve(EASY));
+		assertEquals(Optional.of(hardSolution), sudoku.solve(hard));
+		assertEquals(0, sudoku.getNetwork().getTrail().getLevel());
+		assertTrue(sudoku.getNetwork().getCells().stream().noneMatch(c -> c.hasValue()));
+	}
+
+	@Test
+	void testEmptyGridHasManySolutions() {
+		final List<String> solutions = new Sudoku().solveAll(".".repeat(Sudoku.CELL_COUNT), 3);
+		assertEquals(3, solutions.size());
+		assertEquals(3, Set.copyOf(solutions).size());
+		solutions.forEach(s -> assertSolves("0".repeat(Sudoku.CELL_COUNT), s));
+	}
+
+	@Test
+	void testNoSolution() {
+		final Sudoku sudoku = new Sudoku();
+		// Two 1s in the first row.
+		assertEquals(Optional.empty(), sudoku.solve("11" + ".".repeat(Sudoku.CELL_COUNT - 2)));
+		// The first cell can't be anything: its row has 1 to 8, and its column has a 9.
+		assertEquals(Optional.empty(), sudoku.solve(".12345678" + "9" + ".".repeat(Sudoku.CELL_COUNT - 10)));
+		assertEquals(Optional.of(EASY_SOLUTION), sudoku.solve(EASY));
+	}
+
+	@Test
+	void testInvalidPuzzle() {
+		final Sudoku sudoku = new Sudoku();
+		assertThrows(IllegalArgumentException.class, () -> sudoku.solve(EASY.substring(1)));
+		assertThrows(IllegalArgumentException.class, () -> sudoku.solve("x" + EASY.substring(1)));
+	}
+}
@@ -0,0 +1,141 @@
+package utils.updatablepriorityqueue;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BucketQueueTest {
+
+	/**
+	 * Runs every test of the heap backed queue against a bucket backed one.
+	 */
+	@Nested
+	class Backend extends UpdatablePriorityQueueTest {
+		@Override
+		<E> UpdatablePriorityQueue<E> create() {
+			return new UpdatablePriorityQueue<>(new BucketQueue<>());
+		}
+	}
+
+	@Test
+	void testTiesAreFirstInFirstOut() {
+		final UpdatablePriorityQueue<Integer> queue = new UpdatablePriorityQueue<>(new BucketQueue<>());
+		for (int i = 0; i < 5; i++) {
+			queue.add(i);
+		}
+		queue.getPriority(3).incrementCount();
+		queue.getPriority(1).incrementCount();
+		assertEquals(List.of(3, 1, 0, 2, 4), drain(queue));
+	}
+
+	@Test
+	void testGrowsBothWays() {
+		final UpdatablePriorityQueue<Integer> queue = new UpdatablePriorityQueue<>(new BucketQueue<>());
+		final int[] counts = {0, -5, 40, -300, 1000, 7};
+		for (int i = 0; i < counts.length; i++) {
+			queue.add(i);
+		}
+		// Set in an order that makes the buckets grow downwards and upwards while holding priorities.
+		for (int i = 0; i < counts.length; i++) {
+			queue.getPriority(i).setCount(counts[i]);
+		}
+		assertEquals(List.of(4, 2, 5, 0, 1, 3), drain(queue));
+	}
+
+	@Test
+	void testExtremeCounts() {
+		final UpdatablePriorityQueue<Integer> queue = new UpdatablePriorityQueue<>(new BucketQueue<>());
+		// A priority on its own can go anywhere, as the buckets move with it.
+		queue.add(0);
+		queue.getPriority(0).setCount(Integer.MIN_VALUE);
+		queue.getPriority(0).setCount(Integer.MAX_VALUE);
+		assertEquals(List.of(0), drain(queue));
+
+		queue.add(2);
+		queue.add(3);
+		assertThrows(IllegalArgumentException.class, () -> queue.getPriority(2).setCount(BucketQueue.MAX_BUCKETS));
+		assertEquals(2, queue.size());
+		assertTrue(queue.contains(2));
+		assertEquals(Set.of(2, 3), Set.copyOf(drain(queue)));
+	}
+
+	/**
+	 * A priority linked into one bucket queue mustn't be taken for one of another's.
+	 */
+	@Test
+	void testPriorityOfAnotherQueue() {
+		final UpdatablePriorityQueue<Integer> owner = new UpdatablePriorityQueue<>();
+		final Priority<Integer> first = new Priority<>(owner, 1);
+		final Priority<Integer> second = new Priority<>(owner, 2);
+		final BucketQueue<Integer> holder = new BucketQueue<>();
+		final BucketQueue<Integer> other = new BucketQueue<>();
+		holder.add(first);
+		holder.add(second);
+		assertFalse(other.contains(second));
+		assertFalse(other.remove(second));
+		assertTrue(other.isEmpty());
+		assertEquals(List.of(first, second), holder.stream().collect(Collectors.toList()));
+		assertTrue(holder.remove(second));
+		assertFalse(holder.contains(second));
+	}
+
+	/**
+	 * Checks random operations against a model of the values queued and their counts.
+	 * Polls must return a priority with the highest count, though which one of those is up to the queue.
+	 */
+	@RepeatedTest(10)
+	void testAgainstModel(final RepetitionInfo repetitionInfo) {
+		final Random random = new Random(repetitionInfo.getCurrentRepetition());
+		final UpdatablePriorityQueue<Integer> queue = new UpdatablePriorityQueue<>(new BucketQueue<>());
+		final Map<Integer, Integer> model = new HashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			final int value = random.nextInt(100);
+			switch (random.nextInt(6)) {
+				case 0 -> {
+					assertEquals(!model.containsKey(value), queue.add(value));
+					model.putIfAbsent(value, queue.getPriority(value).getCount());
+				}
+				case 1 -> {
+					final Priority<Integer> polled = queue.poll();
+					if (model.isEmpty()) {
+						assertNull(polled);
+					} else {
+						assertEquals(Collections.max(model.values()), polled.getCount());
+						assertEquals(polled.getCount(), model.remove(polled.getValue()));
+					}
+				}
+				case 2 -> assertEquals(model.remove(value) != null, queue.remove(value));
+				default -> {
+					final Priority<Integer> priority = queue.getPriority(value);
+					if (priority == null)
+						continue;
+					switch (random.nextInt(4)) {
+						case 0 -> priority.incrementCount();
+						case 1 -> priority.decrementCount();
+						case 2 -> priority.resetCount();
+						default -> priority.setCount(random.nextInt(200) - 100);
+					}
+					model.put(value, priority.getCount());
+				}
+			}
+			assertEquals(model.size(), queue.size());
+		}
+		assertEquals(model, queue.getPriorities().values().stream()
+				.collect(Collectors.toMap(Priority::getValue, Priority::getCount)));
+	}
+
+	private static List<Integer> drain(final UpdatablePriorityQueue<Integer> queue) {
+		final List<Integer> values = new ArrayList<>();
+		Priority<Integer> priority;
+		while ((priority = queue.poll()) != null) {
+			values.add(priority.getValue());
+		}
+		return values;
+	}
+}
@@ -0,0 +1,174 @@
+package utils.updatablepriorityqueue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentUpdatablePriorityQueueTest {
+
+	private static final int THREADS = 4;
+
+	@Test
+	void testExactWithOneHeap() {
+		final ConcurrentUpdatablePriorityQueue<Integer> queue = new ConcurrentUpdatablePriorityQueue<>(1);
+		final List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(i);
+		}
+		Collections.shuffle(values, new Random(0));
+		for (final int value : values) {
+			assertTrue(queue.add(value));
+			queue.getPriority(value).setCount(value);
+		}
+		assertFalse(queue.add(0));
+		assertEquals(100, queue.size());
+		assertEquals(99, queue.peek().getValue());
+		for (int i = 99; i >= 0; i--) {
+			assertEquals(i, queue.poll().getValue());
+		}
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+		assertThrows(NoSuchElementException.class, queue::remove);
+	}
+
+	@Test
+	void testCollection() {
+		final ConcurrentUpdatablePriorityQueue<String> queue = new ConcurrentUpdatablePriorityQueue<>(4);
+		assertTrue(queue.addAll(List.of("a", "b", "c", "d")));
+		assertTrue(queue.contains("a"));
+		assertTrue(queue.containsAll(List.of("a", "b")));
+		assertEquals(Set.of("a", "b", "c", "d"), new HashSet<>(Arrays.asList(queue.toArray(new String[0]))));
+
+		final Priority<String> a = queue.getPriority("a");
+		assertTrue(queue.remove("a"));
+		assertFalse(queue.remove("a"));
+		assertFalse(queue.contains("a"));
+		assertNull(queue.getPriority("a"));
+		// A dead priority can still be counted, without affecting the queue.
+		a.incrementCount();
+		assertEquals(1, a.getCount());
+		assertTrue(queue.add("a"));
+		assertNotSame(a, queue.getPriority("a"));
+
+		assertTrue(queue.retainAll(List.of("a", "b")));
+		assertEquals(Set.of("a", "b"), new HashSet<>(Arrays.asList(queue.toArray(new String[0]))));
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertFalse(queue.contains("b"));
+		assertThrows(IllegalArgumentException.class, () -> new ConcurrentUpdatablePriorityQueue<>(0));
+	}
+
+	@Test
+	void testRelaxedDrain() {
+		final ConcurrentUpdatablePriorityQueue<Integer> queue = new ConcurrentUpdatablePriorityQueue<>(8);
+		for (int i = 0; i < 1000; i++) {
+			queue.add(i);
+			queue.getPriority(i).setCount(i);
+		}
+		final Set<Integer> polled = new HashSet<>();
+		Priority<Integer> priority;
+		while ((priority = queue.poll()) != null) {
+			assertTrue(polled.add(priority.getValue()));
+		}
+		assertEquals(1000, polled.size());
+	}
+
+	/**
+	 * Increments from many threads at once would be lost if counting and sifting weren't atomic.
+	 */
+	@Test
+	void testConcurrentIncrements() throws Exception {
+		final ConcurrentUpdatablePriorityQueue<Integer> queue = new ConcurrentUpdatablePriorityQueue<>(2 * THREADS);
+		for (int i = 0; i < 16; i++) {
+			queue.add(i);
+		}
+		run(() -> {
+			for (int i = 0; i < 20000; i++) {
+				queue.getPriority(i % 16).incrementCount();
+			}
+		});
+		int total = 0;
+		for (int i = 0; i < 16; i++) {
+			total += queue.getPriority(i).getCount();
+		}
+		assertEquals(THREADS * 20000, total);
+		// The heaps are still in order: with their counts fixed, every value drains exactly once.
+		final Set<Integer> polled = new HashSet<>();
+		Priority<Integer> priority;
+		while ((priority = queue.poll()) != null) {
+			assertTrue(polled.add(priority.getValue()));
+		}
+		assertEquals(16, polled.size());
+	}
+
+	/**
+	 * Producers update priorities and add values while workers poll them and add them back, as a cell updater would.
+	 * Every value is either in the queue or held by a worker, so once everyone stops it drains to every value once.
+	 */
+	@Test
+	void testProducersAndPollers() throws Exception {
+		final int values = 500;
+		final ConcurrentUpdatablePriorityQueue<Integer> queue = new ConcurrentUpdatablePriorityQueue<>(2 * THREADS);
+		for (int i = 0; i < values; i++) {
+			queue.add(i);
+		}
+		final AtomicBoolean stop = new AtomicBoolean();
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				final boolean poller = t % 2 == 0;
+				futures.add(executor.submit(() -> {
+					final Random random = ThreadLocalRandom.current();
+					while (!stop.get()) {
+						if (poller) {
+							final Priority<Integer> priority = queue.poll();
+							if (priority != null) {
+								priority.resetCount();
+								queue.add(priority.getValue());
+							}
+						} else {
+							final Priority<Integer> priority = queue.getPriority(random.nextInt(values));
+							if (priority != null)
+								priority.setCount(random.nextInt(100));
+						}
+					}
+				}));
+			}
+			Thread.sleep(500);
+			stop.set(true);
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(values, queue.size());
+		final Set<Integer> polled = new HashSet<>();
+		Priority<Integer> priority;
+		while ((priority = queue.poll()) != null) {
+			assertTrue(polled.add(priority.getValue()));
+		}
+		assertEquals(values, polled.size());
+		assertTrue(queue.isEmpty());
+	}
+
+	private static void run(final Runnable task) throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(task));
+			}
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package utils.updatablepriorityqueue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntUpdatablePriorityQueueTest {
+
+	IntUpdatablePriorityQueue queue;
+
+	@BeforeEach
+	void setUp() {
+		queue = new IntUpdatablePriorityQueue(8);
+	}
+
+	@Test
+	void testInit() {
+		assertEquals(8, queue.capacity());
+		assertEquals(0, queue.size());
+		assertTrue(queue.isEmpty());
+		assertEquals(IntUpdatablePriorityQueue.NONE, queue.peek());
+		assertEquals(IntUpdatablePriorityQueue.NONE, queue.poll());
+		assertThrows(NoSuchElementException.class, queue::element);
+		assertThrows(NoSuchElementException.class, queue::remove);
+		assertEquals(12 * 8, queue.getFootprint());
+		assertThrows(IllegalArgumentException.class, () -> new IntUpdatablePriorityQueue(-1));
+	}
+
+	@Test
+	void testAddAndRemove() {
+		assertTrue(queue.add(3));
+		assertFalse(queue.add(3));
+		assertTrue(queue.contains(3));
+		assertFalse(queue.contains(4));
+		assertEquals(1, queue.size());
+		assertEquals(Priority.DEFAULT_COUNT, queue.getCount(3));
+
+		assertTrue(queue.remove(3));
+		assertFalse(queue.remove(3));
+		assertFalse(queue.contains(3));
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	void testIdsOutOfRange() {
+		assertThrows(IllegalArgumentException.class, () -> queue.add(8));
+		assertThrows(IllegalArgumentException.class, () -> queue.add(-1));
+		assertThrows(IllegalArgumentException.class, () -> queue.contains(8));
+		assertThrows(IllegalArgumentException.class, () -> queue.incrementCount(-1));
+	}
+
+	@Test
+	void testOrdering() {
+		for (int id = 0; id < 8; id++) {
+			queue.add(id);
+		}
+		queue.setCount(5, 10);
+		queue.incrementCount(2);
+		queue.decrementCount(0);
+		queue.setCount(7, 4);
+		assertEquals(5, queue.peek());
+		assertEquals(5, queue.poll());
+		assertEquals(7, queue.poll());
+		assertEquals(2, queue.remove());
+		queue.resetCount(0);
+		queue.setCount(1, -3);
+		assertEquals(5, queue.size());
+		final List<Integer> rest = new ArrayList<>();
+		int id;
+		while ((id = queue.poll()) != IntUpdatablePriorityQueue.NONE) {
+			rest.add(id);
+		}
+		assertEquals(Set.of(0, 3, 4, 6), Set.copyOf(rest.subList(0, 4)));
+		assertEquals(1, rest.get(4));
+	}
+
+	@Test
+	void testAddResetsCount() {
+		queue.add(1);
+		queue.setCount(1, 5);
+		assertEquals(1, queue.poll());
+		queue.setCount(1, 7);
+		assertEquals(7, queue.getCount(1));
+		assertTrue(queue.isEmpty());
+		queue.add(1);
+		assertEquals(Priority.DEFAULT_COUNT, queue.getCount(1));
+	}
+
+	@Test
+	void testClear() {
+		queue.add(1);
+		queue.add(2);
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertFalse(queue.contains(1));
+		assertTrue(queue.add(2));
+	}
+
+	@RepeatedTest(5)
+	void testAgainstModel(final RepetitionInfo repetitionInfo) {
+		final Random random = new Random(repetitionInfo.getCurrentRepetition());
+		final IntUpdatablePriorityQueue queue = new IntUpdatablePriorityQueue(100);
+		final Map<Integer, Integer> model = new HashMap<>();
+		for (int i = 0; i < 20000; i++) {
+			final int id = random.nextInt(100);
+			switch (random.nextInt(6)) {
+				case 0 -> {
+					assertEquals(!model.containsKey(id), queue.add(id));
+					model.putIfAbsent(id, queue.getCount(id));
+				}
+				case 1 -> {
+					final int polled = queue.poll();
+					if (model.isEmpty()) {
+						assertEquals(IntUpdatablePriorityQueue.NONE, polled);
+					} else {
+						assertEquals(Collections.max(model.values()), queue.getCount(polled));
+						assertEquals(queue.getCount(polled), model.remove(polled));
+					}
+				}
+				case 2 -> assertEquals(model.remove(id) != null, queue.remove(id));
+				default -> {
+					switch (random.nextInt(4)) {
+						case 0 -> queue.incrementCount(id);
+						case 1 -> queue.decrementCount(id);
+						case 2 -> queue.resetCount(id);
+						default -> queue.setCount(id, random.nextInt(200) - 100);
+					}
+					if (model.containsKey(id))
+						model.put(id, queue.getCount(id));
+				}
+			}
+			assertEquals(model.size(), queue.size());
+		}
+		for (int id = 0; id < 100; id++) {
+			assertEquals(model.containsKey(id), queue.contains(id));
+		}
+	}
+}
@@ -3,11 +3,13 @@ package utils.updatablepriorityqueue;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -45,9 +47,16 @@ class UpdatablePriorityQueueTest {
 
     UpdatablePriorityQueue<Boolean> queue;
 
+    /**
+     * @return The queue under test, overridden to test other backends.
+     */
+    <E> UpdatablePriorityQueue<E> create() {
+        return new UpdatablePriorityQueue<>();
+    }
+
     @BeforeEach
     void setUp() {
-        queue = new UpdatablePriorityQueue<>();
+        queue = create();
     }
 
     @Test
@@ -164,4 +173,47 @@ class UpdatablePriorityQueueTest {
         assertEquals(priorityTrue, queue.poll());
         assertEquals(priorityFalse, queue.poll());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAddDuplicate() {
+        assertTrue(queue.add(true));
+        assertFalse(queue.add(true));
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void testPolledPriorityIsNotRequeued() {
+        queue.add(true);
+        final Priority<Boolean> priority = queue.poll();
+
+        priority.incrementCount();
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.contains(priority));
+    }
+
+    @RepeatedTest(10)
+    void testOrderingUnderUpdates(final RepetitionInfo repetitionInfo) {
+        final UpdatablePriorityQueue<Integer> queue = create();
+        final Random random = new Random(repetitionInfo.getCurrentRepetition());
+        final int size = 200;
+        for (int i = 0; i < size; i++) {
+            queue.add(i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            queue.getPriority(random.nextInt(size)).setCount(random.nextInt(50) - 25);
+        }
+        for (int i = 0; i < size; i += 7) {
+            assertTrue(queue.remove(i));
+        }
+
+        int previous = Integer.MAX_VALUE;
+        int polled = 0;
+        while (!queue.isEmpty()) {
+            final Priority<Integer> priority = queue.poll();
+            assertTrue(priority.getCount() <= previous);
+            previous = priority.getCount();
+            polled++;
+        }
+        assertEquals(size - (size + 6) / 7, polled);
+    }
+}